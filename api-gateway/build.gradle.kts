@@ -26,6 +26,7 @@ repositories {
 val springCloudVersion = "2025.0.0"
 
 dependencies {
+    implementation("com.example:medbridge-common")
     implementation("org.springframework.cloud:spring-cloud-starter-gateway-server-webflux")
     implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
@@ -1 +1,4 @@
 rootProject.name = "api-gateway"
+
+// Code shared with the other services
+includeBuild("../medbridge-common")
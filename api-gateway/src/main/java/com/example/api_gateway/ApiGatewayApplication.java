@@ -4,7 +4,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+		"com.example.api_gateway",
+		"com.example.medbridge_common.profiling",
+		"com.example.medbridge_common.tracing"
+})
 @EnableDiscoveryClient
 public class ApiGatewayApplication {
 
@@ -18,6 +18,9 @@ public class SecurityConfig {
                 .authorizeExchange(authz -> authz
                         .pathMatchers("/api/terminology/**").permitAll()
                         .pathMatchers("/api/fhir/**").permitAll()
+                        // Actuator is served on the loopback management port; should it be exposed, recordings
+                        // (stacks, heap statistics, CPU to start them) still need a token
+                        .pathMatchers("/actuator/jfr", "/actuator/jfr/**").authenticated()
                         .pathMatchers("/actuator/**").permitAll()
                         .pathMatchers("/gateway/**").permitAll()
                         .anyExchange().authenticated()
@@ -0,0 +1,103 @@
+package com.example.api_gateway.filter;
+
+import com.example.medbridge_common.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Starts the request deadline. The budget is the route's response-timeout metadata, or the client's
+ * own X-Request-Deadline if that is shorter, less the time already spent in the gateway. The rest is
+ * forwarded in X-Request-Deadline as milliseconds remaining; a relative value is immune to clock skew
+ * between hosts, and each service shrinks it before calling the next. Routes without a positive
+ * response-timeout (the WebSocket channel, or one switched off with -1) are passed through.
+ * <p>
+ * Runs just before the routing filter so the gateway's own filters are already paid for.
+ */
+@Component
+@ConditionalOnProperty(name = "medbridge.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    public static final String EXCEEDED_COUNTER = "gateway.deadline.exceeded";
+
+    private final Counter exceededBeforeForwarding;
+    private final Counter exceededUpstream;
+
+    public DeadlineFilter(MeterRegistry meterRegistry) {
+        this.exceededBeforeForwarding = exceededCounter(meterRegistry, "gateway");
+        this.exceededUpstream = exceededCounter(meterRegistry, "upstream");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Duration budget = budget(exchange);
+        if (budget == null) {
+            return chain.filter(exchange);
+        }
+        Long start = exchange.getAttribute(GatewayTimingFilter.START_NANOS_ATTR);
+        Duration remaining = start != null ? budget.minusNanos(System.nanoTime() - start) : budget;
+        if (remaining.toMillis() <= 0) {
+            exceededBeforeForwarding.increment();
+            return gatewayTimeout(exchange);
+        }
+        ServerWebExchange forwarded = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(Deadline.HEADER, String.valueOf(remaining.toMillis()))))
+                .build();
+        return chain.filter(forwarded)
+                .timeout(remaining, Mono.defer(() -> {
+                    exceededUpstream.increment();
+                    return gatewayTimeout(exchange);
+                }));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 2;
+    }
+
+    private static Duration budget(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return null;
+        }
+        Object routeTimeout = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (routeTimeout == null) {
+            return null;
+        }
+        Duration budget = Duration.ofMillis(Long.parseLong(routeTimeout.toString()));
+        if (budget.toMillis() <= 0) {
+            // response-timeout: -1 switches the route's timeout off
+            return null;
+        }
+        Duration requested = Deadline.parseHeader(exchange.getRequest().getHeaders().getFirst(Deadline.HEADER));
+        return requested != null && requested.compareTo(budget) < 0 ? requested : budget;
+    }
+
+    private static Mono<Void> gatewayTimeout(ServerWebExchange exchange) {
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.empty();
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static Counter exceededCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder(EXCEEDED_COUNTER)
+                .description("Requests whose deadline ran out, by where")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.api_gateway.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Outermost global filter: times the whole filter chain per route and records
+ * the response size from Content-Length. Pairs with {@link UpstreamTimingFilter},
+ * which marks the point where the request leaves the gateway.
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String REQUEST_TIMER = "gateway.requests";
+    public static final String STAGE_TIMER = "gateway.stage";
+    public static final String RESPONSE_SIZE_SUMMARY = "gateway.response.size";
+    static final String START_NANOS_ATTR = GatewayTimingFilter.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(START_NANOS_ATTR, System.nanoTime());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    String routeId = routeId(exchange);
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    sample.stop(Timer.builder(REQUEST_TIMER)
+                            .description("End-to-end time spent in the gateway filter chain")
+                            .tag("route", routeId)
+                            .tag("status", status != null ? String.valueOf(status.value()) : "unknown")
+                            .register(meterRegistry));
+
+                    // Chunked responses declare no size; they are still counted, under length=unknown
+                    long contentLength = exchange.getResponse().getHeaders().getContentLength();
+                    DistributionSummary.builder(RESPONSE_SIZE_SUMMARY)
+                            .description("Response size returned to the client")
+                            .baseUnit("bytes")
+                            .tag("route", routeId)
+                            .tag("length", contentLength >= 0 ? "declared" : "unknown")
+                            .register(meterRegistry)
+                            .record(Math.max(contentLength, 0));
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+}
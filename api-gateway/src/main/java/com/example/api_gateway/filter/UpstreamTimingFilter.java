@@ -0,0 +1,52 @@
+package com.example.api_gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs just before the routing filter. Records how long the gateway's global and route filters
+ * (rate limiting, path rewriting, ...) took and then times the upstream call. Spring Security is a
+ * WebFilter and has finished before {@link GatewayTimingFilter} starts the clock, so authentication
+ * is not part of the "filters" stage.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String routeId = GatewayTimingFilter.routeId(exchange);
+        Long start = exchange.getAttribute(GatewayTimingFilter.START_NANOS_ATTR);
+        if (start != null) {
+            timer(routeId, "filters").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return chain.filter(exchange)
+                .doFinally(signal -> sample.stop(timer(routeId, "upstream")));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+
+    private Timer timer(String routeId, String stage) {
+        return Timer.builder(GatewayTimingFilter.STAGE_TIMER)
+                .description("Time spent in each gateway stage")
+                .tag("route", routeId)
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.api_gateway.filter;
+
+import com.example.medbridge_common.deadline.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineFilterTest {
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(meterRegistry);
+    }
+
+    @Test
+    public void testFilter_forwardsTheRouteBudget() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/terminology/search"), 5000);
+
+        filter.filter(exchange, chain).block();
+
+        long sent = Long.parseLong(forwarded.get().getRequest().getHeaders().getFirst(Deadline.HEADER));
+        assertTrue(sent > 0 && sent <= 5000);
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testFilter_keepsAShorterClientDeadline() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/terminology/search")
+                .header(Deadline.HEADER, "800"), 5000);
+
+        filter.filter(exchange, chain).block();
+
+        long sent = Long.parseLong(forwarded.get().getRequest().getHeaders().getFirst(Deadline.HEADER));
+        assertTrue(sent > 0 && sent <= 800);
+    }
+
+    @Test
+    public void testFilter_disabledRouteTimeoutIsNoDeadline() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/fhir/bundle"), -1);
+
+        filter.filter(exchange, chain).block();
+
+        assertSame(exchange, forwarded.get());
+        assertNull(forwarded.get().getRequest().getHeaders().getFirst(Deadline.HEADER));
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void testFilter_passesWebSocketsThrough() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/ws/autocomplete")
+                .header("Upgrade", "websocket"), 5000);
+
+        filter.filter(exchange, chain).block();
+
+        assertSame(exchange, forwarded.get());
+    }
+
+    @Test
+    public void testFilter_refusesWhenTheGatewaySpentTheBudget() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/terminology/search"), 1000);
+        exchange.getAttributes().put(GatewayTimingFilter.START_NANOS_ATTR, System.nanoTime() - Duration.ofSeconds(2).toNanos());
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+        assertEquals(1, exceeded("gateway"));
+    }
+
+    @Test
+    public void testFilter_answers504WhenUpstreamOverruns() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/terminology/search"), 50);
+
+        filter.filter(exchange, forwardedExchange -> Mono.never()).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+        assertEquals(1, exceeded("upstream"));
+    }
+
+    private double exceeded(String stage) {
+        return meterRegistry.get(DeadlineFilter.EXCEEDED_COUNTER).tag("stage", stage).counter().count();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, int responseTimeout) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async()
+                .id("test")
+                .uri(URI.create("http://localhost:8081"))
+                .predicate(any -> true)
+                .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, responseTimeout)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
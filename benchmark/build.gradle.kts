@@ -0,0 +1,95 @@
+plugins {
+    java
+    id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+group = "com.example"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+val springBootVersion = "3.5.6"
+val springCloudVersion = "2025.0.0"
+
+dependencies {
+    // Service code under benchmark comes from the sibling builds (see settings.gradle.kts)
+    jmh("com.example:terminology-service")
+    jmh("com.example:fhir-service")
+    jmh("com.example:medbridge-common")
+    jmh("io.micrometer:micrometer-core")
+
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+    implementation("org.mongodb:mongodb-driver-sync")
+    implementation("org.testcontainers:testcontainers")
+    implementation("org.testcontainers:mongodb")
+    runtimeOnly("org.slf4j:slf4j-simple")
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:$springBootVersion")
+        mavenBom("org.springframework.cloud:spring-cloud-dependencies:$springCloudVersion")
+    }
+}
+
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    // Adds gc.alloc.rate.norm, bytes allocated per operation, next to each score
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf(".*"))
+}
+
+// End-to-end scenario: gateway -> fhir-service -> terminology-service against a seeded Mongo container.
+// ./gradlew loadTest -Pdocuments=100000 -Pconcurrency=32 -Pduration=PT60S
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the end-to-end load scenario and writes build/reports/load/load-report.json"
+    dependsOn(
+        gradle.includedBuild("terminology-service").task(":bootJar"),
+        gradle.includedBuild("fhir-service").task(":bootJar"),
+        gradle.includedBuild("api-gateway").task(":bootJar"),
+    )
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.example.benchmark.load.LoadScenario"
+    systemProperty("load.jar.terminology", file("../terminology-service/build/libs/terminology-service-0.0.1-SNAPSHOT.jar").absolutePath)
+    systemProperty("load.jar.fhir", file("../fhir-service/build/libs/fhir-service-0.0.1-SNAPSHOT.jar").absolutePath)
+    systemProperty("load.jar.gateway", file("../api-gateway/build/libs/api-gateway-0.0.1-SNAPSHOT.jar").absolutePath)
+    systemProperty("load.documents", providers.gradleProperty("documents").getOrElse("10000"))
+    systemProperty("load.concurrency", providers.gradleProperty("concurrency").getOrElse("16"))
+    systemProperty("load.duration", providers.gradleProperty("duration").getOrElse("PT30S"))
+    systemProperty("load.warmup", providers.gradleProperty("warmup").getOrElse("PT10S"))
+    systemProperty("load.startupWarmup", providers.gradleProperty("startupWarmup").getOrElse("true"))
+    systemProperty("load.report", layout.buildDirectory.file("reports/load/load-report.json").get().asFile.absolutePath)
+}
+
+// Cold-start time to first request: plain boot jar vs unpacked vs unpacked + CDS archive + Spring AOT.
+// ./gradlew startupBenchmark -PstartupOptimized -Pruns=10
+// -PstartupOptimized reaches the included service builds too, so their jars carry the AOT initializers.
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "verification"
+    description = "Compares service startup modes and writes build/reports/startup/startup-report.json"
+    dependsOn(
+        gradle.includedBuild("terminology-service").task(":bootJar"),
+        gradle.includedBuild("fhir-service").task(":bootJar"),
+    )
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.example.benchmark.startup.StartupBenchmark"
+    systemProperty("startup.jar.terminology", file("../terminology-service/build/libs/terminology-service-0.0.1-SNAPSHOT.jar").absolutePath)
+    systemProperty("startup.jar.fhir", file("../fhir-service/build/libs/fhir-service-0.0.1-SNAPSHOT.jar").absolutePath)
+    systemProperty("startup.runs", providers.gradleProperty("runs").getOrElse("5"))
+    systemProperty("startup.report", layout.buildDirectory.file("reports/startup/startup-report.json").get().asFile.absolutePath)
+}
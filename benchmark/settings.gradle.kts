@@ -0,0 +1,6 @@
+rootProject.name = "benchmark"
+
+includeBuild("../terminology-service")
+includeBuild("../fhir-service")
+includeBuild("../api-gateway")
+includeBuild("../medbridge-common")
@@ -0,0 +1,82 @@
+package com.example.fhir_service.service;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import com.example.fhir_service.dto.DiseaseMapping;
+import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.metrics.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hl7.fhir.r4.model.Parameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HAPI model build and JSON encoding for the symptom search response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FhirResponseBenchmark {
+
+    private static final String[] TYPES = {"ayurveda", "siddha", "unani"};
+
+    @Param({"10", "100", "500"})
+    private int mappings;
+
+    @Param({"true", "false"})
+    private boolean prettyPrint;
+
+    private TerminologyFhirService service;
+    private IParser parser;
+    private List<String> symptoms;
+    private List<DiseaseMapping> results;
+    private Parameters parameters;
+
+    @Setup
+    public void setup() {
+        FhirContext fhirContext = FhirContext.forR4();
+        parser = fhirContext.newJsonParser().setPrettyPrint(prettyPrint);
+        service = new TerminologyFhirService(null, fhirContext, parser, new StageMetrics(new SimpleMeterRegistry()));
+        symptoms = List.of("fever", "headache");
+        // 20 disease groups stays inside the controller's result limit
+        results = new ArrayList<>(20);
+        for (int g = 0; g < 20; g++) {
+            DiseaseMapping group = new DiseaseMapping();
+            group.setTm2Code("TM2.SK" + g);
+            group.setTm2Title("Fever disorder " + g);
+            group.setTm2Definition("A disorder characterised by raised body temperature, group " + g);
+            group.setMappings(new ArrayList<>());
+            results.add(group);
+        }
+        for (int i = 0; i < mappings; i++) {
+            NamasteCode code = new NamasteCode();
+            code.setCode("NAM" + i);
+            code.setCodeTitle("Jwara variant " + i);
+            code.setCodeDescription("Fever with headache and body ache, variant " + i);
+            code.setType(TYPES[i % TYPES.length]);
+            code.setConfidenceScore(0.5 + (i % 50) / 100.0);
+            results.get(i % 20).getMappings().add(code);
+        }
+        parameters = service.buildSearchBySymptomsParams(symptoms, results);
+    }
+
+    @Benchmark
+    public Parameters buildSearchBySymptomsParams() {
+        return service.buildSearchBySymptomsParams(symptoms, results);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return parser.encodeResourceToString(parameters);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.medbridge_common.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import zipkin2.reporter.brave.MutableSpanBytesEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-request tracing cost of 100% sampling versus baseline + tail sampling.
+ * The reporter stand-in encodes every span it receives as Zipkin JSON v2, which is
+ * the work the real reporter does before sending.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TailSamplingBenchmark {
+
+    @Param({"ALWAYS", "TAIL"})
+    private String strategy;
+
+    private Tracing tracing;
+    private Tracer tracer;
+    private final LongAdder encodedBytes = new LongAdder();
+
+    @Setup
+    public void setup() {
+        SpanHandler reporter = new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                if (Boolean.TRUE.equals(context.sampled())) {
+                    encodedBytes.add(MutableSpanBytesEncoder.JSON_V2.encode(span).length);
+                }
+                return true;
+            }
+        };
+
+        Tracing.Builder builder = Tracing.newBuilder().localServiceName("benchmark");
+        if ("ALWAYS".equals(strategy)) {
+            builder.sampler(Sampler.ALWAYS_SAMPLE).addSpanHandler(reporter);
+        } else {
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            beanFactory.registerSingleton("reporter", reporter);
+            TailSamplingSpanHandler tail = new TailSamplingSpanHandler(new TailSamplingProperties(),
+                    beanFactory.getBeanProvider(SpanHandler.class), new SimpleMeterRegistry());
+            builder.sampler(Sampler.NEVER_SAMPLE).alwaysSampleLocal().addSpanHandler(tail).addSpanHandler(reporter);
+        }
+        tracing = builder.build();
+        tracer = tracing.tracer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracing.close();
+    }
+
+    @Benchmark
+    public void serverRequestWithTwoChildSpans() {
+        Span root = tracer.newTrace()
+                .name("http get /api/fhir/search/code/{codeValue}")
+                .kind(Span.Kind.SERVER)
+                .tag("uri", "/api/fhir/search/code/{codeValue}")
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpanInScope(root)) {
+            tracer.nextSpan().name("http get").kind(Span.Kind.CLIENT).start().finish();
+            tracer.nextSpan().name("fhir.model.build").start().finish();
+        } finally {
+            root.finish();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.terminology_service.json;
+
+import com.example.terminology_service.dto.TerminologyResponse;
+import com.example.terminology_service.model.NamasteCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cached category response written by Jackson against the same documents written from their
+ * pre-encoded fragments, both into pooled Netty buffers as under Reactor Netty. Run with the gc
+ * profiler (on by default in this build) to compare gc.alloc.rate.norm, the bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseEncodingBenchmark {
+
+    private static final String[] TYPES = {"ayurveda", "siddha", "unani", "homeopathy", "yoga", "naturopathy"};
+
+    @Param({"1", "10", "100", "1000"})
+    private int documents;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final ResolvableType responseType =
+            ResolvableType.forClassWithGenerics(TerminologyResponse.class, ResolvableType.forClassWithGenerics(List.class, NamasteCode.class));
+
+    private Jackson2JsonEncoder jacksonEncoder;
+    private JsonFragmentEncoder fragmentEncoder;
+    private TerminologyResponse<List<NamasteCode>> plain;
+    private TerminologyResponse<List<NamasteCode>> preEncoded;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        jacksonEncoder = new Jackson2JsonEncoder(objectMapper);
+        fragmentEncoder = new JsonFragmentEncoder(new JsonFragments(objectMapper, new SimpleMeterRegistry()), objectMapper);
+        List<NamasteCode> codes = new ArrayList<>(documents);
+        for (int i = 0; i < documents; i++) {
+            codes.add(new NamasteCode(Integer.toHexString(0x5f000000 + i), "TM2.SK" + (i % 50),
+                    "http://id.who.int/icd/entity/" + (1000 + i % 50), "NAM" + i,
+                    "Fever disorder " + (i % 50) + " (TM2)", "A disorder characterised by raised body temperature, group " + (i % 50),
+                    "Jwara variant " + i, "Fever with headache and body ache, variant " + i,
+                    0.5 + (i % 50) / 100.0, TYPES[i % TYPES.length], null));
+        }
+        plain = TerminologyResponse.success(codes);
+        preEncoded = TerminologyResponse.success(FragmentList.codes(codes));
+        // Popular results: every document has been sent before
+        fragments();
+    }
+
+    @Benchmark
+    public int jackson() {
+        return release(jacksonEncoder.encodeValue(plain, bufferFactory, responseType, MediaType.APPLICATION_JSON, null));
+    }
+
+    @Benchmark
+    public int fragments() {
+        return release(fragmentEncoder.encodeValue(preEncoded, bufferFactory, responseType, MediaType.APPLICATION_JSON, null));
+    }
+
+    private static int release(DataBuffer buffer) {
+        int length = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return length;
+    }
+}
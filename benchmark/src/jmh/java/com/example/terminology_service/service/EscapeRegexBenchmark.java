@@ -0,0 +1,28 @@
+package com.example.terminology_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regex escaping applied to every symptom query before it reaches Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EscapeRegexBenchmark {
+
+    @Param({"fever", "fever, headache (severe) + nausea?", "jwara|shirashoola.*[vata]"})
+    private String query;
+
+    @Benchmark
+    public String escape() {
+        return NamasteTerminologyService.escapeRegexSpecialChars(query);
+    }
+}
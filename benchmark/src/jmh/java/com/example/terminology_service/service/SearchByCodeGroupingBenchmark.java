@@ -0,0 +1,52 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.NamasteCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-mapping-per-type reduction that searchByCode runs when the best_mappings view has no entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchByCodeGroupingBenchmark {
+
+    private static final String[] TYPES = {"ayurveda", "siddha", "unani", "homeopathy", "yoga", "naturopathy"};
+
+    @Param({"10", "100", "1000"})
+    private int candidates;
+
+    private List<NamasteCode> input;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        input = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            NamasteCode code = new NamasteCode();
+            code.setCode("NAM" + i);
+            code.setTm2Code("TM2.A" + (i % 7));
+            code.setType(TYPES[random.nextInt(TYPES.length)]);
+            code.setConfidenceScore(random.nextDouble());
+            input.add(code);
+        }
+    }
+
+    @Benchmark
+    public Collection<NamasteCode> bestPerType() {
+        return BestMappingView.bestPerType(input, 0.6);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.benchmark.load;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Random sample of existing keys from the seeded collection, used to build request URLs.
+ */
+record DatasetKeys(List<String> codes, List<String> tm2Codes, List<String> titleWords) {
+
+    static DatasetKeys sample(String mongoUri, int size) {
+        List<String> codes = new ArrayList<>();
+        List<String> tm2Codes = new ArrayList<>();
+        List<String> titleWords = new ArrayList<>();
+        try (MongoClient client = MongoClients.create(mongoUri)) {
+            client.getDatabase("terminology").getCollection("tm2_mappings")
+                    .aggregate(List.of(
+                            Aggregates.sample(size),
+                            Aggregates.project(Projections.include("code", "tm2_code", "code_title"))))
+                    .forEach((Document document) -> {
+                        codes.add(document.getString("code"));
+                        tm2Codes.add(document.getString("tm2_code"));
+                        String title = document.getString("code_title");
+                        if (title != null) {
+                            titleWords.add(title.substring(title.lastIndexOf(' ') + 1));
+                        }
+                    });
+        }
+        if (codes.isEmpty()) {
+            throw new IllegalStateException("tm2_mappings is empty after seeding");
+        }
+        return new DatasetKeys(codes, tm2Codes, titleWords);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * End-to-end load scenario: api-gateway -> fhir-service -> terminology-service -> Mongo.
+ * <p>
+ * Starts Mongo and Redis containers, seeds tm2_mappings with terminology-service's datagen profile, launches
+ * the three boot jars, then drives a fixed request mix through the gateway with a closed
+ * loop of virtual-thread workers. Throughput and latency percentiles per request type are
+ * written as JSON to the path in load.report.
+ */
+public final class LoadScenario {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadScenario() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int documents = Integer.getInteger("load.documents", 10_000);
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        // Server-side startup warmup; compare runs with it off and load.warmup=PT0S to see what it buys
+        boolean startupWarmup = Boolean.parseBoolean(System.getProperty("load.startupWarmup", "true"));
+        File report = new File(System.getProperty("load.report", "build/reports/load/load-report.json"));
+        File logDir = report.getParentFile();
+        logDir.mkdirs();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        try (MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+             GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine")).withExposedPorts(6379)) {
+            mongo.start();
+            redis.start();
+            String mongoUri = mongo.getReplicaSetUrl("terminology");
+            System.out.printf("Seeding %d documents into %s%n", documents, mongoUri);
+            ServiceProcess.runToCompletion("datagen", System.getProperty("load.jar.terminology"), logDir, List.of(
+                    "--spring.profiles.active=datagen",
+                    "--spring.data.mongodb.uri=" + mongoUri,
+                    "--datagen.documents=" + documents), Duration.ofHours(2));
+            ServiceProcess.runToCompletion("migrate-concepts", System.getProperty("load.jar.terminology"), logDir, List.of(
+                    "--spring.profiles.active=migrate-concepts",
+                    "--spring.data.mongodb.uri=" + mongoUri), Duration.ofHours(1));
+            DatasetKeys keys = DatasetKeys.sample(mongoUri, 2_000);
+
+            int terminologyPort = freePort();
+            int fhirPort = freePort();
+            int gatewayPort = freePort();
+            try (ServiceProcess terminology = ServiceProcess.start("terminology-service",
+                         System.getProperty("load.jar.terminology"), terminologyPort, logDir,
+                         List.of("--spring.data.mongodb.uri=" + mongoUri,
+                                 "--spring.data.redis.host=" + redis.getHost(),
+                                 "--spring.data.redis.port=" + redis.getMappedPort(6379),
+                                 "--medbridge.warmup.enabled=" + startupWarmup));
+                 ServiceProcess fhir = ServiceProcess.start("fhir-service",
+                         System.getProperty("load.jar.fhir"), fhirPort, logDir,
+                         List.of("--terminology-service.base-url=http://localhost:" + terminologyPort,
+                                 "--medbridge.warmup.enabled=" + startupWarmup));
+                 ServiceProcess gateway = ServiceProcess.start("api-gateway",
+                         System.getProperty("load.jar.gateway"), gatewayPort, logDir,
+                         gatewayArgs(redis, fhirPort, terminologyPort))) {
+                terminology.awaitHealthy(client, Duration.ofMinutes(3));
+                fhir.awaitHealthy(client, Duration.ofMinutes(3));
+                gateway.awaitHealthy(client, Duration.ofMinutes(3));
+
+                String base = "http://localhost:" + gateway.port();
+                Map<String, Function<SplittableRandom, String>> mix = requestMix(base, keys);
+
+                System.out.printf("Warming up for %s%n", warmup);
+                run(client, mix, concurrency, warmup);
+                System.out.printf("Measuring for %s with %d workers%n", duration, concurrency);
+                Map<String, Object> results = run(client, mix, concurrency, duration);
+
+                Map<String, Object> output = new LinkedHashMap<>();
+                output.put("timestamp", Instant.now().toString());
+                output.put("documents", documents);
+                output.put("concurrency", concurrency);
+                output.put("startupWarmup", startupWarmup);
+                output.put("durationSeconds", duration.toSeconds());
+                output.put("scenarios", results);
+                MAPPER.writeValue(report, output);
+                System.out.printf("Report written to %s%n", report.getAbsolutePath());
+            }
+        }
+    }
+
+    private static List<String> gatewayArgs(GenericContainer<?> redis, int fhirPort, int terminologyPort) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.data.redis.host=" + redis.getHost());
+        args.add("--spring.data.redis.port=" + redis.getMappedPort(6379));
+        args.add("--FHIR_SERVICE_URL=http://localhost:" + fhirPort);
+        args.add("--TERMINOLOGY_SERVICE_URL=http://localhost:" + terminologyPort);
+        // Lift the per-client rate limits so the run measures the stack, not the limiter. Setting the
+        // placeholders keeps the routes themselves as configured; indexed routes[N] arguments would replace the list
+        for (String route : List.of("FHIR_CODESYSTEM", "FHIR", "TERMINOLOGY_CHANNEL", "TERMINOLOGY")) {
+            args.add("--RATE_LIMIT_" + route + "_REPLENISH=100000");
+            args.add("--RATE_LIMIT_" + route + "_BURST=100000");
+        }
+        return args;
+    }
+
+    private static Map<String, Function<SplittableRandom, String>> requestMix(String base, DatasetKeys keys) {
+        Map<String, Function<SplittableRandom, String>> mix = new LinkedHashMap<>();
+        mix.put("terminology.searchByCode", r -> base + "/api/terminology/search/code/" + encode(pick(r, keys.codes())));
+        mix.put("terminology.autocomplete", r -> base + "/api/terminology/autocomplete?limit=10&query="
+                + encode(prefix(pick(r, keys.titleWords()))));
+        mix.put("fhir.searchByCode", r -> base + "/api/fhir/search/code/" + encode(pick(r, keys.codes())));
+        mix.put("fhir.searchByTm2Code", r -> base + "/api/fhir/search/tm2code/" + encode(pick(r, keys.tm2Codes())));
+        mix.put("fhir.searchBySymptoms", r -> base + "/api/fhir/search/symptoms?query="
+                + encode(pick(r, keys.titleWords())));
+        return mix;
+    }
+
+    private static String pick(SplittableRandom random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String prefix(String word) {
+        return word.substring(0, Math.min(4, word.length()));
+    }
+
+    private static Map<String, Object> run(HttpClient client, Map<String, Function<SplittableRandom, String>> mix,
+                                           int concurrency, Duration duration) throws InterruptedException {
+        List<String> names = new ArrayList<>(mix.keySet());
+        Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+        Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+        names.forEach(name -> {
+            latencies.put(name, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+            statuses.put(name, new ConcurrentHashMap<>());
+        });
+
+        long endNanos = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int seed = w;
+                workers.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    while (System.nanoTime() < endNanos) {
+                        String name = names.get(random.nextInt(names.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(mix.get(name).apply(random)))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies.get(name).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                                TimeUnit.MINUTES.toMicros(1)));
+                        statuses.get(name).computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                });
+            }
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String name : names) {
+            Histogram histogram = latencies.get(name);
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("requests", histogram.getTotalCount());
+            scenario.put("throughputPerSecond", histogram.getTotalCount() / (double) duration.toSeconds());
+            scenario.put("latencyMicros", Map.of(
+                    "p50", histogram.getValueAtPercentile(50),
+                    "p90", histogram.getValueAtPercentile(90),
+                    "p99", histogram.getValueAtPercentile(99),
+                    "p999", histogram.getValueAtPercentile(99.9),
+                    "max", histogram.getMaxValue(),
+                    "mean", histogram.getMean()));
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            statuses.get(name).forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+            scenario.put("statusCodes", byStatus);
+            results.put(name, scenario);
+        }
+        return results;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
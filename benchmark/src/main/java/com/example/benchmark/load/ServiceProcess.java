@@ -0,0 +1,91 @@
+package com.example.benchmark.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A service boot jar running as a child process, logging to build/reports/load/&lt;name&gt;.log.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private final String name;
+    private final int port;
+    private final Process process;
+
+    private ServiceProcess(String name, int port, Process process) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+    }
+
+    static ServiceProcess start(String name, String jar, int port, File logDir, List<String> args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Xmx512m");
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        // Actuator on the API port, where awaitHealthy looks for it
+        command.add("--management.server.port=" + port);
+        command.add("--eureka.client.enabled=false");
+        command.add("--management.tracing.enabled=false");
+        command.addAll(args);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(logDir, name + ".log"))
+                .start();
+        return new ServiceProcess(name, port, process);
+    }
+
+    /** Runs a one-shot command (such as the datagen profile) and waits for it to exit successfully. */
+    static void runToCompletion(String name, String jar, File logDir, List<String> args, Duration timeout)
+            throws IOException, InterruptedException {
+        ServiceProcess task = start(name, jar, 0, logDir, args);
+        if (!task.process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            task.close();
+            throw new IllegalStateException(name + " did not finish within " + timeout);
+        }
+        if (task.process.exitValue() != 0) {
+            throw new IllegalStateException(name + " failed with exit code " + task.process.exitValue());
+        }
+    }
+
+    void awaitHealthy(HttpClient client, Duration timeout) throws InterruptedException {
+        Instant deadline = Instant.now().plus(timeout);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (Instant.now().isBefore(deadline)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not become healthy within " + timeout);
+    }
+
+    int port() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.benchmark.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Cold-start benchmark for the startup-optimized build (-PstartupOptimized).
+ * <p>
+ * Each service jar is unpacked and trained the way its Dockerfile does it, then started
+ * startup.runs times in each of three modes, interleaved so drift hits all modes alike:
+ * <ul>
+ *   <li>{@code jar}: {@code java -jar} on the boot jar, as the images used to run</li>
+ *   <li>{@code extracted}: the unpacked layout the default image runs</li>
+ *   <li>{@code cds-aot}: the unpacked layout with the CDS archive and Spring AOT initializers</li>
+ * </ul>
+ * A run is timed from process launch to the first successful response from a real endpoint, so
+ * it covers JVM boot, context refresh and the first request's own lazy initialization. No Mongo,
+ * Redis or Eureka is needed; nothing on these paths touches them. Results go to startup.report
+ * as JSON, with a log per run next to it.
+ */
+public final class StartupBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    // Background work that would compete with startup without being part of it
+    private static final List<String> COMMON_ARGS = List.of(
+            "--eureka.client.enabled=false",
+            "--management.tracing.enabled=false",
+            "--medbridge.warmup.enabled=false",
+            "--medbridge.hotkeys.enabled=false");
+
+    private record Service(String name, String jar, String probe, List<String> args) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration timeout = Duration.parse(System.getProperty("startup.timeout", "PT3M"));
+        File report = new File(System.getProperty("startup.report", "build/reports/startup/startup-report.json"));
+        File workDir = report.getParentFile();
+        workDir.mkdirs();
+
+        List<Service> services = List.of(
+                new Service("terminology-service", System.getProperty("startup.jar.terminology"),
+                        "/internal/terminology/health", List.of("--terminology.cache-invalidation.enabled=false")),
+                new Service("fhir-service", System.getProperty("startup.jar.fhir"),
+                        "/api/fhir/metadata", List.of()));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Service service : services) {
+            File dir = new File(workDir, service.name());
+            dir.mkdirs();
+            String java = ProcessHandle.current().info().command().orElse("java");
+            String extractedJar = extract(java, service, dir, timeout);
+            boolean aot = hasAotInitializers(service.jar());
+            if (!aot) {
+                System.out.printf("%s was built without -PstartupOptimized; cds-aot runs use CDS only%n", service.name());
+            }
+            File archive = new File(dir, "app.jsa");
+            List<String> training = new ArrayList<>(List.of(java, "-Xmx512m",
+                    "-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath(), "-Dspring.context.exit=onRefresh"));
+            if (aot) {
+                training.add("-Dspring.aot.enabled=true");
+            }
+            training.addAll(List.of("-jar", extractedJar, "--server.port=0"));
+            training.addAll(COMMON_ARGS);
+            training.addAll(service.args());
+            runToCompletion(training, new File(dir, "training.log"), timeout);
+
+            Map<String, List<String>> modes = new LinkedHashMap<>();
+            modes.put("jar", List.of(java, "-Xmx512m", "-jar", service.jar()));
+            modes.put("extracted", List.of(java, "-Xmx512m", "-jar", extractedJar));
+            List<String> optimized = new ArrayList<>(List.of(java, "-Xmx512m", "-XX:SharedArchiveFile=" + archive.getAbsolutePath()));
+            if (aot) {
+                optimized.add("-Dspring.aot.enabled=true");
+            }
+            optimized.addAll(List.of("-jar", extractedJar));
+            modes.put("cds-aot", optimized);
+
+            Map<String, List<Long>> timings = new LinkedHashMap<>();
+            for (int run = 0; run < runs; run++) {
+                for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                    File log = new File(dir, mode.getKey() + "-" + run + ".log");
+                    long millis = timeToFirstRequest(client, service, mode.getValue(), log, timeout);
+                    timings.computeIfAbsent(mode.getKey(), k -> new ArrayList<>()).add(millis);
+                    System.out.printf("%s %s run %d: %d ms%n", service.name(), mode.getKey(), run, millis);
+                }
+            }
+
+            Map<String, Object> serviceResult = new LinkedHashMap<>();
+            serviceResult.put("probe", service.probe());
+            serviceResult.put("aot", aot);
+            timings.forEach((mode, values) -> serviceResult.put(mode, summary(values)));
+            long baseline = median(timings.get("jar"));
+            serviceResult.put("speedup", Math.round(100.0 * baseline / median(timings.get("cds-aot"))) / 100.0);
+            results.put(service.name(), serviceResult);
+        }
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("runs", runs);
+        output.put("java", Runtime.version().toString());
+        output.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        output.put("services", results);
+        MAPPER.writeValue(report, output);
+        System.out.println(MAPPER.writeValueAsString(output));
+    }
+
+    private static String extract(String java, Service service, File dir, Duration timeout)
+            throws IOException, InterruptedException {
+        File destination = new File(dir, "application");
+        deleteRecursively(destination.toPath());
+        // Copy under a fixed name so the unpacked jar is application/app.jar, as in the images
+        File copy = new File(dir, "app.jar");
+        Files.copy(Path.of(service.jar()), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        runToCompletion(List.of(java, "-Djarmode=tools", "-jar", copy.getAbsolutePath(),
+                "extract", "--destination", destination.getAbsolutePath()), new File(dir, "extract.log"), timeout);
+        return new File(destination, "app.jar").getAbsolutePath();
+    }
+
+    private static boolean hasAotInitializers(String jar) throws IOException {
+        try (JarFile file = new JarFile(jar)) {
+            return file.stream().anyMatch(entry -> entry.getName().startsWith("BOOT-INF/classes/")
+                    && entry.getName().endsWith("__ApplicationContextInitializer.class"));
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient client, Service service, List<String> launch, File log,
+                                           Duration timeout) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(launch);
+        command.add("--server.port=" + port);
+        command.addAll(COMMON_ARGS);
+        command.addAll(service.args());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + service.probe()))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(service.name() + " exited with code " + process.exitValue() + "; see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(service.name() + " did not answer " + service.probe() + " within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static void runToCompletion(List<String> command, File log, Duration timeout)
+            throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException(String.join(" ", command) + " did not finish within " + timeout);
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Exit code " + process.exitValue() + " from " + String.join(" ", command) + "; see " + log);
+        }
+    }
+
+    private static Map<String, Object> summary(List<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("medianMs", median(values));
+        summary.put("minMs", sorted[0]);
+        summary.put("maxMs", sorted[sorted.length - 1]);
+        summary.put("runsMs", values);
+        return summary;
+    }
+
+    private static long median(List<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var paths = Files.walk(path)) {
+            for (Path p : paths.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
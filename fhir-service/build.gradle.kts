@@ -2,6 +2,15 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.6"
     id("io.spring.dependency-management") version "1.1.7"
+    id("org.graalvm.buildtools.native") version "0.10.6" apply false
+}
+
+// Startup-optimized build: ./gradlew bootJar -PstartupOptimized
+// Applying the native build tools makes the Boot plugin run processAot and package the generated
+// initializers into the jar; they are only used when the JVM runs with -Dspring.aot.enabled=true.
+// No native image is built. The Dockerfile pairs this with a CDS archive from a training run.
+if (providers.gradleProperty("startupOptimized").isPresent) {
+    apply(plugin = "org.graalvm.buildtools.native")
 }
 
 group = "com.example"
@@ -27,6 +36,7 @@ val springCloudVersion = "2025.0.0"
 val hapiFhirVersion = "6.10.5"
 
 dependencies {
+    implementation("com.example:medbridge-common")
     implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client")
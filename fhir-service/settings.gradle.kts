@@ -1 +1,4 @@
 rootProject.name = "fhir-service"
+
+// Code shared with the other services
+includeBuild("../medbridge-common")
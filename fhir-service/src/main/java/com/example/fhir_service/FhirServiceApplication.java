@@ -3,9 +3,17 @@ package com.example.fhir_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+		"com.example.fhir_service",
+		"com.example.medbridge_common.accesslog",
+		"com.example.medbridge_common.hotkeys",
+		"com.example.medbridge_common.profiling",
+		"com.example.medbridge_common.tracing"
+})
 @EnableDiscoveryClient
+@EnableScheduling
 public class FhirServiceApplication {
 
 	public static void main(String[] args) {
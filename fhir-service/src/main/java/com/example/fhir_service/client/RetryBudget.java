@@ -0,0 +1,57 @@
+package com.example.fhir_service.client;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that caps retries at a fraction of normal traffic. Each request deposits {@code ratio}
+ * of a token and each retry spends a whole one; {@code minPerSecond} tokens also trickle in over time
+ * so a quiet service can still retry. When the upstream is failing, retries stop once the bucket is
+ * empty instead of multiplying the load on it by the number of attempts.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long refilledAt;
+
+    public RetryBudget(double ratio, double minPerSecond, double capacity) {
+        this(ratio, minPerSecond, capacity, System::nanoTime);
+    }
+
+    RetryBudget(double ratio, double minPerSecond, double capacity, LongSupplier nanoClock) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    /** Spends a token if there is one; false means the retry should not be made. */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / 1e9 * minPerSecond);
+        refilledAt = now;
+    }
+}
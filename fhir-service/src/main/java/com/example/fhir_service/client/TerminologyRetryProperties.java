@@ -0,0 +1,27 @@
+package com.example.fhir_service.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "terminology-service.retry")
+public class TerminologyRetryProperties {
+
+    /** Cap on a single attempt; the request deadline usually leaves less. */
+    private Duration attemptTimeout = Duration.ofSeconds(5);
+
+    private int maxRetries = 2;
+
+    private Duration backoff = Duration.ofMillis(200);
+
+    /** Retries allowed per normal request, on average: 0.1 adds at most 10% to upstream load. */
+    private double budgetRatio = 0.1;
+
+    /** Retries allowed per second regardless of traffic. */
+    private double budgetMinPerSecond = 1;
+
+    /** Most retries the budget can save up for a burst. */
+    private double budgetCapacity = 10;
+}
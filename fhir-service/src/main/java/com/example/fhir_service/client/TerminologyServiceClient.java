@@ -1,83 +1,292 @@
 package com.example.fhir_service.client;
 
+import com.example.fhir_service.deadline.DeadlineProperties;
+import com.example.fhir_service.dto.DataVersion;
+import com.example.fhir_service.dto.DiseaseMapping;
 import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.dto.TypeGroup;
+import com.example.fhir_service.fallback.LastKnownGoodStore;
+import com.example.fhir_service.metrics.StageMetrics;
+import com.example.medbridge_common.deadline.Deadline;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.example.medbridge_common.tracing.TailSamplingSpanHandler;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.net.ConnectException;
+import java.net.URI;
 import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+/**
+ * Calls terminology-service within the request deadline. Each attempt gets what is left of the
+ * deadline less downstreamReserve (capped at attemptTimeout), and passes that on in X-Request-Deadline
+ * so terminology-service stops working when this service stops waiting. A failed attempt is retried
+ * only if the deadline leaves room for another and the {@link RetryBudget} has a token. When the
+ * circuit breaker rejects or fails a call, the last good answer for the same request is served from
+ * {@link LastKnownGoodStore}, marked stale.
+ */
 @Service
+@EnableConfigurationProperties(TerminologyRetryProperties.class)
 @Slf4j
 public class TerminologyServiceClient {
 
+    public static final String RETRY_COUNTER = "fhir.upstream.retries";
+    public static final String SEARCH_BY_CODE = "searchByCode";
+    public static final String SEARCH_BY_SYMPTOMS = "searchBySymptoms";
+    public static final String TRANSLATE = "translate";
+    public static final String TRANSLATE_REVERSE = "translateReverse";
+
+    // terminology-service queues requests marked bulk behind interactive ones
+    private static final String PRIORITY_HEADER = "X-Request-Priority";
+    // An attempt with less time than this is not worth starting
+    private static final Duration MIN_ATTEMPT = Duration.ofMillis(50);
+
     private final WebClient webClient;
     private final ReactiveCircuitBreaker circuitBreaker;
-
-    private static final Duration TIMEOUT = Duration.ofSeconds(5);
-    private static final Retry RETRY_SPEC = Retry
-            .backoff(2, Duration.ofMillis(200))
-            .jitter(0.5)
-            .filter(TerminologyServiceClient::isTransientError)
-            .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    private final StageMetrics stageMetrics;
+    private final Tracer tracer;
+    private final boolean semanticSymptomSearch;
+    private final TerminologyRetryProperties retryProperties;
+    private final Duration downstreamReserve;
+    private final RetryBudget retryBudget;
+    private final Counter retriesGranted;
+    private final Counter retriesDenied;
+    private final LastKnownGoodStore lastKnownGood;
 
     public TerminologyServiceClient(WebClient.Builder webClientBuilder,
                                     @Value("${terminology-service.base-url}") String baseUrl,
-                                    ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory) {
+                                    ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                                    StageMetrics stageMetrics,
+                                    Tracer tracer,
+                                    @Value("${terminology-service.semantic-symptom-search:false}") boolean semanticSymptomSearch,
+                                    TerminologyRetryProperties retryProperties,
+                                    DeadlineProperties deadlineProperties,
+                                    MeterRegistry meterRegistry,
+                                    LastKnownGoodStore lastKnownGood) {
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
         this.circuitBreaker = circuitBreakerFactory.create("terminology-service");
+        this.stageMetrics = stageMetrics;
+        this.tracer = tracer;
+        this.semanticSymptomSearch = semanticSymptomSearch;
+        this.retryProperties = retryProperties;
+        this.downstreamReserve = deadlineProperties.getDownstreamReserve();
+        this.retryBudget = new RetryBudget(retryProperties.getBudgetRatio(),
+                retryProperties.getBudgetMinPerSecond(), retryProperties.getBudgetCapacity());
+        meterRegistry.gauge(RETRY_COUNTER + ".budget", retryBudget, RetryBudget::available);
+        this.retriesGranted = retryCounter(meterRegistry, "granted");
+        this.retriesDenied = retryCounter(meterRegistry, "denied");
+        this.lastKnownGood = lastKnownGood;
     }
 
-    public Mono<List<NamasteCode>> searchByCode(String codeValue) {
-        log.info("Calling terminology service - search by code: {}", codeValue);
+    public Mono<UpstreamResult<List<NamasteCode>>> searchByCode(String codeValue) {
         return circuitBreaker.run(
-                webClient.get()
-                        .uri(uriBuilder -> uriBuilder
+                call(SEARCH_BY_CODE,
+                        uriBuilder -> uriBuilder
                                 .path("/internal/terminology/search/code/{codeValue}")
-                                .build(codeValue))
-                        .retrieve()
-                        .bodyToMono(new ParameterizedTypeReference<List<NamasteCode>>() {})
-                        .timeout(TIMEOUT)
-                        .retryWhen(RETRY_SPEC)
-                        .defaultIfEmpty(List.of()),
+                                .queryParam("includeText", true)
+                                .build(codeValue),
+                        new ParameterizedTypeReference<List<NamasteCode>>() {})
+                        .defaultIfEmpty(List.of())
+                        .doOnNext(result -> {
+                            stageMetrics.recordUpstreamResults(SEARCH_BY_CODE, result.size());
+                            lastKnownGood.put(SEARCH_BY_CODE, codeValue, result);
+                        })
+                        .map(UpstreamResult::fresh),
                 throwable -> {
                     log.warn("Circuit breaker fallback - searchByCode [{}]: {}", codeValue, throwable.getMessage());
-                    return Mono.just(List.of());
+                    return fallback(SEARCH_BY_CODE, codeValue, new TypeReference<List<NamasteCode>>() {});
                 }
         );
     }
 
-    public Mono<List<NamasteCode>> searchBySymptoms(List<String> symptoms) {
+    // Grouped by TM2 concept upstream; definitions and descriptions are rendered, so text is requested
+    public Mono<UpstreamResult<List<DiseaseMapping>>> searchBySymptoms(List<String> symptoms) {
         String query = String.join(",", symptoms);
-        log.info("Calling terminology service - search by symptoms: {}", query);
         return circuitBreaker.run(
-                webClient.get()
-                        .uri(uriBuilder -> uriBuilder
+                call(SEARCH_BY_SYMPTOMS,
+                        uriBuilder -> uriBuilder
                                 .path("/internal/terminology/search/symptoms")
                                 .queryParam("query", query)
-                                .build())
-                        .retrieve()
-                        .bodyToMono(new ParameterizedTypeReference<List<NamasteCode>>() {})
-                        .timeout(TIMEOUT)
-                        .retryWhen(RETRY_SPEC)
-                        .defaultIfEmpty(List.of()),
+                                .queryParam("semantic", semanticSymptomSearch)
+                                .queryParam("includeText", true)
+                                .build(),
+                        new ParameterizedTypeReference<List<DiseaseMapping>>() {})
+                        .defaultIfEmpty(List.of())
+                        .doOnNext(result -> {
+                            stageMetrics.recordUpstreamResults(SEARCH_BY_SYMPTOMS,
+                                    result.stream().mapToInt(DiseaseMapping::getMappingCount).sum());
+                            lastKnownGood.put(SEARCH_BY_SYMPTOMS, query, result);
+                        })
+                        .map(UpstreamResult::fresh),
                 throwable -> {
                     log.warn("Circuit breaker fallback - searchBySymptoms [{}]: {}", query, throwable.getMessage());
-                    return Mono.just(List.of());
+                    return fallback(SEARCH_BY_SYMPTOMS, query, new TypeReference<List<DiseaseMapping>>() {});
+                }
+        );
+    }
+
+    /**
+     * A NAMASTE code's TM2 targets or, with reverse, a TM2 code's NAMASTE sources, grouped by type.
+     * Each direction is one point read of terminology-service's adjacency view.
+     */
+    public Mono<UpstreamResult<List<TypeGroup>>> translate(String code, boolean reverse) {
+        String operation = reverse ? TRANSLATE_REVERSE : TRANSLATE;
+        return circuitBreaker.run(
+                call(operation,
+                        uriBuilder -> uriBuilder
+                                .path("/internal/terminology/translate/{code}")
+                                .queryParam("reverse", reverse)
+                                .build(code),
+                        new ParameterizedTypeReference<List<TypeGroup>>() {})
+                        .defaultIfEmpty(List.of())
+                        .doOnNext(result -> {
+                            stageMetrics.recordUpstreamResults(operation,
+                                    result.stream().mapToInt(group -> group.getMappings().size()).sum());
+                            lastKnownGood.put(operation, code, result);
+                        })
+                        .map(UpstreamResult::fresh),
+                throwable -> {
+                    log.warn("Circuit breaker fallback - translate [{}] reverse={}: {}", code, reverse, throwable.getMessage());
+                    return fallback(operation, code, new TypeReference<List<TypeGroup>>() {});
                 }
         );
     }
 
+    /**
+     * One cheap request, used by startup warmup to open pooled connections. It bypasses the circuit
+     * breaker and retries so that a terminology-service still starting up cannot trip the breaker.
+     */
+    public Mono<Void> ping() {
+        return webClient.get()
+                .uri("/internal/terminology/health")
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(retryProperties.getAttemptTimeout())
+                .then();
+    }
+
+    /** The terminology data version; like {@link #ping()}, outside the circuit breaker and retries. */
+    public Mono<Long> dataVersion() {
+        return webClient.get()
+                .uri("/internal/terminology/data-version")
+                .retrieve()
+                .bodyToMono(DataVersion.class)
+                .map(DataVersion::getVersion)
+                .timeout(retryProperties.getAttemptTimeout());
+    }
+
+    /**
+     * Every mapping's codes and titles, streamed as they arrive. A background bulk load, so it bypasses
+     * the circuit breaker and retries too, and runs in terminology-service's bulk lane; the caller bounds
+     * the whole load.
+     */
+    public Flux<NamasteCode> codeTable() {
+        return webClient.get()
+                .uri("/internal/terminology/code-table")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header(PRIORITY_HEADER, "bulk")
+                .retrieve()
+                .bodyToFlux(NamasteCode.class);
+    }
+
+    private <T> Mono<T> call(String operation, Function<UriBuilder, URI> uri, ParameterizedTypeReference<T> type) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            boolean warmup = HotKeyTracker.isWarmup(context);
+            retryBudget.deposit();
+            return stageMetrics.time(operation, "http", Mono.defer(() -> attempt(uri, type, deadline, warmup)))
+                    .retryWhen(retrySpec(deadline));
+        });
+    }
+
+    private <T> Mono<T> attempt(Function<UriBuilder, URI> uri, ParameterizedTypeReference<T> type, Deadline deadline,
+                                boolean warmup) {
+        Duration timeout = retryProperties.getAttemptTimeout();
+        if (deadline != null) {
+            Duration available = deadline.remaining().minus(downstreamReserve);
+            if (available.compareTo(MIN_ATTEMPT) < 0) {
+                return Mono.error(new TimeoutException("Request deadline leaves no time to call terminology-service"));
+            }
+            if (available.compareTo(timeout) < 0) {
+                timeout = available;
+            }
+        }
+        return webClient.get()
+                .uri(uri)
+                .header(Deadline.HEADER, String.valueOf(timeout.toMillis()))
+                .headers(headers -> {
+                    if (warmup) {
+                        headers.set(HotKeyTracker.WARMUP_HEADER, "true");
+                    }
+                })
+                .retrieve()
+                .bodyToMono(type)
+                .timeout(timeout);
+    }
+
+    private Retry retrySpec(Deadline deadline) {
+        Duration needed = retryProperties.getBackoff().plus(downstreamReserve).plus(MIN_ATTEMPT);
+        return Retry.backoff(retryProperties.getMaxRetries(), retryProperties.getBackoff())
+                .jitter(0.5)
+                .filter(throwable -> isTransientError(throwable)
+                        && (deadline == null || deadline.remaining().compareTo(needed) > 0)
+                        && withdrawRetry())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private boolean withdrawRetry() {
+        boolean granted = retryBudget.tryWithdraw();
+        (granted ? retriesGranted : retriesDenied).increment();
+        return granted;
+    }
+
+    // Stale when the store has an answer young enough; otherwise empty, as before the store existed
+    private <T> Mono<UpstreamResult<List<T>>> fallback(String operation, String key, TypeReference<List<T>> type) {
+        markFallback();
+        // Counted by the fhir.fallback meter; logged per request only at debug, as an outage serves many
+        return Mono.just(lastKnownGood.serveStale(operation, key, type)
+                .map(stale -> {
+                    log.debug("Serving {} [{}] as of {}", operation, key, stale.staleAsOf());
+                    return stale;
+                })
+                .orElseGet(() -> UpstreamResult.fresh(List.of())));
+    }
+
+    // Tagged spans are always kept by the tail sampler
+    private void markFallback() {
+        Span span = tracer.currentSpan();
+        if (span != null) {
+            span.tag(TailSamplingSpanHandler.FALLBACK_TAG, "true");
+        }
+    }
+
+    private static Counter retryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(RETRY_COUNTER)
+                .description("Retries of failed terminology-service calls, by whether the retry budget allowed them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     private static boolean isTransientError(Throwable throwable) {
         if (throwable instanceof WebClientResponseException e) {
             return e.getStatusCode().is5xxServerError();
@@ -0,0 +1,22 @@
+package com.example.fhir_service.client;
+
+import java.time.Instant;
+
+/**
+ * A terminology-service answer, or, while the service is unavailable, the last one seen for the same
+ * request; {@code staleAsOf} is when that stale answer was fetched, and null for a fresh answer.
+ */
+public record UpstreamResult<T>(T value, Instant staleAsOf) {
+
+    public static <T> UpstreamResult<T> fresh(T value) {
+        return new UpstreamResult<>(value, null);
+    }
+
+    public static <T> UpstreamResult<T> stale(T value, Instant fetchedAt) {
+        return new UpstreamResult<>(value, fetchedAt);
+    }
+
+    public boolean isStale() {
+        return staleAsOf != null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.fhir_service.codesystem;
+
+import com.example.fhir_service.client.TerminologyServiceClient;
+import com.example.fhir_service.dto.NamasteCode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The NAMASTE and TM2 code systems held in memory, so CodeSystem $lookup and $validate-code are
+ * answered without calling terminology-service. The tables are loaded in one streamed bulk request
+ * and replaced whole when the terminology data version moves; until the first load they are absent.
+ */
+@Component
+@EnableConfigurationProperties(CodeTableProperties.class)
+@Slf4j
+public class CodeSystemIndex {
+
+    public static final String NAMASTE_SYSTEM = "http://terminology.hl7.org.in/CodeSystem/namaste";
+    public static final String TM2_SYSTEM = "http://id.who.int/icd/release/11/tm2";
+    public static final String CODES_GAUGE = "fhir.codesystem.codes";
+
+    /** One loaded generation of both tables, published together. */
+    public record Snapshot(long version, CodeTable namaste, CodeTable tm2) {
+
+        /** The table of a code system URL; null for a system this server does not hold. */
+        public CodeTable table(String system) {
+            if (NAMASTE_SYSTEM.equals(system)) {
+                return namaste;
+            }
+            if (TM2_SYSTEM.equals(system)) {
+                return tm2;
+            }
+            return null;
+        }
+    }
+
+    private final TerminologyServiceClient terminologyServiceClient;
+    private final CodeTableProperties properties;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public CodeSystemIndex(TerminologyServiceClient terminologyServiceClient,
+                           CodeTableProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.terminologyServiceClient = terminologyServiceClient;
+        this.properties = properties;
+        codesGauge(meterRegistry, "namaste", NAMASTE_SYSTEM);
+        codesGauge(meterRegistry, "tm2", TM2_SYSTEM);
+    }
+
+    /** The current tables; null until the first load has finished. */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public static boolean isKnownSystem(String system) {
+        return NAMASTE_SYSTEM.equals(system) || TM2_SYSTEM.equals(system);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    // Also retries a startup load that found terminology-service unavailable
+    @Scheduled(fixedDelayString = "${terminology-service.code-table.poll-interval:PT30S}",
+            initialDelayString = "${terminology-service.code-table.poll-interval:PT30S}")
+    public void poll() {
+        refresh();
+    }
+
+    void refresh() {
+        if (!properties.isEnabled() || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        terminologyServiceClient.dataVersion()
+                .filter(version -> snapshot == null || snapshot.version() != version)
+                .flatMap(version -> load(version, terminologyServiceClient.codeTable()))
+                .timeout(properties.getLoadTimeout())
+                .doFinally(signal -> loading.set(false))
+                .subscribe(null, e -> log.warn("Code table load failed, keeping data version {}: {}",
+                        snapshot != null ? snapshot.version() : "none", e.getMessage()));
+    }
+
+    /**
+     * Builds both tables from the rows and publishes them as the given data version. Readers keep the
+     * previous tables until the new ones are complete, and a failed load leaves them in place.
+     */
+    public Mono<Snapshot> load(long version, Flux<NamasteCode> rows) {
+        return Mono.defer(() -> {
+            CodeTable namaste = new CodeTable();
+            CodeTable tm2 = new CodeTable();
+            return rows
+                    .doOnNext(row -> {
+                        namaste.put(row.getCode(), row.getCodeTitle());
+                        tm2.put(row.getTm2Code(), row.getTm2Title());
+                    })
+                    .then(Mono.fromCallable(() -> new Snapshot(version, namaste, tm2)));
+        }).doOnNext(loaded -> {
+            snapshot = loaded;
+            log.info("Code tables loaded for data version {}: {} NAMASTE, {} TM2 codes",
+                    version, loaded.namaste().size(), loaded.tm2().size());
+        });
+    }
+
+    private void codesGauge(MeterRegistry meterRegistry, String system, String url) {
+        Gauge.builder(CODES_GAUGE, this, index -> {
+                    Snapshot current = index.snapshot;
+                    return current != null ? current.table(url).size() : 0;
+                })
+                .description("Codes held in memory for CodeSystem $lookup and $validate-code")
+                .tag("system", system)
+                .register(meterRegistry);
+    }
+}
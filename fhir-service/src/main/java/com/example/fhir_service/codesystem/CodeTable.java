@@ -0,0 +1,74 @@
+package com.example.fhir_service.codesystem;
+
+/**
+ * Code to display map for one code system, held as two parallel open-addressing arrays rather than a
+ * HashMap: no entry object or boxed hash per code, so a table of a few hundred thousand codes costs
+ * little more than its strings. Filled by a single loader thread and read only after it is published.
+ */
+public final class CodeTable {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private String[] codes = new String[INITIAL_CAPACITY];
+    private String[] displays = new String[INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String code) {
+        return code != null && codes[slot(codes, code)] != null;
+    }
+
+    /** The display of the code; empty when the code has none, null when the table does not hold it. */
+    public String display(String code) {
+        if (code == null) {
+            return null;
+        }
+        int slot = slot(codes, code);
+        return codes[slot] != null ? displays[slot] : null;
+    }
+
+    /** Adds the code unless already present; the first display seen for a code is kept. */
+    void put(String code, String display) {
+        if (code == null || code.isEmpty()) {
+            return;
+        }
+        int slot = slot(codes, code);
+        if (codes[slot] != null) {
+            return;
+        }
+        codes[slot] = code;
+        displays[slot] = display != null ? display : "";
+        // Kept at most half full so probe sequences stay short
+        if (++size * 2 > codes.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        String[] oldCodes = codes;
+        String[] oldDisplays = displays;
+        codes = new String[oldCodes.length * 2];
+        displays = new String[oldCodes.length * 2];
+        for (int i = 0; i < oldCodes.length; i++) {
+            if (oldCodes[i] != null) {
+                int slot = slot(codes, oldCodes[i]);
+                codes[slot] = oldCodes[i];
+                displays[slot] = oldDisplays[i];
+            }
+        }
+    }
+
+    // Linear probing from the spread hash; the slot holding the code, or the empty slot it would go in
+    private static int slot(String[] table, String code) {
+        int mask = table.length - 1;
+        int h = code.hashCode();
+        int slot = (h ^ (h >>> 16)) & mask;
+        while (table[slot] != null && !table[slot].equals(code)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.fhir_service.codesystem;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * In-memory NAMASTE and TM2 code tables behind CodeSystem $lookup and $validate-code
+ * (terminology-service.code-table.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "terminology-service.code-table")
+public class CodeTableProperties {
+
+    private boolean enabled = true;
+
+    /** How often the terminology data version is checked; the tables are reloaded when it moves. */
+    private Duration pollInterval = Duration.ofSeconds(30);
+
+    /** Longest a full table load may take before it is abandoned and retried on the next poll. */
+    private Duration loadTimeout = Duration.ofMinutes(2);
+}
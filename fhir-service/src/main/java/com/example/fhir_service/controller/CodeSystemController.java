@@ -0,0 +1,217 @@
+package com.example.fhir_service.controller;
+
+import com.example.fhir_service.codesystem.CodeSystemIndex;
+import com.example.fhir_service.codesystem.CodeTable;
+import com.example.fhir_service.service.TerminologyFhirService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.PrimitiveType;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StringType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * CodeSystem $lookup and $validate-code for the NAMASTE and TM2 systems, answered from the in-memory
+ * {@link CodeSystemIndex} without calling terminology-service. The responses are a handful of
+ * parameters, so they are built and serialized inline rather than on the HAPI scheduler.
+ */
+@RestController
+@RequestMapping("/api/fhir/CodeSystem")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "FHIR CodeSystem", description = "Standard FHIR R4 CodeSystem operations for the NAMASTE and ICD-11 TM2 code systems")
+public class CodeSystemController {
+
+    public static final String REQUEST_COUNTER = "fhir.codesystem.requests";
+
+    private static final String FHIR_JSON_CONTENT_TYPE = "application/fhir+json;fhirVersion=4.0";
+
+    private final CodeSystemIndex codeSystemIndex;
+    private final TerminologyFhirService terminologyFhirService;
+    private final MeterRegistry meterRegistry;
+
+    @Operation(summary = "Look up a code", description = "Returns the display of a NAMASTE or TM2 code as FHIR Parameters; 404 when the code system does not hold it.")
+    @GetMapping(value = "/$lookup", produces = FHIR_JSON_CONTENT_TYPE)
+    public Mono<ResponseEntity<String>> lookup(
+            @Parameter(description = "Code system URL", example = CodeSystemIndex.NAMASTE_SYSTEM, required = true)
+            @RequestParam(required = false) String system,
+            @Parameter(description = "Code to look up", required = true)
+            @RequestParam(required = false) String code) {
+        return Mono.fromSupplier(() -> doLookup(system, code));
+    }
+
+    @Operation(summary = "Look up a code (POST)", description = "As GET, with system and code in a FHIR Parameters body.")
+    @PostMapping(value = "/$lookup", produces = FHIR_JSON_CONTENT_TYPE,
+            consumes = {"application/fhir+json", "application/json"})
+    public Mono<ResponseEntity<String>> lookupPost(@RequestBody String body) {
+        return Mono.fromSupplier(() -> {
+            Parameters input = parseInput(body);
+            if (input == null) {
+                return outcome("lookup", "invalid", HttpStatus.BAD_REQUEST, OperationOutcome.IssueType.INVALID,
+                        "Body must be a FHIR Parameters resource");
+            }
+            return doLookup(value(input, "system"), value(input, "code"));
+        });
+    }
+
+    @Operation(summary = "Validate a code", description = "Whether a code, and optionally its display, is valid in the NAMASTE or TM2 code system.")
+    @GetMapping(value = "/$validate-code", produces = FHIR_JSON_CONTENT_TYPE)
+    public Mono<ResponseEntity<String>> validateCode(
+            @Parameter(description = "Code system URL", example = CodeSystemIndex.TM2_SYSTEM, required = true)
+            @RequestParam(required = false) String url,
+            @Parameter(description = "Alias of url, as sent by clients that reuse their ValueSet calls")
+            @RequestParam(required = false) String system,
+            @Parameter(description = "Code to validate", required = true)
+            @RequestParam(required = false) String code,
+            @Parameter(description = "Display to check against the code's display")
+            @RequestParam(required = false) String display) {
+        return Mono.fromSupplier(() -> doValidateCode(url != null ? url : system, code, display));
+    }
+
+    @Operation(summary = "Validate a code (POST)", description = "As GET, with url, code and display in a FHIR Parameters body.")
+    @PostMapping(value = "/$validate-code", produces = FHIR_JSON_CONTENT_TYPE,
+            consumes = {"application/fhir+json", "application/json"})
+    public Mono<ResponseEntity<String>> validateCodePost(@RequestBody String body) {
+        return Mono.fromSupplier(() -> {
+            Parameters input = parseInput(body);
+            if (input == null) {
+                return outcome("validate-code", "invalid", HttpStatus.BAD_REQUEST, OperationOutcome.IssueType.INVALID,
+                        "Body must be a FHIR Parameters resource");
+            }
+            String url = value(input, "url");
+            return doValidateCode(url != null ? url : value(input, "system"), value(input, "code"), value(input, "display"));
+        });
+    }
+
+    ResponseEntity<String> doLookup(String system, String code) {
+        if (isBlank(system) || isBlank(code)) {
+            return outcome("lookup", "invalid", HttpStatus.BAD_REQUEST, OperationOutcome.IssueType.INVALID,
+                    "Both system and code are required");
+        }
+        if (!CodeSystemIndex.isKnownSystem(system)) {
+            return outcome("lookup", "not-found", HttpStatus.NOT_FOUND, OperationOutcome.IssueType.NOTFOUND,
+                    "Unknown code system: " + system);
+        }
+        CodeSystemIndex.Snapshot snapshot = codeSystemIndex.snapshot();
+        if (snapshot == null) {
+            return unavailable("lookup");
+        }
+        String display = snapshot.table(system).display(code.trim());
+        if (display == null) {
+            return outcome("lookup", "not-found", HttpStatus.NOT_FOUND, OperationOutcome.IssueType.NOTFOUND,
+                    "Unable to find code " + code + " in code system " + system);
+        }
+        Parameters result = new Parameters();
+        result.addParameter("name", new StringType(name(system)));
+        result.addParameter("version", new StringType(String.valueOf(snapshot.version())));
+        result.addParameter("display", new StringType(display));
+        return respond("lookup", "found", HttpStatus.OK, result);
+    }
+
+    ResponseEntity<String> doValidateCode(String url, String code, String display) {
+        if (isBlank(url) || isBlank(code)) {
+            return outcome("validate-code", "invalid", HttpStatus.BAD_REQUEST, OperationOutcome.IssueType.INVALID,
+                    "Both url and code are required");
+        }
+        if (!CodeSystemIndex.isKnownSystem(url)) {
+            return validation("not-found", false, "Unknown code system: " + url, null);
+        }
+        CodeSystemIndex.Snapshot snapshot = codeSystemIndex.snapshot();
+        if (snapshot == null) {
+            return unavailable("validate-code");
+        }
+        CodeTable table = snapshot.table(url);
+        String expected = table.display(code.trim());
+        if (expected == null) {
+            return validation("not-found", false, "Unknown code " + code + " in code system " + url, null);
+        }
+        if (!isBlank(display) && !display.trim().equalsIgnoreCase(expected)) {
+            return validation("wrong-display", false,
+                    "Display '" + display + "' is not valid for code " + code + "; expected '" + expected + "'", expected);
+        }
+        return validation("valid", true, null, expected);
+    }
+
+    private ResponseEntity<String> validation(String outcome, boolean valid, String message, String display) {
+        Parameters result = new Parameters();
+        result.addParameter("result", new BooleanType(valid));
+        if (message != null) {
+            result.addParameter("message", new StringType(message));
+        }
+        if (display != null) {
+            result.addParameter("display", new StringType(display));
+        }
+        return respond("validate-code", outcome, HttpStatus.OK, result);
+    }
+
+    // The tables load after startup and after terminology-service comes back; clients retry
+    private ResponseEntity<String> unavailable(String operation) {
+        return outcome(operation, "unavailable", HttpStatus.SERVICE_UNAVAILABLE, OperationOutcome.IssueType.TRANSIENT,
+                "Code tables are not loaded yet");
+    }
+
+    private ResponseEntity<String> outcome(String operation, String outcome, HttpStatus status,
+                                           OperationOutcome.IssueType type, String diagnostics) {
+        OperationOutcome operationOutcome = new OperationOutcome();
+        operationOutcome.addIssue()
+                .setSeverity(OperationOutcome.IssueSeverity.ERROR)
+                .setCode(type)
+                .setDiagnostics(diagnostics);
+        return respond(operation, outcome, status, operationOutcome);
+    }
+
+    private ResponseEntity<String> respond(String operation, String outcome, HttpStatus status,
+                                           Resource resource) {
+        Counter.builder(REQUEST_COUNTER)
+                .description("CodeSystem operations answered from the in-memory code tables, by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf(FHIR_JSON_CONTENT_TYPE));
+        headers.add("X-FHIR-Version", "4.0.1");
+        return ResponseEntity.status(status).headers(headers)
+                .body(terminologyFhirService.toJson(operation, resource));
+    }
+
+    private Parameters parseInput(String body) {
+        try {
+            return terminologyFhirService.parseParameters(body);
+        } catch (RuntimeException e) {
+            log.debug("Unreadable CodeSystem operation body: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String value(Parameters parameters, String name) {
+        return parameters.getParameter().stream()
+                .filter(parameter -> name.equals(parameter.getName()))
+                .map(Parameters.ParametersParameterComponent::getValue)
+                .filter(value -> value instanceof PrimitiveType<?>)
+                .map(value -> ((PrimitiveType<?>) value).getValueAsString())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String name(String system) {
+        return CodeSystemIndex.NAMASTE_SYSTEM.equals(system) ? "NAMASTE" : "ICD-11 TM2";
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
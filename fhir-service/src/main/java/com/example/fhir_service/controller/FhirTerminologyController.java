@@ -1,6 +1,10 @@
 package com.example.fhir_service.controller;
 
+import com.example.fhir_service.codesystem.CodeSystemIndex;
+import com.example.fhir_service.hotkeys.HotKeyPrewarmer;
 import com.example.fhir_service.service.TerminologyFhirService;
+import com.example.medbridge_common.accesslog.AccessLogFilter;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,6 +35,7 @@ import java.util.stream.Collectors;
 public class FhirTerminologyController {
 
     private final TerminologyFhirService terminologyFhirService;
+    private final HotKeyTracker hotKeys;
 
     private static final String FHIR_JSON_CONTENT_TYPE = "application/fhir+json;fhirVersion=4.0";
     private static final Scheduler FHIR_SCHEDULER =
@@ -42,11 +47,12 @@ public class FhirTerminologyController {
             @Parameter(description = "Medical code to search for (e.g., A01.1, TM2.001.001)", example = "A01.1", required = true)
             @PathVariable String codeValue) {
 
-        log.info("FHIR search by code: {}", codeValue);
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_CODE, codeValue.trim());
         return terminologyFhirService.createSearchByCodeResult(codeValue)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
                 .map(parameters -> {
                     addFhirMetadata(parameters);
-                    return createFhirResponse(terminologyFhirService.toJson(parameters));
+                    return createFhirResponse(terminologyFhirService.toJson("searchByCode", parameters));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in FHIR code search", e);
@@ -61,11 +67,12 @@ public class FhirTerminologyController {
             @Parameter(description = "TM2 code to search for (ICD-11 Traditional Medicine code)", example = "TM2.001.001", required = true)
             @PathVariable String codeValue) {
 
-        log.info("FHIR search by TM2 code: {}", codeValue);
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_CODE, codeValue.trim());
         return terminologyFhirService.createSearchByCodeResult(codeValue)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
                 .map(parameters -> {
                     addFhirMetadata(parameters);
-                    return createFhirResponse(terminologyFhirService.toJson(parameters));
+                    return createFhirResponse(terminologyFhirService.toJson("searchByTm2Code", parameters));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in FHIR TM2 code search", e);
@@ -80,11 +87,12 @@ public class FhirTerminologyController {
             @Parameter(description = "Standard medical code to search for", example = "A01.1", required = true)
             @PathVariable String codeValue) {
 
-        log.info("FHIR search by code only: {}", codeValue);
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_CODE, codeValue.trim());
         return terminologyFhirService.createSearchByCodeResult(codeValue)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
                 .map(parameters -> {
                     addFhirMetadata(parameters);
-                    return createFhirResponse(terminologyFhirService.toJson(parameters));
+                    return createFhirResponse(terminologyFhirService.toJson("searchByCodeOnly", parameters));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in FHIR code only search", e);
@@ -93,18 +101,49 @@ public class FhirTerminologyController {
                 });
     }
 
+    @Operation(summary = "Translate a Code (ConceptMap $translate)", description = "Translates a NAMASTE code to its ICD-11 TM2 targets, or with reverse=true a TM2 code to every NAMASTE code mapped onto it, grouped by type and highest confidence first.")
+    @GetMapping(value = "/ConceptMap/$translate", produces = FHIR_JSON_CONTENT_TYPE)
+    public Mono<ResponseEntity<String>> translate(
+            @Parameter(description = "Code to translate", example = "SK00", required = true)
+            @RequestParam String code,
+            @Parameter(description = "System of the code; must be TM2 with reverse=true and NAMASTE otherwise")
+            @RequestParam(required = false) String system,
+            @Parameter(description = "Translate TM2 to NAMASTE instead of NAMASTE to TM2")
+            @RequestParam(defaultValue = "false") boolean reverse) {
+
+        String expectedSystem = reverse ? CodeSystemIndex.TM2_SYSTEM : CodeSystemIndex.NAMASTE_SYSTEM;
+        if (system != null && !system.equals(expectedSystem)) {
+            return Mono.fromCallable(() -> createFhirErrorResponse("Invalid request",
+                            "system must be " + expectedSystem + (reverse ? " with reverse=true" : " unless reverse=true")))
+                    .subscribeOn(FHIR_SCHEDULER);
+        }
+        String operation = reverse ? "translateReverse" : "translate";
+        return terminologyFhirService.createTranslateResult(code.trim(), reverse)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
+                .map(parameters -> {
+                    addFhirMetadata(parameters);
+                    return createFhirResponse(terminologyFhirService.toJson(operation, parameters));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error in FHIR translate", e);
+                    return Mono.fromCallable(() -> createFhirErrorResponse("Translate failed", e.getMessage()))
+                            .subscribeOn(FHIR_SCHEDULER);
+                });
+    }
+
     @Operation(summary = "Search by Symptoms (GET)", description = "Searches for terminology entries based on symptoms. Accepts comma-separated or space-separated symptoms.")
     @GetMapping(value = "/search/symptoms", produces = FHIR_JSON_CONTENT_TYPE)
     public Mono<ResponseEntity<String>> searchBySymptoms(
             @Parameter(description = "Symptoms to search for, separated by commas or spaces", example = "fever,headache,nausea", required = true)
             @RequestParam String query) {
 
-        log.info("FHIR search by symptoms: {}", query);
         List<String> symptoms = parseSymptoms(query);
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_SYMPTOMS, String.join(",", symptoms));
         return terminologyFhirService.createSearchBySymptomsResult(symptoms)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
                 .map(parameters -> {
                     addFhirMetadata(parameters);
-                    return createFhirResponse(terminologyFhirService.toJson(parameters));
+                    return createFhirResponse(terminologyFhirService.toJson("searchBySymptoms", parameters));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in FHIR symptom search", e);
@@ -118,16 +157,17 @@ public class FhirTerminologyController {
     public Mono<ResponseEntity<String>> searchBySymptomsPost(
             @RequestBody Map<String, List<String>> requestBody) {
 
-        log.info("FHIR POST search by symptoms: {}", requestBody);
         List<String> symptoms = requestBody.get("symptoms");
         if (symptoms == null || symptoms.isEmpty()) {
             return Mono.fromCallable(() -> createFhirErrorResponse("Invalid request", "symptoms array is required"))
                     .subscribeOn(FHIR_SCHEDULER);
         }
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_SYMPTOMS, String.join(",", symptoms));
         return terminologyFhirService.createSearchBySymptomsResult(symptoms)
+                .transform(AccessLogFilter.results(FhirTerminologyController::resultCount))
                 .map(parameters -> {
                     addFhirMetadata(parameters);
-                    return createFhirResponse(terminologyFhirService.toJson(parameters));
+                    return createFhirResponse(terminologyFhirService.toJson("searchBySymptomsPost", parameters));
                 })
                 .onErrorResume(e -> {
                     log.error("Error in FHIR symptom POST search", e);
@@ -139,11 +179,10 @@ public class FhirTerminologyController {
     @Hidden
     @GetMapping(value = "/metadata", produces = FHIR_JSON_CONTENT_TYPE)
     public Mono<ResponseEntity<String>> getCapabilityStatement() {
-        log.info("FHIR capability statement requested");
         return Mono.fromCallable(() -> {
             CapabilityStatement capabilityStatement = createCapabilityStatement();
             addFhirMetadata(capabilityStatement);
-            return createFhirResponse(terminologyFhirService.toJson(capabilityStatement));
+            return createFhirResponse(terminologyFhirService.toJson("metadata", capabilityStatement));
         })
         .subscribeOn(FHIR_SCHEDULER)
         .onErrorResume(e -> {
@@ -163,6 +202,13 @@ public class FhirTerminologyController {
         )));
     }
 
+    // Matches of a code search or translation, disease groups of a symptom search
+    static int resultCount(Parameters parameters) {
+        return (int) parameters.getParameter().stream()
+                .filter(parameter -> "match".equals(parameter.getName()) || "diseaseGroup".equals(parameter.getName()))
+                .count();
+    }
+
     private List<String> parseSymptoms(String query) {
         if (query == null || query.trim().isEmpty()) {
             return List.of();
@@ -199,7 +245,7 @@ public class FhirTerminologyController {
             headers.setContentType(MediaType.valueOf(FHIR_JSON_CONTENT_TYPE));
             headers.add("X-FHIR-Version", "4.0.1");
             return ResponseEntity.badRequest().headers(headers)
-                    .body(terminologyFhirService.toJson(errorOutcome));
+                    .body(terminologyFhirService.toJson("error", errorOutcome));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .contentType(MediaType.valueOf(FHIR_JSON_CONTENT_TYPE))
@@ -223,8 +269,9 @@ public class FhirTerminologyController {
         resource.setMeta(meta);
     }
 
+    // Added to the existing meta, which may already carry a stale tag
     private void addFhirMetadata(Parameters parameters) {
-        Meta meta = new Meta();
+        Meta meta = parameters.getMeta();
         meta.setVersionId("1");
         meta.setLastUpdated(new Date());
         meta.addProfile("http://hl7.org.in/fhir/StructureDefinition/AyushParameters");
@@ -236,7 +283,6 @@ public class FhirTerminologyController {
                 .setSystem("http://terminology.hl7.org.in/CodeSystem/terminology-tags")
                 .setCode("terminology-operation")
                 .setDisplay("Terminology Operation");
-        parameters.setMeta(meta);
     }
 
     private CapabilityStatement createCapabilityStatement() {
@@ -267,6 +313,13 @@ public class FhirTerminologyController {
                 .setDefinition("http://terminology.hl7.org.in/fhir/OperationDefinition/search-by-code");
         rest.addOperation().setName("search-by-symptoms")
                 .setDefinition("http://terminology.hl7.org.in/fhir/OperationDefinition/search-by-symptoms");
+        rest.addResource().setType("ConceptMap").addOperation().setName("translate")
+                .setDefinition("http://hl7.org/fhir/OperationDefinition/ConceptMap-translate");
+        CapabilityStatement.CapabilityStatementRestResourceComponent codeSystem = rest.addResource().setType("CodeSystem");
+        codeSystem.addOperation().setName("lookup")
+                .setDefinition("http://hl7.org/fhir/OperationDefinition/CodeSystem-lookup");
+        codeSystem.addOperation().setName("validate-code")
+                .setDefinition("http://hl7.org/fhir/OperationDefinition/CodeSystem-validate-code");
         cs.addRest(rest);
 
         return cs;
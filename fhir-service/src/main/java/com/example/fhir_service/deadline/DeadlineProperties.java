@@ -0,0 +1,22 @@
+package com.example.fhir_service.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "medbridge.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /** Budget for requests that arrive without an X-Request-Deadline header. */
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+
+    /** Larger budgets in the header are cut down to this. */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /** Kept back from the budget passed downstream, for rendering the response and the trip back. */
+    private Duration downstreamReserve = Duration.ofMillis(100);
+}
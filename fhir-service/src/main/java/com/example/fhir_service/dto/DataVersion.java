@@ -0,0 +1,17 @@
+package com.example.fhir_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * DTO for the terminology data version - bumped by terminology-service after every ingestion that
+ * changed something
+ */
+@Data
+public class DataVersion {
+    @JsonProperty("version")
+    private long version;
+
+    @JsonProperty("release")
+    private String release;
+}
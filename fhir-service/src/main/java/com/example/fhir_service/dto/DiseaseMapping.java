@@ -19,6 +19,9 @@ public class DiseaseMapping {
     @JsonProperty("tm2Definition")
     private String tm2Definition;
 
+    @JsonProperty("tm2Link")
+    private String tm2Link;
+
     @JsonProperty("similarityScore")
     private Double similarityScore;
 
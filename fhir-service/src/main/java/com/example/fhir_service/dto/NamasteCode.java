@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
 /**
- * DTO for NamasteCode - matches the response from terminology-service
+ * DTO for NamasteCode - matches the internal InternalCodeView response from terminology-service
  */
 @Data
 public class NamasteCode {
@@ -32,12 +32,17 @@ public class NamasteCode {
     @JsonProperty("tm2Definition")
     private String tm2Definition;
 
-    @JsonProperty("tm2Uri")
+    // terminology-service calls the TM2 entity URI tm2Link
+    @JsonProperty("tm2Link")
     private String tm2Uri;
 
     @JsonProperty("confidenceScore")
     private Double confidenceScore;
 
+    // Only present when terminology-service answered with semantic search
+    @JsonProperty("similarityScore")
+    private Double similarityScore;
+
     // Helper methods for better readability
     public String getNamasteCode() {
         return code;
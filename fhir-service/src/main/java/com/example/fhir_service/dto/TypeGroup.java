@@ -0,0 +1,18 @@
+package com.example.fhir_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for TypeGroup - translation results of one type from terminology-service, highest confidence first
+ */
+@Data
+public class TypeGroup {
+    @JsonProperty("type")
+    private String type;
+
+    @JsonProperty("mappings")
+    private List<NamasteCode> mappings;
+}
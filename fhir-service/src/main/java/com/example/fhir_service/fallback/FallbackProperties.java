@@ -0,0 +1,35 @@
+package com.example.fhir_service.fallback;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Last-known-good results served when the terminology-service circuit breaker rejects or fails a call
+ * (terminology-service.fallback.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "terminology-service.fallback")
+public class FallbackProperties {
+
+    private boolean enabled = true;
+
+    /** Results kept, least recently used evicted first. */
+    private int maxEntries = 5_000;
+
+    /** Older results are not served; an empty result is returned instead. */
+    private Duration maxAge = Duration.ofHours(24);
+
+    /** Where the results are saved so they survive a restart; unset keeps them in memory only. */
+    private Path file = Path.of("data", "last-known-good.json");
+
+    private Duration persistInterval = Duration.ofMinutes(1);
+
+    /** Stale-served searches re-fetched at once when the breaker goes half-open. */
+    private int refreshConcurrency = 1;
+
+    /** Most searches re-fetched per half-open transition, most recently served first. */
+    private int refreshBatch = 100;
+}
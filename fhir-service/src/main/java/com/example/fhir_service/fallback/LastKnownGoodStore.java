@@ -0,0 +1,231 @@
+package com.example.fhir_service.fallback;
+
+import com.example.fhir_service.client.UpstreamResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The last good terminology-service result per request, for the circuit breaker fallback to serve
+ * instead of an empty answer. Bounded to maxEntries with least-recently-used eviction, and saved to a
+ * local file so a restart during an outage still has answers. Requests answered from here are
+ * remembered so {@link StaleRefresher} can re-fetch them once the breaker lets calls through again.
+ */
+@Component
+@EnableConfigurationProperties(FallbackProperties.class)
+@Slf4j
+public class LastKnownGoodStore {
+
+    public static final String FALLBACK_COUNTER = "fhir.fallback";
+
+    public record Key(String operation, String key) {
+    }
+
+    private record Entry(Instant fetchedAt, Object value) {
+    }
+
+    private final FallbackProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Counter servedStale;
+    private final Counter servedEmpty;
+    // Access-ordered for LRU eviction; all access under the store's lock
+    private final LinkedHashMap<Key, Entry> entries;
+    private final LinkedHashSet<Key> staleServed = new LinkedHashSet<>();
+    private volatile boolean changed;
+
+    @Autowired
+    public LastKnownGoodStore(FallbackProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, Clock.systemUTC());
+    }
+
+    LastKnownGoodStore(FallbackProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.servedStale = fallbackCounter(meterRegistry, "stale");
+        this.servedEmpty = fallbackCounter(meterRegistry, "empty");
+        meterRegistry.gauge(FALLBACK_COUNTER + ".entries", this, LastKnownGoodStore::size);
+    }
+
+    public void put(String operation, String key, Object value) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Key storeKey = new Key(operation, key);
+        synchronized (this) {
+            entries.put(storeKey, new Entry(clock.instant(), value));
+            staleServed.remove(storeKey);
+        }
+        changed = true;
+    }
+
+    /**
+     * The last good result for the request if there is one young enough, marked stale; empty otherwise.
+     * Either way the outcome is counted, and a stale answer queues the request for refresh.
+     */
+    public <T> Optional<UpstreamResult<T>> serveStale(String operation, String key, TypeReference<T> type) {
+        if (!properties.isEnabled()) {
+            servedEmpty.increment();
+            return Optional.empty();
+        }
+        Key storeKey = new Key(operation, key);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(storeKey);
+            if (entry != null && entry.fetchedAt().isBefore(clock.instant().minus(properties.getMaxAge()))) {
+                entries.remove(storeKey);
+                entry = null;
+            }
+            if (entry != null && entry.value() instanceof JsonNode json) {
+                // Loaded from disk; typed on first use
+                entry = new Entry(entry.fetchedAt(), objectMapper.convertValue(json, type));
+                entries.put(storeKey, entry);
+            }
+            if (entry != null) {
+                staleServed.remove(storeKey);
+                staleServed.add(storeKey);
+            }
+        }
+        if (entry == null) {
+            servedEmpty.increment();
+            return Optional.empty();
+        }
+        servedStale.increment();
+        @SuppressWarnings("unchecked")
+        T value = (T) entry.value();
+        return Optional.of(UpstreamResult.stale(value, entry.fetchedAt()));
+    }
+
+    /** Takes up to {@code max} of the requests answered stale, most recent first, for re-fetching. */
+    public synchronized List<Key> takeStaleServed(int max) {
+        List<Key> keys = new ArrayList<>(staleServed);
+        Collections.reverse(keys);
+        List<Key> taken = new ArrayList<>(keys.subList(0, Math.min(max, keys.size())));
+        taken.forEach(staleServed::remove);
+        return taken;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @PostConstruct
+    public void load() {
+        Path file = properties.getFile();
+        if (!properties.isEnabled() || file == null) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(file.toFile(), Snapshot.class);
+            Instant oldest = clock.instant().minus(properties.getMaxAge());
+            int loaded = 0;
+            synchronized (this) {
+                for (Saved saved : snapshot.entries()) {
+                    if (saved.fetchedAt().isAfter(oldest)) {
+                        entries.put(new Key(saved.operation(), saved.key()), new Entry(saved.fetchedAt(), saved.value()));
+                        loaded++;
+                    }
+                }
+            }
+            log.info("Loaded {} last-known-good results saved at {} from {}", loaded, snapshot.savedAt(), file);
+        } catch (IOException e) {
+            if (Files.exists(file)) {
+                log.warn("Could not read last-known-good results from {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${terminology-service.fallback.persist-interval:PT1M}",
+            initialDelayString = "${terminology-service.fallback.persist-interval:PT1M}")
+    public void persist() {
+        Path file = properties.getFile();
+        if (!properties.isEnabled() || file == null || !changed) {
+            return;
+        }
+        changed = false;
+        // Only the references are copied under the lock; serving fallbacks does not wait on serialization
+        List<Map.Entry<Key, Entry>> copied = new ArrayList<>();
+        synchronized (this) {
+            entries.forEach((key, entry) -> copied.add(Map.entry(key, entry)));
+        }
+        List<Saved> saved = new ArrayList<>(copied.size());
+        for (Map.Entry<Key, Entry> copy : copied) {
+            Key key = copy.getKey();
+            Entry entry = copy.getValue();
+            saved.add(new Saved(key.operation(), key.key(), entry.fetchedAt(), objectMapper.valueToTree(entry.value())));
+        }
+        Path target = file.toAbsolutePath();
+        Path temp = null;
+        try {
+            // Written aside and moved into place, so a crash mid-write leaves the previous file intact
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), new Snapshot(clock.instant(), saved));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            changed = true;
+            log.warn("Could not save last-known-good results to {}: {}", target, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        persist();
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // A stray temp file next to the store is harmless
+        }
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(FALLBACK_COUNTER)
+                .description("Circuit breaker fallbacks, by whether a last-known-good result was served")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    record Saved(String operation, String key, Instant fetchedAt, JsonNode value) {
+    }
+
+    record Snapshot(Instant savedAt, List<Saved> entries) {
+    }
+}
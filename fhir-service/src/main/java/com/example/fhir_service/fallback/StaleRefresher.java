@@ -0,0 +1,91 @@
+package com.example.fhir_service.fallback;
+
+import com.example.fhir_service.client.TerminologyServiceClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-fetches the searches that were answered from {@link LastKnownGoodStore} as soon as the
+ * terminology-service breaker goes half-open, so the stale answers are replaced while the service
+ * recovers rather than on the next user request. The re-fetches double as the half-open probes, and
+ * stop as soon as the breaker opens again.
+ */
+@Component
+@Slf4j
+public class StaleRefresher {
+
+    public static final String CIRCUIT_BREAKER = "terminology-service";
+
+    private final LastKnownGoodStore store;
+    private final TerminologyServiceClient client;
+    private final FallbackProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StaleRefresher(LastKnownGoodStore store,
+                          TerminologyServiceClient client,
+                          FallbackProperties properties,
+                          ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory) {
+        this.store = store;
+        this.client = client;
+        this.properties = properties;
+        // The breaker is created by its first call; looking it up by name here would create it with the
+        // registry defaults instead of its configured instance settings
+        CircuitBreakerRegistry registry = circuitBreakerFactory.getCircuitBreakerRegistry();
+        registry.find(CIRCUIT_BREAKER).ifPresent(this::watch);
+        registry.getEventPublisher().onEntryAdded(event -> {
+            if (CIRCUIT_BREAKER.equals(event.getAddedEntry().getName())) {
+                watch(event.getAddedEntry());
+            }
+        });
+    }
+
+    private void watch(CircuitBreaker breaker) {
+        breaker.getEventPublisher().onStateTransition(event -> {
+            if (event.getStateTransition().getToState() == CircuitBreaker.State.HALF_OPEN) {
+                refresh(breaker);
+            }
+        });
+    }
+
+    void refresh(CircuitBreaker breaker) {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        List<LastKnownGoodStore.Key> keys = store.takeStaleServed(properties.getRefreshBatch());
+        if (keys.isEmpty()) {
+            running.set(false);
+            return;
+        }
+        log.info("Terminology breaker half-open; re-fetching {} searches answered stale", keys.size());
+        Flux.fromIterable(keys)
+                .takeWhile(key -> breaker.getState() != CircuitBreaker.State.OPEN)
+                .flatMap(this::refetch, properties.getRefreshConcurrency())
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, e -> log.warn("Stale refresh failed: {}", e.getMessage()));
+    }
+
+    // A successful call stores the fresh result; a failed one falls back and queues the key again
+    private Mono<Void> refetch(LastKnownGoodStore.Key key) {
+        Mono<?> call = switch (key.operation()) {
+            case TerminologyServiceClient.SEARCH_BY_CODE -> client.searchByCode(key.key());
+            case TerminologyServiceClient.SEARCH_BY_SYMPTOMS -> client.searchBySymptoms(Arrays.asList(key.key().split(",")));
+            case TerminologyServiceClient.TRANSLATE -> client.translate(key.key(), false);
+            case TerminologyServiceClient.TRANSLATE_REVERSE -> client.translate(key.key(), true);
+            default -> Mono.empty();
+        };
+        return call.then()
+                .onErrorResume(e -> {
+                    log.debug("Could not re-fetch {} {}: {}", key.operation(), key.key(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.fhir_service.hotkeys;
+
+import com.example.fhir_service.service.TerminologyFhirService;
+import com.example.medbridge_common.hotkeys.HotKey;
+import com.example.medbridge_common.hotkeys.HotKeyProperties;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.hl7.fhir.r4.model.Parameters;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Replays the hot searches saved by the previous run during startup. This service holds no response
+ * cache of its own; the replay warms terminology-service's caches, the connection pool and the FHIR
+ * model and serializer paths. Readiness (the {@code hotKeyPrewarmer} health contributor) stays
+ * OUT_OF_SERVICE until the replay finishes or times out.
+ */
+@Component
+@Slf4j
+public class HotKeyPrewarmer implements HealthIndicator {
+
+    // Recorded by the controller: the code as requested, the symptoms joined with commas
+    public static final String SEARCH_BY_CODE = "searchByCode";
+    public static final String SEARCH_BY_SYMPTOMS = "searchBySymptoms";
+
+    private final HotKeyTracker tracker;
+    private final HotKeyProperties properties;
+    private final Map<String, Function<String, Mono<Parameters>>> warmers;
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total;
+    private volatile boolean done;
+
+    public HotKeyPrewarmer(HotKeyTracker tracker, HotKeyProperties properties, TerminologyFhirService terminologyFhirService) {
+        this.tracker = tracker;
+        this.properties = properties;
+        this.warmers = Map.of(
+                SEARCH_BY_CODE, key -> terminologyFhirService.createSearchByCodeResult(key)
+                        .doOnNext(parameters -> terminologyFhirService.toJson("prewarm", parameters)),
+                SEARCH_BY_SYMPTOMS, key -> terminologyFhirService.createSearchBySymptomsResult(Arrays.asList(key.split(",")))
+                        .doOnNext(parameters -> terminologyFhirService.toJson("prewarm", parameters)));
+    }
+
+    /** Replays the saved keys; run by StartupWarmup once the synthetic warmup is done. */
+    public Mono<Void> prewarm() {
+        if (!properties.isEnabled()) {
+            done = true;
+            return Mono.empty();
+        }
+        // Hottest first across kinds, so a timeout cuts off the coldest keys
+        List<Map.Entry<String, HotKey>> work = tracker.load().entrySet().stream()
+                .filter(kind -> warmers.containsKey(kind.getKey()))
+                .flatMap(kind -> kind.getValue().stream().map(hotKey -> Map.entry(kind.getKey(), hotKey)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, HotKey> entry) -> entry.getValue().count()).reversed())
+                .toList();
+        total = work.size();
+        if (work.isEmpty()) {
+            done = true;
+            return Mono.empty();
+        }
+        long start = System.nanoTime();
+        return Flux.fromIterable(work)
+                .flatMap(entry -> warm(entry.getKey(), entry.getValue().key()), properties.getPrewarmConcurrency())
+                .then()
+                .timeout(properties.getPrewarmTimeout(), Mono.empty())
+                .doFinally(signal -> {
+                    done = true;
+                    log.info("Prewarmed {} of {} hot keys in {} ms ({} failed)", warmed.get(), total,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), failed.get());
+                });
+    }
+
+    @Override
+    public Health health() {
+        return (done ? Health.up() : Health.outOfService())
+                .withDetail("keys", total)
+                .withDetail("warmed", warmed.get())
+                .withDetail("failed", failed.get())
+                .build();
+    }
+
+    private Mono<Void> warm(String kind, String key) {
+        return Mono.defer(() -> warmers.get(kind).apply(key).then())
+                .contextWrite(HotKeyTracker::warmup)
+                .doOnSuccess(ignored -> warmed.incrementAndGet())
+                .onErrorResume(e -> {
+                    failed.incrementAndGet();
+                    log.debug("Could not prewarm {} {}: {}", kind, key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
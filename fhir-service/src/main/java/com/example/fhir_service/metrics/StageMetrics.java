@@ -0,0 +1,54 @@
+package com.example.fhir_service.metrics;
+
+import com.example.medbridge_common.metrics.StageTimer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-stage latency timers and response-size summaries for FHIR operations.
+ * Histogram and SLO buckets are configured under management.metrics.distribution.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String STAGE_TIMER = "fhir.stage";
+    public static final String RESPONSE_SIZE_SUMMARY = "fhir.response.size";
+    public static final String UPSTREAM_RESULTS_SUMMARY = "fhir.upstream.results";
+
+    private final MeterRegistry meterRegistry;
+    private final StageTimer stages;
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stages = new StageTimer(meterRegistry, STAGE_TIMER, "Time spent in each stage of a FHIR operation");
+    }
+
+    public <T> Mono<T> time(String operation, String stage, Mono<T> source) {
+        return stages.time(operation, stage, source);
+    }
+
+    public <T> T record(String operation, String stage, Supplier<T> work) {
+        return stages.record(operation, stage, work);
+    }
+
+    public void recordResponseSize(String operation, int bytes) {
+        DistributionSummary.builder(RESPONSE_SIZE_SUMMARY)
+                .description("Serialized FHIR response size")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    public void recordUpstreamResults(String operation, int count) {
+        DistributionSummary.builder(UPSTREAM_RESULTS_SUMMARY)
+                .description("Number of NamasteCode entries returned by terminology-service")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(count);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.fhir_service.metrics;
+
+import com.example.fhir_service.service.StartupWarmup;
+import com.example.fhir_service.service.WarmupProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Times requests served before readiness and during the measure window after it, tagged with whether
+ * startup warmup ran. Comparing the warmup=enabled and warmup=disabled series shows what warmup does
+ * to first-minute latency; afterwards the filter only checks the clock.
+ */
+@Component
+@RequiredArgsConstructor
+public class StartupLatencyFilter implements WebFilter {
+
+    public static final String STARTUP_REQUEST_TIMER = "fhir.startup.requests";
+
+    private final StartupWarmup startupWarmup;
+    private final WarmupProperties properties;
+    private final MeterRegistry meterRegistry;
+    private volatile boolean windowClosed;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (windowClosed || exchange.getRequest().getPath().value().startsWith("/actuator")) {
+            return chain.filter(exchange);
+        }
+        Duration sinceReady = startupWarmup.sinceReady();
+        if (sinceReady != null && sinceReady.compareTo(properties.getMeasureWindow()) > 0) {
+            windowClosed = true;
+            return chain.filter(exchange);
+        }
+        String phase = sinceReady == null ? "warming" : "after-ready";
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Timer.builder(STARTUP_REQUEST_TIMER)
+                    .description("Request latency right after startup, by whether warmup ran")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .tag("phase", phase)
+                    .tag("warmup", properties.isEnabled() ? "enabled" : "disabled")
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.fhir_service.service;
+
+import com.example.fhir_service.client.TerminologyServiceClient;
+import com.example.fhir_service.client.UpstreamResult;
+import com.example.fhir_service.dto.DiseaseMapping;
+import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.hotkeys.HotKeyPrewarmer;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs representative requests through {@link TerminologyFhirService} before the instance takes
+ * traffic, so HAPI model scanning, Jackson and HAPI class loading, JIT compilation and the WebClient
+ * connection pool are paid for here rather than by the first users.
+ * <p>
+ * The FHIR model and serializer paths are exercised locally from canned data first. Then
+ * {@code concurrency} pings open pooled connections to terminology-service, waiting for it if it is
+ * still starting, and real searches run end to end. The hot-key replay follows, and only then does
+ * readiness (the {@code startupWarmup} health contributor) report UP and the Eureka registration
+ * (initially STARTING) switch to UP.
+ */
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+@Slf4j
+public class StartupWarmup implements HealthIndicator {
+
+    public static final String WARMUP_TIMER = "fhir.startup.warmup";
+
+    private static final Duration PING_RETRY = Duration.ofSeconds(1);
+
+    private final TerminologyFhirService terminologyFhirService;
+    private final TerminologyServiceClient terminologyServiceClient;
+    private final HotKeyPrewarmer hotKeyPrewarmer;
+    private final WarmupProperties properties;
+    private final ObjectProvider<ApplicationInfoManager> eureka;
+    private final MeterRegistry meterRegistry;
+    private volatile String phase = "starting";
+    private volatile long readyAt;
+    private volatile boolean ready;
+
+    public StartupWarmup(TerminologyFhirService terminologyFhirService,
+                         TerminologyServiceClient terminologyServiceClient,
+                         HotKeyPrewarmer hotKeyPrewarmer,
+                         WarmupProperties properties,
+                         ObjectProvider<ApplicationInfoManager> eureka,
+                         MeterRegistry meterRegistry) {
+        this.terminologyFhirService = terminologyFhirService;
+        this.terminologyServiceClient = terminologyServiceClient;
+        this.hotKeyPrewarmer = hotKeyPrewarmer;
+        this.properties = properties;
+        this.eureka = eureka;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.nanoTime();
+        Mono<Void> synthetic = properties.isEnabled() && !properties.getSampleQueries().isEmpty()
+                ? synthetic()
+                : Mono.empty();
+        synthetic
+                .then(Mono.defer(() -> {
+                    phase = "hot-keys";
+                    return timed("hot-keys", hotKeyPrewarmer.prewarm());
+                }))
+                .doFinally(signal -> ready(start))
+                .subscribe(null, e -> log.warn("Startup warmup failed: {}", e.getMessage()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Time since readiness flipped; null until then. */
+    public Duration sinceReady() {
+        return ready ? Duration.ofNanos(System.nanoTime() - readyAt) : null;
+    }
+
+    @Override
+    public Health health() {
+        return (isReady() ? Health.up() : Health.outOfService())
+                .withDetail("phase", phase)
+                .withDetail("enabled", properties.isEnabled())
+                .build();
+    }
+
+    private Mono<Void> synthetic() {
+        Mono<Void> local = Mono.fromRunnable(() -> {
+                    phase = "local";
+                    for (int i = 0; i < properties.getIterations(); i++) {
+                        terminologyFhirService.renderSample("WARMUP-" + i, sampleMatches(i), List.of(query(i)), sampleGroups(i));
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+        Mono<Void> connect = Mono.fromRunnable(() -> phase = "connect")
+                .thenMany(Flux.range(0, properties.getConcurrency()))
+                .flatMap(i -> terminologyServiceClient.ping(), properties.getConcurrency())
+                .then()
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, PING_RETRY));
+        Mono<Void> endToEnd = Mono.fromRunnable(() -> phase = "end-to-end")
+                .thenMany(Flux.range(0, properties.getIterations()))
+                .flatMap(this::exercise, properties.getConcurrency())
+                .then();
+        return timed("local", local)
+                .then(timed("connect", connect))
+                .then(timed("end-to-end", endToEnd))
+                .timeout(properties.getTimeout(), Mono.fromRunnable(() ->
+                        log.warn("Startup warmup did not finish within {} (stopped in {}); continuing",
+                                properties.getTimeout(), phase)));
+    }
+
+    // Both searches end to end, the code search with a code the symptom search found
+    private Mono<Void> exercise(int iteration) {
+        List<String> symptoms = List.of(query(iteration));
+        Mono<Void> bySymptoms = terminologyFhirService.createSearchBySymptomsResult(symptoms)
+                .map(parameters -> terminologyFhirService.toJson("warmup", parameters))
+                .then();
+        Mono<Void> byCode = terminologyServiceClient.searchBySymptoms(symptoms)
+                .flatMapIterable(UpstreamResult::value)
+                .filter(group -> group.getMappings() != null)
+                .flatMapIterable(DiseaseMapping::getMappings)
+                .map(NamasteCode::getCode)
+                .filter(Objects::nonNull)
+                .take(1)
+                .concatMap(terminologyFhirService::createSearchByCodeResult)
+                .map(parameters -> terminologyFhirService.toJson("warmup", parameters))
+                .then();
+        return bySymptoms.then(byCode)
+                .contextWrite(HotKeyTracker::warmup)
+                .onErrorResume(e -> {
+                    log.debug("Warmup request failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String query(int iteration) {
+        List<String> queries = properties.getSampleQueries();
+        return queries.get(iteration % queries.size());
+    }
+
+    private static List<NamasteCode> sampleMatches(int iteration) {
+        NamasteCode code = new NamasteCode();
+        code.setCode("WARMUP-" + iteration);
+        code.setCodeTitle("warmup jwara");
+        code.setCodeDescription("Synthetic mapping used to warm up the FHIR model");
+        code.setType("ayurveda");
+        code.setTm2Code("SK00." + iteration);
+        code.setTm2Title("Warmup disorder (TM2)");
+        code.setTm2Definition("Synthetic TM2 concept");
+        code.setTm2Uri("http://id.who.int/icd/entity/" + iteration);
+        code.setConfidenceScore(0.9);
+        return List.of(code);
+    }
+
+    private static List<DiseaseMapping> sampleGroups(int iteration) {
+        DiseaseMapping group = new DiseaseMapping();
+        group.setTm2Code("SK00." + iteration);
+        group.setTm2Title("Warmup disorder (TM2)");
+        group.setTm2Definition("Synthetic TM2 concept");
+        group.setMappings(sampleMatches(iteration));
+        return List.of(group);
+    }
+
+    private void ready(long start) {
+        readyAt = System.nanoTime();
+        ready = true;
+        phase = "done";
+        timer("total").record(Duration.ofNanos(readyAt - start));
+        eureka.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        log.info("Startup warmup finished in {} ms; accepting traffic", Duration.ofNanos(readyAt - start).toMillis());
+    }
+
+    private Mono<Void> timed(String stage, Mono<Void> work) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doFinally(signal -> timer(stage).record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private Timer timer(String stage) {
+        return Timer.builder(WARMUP_TIMER)
+                .description("Time spent warming up before reporting ready")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
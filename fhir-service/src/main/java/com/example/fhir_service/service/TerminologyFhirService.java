@@ -3,41 +3,71 @@ package com.example.fhir_service.service;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import com.example.fhir_service.client.TerminologyServiceClient;
+import com.example.fhir_service.client.UpstreamResult;
+import com.example.fhir_service.codesystem.CodeSystemIndex;
 import com.example.fhir_service.dto.DiseaseMapping;
 import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.dto.TypeGroup;
+import com.example.fhir_service.metrics.StageMetrics;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.hl7.fhir.r4.model.*;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class TerminologyFhirService {
 
     private final TerminologyServiceClient terminologyServiceClient;
     private final FhirContext fhirContext;
     private final IParser jsonParser;
+    private final StageMetrics stageMetrics;
+
+    static final String TAG_SYSTEM = "http://terminology.hl7.org.in/CodeSystem/terminology-tags";
+    static final String CONCEPT_MAP_URL = "http://terminology.hl7.org.in/fhir/ConceptMap/namaste-to-icd11-tm2";
 
     // Virtual-thread scheduler for blocking HAPI FHIR operations
     private static final Scheduler FHIR_SCHEDULER =
             Schedulers.fromExecutor(Executors.newVirtualThreadPerTaskExecutor());
 
     public String toJson(Resource resource) {
-        return jsonParser.encodeResourceToString(resource);
+        return toJson(resource.fhirType(), resource);
+    }
+
+    public String toJson(String operation, Resource resource) {
+        String json = stageMetrics.record(operation, "serialize", () -> jsonParser.encodeResourceToString(resource));
+        stageMetrics.recordResponseSize(operation, json.getBytes(StandardCharsets.UTF_8).length);
+        return json;
+    }
+
+    /** Input of a FHIR operation invoked with POST; throws on a body that is not Parameters. */
+    public Parameters parseParameters(String json) {
+        return jsonParser.parseResource(Parameters.class, json);
     }
 
     public Mono<Parameters> createSearchByCodeResult(String codeValue) {
-        log.info("Creating FHIR Parameters for code search: {}", codeValue);
         return terminologyServiceClient.searchByCode(codeValue)
-                .flatMap(result -> Mono.fromCallable(() -> buildSearchByCodeParams(codeValue, result))
+                .flatMap(result -> Mono.fromCallable(() -> stageMetrics.record("searchByCode", "model.build",
+                                () -> markIfStale(buildSearchByCodeParams(codeValue, result.value()), result)))
+                        .subscribeOn(FHIR_SCHEDULER));
+    }
+
+    /**
+     * ConceptMap $translate output: a NAMASTE code's TM2 targets or, with reverse, a TM2 code's NAMASTE
+     * sources. Matches come grouped by type, highest confidence first.
+     */
+    public Mono<Parameters> createTranslateResult(String code, boolean reverse) {
+        String operation = reverse ? "translateReverse" : "translate";
+        return terminologyServiceClient.translate(code, reverse)
+                .flatMap(result -> Mono.fromCallable(() -> stageMetrics.record(operation, "model.build",
+                                () -> markIfStale(buildTranslateParams(code, reverse, result.value()), result)))
                         .subscribeOn(FHIR_SCHEDULER));
     }
 
@@ -51,12 +81,69 @@ public class TerminologyFhirService {
                 return parameters;
             }).subscribeOn(FHIR_SCHEDULER);
         }
-        log.info("Creating FHIR Parameters for symptoms search: {}", symptoms);
         return terminologyServiceClient.searchBySymptoms(symptoms)
-                .flatMap(allResults -> Mono.fromCallable(() -> buildSearchBySymptomsParams(symptoms, allResults))
+                .flatMap(result -> Mono.fromCallable(() -> stageMetrics.record("searchBySymptoms", "model.build",
+                                () -> markIfStale(buildSearchBySymptomsParams(symptoms, result.value()), result)))
                         .subscribeOn(FHIR_SCHEDULER));
     }
 
+    /**
+     * Builds and serializes both result shapes from canned data without calling terminology-service,
+     * so startup warmup can load and compile the HAPI model and parser paths. Returns the JSON length.
+     */
+    public int renderSample(String codeValue, List<NamasteCode> matches, List<String> symptoms, List<DiseaseMapping> groups) {
+        return toJson("warmup", buildSearchByCodeParams(codeValue, matches)).length()
+                + toJson("warmup", buildSearchBySymptomsParams(symptoms, groups)).length();
+    }
+
+    /**
+     * A result served from the last-known-good store while terminology-service is unavailable gets a
+     * "stale" meta tag and a warning OperationOutcome saying how old it is.
+     */
+    static Parameters markIfStale(Parameters parameters, UpstreamResult<?> result) {
+        if (!result.isStale()) {
+            return parameters;
+        }
+        parameters.getMeta().addTag()
+                .setSystem(TAG_SYSTEM)
+                .setCode("stale")
+                .setDisplay("Stale result");
+        OperationOutcome warning = new OperationOutcome();
+        warning.addIssue()
+                .setSeverity(OperationOutcome.IssueSeverity.WARNING)
+                .setCode(OperationOutcome.IssueType.TRANSIENT)
+                .setDiagnostics("Terminology service unavailable; showing the result as of " + result.staleAsOf());
+        parameters.addParameter().setName("warning").setResource(warning);
+        return parameters;
+    }
+
+    Parameters buildTranslateParams(String code, boolean reverse, List<TypeGroup> groups) {
+        Parameters parameters = new Parameters();
+        boolean matched = groups.stream().anyMatch(group -> !group.getMappings().isEmpty());
+        parameters.addParameter("result", new BooleanType(matched));
+        if (!matched) {
+            parameters.addParameter("message", new StringType("No " + (reverse ? "NAMASTE" : "TM2") + " codes mapped "
+                    + (reverse ? "onto " : "from ") + code));
+            return parameters;
+        }
+        for (TypeGroup group : groups) {
+            for (NamasteCode mapping : group.getMappings()) {
+                Parameters.ParametersParameterComponent match = parameters.addParameter().setName("match");
+                match.addPart().setName("equivalence").setValue(new CodeType("relatedto"));
+                Coding concept = reverse
+                        ? new Coding(CodeSystemIndex.NAMASTE_SYSTEM, mapping.getNamasteCode(), mapping.getNamasteName())
+                        : new Coding(CodeSystemIndex.TM2_SYSTEM, mapping.getIcd11Tm2Code(), mapping.getIcd11Tm2Name());
+                match.addPart().setName("concept").setValue(concept);
+                match.addPart().setName("source").setValue(new UriType(CONCEPT_MAP_URL));
+                match.addPart().setName("type").setValue(new StringType(group.getType()));
+                if (mapping.getConfidenceScore() != null) {
+                    match.addPart().setName("confidenceScore").setValue(new DecimalType(mapping.getConfidenceScore()));
+                }
+            }
+        }
+        return parameters;
+    }
+
     private Parameters buildSearchByCodeParams(String codeValue, List<NamasteCode> result) {
         Parameters parameters = new Parameters();
         parameters.setId("search-by-code-result-" + codeValue);
@@ -107,35 +194,37 @@ public class TerminologyFhirService {
         return parameters;
     }
 
-    private Parameters buildSearchBySymptomsParams(List<String> symptoms, List<NamasteCode> allResults) {
-        if (allResults.isEmpty()) {
-            Parameters parameters = new Parameters();
-            parameters.setId("search-by-symptoms-result-" + System.currentTimeMillis());
-            parameters.addParameter("result", new BooleanType(false));
-            parameters.addParameter("message", new StringType("No symptoms found matching: " + String.join(", ", symptoms)));
-            return parameters;
-        }
+    // Best vector similarity in the group; the first mapping's confidence when the search was not semantic
+    static Double groupScore(List<NamasteCode> mappings) {
+        return mappings.stream()
+                .map(NamasteCode::getSimilarityScore)
+                .filter(Objects::nonNull)
+                .max(Double::compare)
+                .orElse(mappings.get(0).getConfidenceScore());
+    }
 
-        Map<String, List<NamasteCode>> groupedByTm2 = allResults.stream()
-                .filter(code -> code.getTm2Code() != null)
-                .collect(Collectors.groupingBy(NamasteCode::getTm2Code));
-
-        List<DiseaseMapping> groupedResults = groupedByTm2.entrySet().stream()
-                .map(entry -> {
-                    DiseaseMapping diseaseMapping = new DiseaseMapping();
-                    NamasteCode firstCode = entry.getValue().get(0);
-                    diseaseMapping.setTm2Code(entry.getKey());
-                    diseaseMapping.setTm2Title(firstCode.getTm2Title());
-                    diseaseMapping.setTm2Definition(firstCode.getTm2Definition());
-                    diseaseMapping.setSimilarityScore(firstCode.getConfidenceScore());
-                    diseaseMapping.setMappings(entry.getValue());
-                    return diseaseMapping;
+    Parameters buildSearchBySymptomsParams(List<String> symptoms, List<DiseaseMapping> groups) {
+        List<DiseaseMapping> groupedResults = groups.stream()
+                .filter(group -> group.getTm2Code() != null && group.getMappingCount() > 0)
+                .map(group -> {
+                    if (group.getSimilarityScore() == null) {
+                        group.setSimilarityScore(groupScore(group.getMappings()));
+                    }
+                    return group;
                 })
                 .sorted((a, b) -> Double.compare(
                         b.getSimilarityScore() != null ? b.getSimilarityScore() : 0.0,
                         a.getSimilarityScore() != null ? a.getSimilarityScore() : 0.0))
                 .collect(Collectors.toList());
 
+        if (groupedResults.isEmpty()) {
+            Parameters parameters = new Parameters();
+            parameters.setId("search-by-symptoms-result-" + System.currentTimeMillis());
+            parameters.addParameter("result", new BooleanType(false));
+            parameters.addParameter("message", new StringType("No symptoms found matching: " + String.join(", ", symptoms)));
+            return parameters;
+        }
+
         if (groupedResults.size() > 20) {
             Parameters parameters = new Parameters();
             parameters.setId("search-by-symptoms-error-" + System.currentTimeMillis());
@@ -0,0 +1,34 @@
+package com.example.fhir_service.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup warmup shared by every MedBridge service (medbridge.warmup.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "medbridge.warmup")
+public class WarmupProperties {
+
+    /** When false the instance reports ready (and registers UP) as soon as the hot-key replay is done. */
+    private boolean enabled = true;
+
+    /** Synthetic requests per kind; enough for the hot paths to be JIT-compiled. */
+    private int iterations = 50;
+
+    /** Requests in flight, which is also how many pooled connections get opened. */
+    private int concurrency = 4;
+
+    /** Upper bound on the synthetic phase; readiness flips afterwards either way. */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /** Symptom queries the synthetic requests are built from. */
+    private List<String> sampleQueries = new ArrayList<>(List.of("fever", "headache", "cough", "joint pain"));
+
+    /** Requests in this window after readiness are timed separately, to compare runs with and without warmup. */
+    private Duration measureWindow = Duration.ofMinutes(1);
+}
@@ -0,0 +1,51 @@
+package com.example.fhir_service.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryBudgetTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testRetriesAreCappedAtTheRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 100, clock::get);
+
+        int granted = 0;
+        for (int i = 0; i < 1_000; i++) {
+            budget.deposit();
+            // Every request fails: without a budget each would be retried
+            if (budget.tryWithdraw()) {
+                granted++;
+            }
+        }
+
+        assertTrue(granted >= 99 && granted <= 100, "about 10% of 1000 requests, was " + granted);
+    }
+
+    @Test
+    public void testMinPerSecondAllowsRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.1, 2, 10, clock::get);
+
+        assertFalse(budget.tryWithdraw());
+        clock.addAndGet(1_000_000_000L);
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void testSavingsAreCappedAtCapacity() {
+        RetryBudget budget = new RetryBudget(1, 1, 3, clock::get);
+        for (int i = 0; i < 50; i++) {
+            budget.deposit();
+        }
+        clock.addAndGet(60_000_000_000L);
+
+        assertEquals(3.0, budget.available(), 1e-9);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.fhir_service.codesystem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodeTableTest {
+
+    @Test
+    public void testDisplay_findsEveryCodeAcrossGrowth() {
+        CodeTable table = new CodeTable();
+        for (int i = 0; i < 50_000; i++) {
+            table.put("NAM-" + i, "Title " + i);
+        }
+
+        assertEquals(50_000, table.size());
+        for (int i = 0; i < 50_000; i += 997) {
+            assertEquals("Title " + i, table.display("NAM-" + i));
+        }
+        assertNull(table.display("NAM-50000"));
+        assertFalse(table.contains("missing"));
+    }
+
+    @Test
+    public void testPut_keepsFirstDisplayAndSkipsEmptyCodes() {
+        CodeTable table = new CodeTable();
+        table.put("A01", "Jvara");
+        table.put("A01", "Other title");
+        table.put(null, "No code");
+        table.put("", "Empty code");
+        table.put("A02", null);
+
+        assertEquals(2, table.size());
+        assertEquals("Jvara", table.display("A01"));
+        assertEquals("", table.display("A02"));
+        assertTrue(table.contains("A02"));
+        assertNull(table.display(null));
+    }
+}
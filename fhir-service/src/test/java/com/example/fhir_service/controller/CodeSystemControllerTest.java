@@ -0,0 +1,102 @@
+package com.example.fhir_service.controller;
+
+import ca.uhn.fhir.context.FhirContext;
+import com.example.fhir_service.client.TerminologyServiceClient;
+import com.example.fhir_service.codesystem.CodeSystemIndex;
+import com.example.fhir_service.codesystem.CodeTableProperties;
+import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.metrics.StageMetrics;
+import com.example.fhir_service.service.TerminologyFhirService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class CodeSystemControllerTest {
+
+    private CodeSystemIndex index;
+    private CodeSystemController controller;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        FhirContext ctx = FhirContext.forR4();
+        meterRegistry = new SimpleMeterRegistry();
+        TerminologyFhirService fhirService = new TerminologyFhirService(null, ctx, ctx.newJsonParser(), new StageMetrics(meterRegistry));
+        index = new CodeSystemIndex(mock(TerminologyServiceClient.class), new CodeTableProperties(), meterRegistry);
+        controller = new CodeSystemController(index, fhirService, meterRegistry);
+    }
+
+    private void load() {
+        index.load(7, Flux.just(row("NAM-1", "Jvara", "TM2.A1", "Fever disorder"),
+                row("NAM-2", "Kasa", "TM2.A1", "Fever disorder"))).block();
+    }
+
+    private static NamasteCode row(String code, String title, String tm2Code, String tm2Title) {
+        NamasteCode row = new NamasteCode();
+        row.setCode(code);
+        row.setCodeTitle(title);
+        row.setTm2Code(tm2Code);
+        row.setTm2Title(tm2Title);
+        return row;
+    }
+
+    @Test
+    public void testLookup_returnsDisplayAndDataVersion() {
+        load();
+
+        ResponseEntity<String> resp = controller.lookup(CodeSystemIndex.NAMASTE_SYSTEM, "NAM-2").block();
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertTrue(resp.getBody().contains("\"resourceType\":\"Parameters\""));
+        assertTrue(resp.getBody().contains("\"valueString\":\"Kasa\""));
+        assertTrue(resp.getBody().contains("\"valueString\":\"7\""));
+    }
+
+    @Test
+    public void testLookup_unknownCodeIs404AndUnloadedIs503() {
+        assertEquals(503, controller.lookup(CodeSystemIndex.TM2_SYSTEM, "TM2.A1").block().getStatusCode().value());
+
+        load();
+
+        assertEquals(200, controller.lookup(CodeSystemIndex.TM2_SYSTEM, "TM2.A1").block().getStatusCode().value());
+        ResponseEntity<String> missing = controller.lookup(CodeSystemIndex.TM2_SYSTEM, "NAM-1").block();
+        assertEquals(404, missing.getStatusCode().value());
+        assertTrue(missing.getBody().contains("\"resourceType\":\"OperationOutcome\""));
+        assertEquals(400, controller.lookup(null, "NAM-1").block().getStatusCode().value());
+    }
+
+    @Test
+    public void testValidateCode_checksCodeAndDisplay() {
+        load();
+
+        assertTrue(controller.validateCode(CodeSystemIndex.NAMASTE_SYSTEM, null, "NAM-1", "jvara").block()
+                .getBody().contains("\"valueBoolean\":true"));
+        ResponseEntity<String> wrongDisplay = controller.validateCode(CodeSystemIndex.NAMASTE_SYSTEM, null, "NAM-1", "Kasa").block();
+        assertEquals(200, wrongDisplay.getStatusCode().value());
+        assertTrue(wrongDisplay.getBody().contains("\"valueBoolean\":false"));
+        assertTrue(controller.validateCode(null, CodeSystemIndex.TM2_SYSTEM, "TM2.ZZ", null).block()
+                .getBody().contains("\"valueBoolean\":false"));
+
+        assertEquals(1.0, meterRegistry.get(CodeSystemController.REQUEST_COUNTER)
+                .tag("operation", "validate-code").tag("outcome", "wrong-display").counter().count());
+    }
+
+    @Test
+    public void testValidateCodePost_readsParametersBody() {
+        load();
+        String body = "{\"resourceType\":\"Parameters\",\"parameter\":["
+                + "{\"name\":\"url\",\"valueUri\":\"" + CodeSystemIndex.TM2_SYSTEM + "\"},"
+                + "{\"name\":\"code\",\"valueCode\":\"TM2.A1\"}]}";
+
+        ResponseEntity<String> resp = controller.validateCodePost(body).block();
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertTrue(resp.getBody().contains("\"valueBoolean\":true"));
+        assertEquals(400, controller.validateCodePost("not json").block().getStatusCode().value());
+    }
+}
@@ -2,6 +2,13 @@ package com.example.fhir_service.controller;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
+import com.example.fhir_service.hotkeys.HotKeyPrewarmer;
+import com.example.fhir_service.metrics.StageMetrics;
+import com.example.medbridge_common.hotkeys.HotKey;
+import com.example.medbridge_common.hotkeys.HotKeyProperties;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hl7.fhir.r4.model.BooleanType;
 import org.hl7.fhir.r4.model.IntegerType;
 import org.hl7.fhir.r4.model.Parameters;
@@ -18,13 +25,14 @@ import static org.junit.jupiter.api.Assertions.*;
 public class FhirTerminologyControllerTest {
 
     private FhirTerminologyController controller;
+    private HotKeyTracker hotKeys;
 
     @BeforeEach
     public void setup() {
         FhirContext ctx = FhirContext.forR4();
         IParser parser = ctx.newJsonParser();
 
-        var fakeService = new com.example.fhir_service.service.TerminologyFhirService(null, ctx, parser) {
+        var fakeService = new com.example.fhir_service.service.TerminologyFhirService(null, ctx, parser, new StageMetrics(new SimpleMeterRegistry())) {
             @Override
             public Mono<Parameters> createSearchByCodeResult(String codeValue) {
                 Parameters p = new Parameters();
@@ -52,7 +60,8 @@ public class FhirTerminologyControllerTest {
             }
         };
 
-        controller = new FhirTerminologyController(fakeService);
+        hotKeys = new HotKeyTracker(new HotKeyProperties(), new ObjectMapper());
+        controller = new FhirTerminologyController(fakeService, hotKeys);
     }
 
     @Test
@@ -88,6 +97,16 @@ public class FhirTerminologyControllerTest {
         assertTrue(postResp.getBody().contains("\"resourceType\":\"Parameters\""));
     }
 
+    @Test
+    public void testSearches_areTrackedAsHotKeys() {
+        controller.searchByCode("A01.1").block();
+        controller.searchByTm2Code(" A01.1 ").block();
+        controller.searchBySymptomsPost(Map.of("symptoms", List.of("fever", "nausea"))).block();
+
+        assertEquals(List.of(new HotKey("A01.1", 2)), hotKeys.top(HotKeyPrewarmer.SEARCH_BY_CODE));
+        assertEquals(List.of(new HotKey("fever,nausea", 1)), hotKeys.top(HotKeyPrewarmer.SEARCH_BY_SYMPTOMS));
+    }
+
     @Test
     public void testMetadata_and_Health() {
         ResponseEntity<String> meta = controller.getCapabilityStatement().block();
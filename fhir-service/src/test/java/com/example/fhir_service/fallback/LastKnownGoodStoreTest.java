@@ -0,0 +1,152 @@
+package com.example.fhir_service.fallback;
+
+import com.example.fhir_service.client.UpstreamResult;
+import com.example.fhir_service.dto.NamasteCode;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LastKnownGoodStoreTest {
+
+    private static final TypeReference<List<NamasteCode>> CODES = new TypeReference<>() {};
+
+    // As Spring Boot configures it: the DTO helper getters are written but not read back
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+
+    @TempDir
+    Path dir;
+
+    private LastKnownGoodStore store(FallbackProperties properties) {
+        return new LastKnownGoodStore(properties, objectMapper, meterRegistry, clock);
+    }
+
+    private static FallbackProperties properties() {
+        FallbackProperties properties = new FallbackProperties();
+        properties.setFile(null);
+        return properties;
+    }
+
+    private static List<NamasteCode> codes(String code) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setCode(code);
+        return List.of(namasteCode);
+    }
+
+    @Test
+    public void testServeStale_returnsLastGoodResultMarkedStale() {
+        LastKnownGoodStore store = store(properties());
+        Instant fetchedAt = clock.instant();
+        store.put("searchByCode", "A01", codes("A01"));
+        clock.advance(Duration.ofMinutes(5));
+
+        UpstreamResult<List<NamasteCode>> result = store.serveStale("searchByCode", "A01", CODES).orElseThrow();
+
+        assertTrue(result.isStale());
+        assertEquals(fetchedAt, result.staleAsOf());
+        assertEquals("A01", result.value().get(0).getCode());
+        assertEquals(1.0, meterRegistry.get(LastKnownGoodStore.FALLBACK_COUNTER).tag("outcome", "stale").counter().count());
+    }
+
+    @Test
+    public void testServeStale_ignoresResultsOlderThanMaxAge() {
+        FallbackProperties properties = properties();
+        properties.setMaxAge(Duration.ofHours(1));
+        LastKnownGoodStore store = store(properties);
+        store.put("searchByCode", "A01", codes("A01"));
+        clock.advance(Duration.ofHours(2));
+
+        assertTrue(store.serveStale("searchByCode", "A01", CODES).isEmpty());
+        assertEquals(0, store.size());
+        assertEquals(1.0, meterRegistry.get(LastKnownGoodStore.FALLBACK_COUNTER).tag("outcome", "empty").counter().count());
+    }
+
+    @Test
+    public void testPut_evictsLeastRecentlyUsed() {
+        FallbackProperties properties = properties();
+        properties.setMaxEntries(2);
+        LastKnownGoodStore store = store(properties);
+        store.put("searchByCode", "A", codes("A"));
+        store.put("searchByCode", "B", codes("B"));
+        store.serveStale("searchByCode", "A", CODES);
+        store.put("searchByCode", "C", codes("C"));
+
+        assertEquals(2, store.size());
+        assertTrue(store.serveStale("searchByCode", "A", CODES).isPresent());
+        assertTrue(store.serveStale("searchByCode", "B", CODES).isEmpty());
+    }
+
+    @Test
+    public void testTakeStaleServed_mostRecentFirstAndClearedByFreshResult() {
+        LastKnownGoodStore store = store(properties());
+        for (String code : List.of("A", "B", "C")) {
+            store.put("searchByCode", code, codes(code));
+            store.serveStale("searchByCode", code, CODES);
+        }
+        store.put("searchByCode", "B", codes("B"));
+
+        List<LastKnownGoodStore.Key> keys = store.takeStaleServed(10);
+
+        assertEquals(List.of(new LastKnownGoodStore.Key("searchByCode", "C"),
+                new LastKnownGoodStore.Key("searchByCode", "A")), keys);
+        assertTrue(store.takeStaleServed(10).isEmpty());
+    }
+
+    @Test
+    public void testPersistAndLoad_survivesRestart() {
+        FallbackProperties properties = properties();
+        properties.setFile(dir.resolve("last-known-good.json"));
+        LastKnownGoodStore store = store(properties);
+        store.put("searchByCode", "A01", codes("A01"));
+        store.persist();
+
+        LastKnownGoodStore restarted = store(properties);
+        restarted.load();
+
+        UpstreamResult<List<NamasteCode>> result = restarted.serveStale("searchByCode", "A01", CODES).orElseThrow();
+        assertEquals("A01", result.value().get(0).getCode());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
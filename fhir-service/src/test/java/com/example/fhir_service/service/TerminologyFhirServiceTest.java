@@ -3,20 +3,30 @@ package com.example.fhir_service.service;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import com.example.fhir_service.client.TerminologyServiceClient;
+import com.example.fhir_service.client.UpstreamResult;
+import com.example.fhir_service.dto.DiseaseMapping;
 import com.example.fhir_service.dto.NamasteCode;
+import com.example.fhir_service.dto.TypeGroup;
+import com.example.fhir_service.metrics.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.Coding;
 import org.hl7.fhir.r4.model.IntegerType;
+import org.hl7.fhir.r4.model.OperationOutcome;
 import org.hl7.fhir.r4.model.Parameters;
 import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -25,13 +35,15 @@ public class TerminologyFhirServiceTest {
     private TerminologyFhirService svc;
     private TerminologyServiceClient mockClient;
     private IParser jsonParser;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     public void setup() {
         FhirContext fhirContext = FhirContext.forR4();
         jsonParser = fhirContext.newJsonParser();
         mockClient = mock(TerminologyServiceClient.class);
-        svc = new TerminologyFhirService(mockClient, fhirContext, jsonParser);
+        meterRegistry = new SimpleMeterRegistry();
+        svc = new TerminologyFhirService(mockClient, fhirContext, jsonParser, new StageMetrics(meterRegistry));
     }
 
     @Test
@@ -43,9 +55,25 @@ public class TerminologyFhirServiceTest {
         assertTrue(json.contains("\"resourceType\":\"Patient\""));
     }
 
+    @Test
+    public void testToJson_recordsSerializeStageAndResponseSize() {
+        Patient patient = new Patient();
+        patient.setId("p1");
+        patient.addName().setText("ज्वर Jwara");
+        String json = svc.toJson("searchByCode", patient);
+
+        assertEquals(1, meterRegistry.get(StageMetrics.STAGE_TIMER)
+                .tag("operation", "searchByCode")
+                .tag("stage", "serialize")
+                .timer().count());
+        assertEquals(json.getBytes(StandardCharsets.UTF_8).length, meterRegistry.get(StageMetrics.RESPONSE_SIZE_SUMMARY)
+                .tag("operation", "searchByCode")
+                .summary().totalAmount(), 0.0);
+    }
+
     @Test
     public void testCreateSearchByCodeResult_noResults() {
-        when(mockClient.searchByCode(anyString())).thenReturn(Mono.just(List.of()));
+        when(mockClient.searchByCode(anyString())).thenReturn(Mono.just(UpstreamResult.fresh(List.of())));
 
         Parameters p = svc.createSearchByCodeResult("NONEXISTENT").block();
         assertNotNull(p);
@@ -76,7 +104,13 @@ public class TerminologyFhirServiceTest {
         b.setCode("B1");
         b.setCodeTitle("Map B1");
 
-        when(mockClient.searchBySymptoms(any())).thenReturn(Mono.just(List.of(a, b)));
+        DiseaseMapping group = new DiseaseMapping();
+        group.setTm2Code("TM2.G1");
+        group.setTm2Title("Disease G1");
+        group.setTm2Definition("Def G1");
+        group.setMappings(List.of(a, b));
+
+        when(mockClient.searchBySymptoms(any())).thenReturn(Mono.just(UpstreamResult.fresh(List.of(group))));
 
         Parameters p = svc.createSearchBySymptomsResult(List.of("fever", "headache")).block();
         assertNotNull(p);
@@ -96,6 +130,21 @@ public class TerminologyFhirServiceTest {
         assertTrue(p.getParameter().stream().anyMatch(pp -> "diseaseGroup".equals(pp.getName())));
     }
 
+    @Test
+    public void testGroupScore_prefersSemanticSimilarityOverConfidence() {
+        NamasteCode a = new NamasteCode();
+        a.setConfidenceScore(0.9);
+        a.setSimilarityScore(0.42);
+        NamasteCode b = new NamasteCode();
+        b.setConfidenceScore(0.5);
+        b.setSimilarityScore(0.61);
+        assertEquals(0.61, TerminologyFhirService.groupScore(List.of(a, b)));
+
+        NamasteCode c = new NamasteCode();
+        c.setConfidenceScore(0.7);
+        assertEquals(0.7, TerminologyFhirService.groupScore(List.of(c)));
+    }
+
     @Test
     public void testCreateSearchBySymptomsResult_empty_returnsNotFound() {
         Parameters p = svc.createSearchBySymptomsResult(List.of()).block();
@@ -106,4 +155,78 @@ public class TerminologyFhirServiceTest {
         assertNotNull(resultParam);
         assertFalse(((BooleanType) resultParam.getValue()).booleanValue());
     }
+
+    @Test
+    public void testCreateSearchByCodeResult_staleResultIsTaggedAndWarned() {
+        NamasteCode code = new NamasteCode();
+        code.setCode("A01.1");
+        code.setCodeTitle("Jvara");
+        Instant fetchedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(mockClient.searchByCode(anyString())).thenReturn(Mono.just(UpstreamResult.stale(List.of(code), fetchedAt)));
+
+        Parameters p = svc.createSearchByCodeResult("A01.1").block();
+        assertNotNull(p);
+
+        assertNotNull(p.getMeta().getTag(TerminologyFhirService.TAG_SYSTEM, "stale"));
+        var warningParam = p.getParameter().stream()
+                .filter(pp -> "warning".equals(pp.getName()))
+                .findFirst().orElse(null);
+        assertNotNull(warningParam);
+        OperationOutcome.OperationOutcomeIssueComponent issue = ((OperationOutcome) warningParam.getResource()).getIssueFirstRep();
+        assertEquals(OperationOutcome.IssueSeverity.WARNING, issue.getSeverity());
+        assertTrue(issue.getDiagnostics().contains(fetchedAt.toString()));
+    }
+
+    @Test
+    public void testCreateSearchByCodeResult_freshResultIsNotMarked() {
+        when(mockClient.searchByCode(anyString())).thenReturn(Mono.just(UpstreamResult.fresh(List.of())));
+
+        Parameters p = svc.createSearchByCodeResult("A01.1").block();
+        assertNotNull(p);
+
+        assertNull(p.getMeta().getTag(TerminologyFhirService.TAG_SYSTEM, "stale"));
+        assertTrue(p.getParameter().stream().noneMatch(pp -> "warning".equals(pp.getName())));
+    }
+
+    @Test
+    public void testCreateTranslateResult_reverseListsNamasteCodesInGroupOrder() {
+        NamasteCode best = new NamasteCode();
+        best.setCode("SID-1");
+        best.setCodeTitle("Suram");
+        best.setConfidenceScore(0.95);
+        NamasteCode next = new NamasteCode();
+        next.setCode("AYU-2");
+        next.setCodeTitle("Jvara");
+        next.setConfidenceScore(0.9);
+        TypeGroup siddha = new TypeGroup();
+        siddha.setType("siddha");
+        siddha.setMappings(List.of(best));
+        TypeGroup ayurveda = new TypeGroup();
+        ayurveda.setType("ayurveda");
+        ayurveda.setMappings(List.of(next));
+        when(mockClient.translate(anyString(), eq(true))).thenReturn(Mono.just(UpstreamResult.fresh(List.of(siddha, ayurveda))));
+
+        Parameters p = svc.createTranslateResult("SK00", true).block();
+        assertNotNull(p);
+
+        assertTrue(((BooleanType) p.getParameter("result").getValue()).booleanValue());
+        List<String> codes = p.getParameter().stream()
+                .filter(pp -> "match".equals(pp.getName()))
+                .map(pp -> pp.getPart().stream()
+                        .filter(part -> "concept".equals(part.getName()))
+                        .map(part -> ((Coding) part.getValue()).getCode())
+                        .findFirst().orElseThrow())
+                .toList();
+        assertEquals(List.of("SID-1", "AYU-2"), codes);
+    }
+
+    @Test
+    public void testCreateTranslateResult_noMappingsIsFalse() {
+        when(mockClient.translate(anyString(), eq(false))).thenReturn(Mono.just(UpstreamResult.fresh(List.of())));
+
+        Parameters p = svc.createTranslateResult("AYU-404", false).block();
+        assertNotNull(p);
+
+        assertFalse(((BooleanType) p.getParameter("result").getValue()).booleanValue());
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.medbridge_common.accesslog;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * One line of the access log. The fields are fixed so the lines can be queried without parsing
+ * messages; results is null for routes that do not report a count, traceId without a trace.
+ *
+ * @param reason why the request was logged: error, slow or sampled
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccessLogEntry(Instant timestamp,
+                             String method,
+                             String route,
+                             String path,
+                             String query,
+                             int status,
+                             long latencyMs,
+                             Integer results,
+                             String reason,
+                             String traceId) {
+}
@@ -0,0 +1,127 @@
+package com.example.medbridge_common.accesslog;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * One structured access log entry per request worth keeping: every failed (status 400 and up, or
+ * cancelled) and slow request, and a per-route sample of the rest. Runs outside the deadline filter,
+ * so requests it cut off are logged with their 504.
+ * <p>
+ * Handlers report how many results they returned with {@link #results}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogFilter implements WebFilter {
+
+    private static final String RESULTS_KEY = AccessLogFilter.class.getName() + ".results";
+    private static final int NO_RESULTS = -1;
+
+    private final AccessLogProperties properties;
+    private final AccessLogWriter writer;
+    private final Tracer tracer;
+
+    public AccessLogFilter(AccessLogProperties properties, AccessLogWriter writer, Tracer tracer) {
+        this.properties = properties;
+        this.writer = writer;
+        this.tracer = tracer;
+    }
+
+    /** Records the result count of the value passing through, for the request's access log entry. */
+    public static <T> Function<Mono<T>, Mono<T>> results(ToIntFunction<? super T> count) {
+        return mono -> mono.transformDeferredContextual((source, context) -> {
+            AtomicInteger results = context.getOrDefault(RESULTS_KEY, null);
+            return results == null ? source : source.doOnNext(value -> results.set(count.applyAsInt(value)));
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getPath().value().startsWith("/actuator")
+                || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+        Instant timestamp = Instant.now();
+        long started = System.nanoTime();
+        AtomicInteger results = new AtomicInteger(NO_RESULTS);
+        return chain.filter(exchange)
+                .doFinally(signal -> log(exchange, signal, timestamp, System.nanoTime() - started, results.get()))
+                .contextWrite(context -> context.put(RESULTS_KEY, results));
+    }
+
+    private void log(ServerWebExchange exchange, SignalType signal, Instant timestamp, long latencyNanos, int results) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = signal == SignalType.ON_ERROR ? 500 : statusCode != null ? statusCode.value() : 200;
+        String reason = reason(path, status, signal == SignalType.CANCEL, Duration.ofNanos(latencyNanos));
+        if (reason == null) {
+            return;
+        }
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Span span = tracer.currentSpan();
+        writer.append(new AccessLogEntry(
+                timestamp,
+                request.getMethod().name(),
+                pattern instanceof PathPattern pathPattern ? pathPattern.getPatternString() : null,
+                cut(path),
+                cut(request.getURI().getRawQuery()),
+                status,
+                latencyNanos / 1_000_000,
+                results == NO_RESULTS ? null : results,
+                reason,
+                span != null ? span.context().traceId() : null));
+    }
+
+    /** Why a request is logged, or null when it is not. */
+    String reason(String path, int status, boolean cancelled, Duration latency) {
+        if (status >= 400 || cancelled) {
+            return "error";
+        }
+        AccessLogProperties.Route route = matchRoute(path);
+        Duration slowThreshold = route != null && route.getSlowThreshold() != null
+                ? route.getSlowThreshold() : properties.getSlowThreshold();
+        if (latency.compareTo(slowThreshold) >= 0) {
+            return "slow";
+        }
+        double sampleRate = route != null ? route.getSampleRate() : properties.getSampleRate();
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate ? "sampled" : null;
+    }
+
+    private AccessLogProperties.Route matchRoute(String path) {
+        for (AccessLogProperties.Route route : properties.getRoutes()) {
+            if (route.getPattern() != null && path.startsWith(route.getPattern())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String cut(String value) {
+        if (value == null || value.length() <= properties.getMaxValueLength()) {
+            return value;
+        }
+        return value.substring(0, properties.getMaxValueLength());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.medbridge_common.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structured access log shared by every MedBridge service (medbridge.access-log.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "medbridge.access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /** Share of ordinary requests logged on routes without their own rate; slow and failed ones always are. */
+    private double sampleRate = 0.01;
+
+    /** Requests at least this slow are always logged. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /** Entries waiting for the writer; when it is full, new entries are dropped and counted. */
+    private int bufferSize = 8192;
+
+    /** Path and query values are cut to this many characters. */
+    private int maxValueLength = 256;
+
+    /** Per-route overrides, matched by prefix against the request path. First match wins. */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private Duration slowThreshold;
+        private double sampleRate;
+    }
+}
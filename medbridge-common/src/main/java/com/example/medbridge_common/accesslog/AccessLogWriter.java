@@ -0,0 +1,112 @@
+package com.example.medbridge_common.accesslog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Writes access log entries as JSON lines to the "access" logger from one background thread. Request
+ * threads only put the entry into a fixed-size ring and move on; when the writer falls behind, new
+ * entries are dropped and counted rather than making requests wait for log I/O.
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+@Slf4j
+public class AccessLogWriter {
+
+    public static final String DROPPED_COUNTER = "medbridge.accesslog.dropped";
+    public static final String QUEUED_GAUGE = "medbridge.accesslog.queued";
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("access");
+    private static final int BATCH = 256;
+
+    private final BlockingQueue<AccessLogEntry> ring;
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> sink;
+    private final Counter dropped;
+    private volatile Thread writer;
+
+    public AccessLogWriter(AccessLogProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, ACCESS::info);
+    }
+
+    AccessLogWriter(AccessLogProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    Consumer<String> sink) {
+        this.ring = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.objectMapper = objectMapper;
+        this.sink = sink;
+        this.dropped = Counter.builder(DROPPED_COUNTER)
+                .description("Access log entries dropped because the writer fell behind")
+                .register(meterRegistry);
+        Gauge.builder(QUEUED_GAUGE, ring, BlockingQueue::size)
+                .description("Access log entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /** Queues the entry for writing; never blocks. */
+    public void append(AccessLogEntry entry) {
+        if (!ring.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        Thread thread = new Thread(this::drain, "access-log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread = writer;
+        if (thread != null) {
+            writer = null;
+            thread.interrupt();
+            thread.join(1_000);
+        }
+    }
+
+    private void drain() {
+        List<AccessLogEntry> batch = new ArrayList<>(BATCH);
+        while (writer != null) {
+            try {
+                batch.add(ring.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            ring.drainTo(batch, BATCH - 1);
+            write(batch);
+        }
+        // What was queued before shutdown is still written
+        ring.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<AccessLogEntry> batch) {
+        for (AccessLogEntry entry : batch) {
+            try {
+                sink.accept(objectMapper.writeValueAsString(entry));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.debug("Access log entry not written: {}", e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+}
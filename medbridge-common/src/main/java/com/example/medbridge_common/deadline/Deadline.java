@@ -0,0 +1,57 @@
+package com.example.medbridge_common.deadline;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+/**
+ * When the caller stops waiting for this request. Between services it travels in the
+ * X-Request-Deadline header as the milliseconds remaining, which is immune to clock skew; inside a
+ * service it lives in the Reactor context, put there by the service's DeadlineFilter.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /** The deadline of the request being served, or null outside a request. */
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    /** Milliseconds remaining as sent in the header; null if absent or not a number. */
+    public static Duration parseHeader(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Context addTo(Context context) {
+        return context.put(CONTEXT_KEY, this);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
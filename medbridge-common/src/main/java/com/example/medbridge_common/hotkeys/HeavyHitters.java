@@ -0,0 +1,101 @@
+package com.example.medbridge_common.hotkeys;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate top-k of a key stream in fixed memory: a count-min sketch estimates each key's count,
+ * and the keys with the highest estimates are kept in a small candidate table.
+ * <p>
+ * Estimates never undercount and overcount by at most total/width with probability 1 - 2^-depth.
+ * Recording a key already in the table, or one that cannot enter it, takes no lock.
+ */
+public class HeavyHitters {
+
+    private final int capacity;
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counts;
+    private final Map<String, Long> top = new ConcurrentHashMap<>();
+    // Smallest estimate in a full table; a new key must beat it to get in
+    private volatile long floor;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public HeavyHitters(int capacity, int width, int depth) {
+        this.capacity = capacity;
+        this.depth = depth;
+        int rowSize = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = rowSize - 1;
+        this.counts = new AtomicLongArray(rowSize * depth);
+    }
+
+    /** Adds {@code delta} occurrences of the key and returns its new estimate. */
+    public long add(String key, long delta) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x5bd1e995) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counts.addAndGet(index, delta));
+        }
+        long current = estimate;
+        if (top.computeIfPresent(key, (k, previous) -> current) == null
+                && (top.size() < capacity || estimate > floor)) {
+            admit(key, estimate);
+        }
+        return estimate;
+    }
+
+    /** The tracked keys, hottest first. */
+    public List<HotKey> top() {
+        return top.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotKey::count).reversed())
+                .toList();
+    }
+
+    /**
+     * Halves every count so the table follows what is hot now rather than since startup. Keys whose
+     * estimate drops to zero leave the table.
+     */
+    public synchronized void decay() {
+        for (int i = 0; i < counts.length(); i++) {
+            long value = counts.get(i);
+            if (value != 0) {
+                counts.addAndGet(i, -(value - (value >> 1)));
+            }
+        }
+        top.replaceAll((key, count) -> count >> 1);
+        top.values().removeIf(count -> count == 0);
+        updateFloor();
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        top.put(key, estimate);
+        if (top.size() > capacity) {
+            top.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .ifPresent(coldest -> top.remove(coldest.getKey()));
+        }
+        updateFloor();
+    }
+
+    private void updateFloor() {
+        floor = top.size() < capacity ? 0 : top.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    }
+
+    // Murmur3 finalizer; String.hashCode alone clusters similar codes into neighbouring counters
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.medbridge_common.hotkeys;
+
+/** A tracked key and its estimated (decayed) request count. */
+public record HotKey(String key, long count) {
+}
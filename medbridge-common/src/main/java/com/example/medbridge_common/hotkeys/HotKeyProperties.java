@@ -0,0 +1,39 @@
+package com.example.medbridge_common.hotkeys;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Hot-key tracking and cache prewarming shared by every MedBridge service (medbridge.hotkeys.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "medbridge.hotkeys")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    /** Keys tracked per kind (search by code, symptom search, ...). */
+    private int topK = 200;
+
+    /** Count-min sketch counters per row, and rows; memory is width * depth * 8 bytes per kind. */
+    private int sketchWidth = 4096;
+
+    private int sketchDepth = 4;
+
+    /** Counts are halved this often so the list follows current traffic. */
+    private Duration decayInterval = Duration.ofMinutes(10);
+
+    /** Where the hot-key list is saved, and read back from on startup. */
+    private Path file = Path.of("data", "hotkeys.json");
+
+    private Duration persistInterval = Duration.ofMinutes(1);
+
+    /** Requests in flight while prewarming. */
+    private int prewarmConcurrency = 4;
+
+    /** Readiness is reported once prewarming finishes or this much time has passed. */
+    private Duration prewarmTimeout = Duration.ofSeconds(60);
+}
@@ -0,0 +1,183 @@
+package com.example.medbridge_common.hotkeys;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which requests are hot, per kind of request, fed from the search entry points. The lists are saved
+ * to a local file so the next start can prewarm the caches with them (each service's HotKeyPrewarmer).
+ */
+@Component
+@EnableConfigurationProperties(HotKeyProperties.class)
+@Slf4j
+public class HotKeyTracker {
+
+    /**
+     * Sent on requests made by a startup warmup or hot-key replay, which the receiving service does not
+     * count as hot; its own replay would otherwise keep the previous run's keys hot indefinitely.
+     */
+    public static final String WARMUP_HEADER = "X-Warmup-Request";
+
+    private static final String WARMUP_CONTEXT_KEY = HotKeyTracker.class.getName() + ".warmup";
+
+    // Longer keys are one-off free text; tracking them would only churn the table
+    static final int MAX_KEY_LENGTH = 256;
+
+    private final HotKeyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, HeavyHitters> kinds = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    public HotKeyTracker(HotKeyProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public void record(String kind, String key) {
+        if (!properties.isEnabled() || key == null || key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return;
+        }
+        sketch(kind).add(key, 1);
+        changed = true;
+    }
+
+    /**
+     * A key for requests that differ in more than one value; the variants go last, so
+     * {@link #split} can take them off even when the value contains the separator.
+     */
+    public static String key(String value, Object... variants) {
+        StringBuilder key = new StringBuilder(value);
+        for (Object variant : variants) {
+            key.append(':').append(variant);
+        }
+        return key.toString();
+    }
+
+    /** The value and the given number of trailing variants of a {@link #key} key. */
+    public static String[] split(String key, int variants) {
+        String[] parts = new String[variants + 1];
+        int end = key.length();
+        for (int i = variants; i > 0; i--) {
+            int separator = key.lastIndexOf(':', end - 1);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed hot key: " + key);
+            }
+            parts[i] = key.substring(separator + 1, end);
+            end = separator;
+        }
+        parts[0] = key.substring(0, end);
+        return parts;
+    }
+
+    /** Marks the requests made under this context as warmup, see {@link #WARMUP_HEADER}. */
+    public static Context warmup(Context context) {
+        return context.put(WARMUP_CONTEXT_KEY, true);
+    }
+
+    public static boolean isWarmup(ContextView context) {
+        return context.getOrDefault(WARMUP_CONTEXT_KEY, false);
+    }
+
+    public Map<String, List<HotKey>> top() {
+        Map<String, List<HotKey>> top = new TreeMap<>();
+        kinds.forEach((kind, sketch) -> top.put(kind, sketch.top()));
+        return top;
+    }
+
+    public List<HotKey> top(String kind) {
+        HeavyHitters sketch = kinds.get(kind);
+        return sketch != null ? sketch.top() : List.of();
+    }
+
+    /**
+     * Reads the saved lists and seeds the sketches with them, so a restart keeps its history until
+     * traffic replaces it. Empty when nothing was saved or the file cannot be read.
+     */
+    public Map<String, List<HotKey>> load() {
+        Path file = properties.getFile();
+        try {
+            Snapshot snapshot = objectMapper.readValue(file.toFile(), Snapshot.class);
+            Map<String, List<HotKey>> keys = snapshot.keys() != null ? snapshot.keys() : Map.of();
+            keys.forEach((kind, hotKeys) -> hotKeys.forEach(hotKey -> sketch(kind).add(hotKey.key(), hotKey.count())));
+            log.info("Loaded {} hot keys saved at {} from {}",
+                    keys.values().stream().mapToInt(List::size).sum(), snapshot.savedAt(), file);
+            return keys;
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (IOException e) {
+            if (Files.exists(file)) {
+                log.warn("Could not read hot keys from {}: {}", file, e.getMessage());
+            }
+            return Map.of();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${medbridge.hotkeys.persist-interval:PT1M}",
+            initialDelayString = "${medbridge.hotkeys.persist-interval:PT1M}")
+    public void persist() {
+        if (!properties.isEnabled() || !changed) {
+            return;
+        }
+        changed = false;
+        Path file = properties.getFile().toAbsolutePath();
+        Path temp = null;
+        try {
+            // Written aside and moved into place, so a crash mid-write leaves the previous list intact
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), new Snapshot(Instant.now(), top()));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            changed = true;
+            log.warn("Could not save hot keys to {}: {}", file, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${medbridge.hotkeys.decay-interval:PT10M}",
+            initialDelayString = "${medbridge.hotkeys.decay-interval:PT10M}")
+    public void decay() {
+        kinds.values().forEach(HeavyHitters::decay);
+    }
+
+    @PreDestroy
+    public void stop() {
+        persist();
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+            // A stray temp file next to the list is harmless
+        }
+    }
+
+    private HeavyHitters sketch(String kind) {
+        return kinds.computeIfAbsent(kind, k ->
+                new HeavyHitters(properties.getTopK(), properties.getSketchWidth(), properties.getSketchDepth()));
+    }
+
+    record Snapshot(Instant savedAt, Map<String, List<HotKey>> keys) {
+    }
+}
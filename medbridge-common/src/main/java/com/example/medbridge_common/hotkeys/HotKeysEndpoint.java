@@ -0,0 +1,32 @@
+package com.example.medbridge_common.hotkeys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hotkeys}: the current hot keys per kind, hottest first. The keys are raw search strings, so
+ * the endpoint is only served on the loopback-bound management port.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker tracker;
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys() {
+        return tracker.top();
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeysOfKind(@Selector String kind) {
+        return tracker.top(kind);
+    }
+}
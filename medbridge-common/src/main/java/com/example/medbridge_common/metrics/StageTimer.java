@@ -0,0 +1,62 @@
+package com.example.medbridge_common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.function.Supplier;
+
+/**
+ * Times the stages of an operation under one timer name, tagged by operation, stage and outcome.
+ * Each service's StageMetrics owns one under its own name, next to the summaries only it records.
+ */
+public class StageTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    private final String description;
+
+    public StageTimer(MeterRegistry meterRegistry, String name, String description) {
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        this.description = description;
+    }
+
+    public <T> Flux<T> time(String operation, String stage, Flux<T> source) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return source.doFinally(signal -> sample.stop(timer(operation, stage, signal)));
+        });
+    }
+
+    public <T> Mono<T> time(String operation, String stage, Mono<T> source) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return source.doFinally(signal -> sample.stop(timer(operation, stage, signal)));
+        });
+    }
+
+    public <T> T record(String operation, String stage, Supplier<T> work) {
+        return timer(operation, stage, SignalType.ON_COMPLETE).record(work);
+    }
+
+    Timer timer(String operation, String stage, SignalType signal) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .tag("outcome", outcome(signal))
+                .register(meterRegistry);
+    }
+
+    static String outcome(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> signal.name().toLowerCase();
+        };
+    }
+}
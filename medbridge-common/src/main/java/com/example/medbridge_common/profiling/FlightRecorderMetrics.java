@@ -0,0 +1,162 @@
+package com.example.medbridge_common.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JFR events summarized as metrics, streamed from the recorder in-process: bytes allocated per
+ * endpoint, GC pauses, virtual threads pinned to their carrier, and slow socket reads per peer.
+ * <p>
+ * Reactive requests hop threads, so a sample cannot be tied to the request that caused it; it is put on
+ * the endpoint whose controller is on the sampled stack, else on the innermost class of this service or
+ * of medbridge-common (a cache, a codec, a scheduled job), else on "other" for time spent purely in
+ * framework code. The service's classes are those under its {@code @SpringBootApplication} package.
+ */
+@Component
+@EnableConfigurationProperties(ProfilingProperties.class)
+@Slf4j
+public class FlightRecorderMetrics {
+
+    public static final String ALLOCATION_COUNTER = "medbridge.jfr.allocation";
+    public static final String GC_PAUSE_TIMER = "medbridge.jfr.gc.pause";
+    public static final String PINNED_TIMER = "medbridge.jfr.vthread.pinned";
+    public static final String SOCKET_READ_TIMER = "medbridge.jfr.socket.read";
+
+    static final String COMMON_PACKAGE = "com.example.medbridge_common.";
+
+    private final ProfilingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String applicationPackage;
+    private RecordingStream stream;
+
+    public FlightRecorderMetrics(ProfilingProperties properties, MeterRegistry meterRegistry, BeanFactory beanFactory) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.applicationPackage = AutoConfigurationPackages.get(beanFactory).get(0) + ".";
+    }
+
+    @PostConstruct
+    public void start() {
+        ProfilingProperties.Metrics metrics = properties.getMetrics();
+        if (!properties.isEnabled() || !metrics.isEnabled() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.ObjectAllocationSample").with("throttle", metrics.getAllocationThrottle()).withStackTrace();
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(metrics.getPinnedThreshold()).withStackTrace();
+        stream.enable("jdk.SocketRead").withThreshold(metrics.getSocketReadThreshold());
+        stream.onEvent("jdk.ObjectAllocationSample", this::onAllocation);
+        stream.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.onEvent("jdk.SocketRead", this::onSocketRead);
+        stream.setMaxAge(Duration.ofMinutes(1));
+        stream.startAsync();
+        log.info("Streaming JFR events into metrics");
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onAllocation(RecordedEvent event) {
+        Counter.builder(ALLOCATION_COUNTER)
+                .description("Bytes allocated, estimated from JFR allocation samples, by endpoint")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint(event.getStackTrace()))
+                .register(meterRegistry)
+                .increment(event.getLong("weight"));
+    }
+
+    private void onGarbageCollection(RecordedEvent event) {
+        Timer.builder(GC_PAUSE_TIMER)
+                .description("Time application threads were paused by a garbage collection")
+                .tag("gc", event.getString("name"))
+                .tag("cause", event.getString("cause"))
+                .register(meterRegistry)
+                .record(event.getDuration("sumOfPauses"));
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Timer.builder(PINNED_TIMER)
+                .description("Time virtual threads blocked while pinned to their carrier thread, by endpoint")
+                .tag("endpoint", endpoint(event.getStackTrace()))
+                .register(meterRegistry)
+                .record(event.getDuration());
+    }
+
+    private void onSocketRead(RecordedEvent event) {
+        String host = event.getString("host");
+        Timer.builder(SOCKET_READ_TIMER)
+                .description("Socket reads slower than the threshold, by peer")
+                .tag("peer", (host == null || host.isEmpty() ? event.getString("address") : host) + ":" + event.getInt("port"))
+                .register(meterRegistry)
+                .record(event.getDuration());
+    }
+
+    private String endpoint(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "other";
+        }
+        List<String> frames = stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName() + "#" + frame.getMethod().getName())
+                .toList();
+        return endpoint(frames, applicationPackage);
+    }
+
+    /**
+     * The endpoint of a stack given innermost frame first as {@code class#method}: the outermost
+     * controller method, the innermost class of this service or of medbridge-common, or "other".
+     */
+    static String endpoint(List<String> frames, String applicationPackage) {
+        String controllerPackage = applicationPackage + "controller.";
+        String site = null;
+        String controller = null;
+        for (String frame : frames) {
+            int hash = frame.indexOf('#');
+            String type = frame.substring(0, hash);
+            if (site == null && (type.startsWith(applicationPackage) || type.startsWith(COMMON_PACKAGE))) {
+                site = simpleName(type);
+            }
+            if (type.startsWith(controllerPackage)) {
+                controller = simpleName(type) + "." + handlerMethod(frame.substring(hash + 1));
+            }
+        }
+        return controller != null ? controller : site != null ? site : "other";
+    }
+
+    private static String simpleName(String type) {
+        String name = type.substring(type.lastIndexOf('.') + 1);
+        int nested = name.indexOf('$');
+        return nested >= 0 ? name.substring(0, nested) : name;
+    }
+
+    // lambda$searchByCode$3 is a lambda written in searchByCode
+    private static String handlerMethod(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            return end > 0 ? method.substring("lambda$".length(), end) : method;
+        }
+        return method;
+    }
+}
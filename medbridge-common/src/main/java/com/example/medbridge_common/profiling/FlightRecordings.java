@@ -0,0 +1,181 @@
+package com.example.medbridge_common.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The always-on flight recording, kept as a rolling window on disk, and recordings started on demand
+ * through {@link FlightRecordingsEndpoint}. Any of them, or a snapshot of everything recorded so far,
+ * can be dumped to a file for download.
+ */
+@Component
+@EnableConfigurationProperties(ProfilingProperties.class)
+@Slf4j
+public class FlightRecordings {
+
+    public static final String CONTINUOUS = "continuous";
+
+    // Recordings are downloaded off the host, so leave out what can carry secrets: the environment,
+    // system properties and JVM arguments
+    private static final List<String> REDACTED_EVENTS =
+            List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    /** What /actuator/jfr shows of a recording. */
+    public record Info(long id, String name, String state, Instant startTime, Duration duration, long size) {
+
+        static Info of(Recording recording) {
+            return new Info(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+
+    private final ProfilingProperties properties;
+    private final Map<Long, Recording> onDemand = new ConcurrentHashMap<>();
+    private volatile Recording continuous;
+
+    public FlightRecordings(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void startContinuous() {
+        if (!properties.isEnabled() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        Recording recording = new Recording(settings(properties.getContinuousSettings()));
+        recording.setName(CONTINUOUS);
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.start();
+        continuous = recording;
+        log.info("Continuous flight recording started with {} settings, keeping {} or {}",
+                properties.getContinuousSettings(), properties.getMaxAge(), properties.getMaxSize());
+    }
+
+    public List<Info> list() {
+        List<Info> recordings = new ArrayList<>();
+        Recording current = continuous;
+        if (current != null) {
+            recordings.add(Info.of(current));
+        }
+        onDemand.values().forEach(recording -> recordings.add(Info.of(recording)));
+        return recordings;
+    }
+
+    /**
+     * Starts a recording that stops by itself after the duration, capped at maxOnDemandDuration.
+     *
+     * @throws IllegalArgumentException for unknown settings
+     * @throws IllegalStateException when maxOnDemandRecordings are already kept
+     */
+    public synchronized Info start(String settings, Duration duration) {
+        if (!properties.isEnabled() || !FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight recording is disabled");
+        }
+        if (onDemand.size() >= properties.getMaxOnDemandRecordings()) {
+            throw new IllegalStateException("Already keeping " + onDemand.size()
+                    + " recordings; delete one before starting another");
+        }
+        Duration max = properties.getMaxOnDemandDuration();
+        Recording recording = new Recording(settings(settings != null ? settings : properties.getOnDemandSettings()));
+        recording.setName("on-demand-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setDuration(duration == null || duration.compareTo(max) > 0 ? max : duration);
+        recording.start();
+        onDemand.put(recording.getId(), recording);
+        log.info("Flight recording {} started for {}", recording.getId(), recording.getDuration());
+        return Info.of(recording);
+    }
+
+    /** Stops an on-demand recording, keeping its data for download; null for an unknown id. */
+    public Info stop(long id) {
+        Recording recording = onDemand.get(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return Info.of(recording);
+    }
+
+    /** Discards an on-demand recording and its data; null for an unknown id. */
+    public Info close(long id) {
+        Recording recording = onDemand.remove(id);
+        if (recording == null) {
+            return null;
+        }
+        Info info = Info.of(recording);
+        recording.close();
+        return info;
+    }
+
+    /** Writes a recording, running or stopped, to a new temporary file; null for an unknown id. */
+    public Path dump(long id) {
+        Recording current = continuous;
+        Recording recording = current != null && current.getId() == id ? current : onDemand.get(id);
+        if (recording == null) {
+            return null;
+        }
+        return dump(recording);
+    }
+
+    /** Writes everything the recorder holds, from every recording, to a new temporary file. */
+    public Path snapshot() {
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            return dump(snapshot);
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        onDemand.values().forEach(Recording::close);
+        onDemand.clear();
+        Recording current = continuous;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private static Path dump(Recording recording) {
+        try {
+            Path file = Files.createTempFile("recording-" + recording.getId() + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Map<String, String> settings(String name) {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration(name).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + name, e);
+        }
+        REDACTED_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+        return settings;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.medbridge_common.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code /actuator/jfr}: list flight recordings, start one (POST with optional settings and duration),
+ * stop one (POST /{id}), download one or a snapshot of everything recorded (GET /{id}, GET /snapshot)
+ * and discard one (DELETE /{id}). Downloads are .jfr files for JDK Mission Control or {@code jfr print}.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class FlightRecordingsEndpoint {
+
+    private static final String SNAPSHOT = "snapshot";
+
+    private final FlightRecordings recordings;
+
+    @ReadOperation
+    public List<FlightRecordings.Info> recordings() {
+        return recordings.list();
+    }
+
+    @WriteOperation
+    public FlightRecordings.Info start(@Nullable String settings, @Nullable Duration duration) {
+        try {
+            return recordings.start(settings, duration);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<FlightRecordings.Info> stop(@Selector long id) {
+        return response(recordings.stop(id));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<FlightRecordings.Info> close(@Selector long id) {
+        return response(recordings.close(id));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String recording) {
+        Path file;
+        if (SNAPSHOT.equals(recording)) {
+            file = recordings.snapshot();
+        } else {
+            try {
+                file = recordings.dump(Long.parseLong(recording));
+            } catch (NumberFormatException e) {
+                throw new InvalidEndpointRequestException("Not a recording id: " + recording, "Not a recording id");
+            }
+        }
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    private static <T> WebEndpointResponse<T> response(T body) {
+        return body != null
+                ? new WebEndpointResponse<>(body, WebEndpointResponse.STATUS_OK)
+                : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    /** A dump that is deleted once it has been sent. */
+    static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        // WebFlux reads the file through this channel
+        @Override
+        public ReadableByteChannel readableChannel() throws IOException {
+            ReadableByteChannel channel = super.readableChannel();
+            return new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer dst) throws IOException {
+                    return channel.read(dst);
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return channel.isOpen();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        channel.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        // Zero-copy transfer would send the file without opening the stream that deletes it
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
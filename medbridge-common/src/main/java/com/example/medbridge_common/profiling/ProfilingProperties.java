@@ -0,0 +1,51 @@
+package com.example.medbridge_common.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Java Flight Recorder profiling shared by every MedBridge service (medbridge.profiling.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "medbridge.profiling")
+public class ProfilingProperties {
+
+    private boolean enabled = true;
+
+    /** JFR settings of the always-on recording: "default" costs about 1%, "profile" samples more. */
+    private String continuousSettings = "default";
+
+    /** The always-on recording keeps this much history on disk, whichever limit is reached first. */
+    private Duration maxAge = Duration.ofHours(1);
+
+    private DataSize maxSize = DataSize.ofMegabytes(250);
+
+    /** JFR settings of recordings started through /actuator/jfr. */
+    private String onDemandSettings = "profile";
+
+    /** Recordings started through /actuator/jfr stop after this long at most. */
+    private Duration maxOnDemandDuration = Duration.ofMinutes(10);
+
+    /** Recordings started through /actuator/jfr kept at once, running or stopped. */
+    private int maxOnDemandRecordings = 2;
+
+    private Metrics metrics = new Metrics();
+
+    @Data
+    public static class Metrics {
+
+        private boolean enabled = true;
+
+        /** Allocation samples taken per second; each stands for the bytes allocated since the last one. */
+        private String allocationThrottle = "100/s";
+
+        /** Virtual threads pinned to their carrier for less than this are not counted. */
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        /** Socket reads faster than this are not timed. */
+        private Duration socketReadThreshold = Duration.ofMillis(10);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.medbridge_common.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tail sampling rules shared by every MedBridge service (medbridge.tracing.tail-sampling.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "medbridge.tracing.tail-sampling")
+public class TailSamplingProperties {
+
+    private boolean enabled = true;
+
+    /** Share of local traces reported regardless of speed, for routes without a rule of their own. */
+    private double probability = 0.05;
+
+    /** Local traces at least this slow are always reported. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /** Upper bound on unsampled local traces held while waiting for their root span. */
+    private int maxBufferedTraces = 10_000;
+
+    /** Buffered traces whose root never finishes are discarded after this long. */
+    private Duration bufferTimeout = Duration.ofSeconds(30);
+
+    /** Per-route overrides, matched by prefix against the root span's uri. First match wins. */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private Duration slowThreshold;
+        private double probability;
+    }
+}
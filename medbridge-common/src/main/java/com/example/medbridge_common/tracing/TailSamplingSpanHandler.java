@@ -0,0 +1,194 @@
+package com.example.medbridge_common.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based keep decision for spans the head sampler did not pick.
+ * <p>
+ * Tracing runs with alwaysSampleLocal and a head sampling probability of 0, so every span
+ * reaches this handler unsampled and the route rules alone decide. Spans a caller already
+ * marked sampled pass straight through. Spans of an unsampled local trace are buffered until
+ * the local root finishes; the whole local trace is then reported when any span was slow,
+ * errored or hit a fallback, or when the trace id falls inside the route's baseline rate.
+ * Everything else is dropped before it reaches the Zipkin reporter.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    public static final String FALLBACK_TAG = "fallback";
+    public static final String SPANS_COUNTER = "tracing.tail.spans";
+
+    private final TailSamplingProperties properties;
+    private final ObjectProvider<SpanHandler> spanHandlers;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, PendingTrace> pending = new ConcurrentHashMap<>();
+
+    public TailSamplingSpanHandler(TailSamplingProperties properties,
+                                   ObjectProvider<SpanHandler> spanHandlers,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.spanHandlers = spanHandlers;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            count("head", 1);
+            return true;
+        }
+        if (!properties.isEnabled() || cause != Cause.FINISHED) {
+            return false;
+        }
+
+        if (!context.isLocalRoot()) {
+            buffer(context, span);
+            return false;
+        }
+
+        PendingTrace trace = pending.remove(context.localRootId());
+        List<BufferedSpan> localTrace = trace != null ? trace.snapshot() : new ArrayList<>(1);
+        localTrace.add(new BufferedSpan(context, span));
+
+        String reason = keepReason(context, span, localTrace);
+        if (reason == null) {
+            count("dropped", localTrace.size());
+            return false;
+        }
+        localTrace.forEach(this::report);
+        count(reason, localTrace.size());
+        return false;
+    }
+
+    private void buffer(TraceContext context, MutableSpan span) {
+        PendingTrace trace = pending.get(context.localRootId());
+        if (trace == null) {
+            if (pending.size() >= properties.getMaxBufferedTraces()) {
+                evictExpired();
+                if (pending.size() >= properties.getMaxBufferedTraces()) {
+                    count("overflow", 1);
+                    return;
+                }
+            }
+            trace = pending.computeIfAbsent(context.localRootId(), id -> new PendingTrace(System.nanoTime()));
+        }
+        trace.add(new BufferedSpan(context, span));
+    }
+
+    private String keepReason(TraceContext rootContext, MutableSpan root, List<BufferedSpan> localTrace) {
+        String uri = uri(root);
+        TailSamplingProperties.Route route = matchRoute(uri);
+        long slowMicros = TimeUnit.NANOSECONDS.toMicros(
+                (route != null && route.getSlowThreshold() != null ? route.getSlowThreshold() : properties.getSlowThreshold()).toNanos());
+
+        for (BufferedSpan buffered : localTrace) {
+            MutableSpan span = buffered.span();
+            if (span.error() != null || span.tag("error") != null || isServerError(span)) {
+                return "error";
+            }
+            if ("true".equals(span.tag(FALLBACK_TAG))) {
+                return "fallback";
+            }
+        }
+        if (root.finishTimestamp() - root.startTimestamp() >= slowMicros) {
+            return "slow";
+        }
+        if (inBaseline(rootContext, route != null ? route.getProbability() : properties.getProbability())) {
+            return "baseline";
+        }
+        return null;
+    }
+
+    private TailSamplingProperties.Route matchRoute(String uri) {
+        if (uri == null) {
+            return null;
+        }
+        for (TailSamplingProperties.Route route : properties.getRoutes()) {
+            if (route.getPattern() != null && uri.startsWith(route.getPattern())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void report(BufferedSpan buffered) {
+        TraceContext sampled = buffered.context().toBuilder().sampled(true).build();
+        for (SpanHandler handler : spanHandlers.orderedStream().toList()) {
+            if (handler == this) {
+                continue;
+            }
+            if (!handler.end(sampled, buffered.span(), Cause.FINISHED)) {
+                return;
+            }
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.nanoTime() - properties.getBufferTimeout().toNanos();
+        pending.entrySet().removeIf(entry -> entry.getValue().createdNanos() < cutoff);
+    }
+
+    private void count(String decision, int spans) {
+        meterRegistry.counter(SPANS_COUNTER, "decision", decision).increment(spans);
+    }
+
+    // Same decision for the same trace id in every service, so baseline traces stay whole
+    private static boolean inBaseline(TraceContext context, double probability) {
+        if (probability <= 0) {
+            return false;
+        }
+        return Math.floorMod(context.traceId(), 10_000L) < probability * 10_000;
+    }
+
+    private static boolean isServerError(MutableSpan span) {
+        String outcome = span.tag("outcome");
+        return "SERVER_ERROR".equals(outcome);
+    }
+
+    private static String uri(MutableSpan span) {
+        String uri = span.tag("uri");
+        if (uri == null || "UNKNOWN".equals(uri)) {
+            uri = pathOf(span.tag("http.url"));
+        }
+        return uri != null ? uri : span.name();
+    }
+
+    private static String pathOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return url;
+        }
+        int path = url.indexOf('/', scheme + 3);
+        return path < 0 ? "/" : url.substring(path);
+    }
+
+    private record BufferedSpan(TraceContext context, MutableSpan span) {
+    }
+
+    private record PendingTrace(long createdNanos, List<BufferedSpan> spans) {
+
+        PendingTrace(long createdNanos) {
+            this(createdNanos, new ArrayList<>());
+        }
+
+        synchronized void add(BufferedSpan span) {
+            spans.add(span);
+        }
+
+        synchronized List<BufferedSpan> snapshot() {
+            return new ArrayList<>(spans);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.medbridge_common.tracing;
+
+import brave.Tracing;
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@EnableConfigurationProperties(TailSamplingProperties.class)
+public class TracingConfig {
+
+    // Unsampled spans must still be recorded locally so the tail sampler can keep them
+    @Bean
+    public TracingCustomizer alwaysSampleLocalCustomizer() {
+        return Tracing.Builder::alwaysSampleLocal;
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public TailSamplingSpanHandler tailSamplingSpanHandler(TailSamplingProperties properties,
+                                                           ObjectProvider<SpanHandler> spanHandlers,
+                                                           MeterRegistry meterRegistry) {
+        return new TailSamplingSpanHandler(properties, spanHandlers, meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.medbridge_common.accesslog;
+
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogFilterTest {
+
+    private final AccessLogProperties properties = new AccessLogProperties();
+    private final AccessLogFilter filter = new AccessLogFilter(properties, null, Tracer.NOOP);
+
+    @Test
+    public void testReason_alwaysLogsFailedAndSlowRequests() {
+        properties.setSampleRate(0.0);
+
+        assertEquals("error", filter.reason("/api/terminology/search/code/SK00", 504, false, Duration.ofMillis(5)));
+        assertEquals("error", filter.reason("/api/terminology/search/code/SK00", 200, true, Duration.ofMillis(5)));
+        assertEquals("slow", filter.reason("/api/terminology/search/code/SK00", 200, false, Duration.ofSeconds(1)));
+        assertNull(filter.reason("/api/terminology/search/code/SK00", 200, false, Duration.ofMillis(5)));
+    }
+
+    @Test
+    public void testReason_usesFirstMatchingRoute() {
+        properties.setSampleRate(1.0);
+        AccessLogProperties.Route autocomplete = new AccessLogProperties.Route();
+        autocomplete.setPattern("/api/terminology/autocomplete");
+        autocomplete.setSlowThreshold(Duration.ofMillis(100));
+        autocomplete.setSampleRate(0.0);
+        properties.setRoutes(List.of(autocomplete));
+
+        assertEquals("slow", filter.reason("/api/terminology/autocomplete", 200, false, Duration.ofMillis(150)));
+        assertNull(filter.reason("/api/terminology/autocomplete", 200, false, Duration.ofMillis(5)));
+        assertEquals("sampled", filter.reason("/api/terminology/category/ayurveda", 200, false, Duration.ofMillis(5)));
+    }
+
+    @Test
+    public void testResults_isANoOpOutsideARequest() {
+        assertEquals(List.of("SK00"), Mono.just(List.of("SK00"))
+                .transform(AccessLogFilter.results(List::size))
+                .block());
+    }
+}
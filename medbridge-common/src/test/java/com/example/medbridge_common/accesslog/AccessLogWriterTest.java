@@ -0,0 +1,54 @@
+package com.example.medbridge_common.accesslog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testAppend_dropsWhenTheRingIsFull() {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setBufferSize(2);
+        AccessLogWriter writer = new AccessLogWriter(properties, objectMapper, meterRegistry, lines::add);
+
+        for (int i = 0; i < 5; i++) {
+            writer.append(entry(i));
+        }
+
+        assertEquals(3.0, meterRegistry.get(AccessLogWriter.DROPPED_COUNTER).counter().count());
+        assertEquals(2.0, meterRegistry.get(AccessLogWriter.QUEUED_GAUGE).gauge().value());
+    }
+
+    @Test
+    public void testStop_writesWhatWasQueued() throws Exception {
+        AccessLogWriter writer = new AccessLogWriter(new AccessLogProperties(), objectMapper, meterRegistry, lines::add);
+        writer.append(entry(3));
+        writer.append(entry(0));
+
+        writer.start();
+        writer.stop();
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"latencyMs\":3"), lines.get(0));
+        assertTrue(lines.get(0).contains("\"timestamp\":\"2026-01-01T00:00:00Z\""), lines.get(0));
+        assertFalse(lines.get(0).contains("traceId"), "absent fields are left out");
+    }
+
+    private static AccessLogEntry entry(long latencyMs) {
+        return new AccessLogEntry(Instant.parse("2026-01-01T00:00:00Z"), "GET", "/api/terminology/search/code/{codeValue}",
+                "/api/terminology/search/code/SK00", null, 200, latencyMs, 1, "sampled", null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.medbridge_common.hotkeys;
+
+import org.junit.jupiter.api.Test;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeavyHittersTest {
+
+    @Test
+    public void testTop_findsHotKeysInALongTail() {
+        HeavyHitters sketch = new HeavyHitters(5, 1024, 4);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            sketch.add("tail-" + random.nextInt(5_000), 1);
+            if (i % 10 == 0) {
+                sketch.add("SK00", 1);
+            }
+            if (i % 20 == 0) {
+                sketch.add("SK01", 1);
+            }
+        }
+
+        List<HotKey> top = sketch.top();
+
+        assertEquals(5, top.size());
+        assertEquals("SK00", top.get(0).key());
+        assertEquals("SK01", top.get(1).key());
+        assertTrue(top.get(0).count() >= 2_000, "estimates never undercount");
+    }
+
+    @Test
+    public void testDecay_halvesCountsAndDropsColdKeys() {
+        HeavyHitters sketch = new HeavyHitters(10, 1024, 4);
+        sketch.add("SK00", 8);
+        sketch.add("SK01", 1);
+
+        sketch.decay();
+
+        assertEquals(List.of(new HotKey("SK00", 4)), sketch.top());
+        assertEquals(5, sketch.add("SK00", 1));
+    }
+
+    @Test
+    public void testSplit_takesVariantsFromTheEnd() {
+        String key = HotKeyTracker.key("fever: high", true, false, true);
+
+        assertArrayEquals(new String[]{"fever: high", "true", "false", "true"}, HotKeyTracker.split(key, 3));
+        assertArrayEquals(new String[]{"sk00", "false"}, HotKeyTracker.split(HotKeyTracker.key("sk00", false), 1));
+        assertThrows(IllegalArgumentException.class, () -> HotKeyTracker.split("sk00", 1));
+    }
+
+    @Test
+    public void testWarmup_onlyUnderAWarmupContext() {
+        assertTrue(HotKeyTracker.isWarmup(HotKeyTracker.warmup(Context.empty())));
+        assertFalse(HotKeyTracker.isWarmup(Context.empty()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.medbridge_common.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StageTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StageTimer stages = new StageTimer(meterRegistry, "test.stage", "Time spent in each stage");
+
+    @Test
+    public void testTime_tagsOutcome() {
+        stages.time("search", "lookup", Mono.just("ok")).block();
+        assertThrows(IllegalStateException.class,
+                () -> stages.time("search", "lookup", Mono.error(new IllegalStateException("down"))).block());
+        stages.time("search", "stream", Flux.range(0, 10)).take(1).blockLast();
+
+        assertEquals(1, count("lookup", "success"));
+        assertEquals(1, count("lookup", "error"));
+        assertEquals(1, count("stream", "cancelled"));
+    }
+
+    @Test
+    public void testRecord_countsAsSuccess() {
+        assertEquals("done", stages.record("search", "render", () -> "done"));
+
+        assertEquals(1, count("render", "success"));
+    }
+
+    private long count(String stage, String outcome) {
+        return meterRegistry.get("test.stage")
+                .tag("operation", "search")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
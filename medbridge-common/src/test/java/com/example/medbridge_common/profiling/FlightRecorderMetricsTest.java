@@ -0,0 +1,61 @@
+package com.example.medbridge_common.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderMetricsTest {
+
+    private static final String APPLICATION_PACKAGE = "com.example.terminology_service.";
+
+    @Test
+    public void testEndpoint_namesOutermostControllerMethod() {
+        List<String> frames = List.of(
+                "com.fasterxml.jackson.core.json.UTF8JsonGenerator#writeString",
+                "com.example.terminology_service.service.NamasteTerminologyService#toResponse",
+                "com.example.terminology_service.controller.TerminologyController#lambda$searchByCode$2",
+                "reactor.core.publisher.FluxMap$MapSubscriber#onNext",
+                "com.example.terminology_service.controller.InternalTerminologyController#searchByCode");
+
+        assertEquals("InternalTerminologyController.searchByCode", FlightRecorderMetrics.endpoint(frames, APPLICATION_PACKAGE));
+    }
+
+    @Test
+    public void testEndpoint_fallsBackToInnermostServiceClass() {
+        List<String> frames = List.of(
+                "java.util.HashMap#resize",
+                "com.example.terminology_service.cache.NamasteCodeCodec$Writer#write",
+                "com.example.terminology_service.cache.RedisCacheTier#put",
+                "reactor.core.publisher.MonoFlatMap$FlatMapMain#onNext");
+
+        assertEquals("NamasteCodeCodec", FlightRecorderMetrics.endpoint(frames, APPLICATION_PACKAGE));
+    }
+
+    @Test
+    public void testEndpoint_otherWithoutServiceFrames() {
+        assertEquals("other", FlightRecorderMetrics.endpoint(List.of(
+                "io.netty.buffer.PooledByteBufAllocator#newDirectBuffer",
+                "io.netty.channel.nio.NioEventLoop#run"), APPLICATION_PACKAGE));
+    }
+
+    @Test
+    public void testEndpoint_countsSharedClassesAsServiceCode() {
+        List<String> frames = List.of(
+                "java.lang.StringBuilder#append",
+                "com.example.medbridge_common.accesslog.AccessLogWriter#append",
+                "reactor.core.publisher.FluxPeek$PeekSubscriber#onComplete");
+
+        assertEquals("AccessLogWriter", FlightRecorderMetrics.endpoint(frames, APPLICATION_PACKAGE));
+    }
+
+    @Test
+    public void testEndpoint_ignoresOtherServicesPackages() {
+        List<String> frames = List.of(
+                "com.example.fhir_service.controller.FhirTerminologyController#search",
+                "io.netty.channel.nio.NioEventLoop#run");
+
+        assertEquals("other", FlightRecorderMetrics.endpoint(frames, APPLICATION_PACKAGE));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.medbridge_common.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecordingsTest {
+
+    private final ProfilingProperties properties = new ProfilingProperties();
+    private final FlightRecordings recordings = new FlightRecordings(properties);
+
+    @AfterEach
+    public void tearDown() {
+        recordings.closeAll();
+    }
+
+    @Test
+    public void testSettings_leaveOutEventsThatCarrySecrets() {
+        Map<String, String> settings = FlightRecordings.settings("default");
+
+        assertEquals("false", settings.get("jdk.InitialEnvironmentVariable#enabled"));
+        assertEquals("false", settings.get("jdk.InitialSystemProperty#enabled"));
+        assertThrows(IllegalArgumentException.class, () -> FlightRecordings.settings("no-such-settings"));
+    }
+
+    @Test
+    public void testStart_isDumpedStoppedAndClosed() throws Exception {
+        recordings.startContinuous();
+        FlightRecordings.Info started = recordings.start(null, Duration.ofHours(1));
+
+        assertEquals(properties.getMaxOnDemandDuration(), started.duration(), "capped at the maximum");
+        assertEquals(2, recordings.list().size());
+        Path file = recordings.dump(started.id());
+        try {
+            assertTrue(Files.size(file) > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals("STOPPED", recordings.stop(started.id()).state());
+        assertNotNull(recordings.close(started.id()));
+        assertNull(recordings.close(started.id()));
+        assertEquals(1, recordings.list().size(), "the continuous recording stays");
+    }
+
+    @Test
+    public void testStart_refusedBeyondTheLimit() {
+        properties.setMaxOnDemandRecordings(1);
+        recordings.start(null, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> recordings.start(null, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    public void testSnapshot_writesWhatIsRecorded() throws Exception {
+        recordings.startContinuous();
+
+        Path file = recordings.snapshot();
+        try {
+            assertTrue(Files.size(file) > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
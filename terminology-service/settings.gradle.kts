@@ -1 +1,4 @@
 rootProject.name = "terminology-service"
+
+// Code shared with the other services
+includeBuild("../medbridge-common")
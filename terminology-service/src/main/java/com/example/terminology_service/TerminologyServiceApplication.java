@@ -4,10 +4,18 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {
+		"com.example.terminology_service",
+		"com.example.medbridge_common.accesslog",
+		"com.example.medbridge_common.hotkeys",
+		"com.example.medbridge_common.profiling",
+		"com.example.medbridge_common.tracing"
+})
 @EnableDiscoveryClient
 @EnableCaching
+@EnableScheduling
 public class TerminologyServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,192 @@
+package com.example.terminology_service.autocomplete;
+
+import com.example.terminology_service.dto.InternalCodeView;
+import com.example.terminology_service.service.NamasteTerminologyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Search-as-you-type over one WebSocket per input box. The client sends each partial query as a text
+ * frame, either the bare text or {@code {"id":7,"query":"fev","limit":10,"fuzzy":false}}, and gets
+ * back {@code {"id":7,"query":"fev","results":[...]}} for the newest query only.
+ * <p>
+ * Queries are debounced per session, and a new query cancels the one still running (switch-latest),
+ * so a fast typist costs one Mongo query per pause rather than one per keystroke and stale results
+ * are never sent. Session defaults come from the handshake: {@code ?debounce=<millis>&limit=&fuzzy=}.
+ */
+@Slf4j
+public class AutocompleteChannelHandler implements WebSocketHandler {
+
+    public static final String QUERY_COUNTER = "terminology.autocomplete.channel.queries";
+    public static final String SESSION_GAUGE = "terminology.autocomplete.channel.sessions";
+
+    private final NamasteTerminologyService terminologyService;
+    private final AutocompleteChannelProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Counter received;
+    private final Counter answered;
+    private final Counter superseded;
+    private final Counter rejected;
+
+    private record SessionOptions(Duration debounce, int limit, boolean fuzzy) {
+    }
+
+    public AutocompleteChannelHandler(NamasteTerminologyService terminologyService,
+                                      AutocompleteChannelProperties properties,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.terminologyService = terminologyService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        meterRegistry.gauge(SESSION_GAUGE, sessions);
+        this.received = queryCounter(meterRegistry, "received");
+        this.answered = queryCounter(meterRegistry, "answered");
+        this.superseded = queryCounter(meterRegistry, "superseded");
+        this.rejected = queryCounter(meterRegistry, "rejected");
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        SessionOptions options = options(session.getHandshakeInfo().getUri());
+        Flux<AutocompleteQuery> queries = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .timeout(properties.getIdleTimeout())
+                .onErrorResume(TimeoutException.class, e -> Flux.empty())
+                .doOnNext(text -> received.increment())
+                .map(text -> parse(text, options));
+        Flux<WebSocketMessage> replies = replies(queries, options.debounce(), this::search, superseded)
+                .doOnNext(reply -> (reply.error() == null ? answered : rejected).increment())
+                .map(reply -> session.textMessage(write(reply)));
+        return Mono.fromRunnable(sessions::incrementAndGet)
+                .then(session.send(replies))
+                .doFinally(signal -> sessions.decrementAndGet());
+    }
+
+    /**
+     * The reply stream for a stream of queries: debounced, repeats of the previous search dropped, and
+     * each search cancelled as soon as a newer query arrives.
+     */
+    static Flux<AutocompleteReply> replies(Flux<AutocompleteQuery> queries, Duration debounce,
+                                           Function<AutocompleteQuery, Mono<List<InternalCodeView>>> search,
+                                           Counter superseded) {
+        Flux<AutocompleteQuery> settled = debounce.isZero()
+                ? queries
+                : queries.sampleTimeout(query -> Mono.delay(debounce));
+        return settled
+                .distinctUntilChanged(Function.identity(), AutocompleteQuery::sameSearchAs)
+                .switchMap(query -> query.isValid()
+                        ? search.apply(query)
+                                .map(results -> AutocompleteReply.of(query, results))
+                                .onErrorResume(e -> {
+                                    log.warn("Autocomplete channel search failed for {}: {}", query.query(), e.getMessage());
+                                    return Mono.just(AutocompleteReply.failed(query, "Autocomplete failed"));
+                                })
+                                .doOnCancel(superseded::increment)
+                        : Mono.just(AutocompleteReply.failed(query, query.error())));
+    }
+
+    private AutocompleteQuery parse(String text, SessionOptions options) {
+        String trimmed = text.trim();
+        if (!trimmed.startsWith("{")) {
+            return query(null, trimmed, options.limit(), options.fuzzy());
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(trimmed);
+        } catch (JsonProcessingException e) {
+            return AutocompleteQuery.invalid(null, "Malformed message");
+        }
+        Long id = node.hasNonNull("id") ? node.get("id").asLong() : null;
+        if (!node.hasNonNull("query")) {
+            return AutocompleteQuery.invalid(id, "Missing query");
+        }
+        return query(id, node.get("query").asText().trim(),
+                node.hasNonNull("limit") ? node.get("limit").asInt() : options.limit(),
+                node.hasNonNull("fuzzy") ? node.get("fuzzy").asBoolean() : options.fuzzy());
+    }
+
+    private AutocompleteQuery query(Long id, String query, int limit, boolean fuzzy) {
+        if (query.length() > properties.getMaxQueryLength()) {
+            return AutocompleteQuery.invalid(id, "Query longer than " + properties.getMaxQueryLength() + " characters");
+        }
+        return new AutocompleteQuery(id, query, clampLimit(limit), fuzzy, null);
+    }
+
+    private Mono<List<InternalCodeView>> search(AutocompleteQuery query) {
+        return terminologyService.searchForAutoComplete(query.query(), query.limit(), query.fuzzy(), false)
+                .map(InternalCodeView::titleOf)
+                .collectList();
+    }
+
+    private SessionOptions options(URI uri) {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(uri).build().getQueryParams();
+        Duration debounce = debounce(params.getFirst("debounce"), properties);
+        int limit = properties.getDefaultLimit();
+        String limitParam = params.getFirst("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring limit={} on autocomplete channel", limitParam);
+            }
+        }
+        return new SessionOptions(debounce, clampLimit(limit), Boolean.parseBoolean(params.getFirst("fuzzy")));
+    }
+
+    /** The debounce a session asked for, or the default, kept between min-debounce and max-debounce. */
+    static Duration debounce(String requestedMillis, AutocompleteChannelProperties properties) {
+        Duration debounce = properties.getDebounce();
+        if (requestedMillis != null) {
+            try {
+                debounce = Duration.ofMillis(Long.parseLong(requestedMillis));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring debounce={} on autocomplete channel", requestedMillis);
+            }
+        }
+        if (debounce.compareTo(properties.getMinDebounce()) < 0) {
+            return properties.getMinDebounce();
+        }
+        if (debounce.compareTo(properties.getMaxDebounce()) > 0) {
+            return properties.getMaxDebounce();
+        }
+        return debounce;
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, properties.getMaxLimit()));
+    }
+
+    private String write(AutocompleteReply reply) {
+        try {
+            return objectMapper.writeValueAsString(reply);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write autocomplete reply", e);
+        }
+    }
+
+    private static Counter queryCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(QUERY_COUNTER)
+                .description("Partial queries on the autocomplete channel; received minus the rest were debounced or repeats")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
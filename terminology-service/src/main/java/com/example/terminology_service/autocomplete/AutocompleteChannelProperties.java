@@ -0,0 +1,36 @@
+package com.example.terminology_service.autocomplete;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "terminology.autocomplete-channel")
+public class AutocompleteChannelProperties {
+
+    private boolean enabled = true;
+
+    private String path = "/api/terminology/ws/autocomplete";
+
+    /** A query runs once the session has sent nothing newer for this long; 0 runs every query if min-debounce is 0 too. */
+    private Duration debounce = Duration.ofMillis(120);
+
+    /**
+     * Lower bound for the debounce a client asks for with ?debounce=&lt;millis&gt;, so no session can
+     * cost a query per keystroke.
+     */
+    private Duration minDebounce = Duration.ofMillis(50);
+
+    /** Upper bound for the debounce a client asks for with ?debounce=&lt;millis&gt;. */
+    private Duration maxDebounce = Duration.ofSeconds(1);
+
+    private int defaultLimit = 10;
+
+    private int maxLimit = 50;
+
+    private int maxQueryLength = 100;
+
+    /** Sessions that send nothing for this long are closed. */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,23 @@
+package com.example.terminology_service.autocomplete;
+
+/**
+ * One partial query sent on the autocomplete channel, with the session defaults already applied.
+ * {@code error} is set instead when the frame could not be used; such queries are answered with the
+ * error and never searched.
+ */
+public record AutocompleteQuery(Long id, String query, int limit, boolean fuzzy, String error) {
+
+    static AutocompleteQuery invalid(Long id, String error) {
+        return new AutocompleteQuery(id, null, 0, false, error);
+    }
+
+    boolean isValid() {
+        return error == null;
+    }
+
+    /** Queries with the same text and options return the same results. */
+    boolean sameSearchAs(AutocompleteQuery other) {
+        return isValid() && other.isValid()
+                && query.equals(other.query) && limit == other.limit && fuzzy == other.fuzzy;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.terminology_service.autocomplete;
+
+import com.example.terminology_service.dto.InternalCodeView;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/** Results for the newest query of a session; {@code id} echoes the client's id for that query. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AutocompleteReply(Long id, String query, List<InternalCodeView> results, String error) {
+
+    static AutocompleteReply of(AutocompleteQuery query, List<InternalCodeView> results) {
+        return new AutocompleteReply(query.id(), query.query(), results, null);
+    }
+
+    static AutocompleteReply failed(AutocompleteQuery query, String error) {
+        return new AutocompleteReply(query.id(), query.query(), null, error);
+    }
+}
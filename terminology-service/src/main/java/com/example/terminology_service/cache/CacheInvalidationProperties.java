@@ -0,0 +1,30 @@
+package com.example.terminology_service.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "terminology.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    private boolean enabled = true;
+
+    /** Identifies this replica's resume token; must be stable across restarts of the same replica. */
+    private String instanceId;
+
+    /** The latest resume token is persisted at most this often. */
+    private Duration tokenSaveInterval = Duration.ofSeconds(5);
+
+    /** Change events are handled in batches of up to this many, or whatever arrived within batchWindow. */
+    private int batchSize = 500;
+
+    private Duration batchWindow = Duration.ofMillis(100);
+
+    /** A batch touching more codes than this flushes the caches instead of evicting key by key. */
+    private int flushThreshold = 10_000;
+
+    /** Delay before reopening the change stream after an error. */
+    private Duration retryBackoff = Duration.ofSeconds(5);
+}
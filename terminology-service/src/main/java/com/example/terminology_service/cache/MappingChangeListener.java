@@ -0,0 +1,329 @@
+package com.example.terminology_service.cache;
+
+import com.example.terminology_service.model.ChangeStreamToken;
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.example.terminology_service.service.BestMappingView;
+import com.example.terminology_service.service.ConceptAdjacencyView;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Evicts exactly the cache entries a tm2_mappings change affects, in every replica, by following the
+ * collection's change stream. This is what lets the response caches run with long TTLs.
+ * <p>
+ * searchByCode answers come from the best_mappings view and translations from concept_adjacency, so
+ * the view entries of the changed codes are recomputed before their cache entries are evicted, whoever
+ * wrote the mappings. Every replica does this; the view writes are idempotent.
+ * <p>
+ * Each replica persists its resume token (change_stream_tokens) and resumes from it after a restart
+ * or a dropped connection. When the token can no longer be resumed, or an event does not say which
+ * codes it touched, both views are rebuilt and then the caches are flushed. Deletes and key changes are
+ * only precise when the collection records pre-images ({@code changeStreamPreAndPostImages}); otherwise
+ * they rebuild and flush too.
+ */
+@Component
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+@Slf4j
+public class MappingChangeListener {
+
+    public static final String INVALIDATIONS_COUNTER = "terminology.cache.invalidations";
+
+    static final Set<String> KEY_FIELDS = Set.of("code", "tm2_code", "type");
+
+    // ChangeStreamFatalError, ChangeStreamHistoryLost and InvalidResumeToken
+    private static final Set<Integer> TOKEN_LOST_CODES = Set.of(280, 286, 260);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final NamasteCodeRepository namasteCodeRepository;
+    private final BestMappingView bestMappingView;
+    private final ConceptAdjacencyView conceptAdjacencyView;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId;
+    private final AtomicReference<BsonValue> latestToken = new AtomicReference<>();
+    private final AtomicReference<BsonValue> savedToken = new AtomicReference<>();
+    private volatile Disposable subscription;
+    private volatile boolean stopped;
+
+    public MappingChangeListener(ReactiveMongoTemplate mongoTemplate,
+                                 NamasteCodeRepository namasteCodeRepository,
+                                 BestMappingView bestMappingView,
+                                 ConceptAdjacencyView conceptAdjacencyView,
+                                 CacheManager cacheManager,
+                                 CacheInvalidationProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${HOSTNAME:${spring.application.name}:${server.port}}") String defaultInstanceId) {
+        this.mongoTemplate = mongoTemplate;
+        this.namasteCodeRepository = namasteCodeRepository;
+        this.bestMappingView = bestMappingView;
+        this.conceptAdjacencyView = conceptAdjacencyView;
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.instanceId = properties.getInstanceId() != null ? properties.getInstanceId() : defaultInstanceId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        mongoTemplate.findById(instanceId, ChangeStreamToken.class)
+                .doOnNext(stored -> {
+                    latestToken.set(stored.toBson());
+                    savedToken.set(latestToken.get());
+                    log.info("Resuming tm2_mappings change stream for {} from stored token", instanceId);
+                })
+                .subscribe(null, e -> open(), this::open);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        saveToken().block(Duration.ofSeconds(2));
+    }
+
+    @Scheduled(fixedDelayString = "${terminology.cache-invalidation.token-save-interval:PT5S}")
+    public void scheduledTokenSave() {
+        saveToken().subscribe(null, e -> log.warn("Could not save change stream token: {}", e.getMessage()));
+    }
+
+    private void open() {
+        if (stopped) {
+            return;
+        }
+        BsonValue token = latestToken.get();
+        subscription = mongoTemplate.changeStream(NamasteCode.class)
+                .withOptions(options -> {
+                    options.fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                            .fullDocumentBeforeChangeLookup(FullDocumentBeforeChange.WHEN_AVAILABLE);
+                    if (token != null) {
+                        options.resumeAfter(token);
+                    }
+                })
+                .listen()
+                .bufferTimeout(properties.getBatchSize(), properties.getBatchWindow())
+                .concatMap(this::invalidate)
+                .subscribe(null, this::onStreamError, this::onStreamEnd);
+    }
+
+    private void onStreamError(Throwable error) {
+        if (tokenLost(error)) {
+            log.warn("tm2_mappings change stream cannot resume ({}); rebuilding views and flushing caches", error.getMessage());
+            rebuildViews().doFinally(signal -> flushAll("token-lost")).subscribe();
+            latestToken.set(null);
+            savedToken.set(null);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(instanceId)), ChangeStreamToken.class).subscribe();
+        } else {
+            log.warn("tm2_mappings change stream failed, reopening in {}: {}", properties.getRetryBackoff(), error.getMessage());
+        }
+        Mono.delay(properties.getRetryBackoff()).subscribe(tick -> open());
+    }
+
+    private void onStreamEnd() {
+        // Only an invalidate event (collection dropped or renamed) ends the stream; its token cannot be resumed after
+        latestToken.set(null);
+        Mono.delay(properties.getRetryBackoff()).subscribe(tick -> open());
+    }
+
+    Mono<Void> invalidate(List<ChangeStreamEvent<NamasteCode>> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        BsonValue token = events.get(events.size() - 1).getResumeToken();
+        Set<String> codes = new HashSet<>();
+        Set<String> tm2Codes = new HashSet<>();
+        Set<String> types = new HashSet<>();
+        boolean precise = events.stream().allMatch(event -> collect(event, codes, tm2Codes, types));
+        if (!precise) {
+            return rebuildViews().then(Mono.fromRunnable(() -> {
+                flushAll("unknown-keys");
+                latestToken.set(token);
+            }));
+        }
+        Mono<Long> refreshViews = bestMappingView.refresh(codes, tm2Codes)
+                .then(conceptAdjacencyView.refresh(codes, tm2Codes));
+        if (codes.size() + tm2Codes.size() > properties.getFlushThreshold()) {
+            return refreshViews
+                    .doOnNext(refreshed -> {
+                        flushAll("bulk");
+                        latestToken.set(token);
+                    })
+                    .then();
+        }
+        // searchByCode answers for a code are resolved through its TM2 code, so codes mapped to a
+        // changed TM2 code are stale as well
+        Flux<String> resolving = tm2Codes.isEmpty()
+                ? Flux.empty()
+                : namasteCodeRepository.findCodesByTm2CodeIn(tm2Codes).map(NamasteCode::getCode).filter(Objects::nonNull);
+        return refreshViews
+                .then(resolving.collect(Collectors.toSet()))
+                .doOnNext(resolvingCodes -> {
+                    evict(codes, tm2Codes, types, resolvingCodes);
+                    latestToken.set(token);
+                })
+                .then();
+    }
+
+    /**
+     * Adds the codes a change touched before and after it; false when the event does not carry them.
+     */
+    static boolean collect(ChangeStreamEvent<NamasteCode> event, Set<String> codes, Set<String> tm2Codes, Set<String> types) {
+        OperationType operation = event.getOperationType();
+        if (operation == null) {
+            return false;
+        }
+        NamasteCode before = event.getBodyBeforeChange();
+        NamasteCode after = event.getBody();
+        return switch (operation) {
+            case INSERT -> add(after, codes, tm2Codes, types);
+            case DELETE -> add(before, codes, tm2Codes, types);
+            case REPLACE -> add(before, codes, tm2Codes, types) && add(after, codes, tm2Codes, types);
+            case UPDATE -> (before != null ? add(before, codes, tm2Codes, types) : !touchesKeyFields(event.getRaw()))
+                    && add(after, codes, tm2Codes, types);
+            default -> false;
+        };
+    }
+
+    private static boolean touchesKeyFields(ChangeStreamDocument<Document> raw) {
+        UpdateDescription update = raw != null ? raw.getUpdateDescription() : null;
+        if (update == null) {
+            return true;
+        }
+        BsonDocument updated = update.getUpdatedFields();
+        List<String> removed = update.getRemovedFields();
+        return (updated != null && updated.keySet().stream().anyMatch(KEY_FIELDS::contains))
+                || (removed != null && removed.stream().anyMatch(KEY_FIELDS::contains));
+    }
+
+    private static boolean add(NamasteCode mapping, Set<String> codes, Set<String> tm2Codes, Set<String> types) {
+        if (mapping == null) {
+            return false;
+        }
+        if (mapping.getCode() != null) {
+            codes.add(mapping.getCode());
+        }
+        if (mapping.getTm2Code() != null) {
+            tm2Codes.add(mapping.getTm2Code());
+        }
+        if (mapping.getType() != null) {
+            types.add(mapping.getType());
+        }
+        return true;
+    }
+
+    private void evict(Set<String> codes, Set<String> tm2Codes, Set<String> types, Set<String> resolvingCodes) {
+        // Keys mirror the @Cacheable keys in NamasteTerminologyService
+        Cache namasteCodes = cacheManager.getCache("namaste-code-lookup");
+        Cache categories = cacheManager.getCache("category-lookup");
+        Cache codeLookups = cacheManager.getCache("code-lookup");
+        int evicted = 0;
+        if (namasteCodes != null) {
+            evicted += evictBothVariants(namasteCodes, codes);
+        }
+        if (categories != null) {
+            evicted += evictBothVariants(categories, types);
+        }
+        if (codeLookups != null) {
+            Set<String> lookupKeys = new HashSet<>();
+            for (Set<String> values : List.of(codes, tm2Codes, resolvingCodes)) {
+                values.forEach(value -> lookupKeys.add(value.trim().toLowerCase(Locale.ROOT)));
+            }
+            evicted += evictBothVariants(codeLookups, lookupKeys);
+        }
+        invalidations("evict").increment(evicted);
+    }
+
+    private static int evictBothVariants(Cache cache, Set<String> keys) {
+        for (String key : keys) {
+            cache.evict(key + ":true");
+            cache.evict(key + ":false");
+        }
+        return keys.size() * 2;
+    }
+
+    /** Recomputes both views from tm2_mappings, for changes that do not say which codes they touched. */
+    private Mono<Void> rebuildViews() {
+        return bestMappingView.rebuild()
+                .then(conceptAdjacencyView.rebuild())
+                .then();
+    }
+
+    private void flushAll(String reason) {
+        for (String name : List.of("namaste-code-lookup", "category-lookup", "code-lookup")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        invalidations("flush-" + reason).increment();
+    }
+
+    private Mono<Void> saveToken() {
+        BsonValue token = latestToken.get();
+        if (token == null || token.equals(savedToken.get()) || !token.isDocument()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.save(new ChangeStreamToken(instanceId, token.asDocument().toJson(), Instant.now()))
+                .doOnNext(saved -> savedToken.set(token))
+                .then();
+    }
+
+    private Counter invalidations(String kind) {
+        return Counter.builder(INVALIDATIONS_COUNTER)
+                .description("Cache entries evicted, or full flushes, caused by tm2_mappings changes")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private static boolean tokenLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongo && TOKEN_LOST_CODES.contains(mongo.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.terminology_service.cache;
+
+import com.example.terminology_service.model.NamasteCode;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of cached results (a {@link NamasteCode} or a list of them) for the Redis tier.
+ * <p>
+ * Each code writes a bitmask of its non-null fields followed by those fields only. Strings are UTF-8
+ * with a varint length, and a string already written in the same payload is replaced by a reference
+ * to it, so mappings sharing a TM2 concept carry its title and definition once.
+ */
+public final class NamasteCodeCodec {
+
+    private static final byte VERSION = 1;
+    private static final byte SINGLE = 0;
+    private static final byte LIST = 1;
+
+    private static final int ID = 1;
+    private static final int CODE = 1 << 1;
+    private static final int CODE_TITLE = 1 << 2;
+    private static final int CODE_DESCRIPTION = 1 << 3;
+    private static final int TYPE = 1 << 4;
+    private static final int TM2_CODE = 1 << 5;
+    private static final int TM2_TITLE = 1 << 6;
+    private static final int TM2_DEFINITION = 1 << 7;
+    private static final int TM2_LINK = 1 << 8;
+    private static final int CONFIDENCE = 1 << 9;
+    private static final int SIMILARITY = 1 << 10;
+
+    private NamasteCodeCodec() {
+    }
+
+    /** Returns null for values this codec does not handle; those stay in the local tier only. */
+    public static byte[] encode(Object value) {
+        if (value instanceof NamasteCode code) {
+            Writer writer = new Writer();
+            writer.out.write(VERSION);
+            writer.out.write(SINGLE);
+            writer.code(code);
+            return writer.out.toByteArray();
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(NamasteCode.class::isInstance)) {
+            Writer writer = new Writer();
+            writer.out.write(VERSION);
+            writer.out.write(LIST);
+            writer.varint(list.size());
+            for (Object code : list) {
+                writer.code((NamasteCode) code);
+            }
+            return writer.out.toByteArray();
+        }
+        return null;
+    }
+
+    public static Object decode(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        if (reader.readByte() != VERSION) {
+            throw new IllegalArgumentException("Unsupported cache payload version");
+        }
+        if (reader.readByte() == SINGLE) {
+            return reader.code();
+        }
+        int size = reader.varint();
+        List<NamasteCode> codes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            codes.add(reader.code());
+        }
+        return codes;
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        private final Map<String, Integer> written = new HashMap<>();
+
+        void code(NamasteCode code) {
+            int mask = (code.getId() != null ? ID : 0)
+                    | (code.getCode() != null ? CODE : 0)
+                    | (code.getCodeTitle() != null ? CODE_TITLE : 0)
+                    | (code.getCodeDescription() != null ? CODE_DESCRIPTION : 0)
+                    | (code.getType() != null ? TYPE : 0)
+                    | (code.getTm2Code() != null ? TM2_CODE : 0)
+                    | (code.getTm2Title() != null ? TM2_TITLE : 0)
+                    | (code.getTm2Definition() != null ? TM2_DEFINITION : 0)
+                    | (code.getTm2Link() != null ? TM2_LINK : 0)
+                    | (code.getConfidenceScore() != null ? CONFIDENCE : 0)
+                    | (code.getSimilarityScore() != null ? SIMILARITY : 0);
+            varint(mask);
+            string(code.getId());
+            string(code.getCode());
+            string(code.getCodeTitle());
+            string(code.getCodeDescription());
+            string(code.getType());
+            string(code.getTm2Code());
+            string(code.getTm2Title());
+            string(code.getTm2Definition());
+            string(code.getTm2Link());
+            number(code.getConfidenceScore());
+            number(code.getSimilarityScore());
+        }
+
+        void string(String value) {
+            if (value == null) {
+                return;
+            }
+            Integer reference = written.get(value);
+            if (reference != null) {
+                varint(reference + 1);
+                return;
+            }
+            written.put(value, written.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(0);
+            varint(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void number(Double value) {
+            if (value == null) {
+                return;
+            }
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private final List<String> read = new ArrayList<>();
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        NamasteCode code() {
+            int mask = varint();
+            NamasteCode code = new NamasteCode();
+            code.setId(string(mask, ID));
+            code.setCode(string(mask, CODE));
+            code.setCodeTitle(string(mask, CODE_TITLE));
+            code.setCodeDescription(string(mask, CODE_DESCRIPTION));
+            code.setType(string(mask, TYPE));
+            code.setTm2Code(string(mask, TM2_CODE));
+            code.setTm2Title(string(mask, TM2_TITLE));
+            code.setTm2Definition(string(mask, TM2_DEFINITION));
+            code.setTm2Link(string(mask, TM2_LINK));
+            code.setConfidenceScore(number(mask, CONFIDENCE));
+            code.setSimilarityScore(number(mask, SIMILARITY));
+            return code;
+        }
+
+        String string(int mask, int field) {
+            if ((mask & field) == 0) {
+                return null;
+            }
+            int reference = varint();
+            if (reference > 0) {
+                return read.get(reference - 1);
+            }
+            int length = varint();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            read.add(value);
+            return value;
+        }
+
+        Double number(int mask, int field) {
+            if ((mask & field) == 0) {
+                return null;
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (bytes[position++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        byte readByte() {
+            return bytes[position++];
+        }
+
+        int varint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.terminology_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Shared Redis (L2) tier behind every {@link TwoLevelCache}. Each call is bounded by a short timeout,
+ * and after a failure the tier is skipped for {@code retryAfter}, so an unavailable Redis costs one
+ * timeout and the caches carry on as Caffeine plus Mongo until it is back. Evictions cannot reach Redis
+ * in that time, so the first call after an outage clears the whole namespace before using it again.
+ */
+@Slf4j
+public class RedisCacheTier {
+
+    public static final String LATENCY_TIMER = "terminology.cache.l2.latency";
+    public static final String ERRORS_COUNTER = "terminology.cache.l2.errors";
+
+    private final ReactiveRedisTemplate<String, byte[]> redis;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final String namespace;
+    private final LongSupplier nanoTime;
+    private final AtomicLong unavailableUntil = new AtomicLong();
+    private final AtomicBoolean evictionsLost = new AtomicBoolean();
+
+    public RedisCacheTier(ReactiveRedisTemplate<String, byte[]> redis, MeterRegistry meterRegistry, String namespace,
+                          Duration ttl, Duration timeout, Duration retryAfter) {
+        this(redis, meterRegistry, namespace, ttl, timeout, retryAfter, System::nanoTime);
+    }
+
+    RedisCacheTier(ReactiveRedisTemplate<String, byte[]> redis, MeterRegistry meterRegistry, String namespace,
+                   Duration ttl, Duration timeout, Duration retryAfter, LongSupplier nanoTime) {
+        this.redis = redis;
+        this.namespace = namespace;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        this.nanoTime = nanoTime;
+        this.unavailableUntil.set(nanoTime.getAsLong());
+    }
+
+    public String namespace() {
+        return namespace;
+    }
+
+    public boolean available() {
+        return nanoTime.getAsLong() - unavailableUntil.get() >= 0;
+    }
+
+    public Mono<byte[]> get(String key) {
+        return call("get", redis.opsForValue().get(key));
+    }
+
+    /** One MGET round trip for all keys; the result has a null for every miss. */
+    public Mono<List<byte[]>> getAll(List<String> keys) {
+        return call("mget", redis.opsForValue().multiGet(keys));
+    }
+
+    public void set(String key, byte[] value) {
+        call("set", redis.opsForValue().set(key, value, ttl)).subscribe();
+    }
+
+    public void delete(String key) {
+        if (!available()) {
+            evictionsLost.set(true);
+            return;
+        }
+        call("delete", redis.unlink(key)).subscribe();
+    }
+
+    public void deletePrefix(String prefix) {
+        if (!available()) {
+            evictionsLost.set(true);
+            return;
+        }
+        // Not timed out like the other calls: a cache-wide scan can take a while and nobody waits on it
+        redis.scan(ScanOptions.scanOptions().match(prefix + "*").count(1_000).build())
+                .buffer(1_000)
+                .concatMap(keys -> redis.unlink(keys.toArray(String[]::new)))
+                .reduce(0L, Long::sum)
+                .subscribe(removed -> log.debug("Removed {} Redis cache entries under {}", removed, prefix),
+                        e -> failed("clear", e));
+    }
+
+    private <T> Mono<T> call(String operation, Mono<T> command) {
+        if (!available()) {
+            return Mono.empty();
+        }
+        if (evictionsLost.compareAndSet(true, false)) {
+            log.info("Redis cache tier is back; clearing {} because evictions were missed", namespace);
+            deletePrefix(namespace);
+        }
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return command.timeout(timeout)
+                    .doFinally(signal -> sample.stop(Timer.builder(LATENCY_TIMER)
+                            .description("Redis cache tier round trip")
+                            .tag("operation", operation)
+                            .register(meterRegistry)))
+                    .onErrorResume(e -> {
+                        failed(operation, e);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private void failed(String operation, Throwable error) {
+        Counter.builder(ERRORS_COUNTER)
+                .description("Redis cache tier failures; the tier is skipped for a while after each")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+        if (operation.equals("delete") || operation.equals("clear")) {
+            evictionsLost.set(true);
+        }
+        long now = nanoTime.getAsLong();
+        if (available()) {
+            log.warn("Redis cache tier unavailable for {}, serving from local cache and Mongo: {}", retryAfter, error.toString());
+        }
+        unavailableUntil.set(now + retryAfter.toNanos());
+    }
+}
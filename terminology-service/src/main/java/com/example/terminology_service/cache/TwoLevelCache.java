@@ -0,0 +1,198 @@
+package com.example.terminology_service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Caffeine (L1) in front of Redis (L2). Reads try L1, then L2, and an L2 hit is copied into L1; writes
+ * and evictions go to both. Reactive {@code @Cacheable} methods reach L2 through {@link #retrieve},
+ * batch lookups through {@link #retrieveAll} (one MGET). Without a Redis tier this is a plain
+ * Caffeine cache.
+ */
+public class TwoLevelCache implements Cache {
+
+    public static final String GETS_COUNTER = "terminology.cache.gets";
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final RedisCacheTier remote;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                         RedisCacheTier remote, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.localHits = gets(meterRegistry, "l1", "hit");
+        this.localMisses = gets(meterRegistry, "l1", "miss");
+        this.remoteHits = gets(meterRegistry, "l2", "hit");
+        this.remoteMisses = gets(meterRegistry, "l2", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = getLocal(key);
+        return value != null ? new SimpleValueWrapper(value) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = getLocal(key);
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) local.get(key, k -> {
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        });
+    }
+
+    /** Completes with the cached value, or with null so the caller loads it. */
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        Object value = getLocal(key);
+        if (value != null || !remoteAvailable()) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return remote.get(remoteKey(key))
+                .map(NamasteCodeCodec::decode)
+                .doOnNext(decoded -> local.put(key, decoded))
+                .doOnSuccess(decoded -> (decoded != null ? remoteHits : remoteMisses).increment())
+                .toFuture();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return retrieve(key).thenCompose(value -> value != null
+                ? CompletableFuture.completedFuture((T) value)
+                : valueLoader.get().thenApply(loaded -> {
+                    put(key, loaded);
+                    return loaded;
+                }));
+    }
+
+    /**
+     * Cached values for the given keys, looking the L1 misses up in L2 with a single MGET. Keys found
+     * in neither level are absent from the result.
+     */
+    public Mono<Map<Object, Object>> retrieveAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> missing = new ArrayList<>();
+        for (Object key : keys) {
+            Object value = getLocal(key);
+            if (value != null) {
+                found.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty() || !remoteAvailable()) {
+            return Mono.just(found);
+        }
+        return remote.getAll(missing.stream().map(this::remoteKey).toList())
+                .map(values -> {
+                    for (int i = 0; i < missing.size() && i < values.size(); i++) {
+                        byte[] bytes = values.get(i);
+                        if (bytes == null) {
+                            remoteMisses.increment();
+                            continue;
+                        }
+                        Object decoded = NamasteCodeCodec.decode(bytes);
+                        local.put(missing.get(i), decoded);
+                        found.put(missing.get(i), decoded);
+                        remoteHits.increment();
+                    }
+                    return found;
+                })
+                .defaultIfEmpty(found);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        local.put(key, value);
+        if (remote != null) {
+            byte[] encoded = NamasteCodeCodec.encode(value);
+            if (encoded != null) {
+                remote.set(remoteKey(key), encoded);
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (remote != null) {
+            remote.delete(remoteKey(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (remote != null) {
+            remote.deletePrefix(remote.namespace() + name + ":");
+        }
+    }
+
+    private Object getLocal(Object key) {
+        Object value = local.getIfPresent(key);
+        (value != null ? localHits : localMisses).increment();
+        return value;
+    }
+
+    private boolean remoteAvailable() {
+        return remote != null && remote.available();
+    }
+
+    private String remoteKey(Object key) {
+        return remote.namespace() + name + ":" + key;
+    }
+
+    private Counter gets(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder(GETS_COUNTER)
+                .description("Cache lookups per level; an L1 miss goes on to L2 when Redis is enabled")
+                .tag("cache", name)
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
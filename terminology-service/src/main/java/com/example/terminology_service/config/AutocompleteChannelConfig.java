@@ -0,0 +1,39 @@
+package com.example.terminology_service.config;
+
+import com.example.terminology_service.autocomplete.AutocompleteChannelHandler;
+import com.example.terminology_service.autocomplete.AutocompleteChannelProperties;
+import com.example.terminology_service.service.NamasteTerminologyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Maps the search-as-you-type WebSocket at terminology.autocomplete-channel.path, ahead of the
+ * annotated controllers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "terminology.autocomplete-channel.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AutocompleteChannelProperties.class)
+public class AutocompleteChannelConfig {
+
+    @Bean
+    public AutocompleteChannelHandler autocompleteChannelHandler(NamasteTerminologyService terminologyService,
+                                                                 AutocompleteChannelProperties properties,
+                                                                 ObjectMapper objectMapper,
+                                                                 MeterRegistry meterRegistry) {
+        return new AutocompleteChannelHandler(terminologyService, properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public HandlerMapping autocompleteChannelMapping(AutocompleteChannelHandler handler,
+                                                     AutocompleteChannelProperties properties) {
+        return new SimpleUrlHandlerMapping(Map.of(properties.getPath(), handler), -1);
+    }
+}
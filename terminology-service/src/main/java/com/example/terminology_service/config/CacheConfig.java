@@ -0,0 +1,58 @@
+package com.example.terminology_service.config;
+
+import com.example.terminology_service.cache.RedisCacheTier;
+import com.example.terminology_service.cache.TwoLevelCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Response caches: every name in spring.cache.cache-names becomes a {@link TwoLevelCache} with a
+ * Caffeine L1 built from spring.cache.caffeine.spec and, when terminology.cache.l2.enabled, the
+ * shared Redis L2.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.cache-names}") List<String> cacheNames,
+                                     @Value("${spring.cache.caffeine.spec}") String spec,
+                                     ObjectProvider<RedisCacheTier> redisCacheTier,
+                                     MeterRegistry meterRegistry) {
+        RedisCacheTier remote = redisCacheTier.getIfAvailable();
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(cacheNames.stream()
+                .map(name -> new TwoLevelCache(name, Caffeine.from(spec).recordStats().build(), remote, meterRegistry))
+                .toList());
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "terminology.cache.l2.enabled", havingValue = "true")
+    public RedisCacheTier redisCacheTier(ReactiveRedisConnectionFactory connectionFactory,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${terminology.cache.l2.namespace:terminology:}") String namespace,
+                                         @Value("${terminology.cache.l2.ttl:24h}") Duration ttl,
+                                         @Value("${terminology.cache.l2.timeout:50ms}") Duration timeout,
+                                         @Value("${terminology.cache.l2.retry-after:10s}") Duration retryAfter) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build();
+        return new RedisCacheTier(new ReactiveRedisTemplate<>(connectionFactory, context), meterRegistry,
+                namespace, ttl, timeout, retryAfter);
+    }
+}
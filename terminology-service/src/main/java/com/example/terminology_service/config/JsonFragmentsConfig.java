@@ -0,0 +1,38 @@
+package com.example.terminology_service.config;
+
+import com.example.terminology_service.json.JsonFragmentEncoder;
+import com.example.terminology_service.json.JsonFragments;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Cached results are written from pre-encoded JSON fragments. Registered as a custom codec, the encoder
+ * is consulted before the default Jackson one for lists and {@link com.example.terminology_service.dto.TerminologyResponse}s.
+ */
+@Configuration
+@ConditionalOnProperty(name = "terminology.json-fragments.enabled", havingValue = "true", matchIfMissing = true)
+public class JsonFragmentsConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public JsonFragmentsConfig(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public JsonFragments jsonFragments() {
+        return new JsonFragments(objectMapper, meterRegistry);
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new JsonFragmentEncoder(jsonFragments(), objectMapper));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.terminology_service.config;
+
+import com.example.terminology_service.mongo.MongoReadProperties;
+import com.example.terminology_service.mongo.ReadRouting;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.mongodb.ReadPreference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool sizing and read routing. Command and pool metrics (mongodb.driver.commands,
+ * mongodb.driver.pool.*) come from the listeners Spring Boot adds to the same client settings.
+ */
+@Configuration
+@EnableConfigurationProperties(MongoReadProperties.class)
+@Slf4j
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(MongoReadProperties properties) {
+        MongoReadProperties.Pool pool = properties.getPool();
+        return settings -> settings.applyToConnectionPoolSettings(builder -> builder
+                .maxSize(pool.getMaxSize())
+                .minSize(pool.getMinSize())
+                .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnecting(pool.getMaxConnecting()));
+    }
+
+    @Bean
+    public ReadRouting readRouting(MongoReadProperties properties,
+                                   NamasteCodeRepository namasteCodeRepository,
+                                   ReactiveMongoDatabaseFactory databaseFactory,
+                                   MongoConverter converter) {
+        ReadPreference readPreference = ReadRouting.readPreference(properties);
+        if (readPreference.equals(ReadPreference.primary()) || properties.getRoutedOperations().isEmpty()) {
+            return new ReadRouting(properties, namasteCodeRepository, namasteCodeRepository);
+        }
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(databaseFactory, converter);
+        template.setReadPreference(readPreference);
+        NamasteCodeRepository routed = new ReactiveMongoRepositoryFactory(template).getRepository(NamasteCodeRepository.class);
+        log.info("Reading {} with {}", properties.getRoutedOperations(), readPreference);
+        return new ReadRouting(properties, namasteCodeRepository, routed);
+    }
+}
@@ -1,70 +1,161 @@
 package com.example.terminology_service.controller;
 
-import com.example.terminology_service.model.NamasteCode;
+import com.example.medbridge_common.accesslog.AccessLogFilter;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.example.terminology_service.dto.InternalCodeView;
+import com.example.terminology_service.dto.InternalConceptGroup;
+import com.example.terminology_service.dto.InternalTypeGroup;
+import com.example.terminology_service.hotkeys.HotKeyPrewarmer;
+import com.example.terminology_service.json.FragmentList;
+import com.example.terminology_service.model.DataVersion;
+import com.example.terminology_service.service.DataVersionService;
 import com.example.terminology_service.service.NamasteTerminologyService;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Locale;
 
+/**
+ * Service-to-service API. Responses use the lean {@link InternalCodeView} shapes; the long
+ * codeDescription/tm2Definition text is only fetched and sent when includeText=true. Cached results
+ * are returned as {@link FragmentList}s and written from their pre-encoded JSON.
+ * <p>
+ * Requests fhir-service makes while warming up carry {@link HotKeyTracker#WARMUP_HEADER} and are not
+ * counted as hot keys.
+ */
 @RestController
 @RequestMapping("/internal/terminology")
 @RequiredArgsConstructor
-@Slf4j
 public class InternalTerminologyController {
 
+    private static final int MAX_BATCH_CODES = 500;
+
     private final NamasteTerminologyService terminologyService;
+    private final DataVersionService dataVersionService;
+    private final HotKeyTracker hotKeys;
 
     @GetMapping("/search/code/{codeValue}")
-    public Mono<ResponseEntity<List<NamasteCode>>> searchByCodeInternal(@PathVariable String codeValue) {
-        log.info("Internal code search: {}", codeValue);
-        return terminologyService.searchByCode(codeValue)
+    public Mono<ResponseEntity<List<InternalCodeView>>> searchByCodeInternal(
+            @PathVariable String codeValue,
+            @RequestParam(defaultValue = "false") boolean includeText,
+            @RequestHeader(name = HotKeyTracker.WARMUP_HEADER, defaultValue = "false") boolean warmup) {
+        if (!warmup) {
+            hotKeys.record(HotKeyPrewarmer.SEARCH_BY_CODE, HotKeyTracker.key(codeValue.trim().toLowerCase(Locale.ROOT), includeText));
+        }
+        return terminologyService.searchByCode(codeValue, includeText)
                 .collectList()
-                .map(ResponseEntity::ok)
+                .transform(AccessLogFilter.results(List::size))
+                .map(codes -> ResponseEntity.<List<InternalCodeView>>ok(FragmentList.views(codes, includeText)))
                 .onErrorReturn(ResponseEntity.ok(List.of()));
     }
 
     @GetMapping("/search/symptoms")
-    public Mono<ResponseEntity<List<NamasteCode>>> searchBySymptomsInternal(@RequestParam String query) {
-        log.info("Internal symptom search: {}", query);
-        return terminologyService.searchBySymptoms(query)
+    public Mono<ResponseEntity<List<InternalConceptGroup>>> searchBySymptomsInternal(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "false") boolean semantic,
+            @RequestParam(defaultValue = "false") boolean includeText,
+            @RequestHeader(name = HotKeyTracker.WARMUP_HEADER, defaultValue = "false") boolean warmup) {
+        if (!warmup) {
+            hotKeys.record(HotKeyPrewarmer.SEARCH_BY_SYMPTOMS, HotKeyTracker.key(query.trim(), fuzzy, semantic, includeText));
+        }
+        return terminologyService.searchBySymptoms(query, fuzzy, semantic, includeText)
                 .collectList()
-                .map(ResponseEntity::ok)
+                .transform(AccessLogFilter.results(List::size))
+                .map(codes -> ResponseEntity.ok(InternalConceptGroup.group(codes, includeText)))
+                .onErrorReturn(ResponseEntity.ok(List.of()));
+    }
+
+    /** NAMASTE code to its TM2 targets, or with reverse=true TM2 code to its NAMASTE sources, grouped by type. */
+    @GetMapping("/translate/{code}")
+    public Mono<ResponseEntity<List<InternalTypeGroup>>> translateInternal(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "false") boolean reverse) {
+        return terminologyService.translate(code, reverse)
+                .transform(AccessLogFilter.results(groups -> groups.stream().mapToInt(group -> group.getMappings().size()).sum()))
+                .map(groups -> ResponseEntity.ok(groups.stream().map(InternalTypeGroup::of).toList()))
                 .onErrorReturn(ResponseEntity.ok(List.of()));
     }
 
     @GetMapping("/code/{namasteCode}")
-    public Mono<ResponseEntity<NamasteCode>> getByNamasteCodeInternal(@PathVariable String namasteCode) {
-        log.info("Internal get code: {}", namasteCode);
-        return terminologyService.getByNamasteCode(namasteCode)
-                .map(ResponseEntity::ok)
+    public Mono<ResponseEntity<InternalCodeView>> getByNamasteCodeInternal(
+            @PathVariable String namasteCode,
+            @RequestParam(defaultValue = "false") boolean includeText,
+            @RequestHeader(name = HotKeyTracker.WARMUP_HEADER, defaultValue = "false") boolean warmup) {
+        if (!warmup) {
+            hotKeys.record(HotKeyPrewarmer.GET_BY_NAMASTE_CODE, HotKeyTracker.key(namasteCode, includeText));
+        }
+        return terminologyService.getByNamasteCode(namasteCode, includeText)
+                .map(code -> ResponseEntity.ok(InternalCodeView.of(code, includeText)))
                 .defaultIfEmpty(ResponseEntity.notFound().build())
                 .onErrorReturn(ResponseEntity.notFound().build());
     }
 
+    /** Several codes in one call; each is served from the same cache entry as {@code /code/{namasteCode}}. */
+    @PostMapping("/codes")
+    public Mono<ResponseEntity<List<InternalCodeView>>> getByNamasteCodesInternal(
+            @RequestBody List<String> namasteCodes,
+            @RequestParam(defaultValue = "false") boolean includeText) {
+        if (namasteCodes.size() > MAX_BATCH_CODES) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return terminologyService.getByNamasteCodes(namasteCodes, includeText)
+                .collectList()
+                .transform(AccessLogFilter.results(List::size))
+                .map(codes -> ResponseEntity.<List<InternalCodeView>>ok(FragmentList.views(codes, includeText)))
+                .onErrorReturn(ResponseEntity.ok(List.of()));
+    }
+
     @GetMapping("/category/{categoryType}")
-    public Mono<ResponseEntity<List<NamasteCode>>> getByCategoryInternal(@PathVariable String categoryType) {
-        log.info("Internal category search: {}", categoryType);
-        return terminologyService.getByCategory(categoryType)
+    public Mono<ResponseEntity<List<InternalCodeView>>> getByCategoryInternal(
+            @PathVariable String categoryType,
+            @RequestParam(defaultValue = "false") boolean includeText,
+            @RequestHeader(name = HotKeyTracker.WARMUP_HEADER, defaultValue = "false") boolean warmup) {
+        if (!warmup) {
+            hotKeys.record(HotKeyPrewarmer.GET_BY_CATEGORY, HotKeyTracker.key(categoryType, includeText));
+        }
+        return terminologyService.getByCategory(categoryType, includeText)
                 .collectList()
-                .map(ResponseEntity::ok)
+                .transform(AccessLogFilter.results(List::size))
+                .map(codes -> ResponseEntity.<List<InternalCodeView>>ok(FragmentList.views(codes, includeText)))
                 .onErrorReturn(ResponseEntity.ok(List.of()));
     }
 
     @GetMapping("/autocomplete")
-    public Mono<ResponseEntity<List<NamasteCode>>> autoCompleteInternal(
+    public Mono<ResponseEntity<List<InternalCodeView>>> autoCompleteInternal(
             @RequestParam String query,
-            @RequestParam(defaultValue = "10") int limit) {
-        log.info("Internal autocomplete: {} limit={}", query, limit);
-        return terminologyService.searchForAutoComplete(query, limit)
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        return terminologyService.searchForAutoComplete(query, limit, fuzzy, false)
+                .map(InternalCodeView::titleOf)
                 .collectList()
+                .transform(AccessLogFilter.results(List::size))
                 .map(ResponseEntity::ok)
                 .onErrorReturn(ResponseEntity.ok(List.of()));
     }
 
+    /**
+     * Every code and title as newline-delimited JSON, one row per mapping, for fhir-service to answer
+     * CodeSystem $lookup and $validate-code from memory. Reloaded by the caller when the data version moves.
+     */
+    @GetMapping(value = "/code-table", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<InternalCodeView> codeTableInternal() {
+        return terminologyService.codeTable()
+                .map(InternalCodeView::codeTableOf);
+    }
+
+    @GetMapping("/data-version")
+    public Mono<ResponseEntity<DataVersion>> dataVersionInternal() {
+        return dataVersionService.read()
+                .defaultIfEmpty(new DataVersion(DataVersion.ID, 0, null, null))
+                .map(ResponseEntity::ok);
+    }
+
     @GetMapping("/health")
     public Mono<ResponseEntity<String>> healthInternal() {
         return Mono.just(ResponseEntity.ok("TERMINOLOGY_SERVICE_UP"));
@@ -1,5 +1,9 @@
 package com.example.terminology_service.controller;
 
+import com.example.medbridge_common.accesslog.AccessLogFilter;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.example.terminology_service.hotkeys.HotKeyPrewarmer;
+import com.example.terminology_service.json.FragmentList;
 import com.example.terminology_service.model.NamasteCode;
 import com.example.terminology_service.service.NamasteTerminologyService;
 import com.example.terminology_service.dto.TerminologyResponse;
@@ -7,22 +11,22 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/terminology")
 @RequiredArgsConstructor
-@Slf4j
 @Tag(name = "Terminology API", description = "Traditional Medicine to ICD-11 TM2 Code Mapping Service")
 public class TerminologyController {
 
     private final NamasteTerminologyService terminologyService;
+    private final HotKeyTracker hotKeys;
 
     @GetMapping("/search/code/{codeValue}")
     @Operation(summary = "Search by Medical Code", description = "Searches both tm2_code and code fields. Returns best result per medicine type, filtered to confidence > 0.6.")
@@ -30,27 +34,33 @@ public class TerminologyController {
             @Parameter(description = "Traditional medicine code or ICD-11 TM2 code", example = "NAM001", required = true)
             @PathVariable String codeValue) {
 
-        log.info("Code search: {}", codeValue);
-        return terminologyService.searchByCode(codeValue)
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_CODE, HotKeyTracker.key(codeValue.trim().toLowerCase(Locale.ROOT), true));
+        return terminologyService.searchByCode(codeValue, true)
                 .collectList()
+                .transform(AccessLogFilter.results(List::size))
                 .map(results -> {
                     if (results.isEmpty()) {
                         return ResponseEntity.ok(TerminologyResponse.<List<NamasteCode>>error("Code not found: " + codeValue, "NOT_FOUND"));
                     }
-                    return ResponseEntity.ok(TerminologyResponse.success(results));
+                    return ResponseEntity.ok(TerminologyResponse.<List<NamasteCode>>success(FragmentList.codes(results)));
                 })
                 .onErrorReturn(ResponseEntity.ok(TerminologyResponse.error("Code search failed", "SEARCH_ERROR")));
     }
 
     @GetMapping("/search/symptoms")
-    @Operation(summary = "Search by Symptoms", description = "Case-insensitive fuzzy search across code_description, tm2_definition, tm2_title, and code_title fields.")
+    @Operation(summary = "Search by Symptoms", description = "Case-insensitive search across code_description, tm2_definition, tm2_title, and code_title fields. With fuzzy=true, tolerates misspellings and ranks by similarity and confidence. With semantic=true, returns the top concepts by TF-IDF vector similarity with a similarityScore.")
     public Mono<ResponseEntity<TerminologyResponse<List<NamasteCode>>>> searchBySymptoms(
             @Parameter(description = "Symptom or clinical description", example = "fever headache", required = true)
-            @RequestParam String query) {
+            @RequestParam String query,
+            @Parameter(description = "Typo-tolerant matching ranked by similarity and confidence", example = "false")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = "Vector-similarity matching on descriptions and definitions; takes precedence over fuzzy", example = "false")
+            @RequestParam(defaultValue = "false") boolean semantic) {
 
-        log.info("Symptom search: {}", query);
-        return terminologyService.searchBySymptoms(query)
+        hotKeys.record(HotKeyPrewarmer.SEARCH_BY_SYMPTOMS, HotKeyTracker.key(query.trim(), fuzzy, semantic, true));
+        return terminologyService.searchBySymptoms(query, fuzzy, semantic)
                 .collectList()
+                .transform(AccessLogFilter.results(List::size))
                 .map(results -> ResponseEntity.ok(TerminologyResponse.success(results)))
                 .onErrorReturn(ResponseEntity.ok(TerminologyResponse.error("Symptom search failed", "SEARCH_ERROR")));
     }
@@ -61,11 +71,13 @@ public class TerminologyController {
             @Parameter(description = "Search term (minimum 2 characters)", example = "fever", required = true)
             @RequestParam String query,
             @Parameter(description = "Maximum number of results", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Typo-tolerant matching ranked by similarity and confidence", example = "false")
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
 
-        log.info("Autocomplete: {} limit={}", query, limit);
-        return terminologyService.searchForAutoComplete(query, limit)
+        return terminologyService.searchForAutoComplete(query, limit, fuzzy)
                 .collectList()
+                .transform(AccessLogFilter.results(List::size))
                 .map(results -> ResponseEntity.ok(TerminologyResponse.success(results)))
                 .onErrorReturn(ResponseEntity.ok(TerminologyResponse.error("Autocomplete failed", "SEARCH_ERROR")));
     }
@@ -76,10 +88,11 @@ public class TerminologyController {
             @Parameter(description = "Traditional medicine category", example = "ayurveda", required = true)
             @PathVariable String categoryType) {
 
-        log.info("Category search: {}", categoryType);
-        return terminologyService.getByCategory(categoryType)
+        hotKeys.record(HotKeyPrewarmer.GET_BY_CATEGORY, HotKeyTracker.key(categoryType, true));
+        return terminologyService.getByCategory(categoryType, true)
                 .collectList()
-                .map(results -> ResponseEntity.ok(TerminologyResponse.success(results)))
+                .transform(AccessLogFilter.results(List::size))
+                .map(results -> ResponseEntity.ok(TerminologyResponse.<List<NamasteCode>>success(FragmentList.codes(results))))
                 .onErrorReturn(ResponseEntity.ok(TerminologyResponse.error("Category search failed", "SEARCH_ERROR")));
     }
 
@@ -0,0 +1,43 @@
+package com.example.terminology_service.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "datagen")
+public class DatasetGeneratorProperties {
+
+    /** Number of tm2_mappings documents to generate. */
+    private long documents = 10_000;
+
+    private int batchSize = 5_000;
+
+    /** Concurrent unordered bulk inserts in flight. */
+    private int concurrency = 4;
+
+    private long seed = 20240901L;
+
+    /** Drops tm2_mappings before loading; only on dropAllowedHosts unless confirmDrop is set. */
+    private boolean dropExisting = false;
+
+    /** Mongo hosts dropExisting may drop on without confirmDrop. */
+    private Set<String> dropAllowedHosts = new LinkedHashSet<>(List.of("localhost", "127.0.0.1", "::1"));
+
+    /** Lets dropExisting drop on any host. */
+    private boolean confirmDrop = false;
+
+    /** Mean number of NAMASTE codes mapped onto one TM2 concept. */
+    private double meanFanOut = 4.0;
+
+    /** Relative share of each medicine system, roughly following the published NAMASTE code counts. */
+    private Map<String, Double> typeWeights = new LinkedHashMap<>(Map.of(
+            "ayurveda", 0.45,
+            "unani", 0.30,
+            "siddha", 0.25));
+}
@@ -0,0 +1,129 @@
+package com.example.terminology_service.datagen;
+
+import com.example.terminology_service.model.NamasteCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoConnectionDetails;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads a synthetic tm2_mappings dataset and exits.
+ * <pre>
+ * java -jar terminology-service.jar --spring.profiles.active=datagen \
+ *      --spring.data.mongodb.uri=mongodb://localhost:27017/terminology --datagen.documents=1000000
+ * </pre>
+ * With {@code --datagen.drop-existing=true} the collection is dropped first, but only when every Mongo
+ * host is in {@code datagen.drop-allowed-hosts} (local by default) or {@code datagen.confirm-drop=true}.
+ */
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DatasetGeneratorProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final DatasetGeneratorProperties properties;
+    private final MongoConnectionDetails connectionDetails;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> hosts = connectionDetails.getConnectionString().getHosts();
+        if (properties.isDropExisting() && !properties.isConfirmDrop() && !dropAllowed(hosts, properties.getDropAllowedHosts())) {
+            throw new IllegalStateException("Refusing to drop tm2_mappings on " + hosts
+                    + ": not in datagen.drop-allowed-hosts; set datagen.confirm-drop=true to drop it anyway");
+        }
+        SyntheticNamasteCodeGenerator generator = new SyntheticNamasteCodeGenerator(
+                properties.getSeed(), properties.getMeanFanOut(), properties.getTypeWeights());
+        long target = properties.getDocuments();
+        AtomicLong inserted = new AtomicLong();
+        long started = System.nanoTime();
+
+        log.info("Generating {} tm2_mappings documents (batch={}, concurrency={})",
+                target, properties.getBatchSize(), properties.getConcurrency());
+
+        Mono<Void> drop = properties.isDropExisting()
+                ? mongoTemplate.dropCollection(NamasteCode.class)
+                : Mono.empty();
+
+        // Concepts keep being generated until the target is met, since fan-out is random
+        Flux<NamasteCode> documents = Flux.<Long, Long>generate(() -> 0L, (concept, sink) -> {
+                    sink.next(concept);
+                    return concept + 1;
+                })
+                .concatMapIterable(generator::mappingsFor)
+                .take(target);
+
+        drop.thenMany(documents
+                        .buffer(properties.getBatchSize())
+                        .flatMap(batch -> insert(batch)
+                                        .doOnNext(count -> logProgress(inserted.addAndGet(count), target, started)),
+                                properties.getConcurrency()))
+                .then(createIndexes())
+                .subscribeOn(Schedulers.boundedElastic())
+                .block();
+
+        double seconds = Duration.ofNanos(System.nanoTime() - started).toMillis() / 1000.0;
+        log.info("Inserted {} documents in {}s ({} docs/s)", inserted.get(), seconds, Math.round(inserted.get() / seconds));
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /** True when every host of the connection string is allow-listed, by name without the port. */
+    static boolean dropAllowed(List<String> hosts, Set<String> allowedHosts) {
+        return !hosts.isEmpty() && hosts.stream().allMatch(host -> allowedHosts.contains(hostName(host)));
+    }
+
+    private static String hostName(String host) {
+        String name;
+        if (host.startsWith("[")) {
+            name = host.substring(1, Math.max(1, host.indexOf(']')));
+        } else {
+            int port = host.lastIndexOf(':');
+            name = port >= 0 && host.indexOf(':') == port ? host.substring(0, port) : host;
+        }
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private Mono<Integer> insert(List<NamasteCode> batch) {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NamasteCode.class)
+                .insert(batch)
+                .execute()
+                .map(result -> result.getInsertedCount());
+    }
+
+    private Mono<Void> createIndexes() {
+        // Built once after the load; maintaining them during bulk inserts is much slower
+        return Flux.just("code", "tm2_code", "type", "code_title", "tm2_title")
+                .concatMap(field -> mongoTemplate.indexOps(NamasteCode.class)
+                        .ensureIndex(new Index().on(field, Sort.Direction.ASC)))
+                .then();
+    }
+
+    private void logProgress(long inserted, long target, long started) {
+        long step = Math.max(properties.getBatchSize(), target / 20);
+        if (inserted % step < properties.getBatchSize() || inserted == target) {
+            double seconds = Math.max(0.001, (System.nanoTime() - started) / 1e9);
+            log.info("Inserted {}/{} ({} docs/s)", inserted, target, Math.round(inserted / seconds));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.terminology_service.datagen;
+
+import com.example.terminology_service.model.NamasteCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of realistic-looking tm2_mappings documents.
+ * <p>
+ * Documents are produced per TM2 concept and the same (seed, concept) always yields the
+ * same mappings, so a dataset is reproducible from its seed. Fan-out per concept is
+ * geometric around the configured mean, medicine systems follow the configured weights
+ * and confidence scores are skewed towards high values like curated mappings are.
+ */
+public class SyntheticNamasteCodeGenerator {
+
+    private static final String[] AYURVEDA_TERMS = {
+            "jwara", "kasa", "shwasa", "atisara", "pandu", "prameha", "amlapitta", "shirashoola",
+            "arsha", "kamala", "grahani", "amavata", "sandhivata", "udavarta", "trishna", "chhardi"};
+    private static final String[] UNANI_TERMS = {
+            "humma", "nazla", "sual", "zeeq-un-nafas", "waja-ul-mafasil", "suda", "ishal", "yarqan",
+            "zaheer", "sual-e-yabis", "humma-e-ghib", "zof-e-meda", "qai", "fasad-e-hazm"};
+    private static final String[] SIDDHA_TERMS = {
+            "suram", "irumal", "kaamaalai", "vali azhal", "pitha suram", "swasa kasam", "kazhichal",
+            "thalaivali", "mega noi", "pandu noi", "keel vayu", "seriyamai"};
+    private static final String[] DOSHA_QUALIFIERS = {
+            "vataja", "pittaja", "kaphaja", "sannipataja", "balgami", "safravi", "saudavi", "damvi",
+            "vatha", "pitha", "kapha"};
+    private static final String[] SYMPTOMS = {
+            "fever", "cough", "breathlessness", "diarrhoea", "anaemia", "jaundice", "headache",
+            "joint pain", "indigestion", "burning sensation", "vomiting", "excessive thirst",
+            "fatigue", "loss of appetite", "abdominal distension", "constipation", "body ache",
+            "chills", "sore throat", "nasal discharge", "weight loss", "frequent urination"};
+    private static final String[] MODIFIERS = {
+            "acute", "chronic", "recurrent", "nocturnal", "intermittent", "mild", "severe", "seasonal"};
+    private static final String[] BODY_SYSTEMS = {
+            "respiratory", "digestive", "musculoskeletal", "metabolic", "hepatic", "neurological",
+            "urinary", "circulatory"};
+
+    private final long seed;
+    private final double meanFanOut;
+    private final String[] types;
+    private final double[] cumulativeWeights;
+
+    public SyntheticNamasteCodeGenerator(long seed, double meanFanOut, Map<String, Double> typeWeights) {
+        this.seed = seed;
+        this.meanFanOut = Math.max(1.0, meanFanOut);
+        this.types = typeWeights.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new double[types.length];
+        double total = typeWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double running = 0;
+        for (int i = 0; i < types.length; i++) {
+            running += typeWeights.get(types[i]) / total;
+            cumulativeWeights[i] = running;
+        }
+    }
+
+    public List<NamasteCode> mappingsFor(long concept) {
+        SplittableRandom random = new SplittableRandom(seed ^ (concept * 0x9E3779B97F4A7C15L));
+        String symptom = pick(random, SYMPTOMS);
+        String secondarySymptom = pick(random, SYMPTOMS);
+        String system = pick(random, BODY_SYSTEMS);
+
+        String tm2Code = tm2Code(concept);
+        String tm2Title = capitalize(symptom) + " disorder of the " + system + " system (TM2)";
+        String tm2Definition = "A " + system + " disorder characterised by " + symptom + " with " + secondarySymptom
+                + ", described in traditional medicine as an imbalance presenting with " + pick(random, MODIFIERS)
+                + " episodes.";
+        String tm2Link = "http://id.who.int/icd/entity/" + (1_000_000_000L + concept);
+
+        int fanOut = fanOut(random);
+        List<NamasteCode> mappings = new ArrayList<>(fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            String type = type(random);
+            String term = pick(random, termsFor(type));
+            String modifier = pick(random, MODIFIERS);
+            String codeTitle = pick(random, DOSHA_QUALIFIERS) + " " + term;
+            String codeDescription = capitalize(modifier) + " " + term + " presenting with " + symptom + ", "
+                    + pick(random, SYMPTOMS) + " and " + pick(random, SYMPTOMS) + ".";
+
+            NamasteCode code = new NamasteCode();
+            code.setCode(codePrefix(type) + "-" + concept + "." + i);
+            code.setCodeTitle(codeTitle);
+            code.setCodeDescription(codeDescription);
+            code.setType(type);
+            code.setTm2Code(tm2Code);
+            code.setTm2Title(tm2Title);
+            code.setTm2Definition(tm2Definition);
+            code.setTm2Link(tm2Link);
+            code.setConfidenceScore(confidence(random));
+            mappings.add(code);
+        }
+        return mappings;
+    }
+
+    // Geometric fan-out with the configured mean; most concepts have a few mappings, some have many
+    private int fanOut(SplittableRandom random) {
+        double p = 1.0 / meanFanOut;
+        int fanOut = 1 + (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p + 1e-12));
+        return Math.min(fanOut, 64);
+    }
+
+    // Skewed towards 1.0: curated mappings are mostly confident, with a long low tail
+    private static double confidence(SplittableRandom random) {
+        double score = 0.3 + 0.7 * Math.pow(random.nextDouble(), 0.35);
+        return Math.round(score * 1000) / 1000.0;
+    }
+
+    private String type(SplittableRandom random) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return types[i];
+            }
+        }
+        return types[types.length - 1];
+    }
+
+    private static String[] termsFor(String type) {
+        return switch (type) {
+            case "unani" -> UNANI_TERMS;
+            case "siddha" -> SIDDHA_TERMS;
+            default -> AYURVEDA_TERMS;
+        };
+    }
+
+    private static String codePrefix(String type) {
+        return switch (type) {
+            case "ayurveda" -> "AYU";
+            case "unani" -> "UNA";
+            case "siddha" -> "SID";
+            default -> type.substring(0, Math.min(3, type.length())).toUpperCase();
+        };
+    }
+
+    // ICD-11 TM2 style codes: S + chapter letter + base-36 block, unique per concept
+    private static String tm2Code(long concept) {
+        char chapter = (char) ('A' + (concept % 26));
+        String block = Long.toString(concept / 26, 36).toUpperCase();
+        return "S" + chapter + "0".repeat(Math.max(0, 3 - block.length())) + block;
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.terminology_service.deadline;
+
+import com.example.medbridge_common.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Enforces the request deadline: the X-Request-Deadline budget (capped at maxTimeout), or
+ * defaultTimeout without one. A request that arrives already out of time is refused with 504. Otherwise
+ * the {@link Deadline} goes into the Reactor context, and when it passes the request is cancelled and
+ * answered with 504. Cancelling the subscription closes the cursor of a Mongo query still running, so
+ * a request that fhir-service has given up on stops costing Mongo work.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineFilter implements WebFilter {
+
+    public static final String EXCEEDED_COUNTER = "terminology.deadline.exceeded";
+
+    private final DeadlineProperties properties;
+    private final Counter expiredOnArrival;
+    private final Counter exceeded;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.expiredOnArrival = exceededCounter(meterRegistry, "arrival");
+        this.exceeded = exceededCounter(meterRegistry, "processing");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (!properties.isEnabled() || path.startsWith("/actuator")
+                || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())
+                || properties.getExcludedPaths().stream().anyMatch(path::startsWith)) {
+            return chain.filter(exchange);
+        }
+        Duration timeout = properties.getDefaultTimeout();
+        Duration requested = Deadline.parseHeader(exchange.getRequest().getHeaders().getFirst(Deadline.HEADER));
+        if (requested != null) {
+            timeout = requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested;
+        }
+        if (timeout.toMillis() <= 0) {
+            expiredOnArrival.increment();
+            return gatewayTimeout(exchange);
+        }
+        Deadline deadline = Deadline.after(timeout);
+        return chain.filter(exchange)
+                .timeout(timeout, Mono.defer(() -> {
+                    exceeded.increment();
+                    return gatewayTimeout(exchange);
+                }))
+                .contextWrite(deadline::addTo);
+    }
+
+    private static Mono<Void> gatewayTimeout(ServerWebExchange exchange) {
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.empty();
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static Counter exceededCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder(EXCEEDED_COUNTER)
+                .description("Requests whose deadline ran out, by when")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
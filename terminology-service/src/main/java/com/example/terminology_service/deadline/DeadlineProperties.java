@@ -0,0 +1,24 @@
+package com.example.terminology_service.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "medbridge.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /** Budget for requests that arrive without an X-Request-Deadline header. */
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    /** Larger budgets in the header are cut down to this. */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /** Path prefixes with no deadline, such as bulk streams bounded by their caller's own timeout. */
+    private List<String> excludedPaths = new ArrayList<>();
+}
@@ -0,0 +1,73 @@
+package com.example.terminology_service.dto;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Lean wire shape for /internal/terminology responses. Omits the Mongo id, and the long
+ * codeDescription/tm2Definition text unless the caller asked for it with includeText=true.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InternalCodeView {
+    private String code;
+    private String codeTitle;
+    private String codeDescription;
+    private String type;
+    private String tm2Code;
+    private String tm2Title;
+    private String tm2Definition;
+    private String tm2Link;
+    private Double confidenceScore;
+    private Double similarityScore;
+
+    public static InternalCodeView of(NamasteCode code, boolean includeText) {
+        return InternalCodeView.builder()
+                .code(code.getCode())
+                .codeTitle(code.getCodeTitle())
+                .codeDescription(includeText ? code.getCodeDescription() : null)
+                .type(code.getType())
+                .tm2Code(code.getTm2Code())
+                .tm2Title(code.getTm2Title())
+                .tm2Definition(includeText ? code.getTm2Definition() : null)
+                .tm2Link(code.getTm2Link())
+                .confidenceScore(code.getConfidenceScore())
+                .similarityScore(code.getSimilarityScore())
+                .build();
+    }
+
+    /** Mapping inside an {@link InternalConceptGroup}; the TM2 fields live on the group. */
+    public static InternalCodeView mappingOf(NamasteCode code, boolean includeText) {
+        return InternalCodeView.builder()
+                .code(code.getCode())
+                .codeTitle(code.getCodeTitle())
+                .codeDescription(includeText ? code.getCodeDescription() : null)
+                .type(code.getType())
+                .confidenceScore(code.getConfidenceScore())
+                .similarityScore(code.getSimilarityScore())
+                .build();
+    }
+
+    /** Autocomplete only renders a title and the code it selects. */
+    public static InternalCodeView titleOf(NamasteCode code) {
+        return InternalCodeView.builder()
+                .code(code.getCode())
+                .codeTitle(code.getCodeTitle())
+                .type(code.getType())
+                .tm2Code(code.getTm2Code())
+                .build();
+    }
+
+    /** Row of the bulk code table: both codes of a mapping and their titles. */
+    public static InternalCodeView codeTableOf(NamasteCode code) {
+        return InternalCodeView.builder()
+                .code(code.getCode())
+                .codeTitle(code.getCodeTitle())
+                .tm2Code(code.getTm2Code())
+                .tm2Title(code.getTm2Title())
+                .build();
+    }
+}
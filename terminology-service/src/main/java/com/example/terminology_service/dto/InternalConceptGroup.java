@@ -0,0 +1,54 @@
+package com.example.terminology_service.dto;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Symptom search results grouped by TM2 concept, so the concept's title, definition and link are
+ * sent once per group instead of once per mapping. Groups keep the order of their first match.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InternalConceptGroup {
+    private String tm2Code;
+    private String tm2Title;
+    private String tm2Definition;
+    private String tm2Link;
+    private Double similarityScore;
+    private List<InternalCodeView> mappings;
+
+    public static List<InternalConceptGroup> group(List<NamasteCode> codes, boolean includeText) {
+        Map<String, List<NamasteCode>> byConcept = new LinkedHashMap<>();
+        for (NamasteCode code : codes) {
+            if (code.getTm2Code() != null) {
+                byConcept.computeIfAbsent(code.getTm2Code(), key -> new ArrayList<>()).add(code);
+            }
+        }
+        List<InternalConceptGroup> groups = new ArrayList<>(byConcept.size());
+        byConcept.forEach((tm2Code, members) -> {
+            NamasteCode first = members.get(0);
+            groups.add(InternalConceptGroup.builder()
+                    .tm2Code(tm2Code)
+                    .tm2Title(first.getTm2Title())
+                    .tm2Definition(includeText ? first.getTm2Definition() : null)
+                    .tm2Link(first.getTm2Link())
+                    .similarityScore(members.stream()
+                            .map(NamasteCode::getSimilarityScore)
+                            .filter(Objects::nonNull)
+                            .max(Double::compare)
+                            .orElse(null))
+                    .mappings(members.stream().map(code -> InternalCodeView.mappingOf(code, includeText)).toList())
+                    .build());
+        });
+        return groups;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.terminology_service.dto;
+
+import com.example.terminology_service.model.ConceptAdjacency;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/** Translation results of one type (ayurveda, siddha, unani), highest confidence first. */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InternalTypeGroup {
+    private String type;
+    private List<InternalCodeView> mappings;
+
+    public static InternalTypeGroup of(ConceptAdjacency.TypeGroup group) {
+        return InternalTypeGroup.builder()
+                .type(group.getType())
+                .mappings(group.getMappings().stream().map(code -> InternalCodeView.of(code, false)).toList())
+                .build();
+    }
+}
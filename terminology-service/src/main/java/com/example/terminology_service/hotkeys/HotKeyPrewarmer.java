@@ -0,0 +1,111 @@
+package com.example.terminology_service.hotkeys;
+
+import com.example.medbridge_common.hotkeys.HotKey;
+import com.example.medbridge_common.hotkeys.HotKeyProperties;
+import com.example.medbridge_common.hotkeys.HotKeyTracker;
+import com.example.terminology_service.service.NamasteTerminologyService;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Replays the hot keys saved by the previous run through the cached service methods during startup,
+ * so the first real requests find warm caches. Readiness (the {@code hotKeyPrewarmer} health
+ * contributor) stays OUT_OF_SERVICE until the replay finishes or times out.
+ */
+@Component
+@Slf4j
+public class HotKeyPrewarmer implements HealthIndicator {
+
+    // Recorded by the controllers; keys are HotKeyTracker.key(value, variants...)
+    public static final String SEARCH_BY_CODE = "searchByCode";
+    public static final String GET_BY_NAMASTE_CODE = "getByNamasteCode";
+    public static final String GET_BY_CATEGORY = "getByCategory";
+    // Tracked for /actuator/hotkeys only: symptom searches are not cached, so there is nothing to warm
+    public static final String SEARCH_BY_SYMPTOMS = "searchBySymptoms";
+
+    private final HotKeyTracker tracker;
+    private final HotKeyProperties properties;
+    private final Map<String, Function<String, Publisher<?>>> warmers;
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total;
+    private volatile boolean done;
+
+    public HotKeyPrewarmer(HotKeyTracker tracker, HotKeyProperties properties, NamasteTerminologyService terminologyService) {
+        this.tracker = tracker;
+        this.properties = properties;
+        this.warmers = Map.of(
+                SEARCH_BY_CODE, key -> {
+                    String[] parts = HotKeyTracker.split(key, 1);
+                    return terminologyService.searchByCode(parts[0], Boolean.parseBoolean(parts[1]));
+                },
+                GET_BY_NAMASTE_CODE, key -> {
+                    String[] parts = HotKeyTracker.split(key, 1);
+                    return terminologyService.getByNamasteCode(parts[0], Boolean.parseBoolean(parts[1]));
+                },
+                GET_BY_CATEGORY, key -> {
+                    String[] parts = HotKeyTracker.split(key, 1);
+                    return terminologyService.getByCategory(parts[0], Boolean.parseBoolean(parts[1]));
+                });
+    }
+
+    /** Replays the saved keys; run by StartupWarmup once the synthetic warmup is done. */
+    public Mono<Void> prewarm() {
+        if (!properties.isEnabled()) {
+            done = true;
+            return Mono.empty();
+        }
+        // Hottest first across kinds, so a timeout cuts off the coldest keys
+        List<Map.Entry<String, HotKey>> work = tracker.load().entrySet().stream()
+                .filter(kind -> warmers.containsKey(kind.getKey()))
+                .flatMap(kind -> kind.getValue().stream().map(hotKey -> Map.entry(kind.getKey(), hotKey)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, HotKey> entry) -> entry.getValue().count()).reversed())
+                .toList();
+        total = work.size();
+        if (work.isEmpty()) {
+            done = true;
+            return Mono.empty();
+        }
+        long start = System.nanoTime();
+        return Flux.fromIterable(work)
+                .flatMap(entry -> warm(entry.getKey(), entry.getValue().key()), properties.getPrewarmConcurrency())
+                .then()
+                .timeout(properties.getPrewarmTimeout(), Mono.empty())
+                .doFinally(signal -> {
+                    done = true;
+                    log.info("Prewarmed {} of {} hot keys in {} ms ({} failed)", warmed.get(), total,
+                            Duration.ofNanos(System.nanoTime() - start).toMillis(), failed.get());
+                });
+    }
+
+    @Override
+    public Health health() {
+        return (done ? Health.up() : Health.outOfService())
+                .withDetail("keys", total)
+                .withDetail("warmed", warmed.get())
+                .withDetail("failed", failed.get())
+                .build();
+    }
+
+    private Mono<Void> warm(String kind, String key) {
+        return Mono.defer(() -> Flux.from(warmers.get(kind).apply(key)).then())
+                .doOnSuccess(ignored -> warmed.incrementAndGet())
+                .onErrorResume(e -> {
+                    failed.incrementAndGet();
+                    log.debug("Could not prewarm {} {}: {}", kind, key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
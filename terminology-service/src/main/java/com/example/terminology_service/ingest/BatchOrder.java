@@ -0,0 +1,46 @@
+package com.example.terminology_service.ingest;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders ingestion batches that touch the same documents. A batch sharing a key with an earlier batch
+ * still in flight starts once that batch is done, so the later row wins and its diff sees what the
+ * earlier batch wrote. Batches with no key in common run side by side.
+ * <p>
+ * Batches are registered in file order from a single thread, as {@code flatMapSequential} maps them.
+ */
+final class BatchOrder {
+
+    private final Map<String, Mono<Void>> lastBatch = new ConcurrentHashMap<>();
+
+    <T> Mono<T> after(Collection<String> keys, Mono<T> batch) {
+        Sinks.Empty<Void> done = Sinks.empty();
+        Mono<Void> completion = done.asMono();
+        Set<Mono<Void>> earlier = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : keys) {
+            Mono<Void> previous = lastBatch.put(key, completion);
+            if (previous != null) {
+                earlier.add(previous);
+            }
+        }
+        return Mono.when(earlier)
+                .then(batch)
+                .doFinally(signal -> {
+                    keys.forEach(key -> lastBatch.remove(key, completion));
+                    done.tryEmitEmpty();
+                });
+    }
+
+    /** Keys still held by a batch in flight. */
+    int size() {
+        return lastBatch.size();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.terminology_service.ingest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ingestion")
+public class IngestionProperties {
+
+    /** Release file to ingest (CSV with a header row, a JSON array, or one JSON object per line). */
+    private String file;
+
+    /** CSV or JSON; detected from the file extension when unset. */
+    private ReleaseFileReader.Format format;
+
+    /** Checkpoint key; defaults to the file name and size. */
+    private String release;
+
+    private int batchSize = 1_000;
+
+    /** Batches in flight at once; batches sharing a NAMASTE or TM2 code still wait for each other. */
+    private int concurrency = 4;
+
+    /** Batches between checkpoint writes. */
+    private int checkpointEvery = 10;
+
+    /** The ingestion fails once more rows than this have been rejected. */
+    private long maxInvalidRows = 10_000;
+
+    /** Continue after the last checkpoint of the same release instead of starting over. */
+    private boolean resume = true;
+}
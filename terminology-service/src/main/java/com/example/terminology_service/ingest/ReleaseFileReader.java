@@ -0,0 +1,203 @@
+package com.example.terminology_service.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams the rows of a release file one at a time, so memory stays constant whatever the file size.
+ * CSV files need a header row; JSON files may hold one array of objects or one object per line.
+ */
+public final class ReleaseFileReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public enum Format {
+        CSV, JSON;
+
+        static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".csv") ? CSV : JSON;
+        }
+    }
+
+    private ReleaseFileReader() {
+    }
+
+    /**
+     * Rows numbered from 1 (the CSV header is not a row). The first {@code skipRows} rows are parsed
+     * but not emitted, which is how a resumed ingestion skips work already committed.
+     */
+    public static Flux<ReleaseRow> read(Path file, Format format, long skipRows) {
+        return Flux.<ReleaseRow, RowSource>generate(
+                () -> open(file, format != null ? format : Format.of(file)),
+                (source, sink) -> {
+                    try {
+                        Map<String, String> fields;
+                        while ((fields = source.next()) != null) {
+                            long rowNumber = ++source.rowNumber;
+                            if (rowNumber > skipRows) {
+                                sink.next(ReleaseRow.parse(rowNumber, fields));
+                                return source;
+                            }
+                        }
+                        sink.complete();
+                    } catch (IOException | RuntimeException e) {
+                        sink.error(new IllegalStateException("Unreadable release file " + file + " after row " + source.rowNumber, e));
+                    }
+                    return source;
+                },
+                ReleaseFileReader::close);
+    }
+
+    private static RowSource open(Path file, Format format) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return format == Format.CSV ? new CsvRowSource(reader) : new JsonRowSource(reader);
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private abstract static class RowSource implements Closeable {
+        long rowNumber;
+
+        /** Next row keyed by column name, or null at the end of the file. */
+        abstract Map<String, String> next() throws IOException;
+    }
+
+    /** RFC 4180: quoted fields may contain commas, line breaks and doubled quotes. */
+    static final class CsvRowSource extends RowSource {
+        private final Reader reader;
+        private final List<String> header;
+        private final StringBuilder field = new StringBuilder();
+
+        CsvRowSource(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> columns = record();
+            this.header = columns != null ? columns : List.of();
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            List<String> values;
+            do {
+                values = record();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty());
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                row.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+            }
+            return row;
+        }
+
+        private List<String> record() throws IOException {
+            List<String> values = new ArrayList<>(header != null ? header.size() : 16);
+            field.setLength(0);
+            boolean quoted = false;
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = peek;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(field.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    static final class JsonRowSource extends RowSource {
+        private final JsonParser parser;
+        private boolean started;
+
+        JsonRowSource(Reader reader) throws IOException {
+            this.parser = MAPPER.getFactory().createParser(reader);
+        }
+
+        @Override
+        Map<String, String> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (!started) {
+                started = true;
+                // A top-level array is unwrapped; otherwise the file is a sequence of objects
+                if (token == JsonToken.START_ARRAY) {
+                    token = parser.nextToken();
+                }
+            }
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at " + parser.currentLocation());
+            }
+            JsonNode node = MAPPER.readTree(parser);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                row.put(entry.getKey(), entry.getValue().isNull() ? null : entry.getValue().asText());
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.terminology_service.ingest;
+
+import com.example.terminology_service.model.IngestionCheckpoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Ingests one release file and exits; re-running after a failure resumes from the last checkpoint.
+ * <pre>
+ * java -jar terminology-service.jar --spring.profiles.active=ingest \
+ *      --spring.data.mongodb.uri=mongodb://localhost:27017/terminology --ingestion.file=namaste-tm2-2025.csv
+ * </pre>
+ */
+@Component
+@Profile("ingest")
+@RequiredArgsConstructor
+@Slf4j
+public class ReleaseIngestionRunner implements ApplicationRunner {
+
+    private final ReleaseIngestionService ingestionService;
+    private final IngestionProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getFile() == null) {
+            log.error("ingestion.file is required");
+            System.exit(SpringApplication.exit(context, () -> 2));
+        }
+        int exitCode;
+        try {
+            IngestionCheckpoint result = ingestionService.ingest(Path.of(properties.getFile())).block();
+            exitCode = result != null && result.getStatus() == IngestionCheckpoint.Status.COMPLETED ? 0 : 1;
+        } catch (RuntimeException e) {
+            log.error("Ingestion of {} failed; re-run to resume from the last checkpoint", properties.getFile(), e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
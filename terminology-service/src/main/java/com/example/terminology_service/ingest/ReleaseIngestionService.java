@@ -0,0 +1,334 @@
+package com.example.terminology_service.ingest;
+
+import com.example.terminology_service.model.DataVersion;
+import com.example.terminology_service.model.IngestionCheckpoint;
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.model.Tm2Concept;
+import com.example.terminology_service.repository.IngestionCheckpointRepository;
+import com.example.terminology_service.service.BestMappingView;
+import com.example.terminology_service.service.ConceptAdjacencyView;
+import com.example.terminology_service.service.DataVersionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a NAMASTE/TM2 release file to tm2_mappings and tm2_concepts.
+ * <p>
+ * Rows are streamed, validated and diffed batch by batch against the stored mappings by their natural
+ * key (code, tm2_code); only new or changed rows are written, with unordered bulk upserts and
+ * {@code concurrency} batches in flight. Batches sharing a NAMASTE or TM2 code are applied in file
+ * order (see {@link BatchOrder}). TM2 text goes to tm2_concepts, as the migrate-concepts profile does
+ * for existing data. Progress is checkpointed so a failed run resumes where it stopped, and a run that
+ * changed anything bumps the data version.
+ * <p>
+ * A release only adds and updates: mappings missing from the file are kept.
+ */
+@Service
+@EnableConfigurationProperties(IngestionProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class ReleaseIngestionService {
+
+    public static final String ROWS_COUNTER = "terminology.ingest.rows";
+    public static final String BATCH_TIMER = "terminology.ingest.batch";
+
+    private static final int LOGGED_INVALID_ROWS = 20;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final BestMappingView bestMappingView;
+    private final ConceptAdjacencyView conceptAdjacencyView;
+    private final DataVersionService dataVersionService;
+    private final IngestionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private record BatchResult(long lastRow, long inserted, long updated, long unchanged, long invalid, long concepts) {
+    }
+
+    public Mono<IngestionCheckpoint> ingest(Path file) {
+        return ingest(file, properties.getFormat(), properties.getRelease());
+    }
+
+    public Mono<IngestionCheckpoint> ingest(Path file, ReleaseFileReader.Format format, String release) {
+        String releaseId = release != null ? release : defaultRelease(file);
+        Mono<IngestionCheckpoint> previous = properties.isResume() ? checkpointRepository.findById(releaseId) : Mono.empty();
+        return previous
+                .defaultIfEmpty(IngestionCheckpoint.builder().release(releaseId).build())
+                .flatMap(checkpoint -> {
+                    if (checkpoint.getStatus() == IngestionCheckpoint.Status.COMPLETED) {
+                        log.info("Release {} was already ingested (data version {})", releaseId, checkpoint.getDataVersion());
+                        return Mono.just(checkpoint);
+                    }
+                    return run(file, format, checkpoint);
+                });
+    }
+
+    private Mono<IngestionCheckpoint> run(Path file, ReleaseFileReader.Format format, IngestionCheckpoint checkpoint) {
+        long started = System.nanoTime();
+        long resumedAt = checkpoint.getRowsCommitted();
+        AtomicLong batches = new AtomicLong();
+        AtomicLong loggedInvalid = new AtomicLong();
+        BatchOrder order = new BatchOrder();
+        checkpoint.setStatus(IngestionCheckpoint.Status.RUNNING);
+        if (resumedAt > 0) {
+            log.info("Resuming release {} after row {}", checkpoint.getRelease(), resumedAt);
+        } else {
+            log.info("Ingesting release {} from {}", checkpoint.getRelease(), file);
+        }
+
+        return ReleaseFileReader.read(file, format, resumedAt)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(row -> logInvalid(row, loggedInvalid))
+                .buffer(properties.getBatchSize())
+                // Batches are applied concurrently but their results arrive in file order, so the
+                // checkpoint only ever covers rows whose batches have all been written
+                .flatMapSequential(rows -> order.after(keys(rows), Mono.defer(() -> apply(rows))), properties.getConcurrency())
+                .concatMap(result -> {
+                    accumulate(checkpoint, result);
+                    if (checkpoint.getInvalid() > properties.getMaxInvalidRows()) {
+                        return Mono.error(new IllegalStateException(
+                                "Release " + checkpoint.getRelease() + " has more than " + properties.getMaxInvalidRows() + " invalid rows"));
+                    }
+                    if (batches.incrementAndGet() % properties.getCheckpointEvery() != 0) {
+                        return Mono.just(checkpoint);
+                    }
+                    logProgress(checkpoint, resumedAt, started);
+                    return save(checkpoint);
+                })
+                .then(Mono.defer(() -> finish(checkpoint)))
+                .doOnNext(done -> log.info("Release {} ingested in {}s: {} inserted, {} updated, {} unchanged, {} invalid, {} concepts, data version {}",
+                        done.getRelease(), (System.nanoTime() - started) / 1_000_000 / 1000.0, done.getInserted(), done.getUpdated(),
+                        done.getUnchanged(), done.getInvalid(), done.getConcepts(), done.getDataVersion()))
+                .onErrorResume(e -> save(checkpoint).then(Mono.error(e)));
+    }
+
+    private Mono<IngestionCheckpoint> finish(IngestionCheckpoint checkpoint) {
+        boolean changed = checkpoint.getInserted() + checkpoint.getUpdated() + checkpoint.getConcepts() > 0;
+        Mono<Long> version = changed
+                ? dataVersionService.bump(checkpoint.getRelease())
+                : dataVersionService.read().map(DataVersion::getVersion).defaultIfEmpty(0L);
+        return version.flatMap(dataVersion -> {
+            checkpoint.setDataVersion(dataVersion);
+            checkpoint.setStatus(IngestionCheckpoint.Status.COMPLETED);
+            return save(checkpoint);
+        });
+    }
+
+    private Mono<BatchResult> apply(List<ReleaseRow> rows) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long lastRow = rows.get(rows.size() - 1).rowNumber();
+        // Later rows for the same natural key win, as they would if applied one by one
+        Map<String, NamasteCode> mappings = rows.stream()
+                .filter(ReleaseRow::valid)
+                .map(ReleaseRow::mapping)
+                .collect(Collectors.toMap(ReleaseIngestionService::naturalKey, Function.identity(), (first, second) -> second, LinkedHashMap::new));
+        long invalid = rows.stream().filter(row -> !row.valid()).count();
+        if (mappings.isEmpty()) {
+            return Mono.just(new BatchResult(lastRow, 0, 0, 0, invalid, 0));
+        }
+
+        Set<String> codes = mappings.values().stream().map(NamasteCode::getCode).collect(Collectors.toSet());
+        return upsertConcepts(mappings.values())
+                .zipWith(mongoTemplate.find(Query.query(Criteria.where("code").in(codes)), NamasteCode.class)
+                        .collectMap(ReleaseIngestionService::naturalKey))
+                .flatMap(tuple -> {
+                    Map<String, NamasteCode> existing = tuple.getT2();
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NamasteCode.class);
+                    Set<String> changedCodes = new LinkedHashSet<>();
+                    Set<String> changedTm2Codes = new LinkedHashSet<>();
+                    long inserted = 0;
+                    long updated = 0;
+                    for (Map.Entry<String, NamasteCode> entry : mappings.entrySet()) {
+                        NamasteCode row = entry.getValue();
+                        NamasteCode current = existing.get(entry.getKey());
+                        if (current != null && sameContent(current, row)) {
+                            continue;
+                        }
+                        if (current == null) {
+                            inserted++;
+                        } else {
+                            updated++;
+                        }
+                        bulk.upsert(Query.query(Criteria.where("code").is(row.getCode()).and("tm2_code").is(row.getTm2Code())), mappingUpdate(row));
+                        changedCodes.add(row.getCode());
+                        if (row.getTm2Code() != null) {
+                            changedTm2Codes.add(row.getTm2Code());
+                        }
+                    }
+                    BatchResult result = new BatchResult(lastRow, inserted, updated, mappings.size() - inserted - updated, invalid, tuple.getT1());
+                    if (changedCodes.isEmpty()) {
+                        return Mono.just(result);
+                    }
+                    return bulk.execute()
+                            .then(bestMappingView.refresh(changedCodes, changedTm2Codes))
+                            .then(conceptAdjacencyView.refresh(changedCodes, changedTm2Codes))
+                            .thenReturn(result);
+                })
+                .doOnNext(result -> sample.stop(Timer.builder(BATCH_TIMER)
+                        .description("Time to diff and write one ingestion batch")
+                        .register(meterRegistry)));
+    }
+
+    /** Upserts the TM2 concepts of a batch whose text is new or different; returns how many. */
+    private Mono<Long> upsertConcepts(Iterable<NamasteCode> mappings) {
+        Map<String, Tm2Concept> concepts = new LinkedHashMap<>();
+        for (NamasteCode mapping : mappings) {
+            if (mapping.getTm2Code() != null && (mapping.getTm2Title() != null || mapping.getTm2Definition() != null)) {
+                concepts.put(mapping.getTm2Code(), new Tm2Concept(mapping.getTm2Code(), mapping.getTm2Title(),
+                        mapping.getTm2Definition(), mapping.getTm2Link()));
+            }
+        }
+        if (concepts.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(concepts.keySet())), Tm2Concept.class)
+                .collectMap(Tm2Concept::getTm2Code)
+                .flatMap(existing -> {
+                    List<Tm2Concept> changed = concepts.values().stream()
+                            .filter(concept -> !sameConcept(existing.get(concept.getTm2Code()), concept))
+                            .toList();
+                    if (changed.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tm2Concept.class);
+                    for (Tm2Concept concept : changed) {
+                        Update update = new Update();
+                        // Columns missing from the release keep their stored value
+                        setIfPresent(update, "tm2_title", concept.getTm2Title());
+                        setIfPresent(update, "tm2_definition", concept.getTm2Definition());
+                        setIfPresent(update, "tm2_link", concept.getTm2Link());
+                        bulk.upsert(Query.query(Criteria.where("_id").is(concept.getTm2Code())), update);
+                    }
+                    return bulk.execute().thenReturn((long) changed.size());
+                });
+    }
+
+    private static Update mappingUpdate(NamasteCode row) {
+        // Stored normalized: the TM2 text lives in tm2_concepts
+        return new Update()
+                .set("code", row.getCode())
+                .set("tm2_code", row.getTm2Code())
+                .set("code_title", row.getCodeTitle())
+                .set("code_description", row.getCodeDescription())
+                .set("type", row.getType())
+                .set("confidence_score", row.getConfidenceScore())
+                .unset("tm2_title")
+                .unset("tm2_definition")
+                .unset("tm2_link");
+    }
+
+    static boolean sameContent(NamasteCode stored, NamasteCode row) {
+        return Objects.equals(stored.getCodeTitle(), row.getCodeTitle())
+                && Objects.equals(stored.getCodeDescription(), row.getCodeDescription())
+                && Objects.equals(stored.getType(), row.getType())
+                && Objects.equals(stored.getConfidenceScore(), row.getConfidenceScore())
+                // A stored copy of the TM2 text means the mapping is not normalized yet
+                && stored.getTm2Title() == null
+                && stored.getTm2Definition() == null
+                && stored.getTm2Link() == null;
+    }
+
+    static boolean sameConcept(Tm2Concept stored, Tm2Concept row) {
+        return stored != null
+                && (row.getTm2Title() == null || row.getTm2Title().equals(stored.getTm2Title()))
+                && (row.getTm2Definition() == null || row.getTm2Definition().equals(stored.getTm2Definition()))
+                && (row.getTm2Link() == null || row.getTm2Link().equals(stored.getTm2Link()));
+    }
+
+    /** The documents a batch writes: mappings and best mappings by code, concepts and adjacency by TM2 code. */
+    static Set<String> keys(List<ReleaseRow> rows) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (ReleaseRow row : rows) {
+            if (row.valid()) {
+                keys.add("code:" + row.mapping().getCode());
+                if (row.mapping().getTm2Code() != null) {
+                    keys.add("tm2:" + row.mapping().getTm2Code());
+                }
+            }
+        }
+        return keys;
+    }
+
+    static String naturalKey(NamasteCode mapping) {
+        return mapping.getCode() + '\u0000' + Objects.toString(mapping.getTm2Code(), "");
+    }
+
+    private static void setIfPresent(Update update, String field, String value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private void accumulate(IngestionCheckpoint checkpoint, BatchResult result) {
+        checkpoint.setRowsCommitted(result.lastRow());
+        checkpoint.setInserted(checkpoint.getInserted() + result.inserted());
+        checkpoint.setUpdated(checkpoint.getUpdated() + result.updated());
+        checkpoint.setUnchanged(checkpoint.getUnchanged() + result.unchanged());
+        checkpoint.setInvalid(checkpoint.getInvalid() + result.invalid());
+        checkpoint.setConcepts(checkpoint.getConcepts() + result.concepts());
+        rows("inserted").increment(result.inserted());
+        rows("updated").increment(result.updated());
+        rows("unchanged").increment(result.unchanged());
+        rows("invalid").increment(result.invalid());
+    }
+
+    private Mono<IngestionCheckpoint> save(IngestionCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private Counter rows(String outcome) {
+        return Counter.builder(ROWS_COUNTER)
+                .description("Release rows processed by ingestion")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void logInvalid(ReleaseRow row, AtomicLong logged) {
+        if (!row.valid() && logged.incrementAndGet() <= LOGGED_INVALID_ROWS) {
+            log.warn("Rejected row {}: {}", row.rowNumber(), row.error());
+        }
+    }
+
+    private void logProgress(IngestionCheckpoint checkpoint, long resumedAt, long started) {
+        double seconds = Math.max(0.001, (System.nanoTime() - started) / 1e9);
+        log.info("Release {}: {} rows committed ({} rows/s)", checkpoint.getRelease(), checkpoint.getRowsCommitted(),
+                Math.round((checkpoint.getRowsCommitted() - resumedAt) / seconds));
+    }
+
+    private static String defaultRelease(Path file) {
+        try {
+            return file.getFileName() + "-" + Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
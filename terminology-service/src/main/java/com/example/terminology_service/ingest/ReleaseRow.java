@@ -0,0 +1,71 @@
+package com.example.terminology_service.ingest;
+
+import com.example.terminology_service.model.NamasteCode;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One parsed release row: the mapping it describes, or the reason it was rejected.
+ * Column names may be the stored field names (code_title) or the API names (codeTitle).
+ */
+public record ReleaseRow(long rowNumber, NamasteCode mapping, String error) {
+
+    public boolean valid() {
+        return error == null;
+    }
+
+    static ReleaseRow parse(long rowNumber, Map<String, String> fields) {
+        NamasteCode mapping = new NamasteCode();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String value = field.getValue() != null ? field.getValue().trim() : null;
+            if (value != null && value.isEmpty()) {
+                value = null;
+            }
+            switch (normalize(field.getKey())) {
+                case "code" -> mapping.setCode(value);
+                case "codetitle" -> mapping.setCodeTitle(value);
+                case "codedescription" -> mapping.setCodeDescription(value);
+                case "type" -> mapping.setType(value != null ? value.toLowerCase(Locale.ROOT) : null);
+                case "tm2code" -> mapping.setTm2Code(value);
+                case "tm2title" -> mapping.setTm2Title(value);
+                case "tm2definition" -> mapping.setTm2Definition(value);
+                case "tm2link", "tm2uri" -> mapping.setTm2Link(value);
+                case "confidencescore" -> {
+                    if (value != null) {
+                        try {
+                            mapping.setConfidenceScore(Double.parseDouble(value));
+                        } catch (NumberFormatException e) {
+                            return new ReleaseRow(rowNumber, mapping, "confidence_score is not a number: " + value);
+                        }
+                    }
+                }
+                default -> {
+                    // Unknown columns (ids, audit fields) are ignored
+                }
+            }
+        }
+        return new ReleaseRow(rowNumber, mapping, validate(mapping));
+    }
+
+    static String validate(NamasteCode mapping) {
+        if (mapping.getCode() == null) {
+            return "code is required";
+        }
+        if (mapping.getType() == null) {
+            return "type is required";
+        }
+        if (mapping.getCodeTitle() == null) {
+            return "code_title is required";
+        }
+        Double confidence = mapping.getConfidenceScore();
+        if (confidence != null && (confidence.isNaN() || confidence < 0 || confidence > 1)) {
+            return "confidence_score must be between 0 and 1";
+        }
+        return null;
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+}
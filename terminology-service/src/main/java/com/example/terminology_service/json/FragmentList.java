@@ -0,0 +1,71 @@
+package com.example.terminology_service.json;
+
+import com.example.terminology_service.dto.InternalCodeView;
+import com.example.terminology_service.model.NamasteCode;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Response list of cached documents that {@link JsonFragmentEncoder} writes from their pre-encoded
+ * JSON. Read as a plain list, each element is the view Jackson would otherwise have serialized, so
+ * any other writer produces the same body.
+ */
+public final class FragmentList<T> extends AbstractList<T> implements RandomAccess {
+
+    /** How a document appears in a response; each shape has its own fragment. */
+    public enum Shape {
+        CODE(code -> code),
+        VIEW(code -> InternalCodeView.of(code, false)),
+        VIEW_WITH_TEXT(code -> InternalCodeView.of(code, true));
+
+        private final Function<NamasteCode, Object> view;
+
+        Shape(Function<NamasteCode, Object> view) {
+            this.view = view;
+        }
+
+        public Object view(NamasteCode code) {
+            return view.apply(code);
+        }
+    }
+
+    private final List<NamasteCode> codes;
+    private final Shape shape;
+
+    private FragmentList(List<NamasteCode> codes, Shape shape) {
+        this.codes = codes;
+        this.shape = shape;
+    }
+
+    /** Documents as they are, for the public API. */
+    public static FragmentList<NamasteCode> codes(List<NamasteCode> codes) {
+        return new FragmentList<>(codes, Shape.CODE);
+    }
+
+    /** Documents as {@link InternalCodeView#of}, for the internal API. */
+    public static FragmentList<InternalCodeView> views(List<NamasteCode> codes, boolean includeText) {
+        return new FragmentList<>(codes, includeText ? Shape.VIEW_WITH_TEXT : Shape.VIEW);
+    }
+
+    public List<NamasteCode> codes() {
+        return codes;
+    }
+
+    public Shape shape() {
+        return shape;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) shape.view(codes.get(index));
+    }
+
+    @Override
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.terminology_service.json;
+
+import com.example.terminology_service.dto.TerminologyResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link FragmentList}, or a successful {@link TerminologyResponse} holding one, by
+ * concatenating the documents' pre-encoded JSON into a single buffer from the response's buffer
+ * factory (pooled under Reactor Netty). The bytes are the ones Jackson would write. Every other list
+ * or response goes to Jackson unchanged.
+ */
+public class JsonFragmentEncoder implements Encoder<Object> {
+
+    private static final byte COMMA = ',';
+    private static final byte[] LIST_START = {'['};
+    private static final byte[] LIST_END = {']'};
+
+    private final JsonFragments fragments;
+    private final Jackson2JsonEncoder jackson;
+    private final byte[] envelopeStart;
+    private final byte[] envelopeEnd;
+
+    public JsonFragmentEncoder(JsonFragments fragments, ObjectMapper objectMapper) {
+        this.fragments = fragments;
+        this.jackson = new Jackson2JsonEncoder(objectMapper);
+        // The envelope around the list as Jackson writes it: {"success":true,"data":[ ... ]}
+        byte[] empty;
+        try {
+            empty = objectMapper.writeValueAsBytes(TerminologyResponse.success(List.of()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String json = new String(empty, StandardCharsets.UTF_8);
+        int list = json.lastIndexOf("[]");
+        if (list < 0) {
+            throw new IllegalStateException("Cannot split the response envelope " + json);
+        }
+        this.envelopeStart = Arrays.copyOfRange(empty, 0, list + 1);
+        this.envelopeEnd = Arrays.copyOfRange(empty, list + 1, empty.length);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (List.class.isAssignableFrom(type) || TerminologyResponse.class.isAssignableFrom(type))
+                && (mimeType == null || MediaType.APPLICATION_JSON.isCompatibleWith(mimeType))
+                && jackson.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> mono) {
+            return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        return jackson.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (mimeType != null && mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return jackson.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+        if (value instanceof FragmentList<?> list) {
+            return write(list, LIST_START, LIST_END, bufferFactory);
+        }
+        if (value instanceof TerminologyResponse<?> response && response.isSuccess()
+                && response.getMessage() == null && response.getErrorCode() == null
+                && response.getData() instanceof FragmentList<?> list) {
+            return write(list, envelopeStart, envelopeEnd, bufferFactory);
+        }
+        return jackson.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+    }
+
+    private DataBuffer write(FragmentList<?> list, byte[] start, byte[] end, DataBufferFactory bufferFactory) {
+        int size = list.size();
+        byte[][] parts = new byte[size][];
+        int length = start.length + Math.max(size - 1, 0) + end.length;
+        for (int i = 0; i < size; i++) {
+            parts[i] = fragments.fragment(list.codes().get(i), list.shape());
+            length += parts[i].length;
+        }
+        DataBuffer buffer = bufferFactory.allocateBuffer(length);
+        try {
+            buffer.write(start);
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    buffer.write(COMMA);
+                }
+                buffer.write(parts[i]);
+            }
+            return buffer.write(end);
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return List.of(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes(ResolvableType elementType) {
+        return getEncodableMimeTypes();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.terminology_service.json;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.service.DataVersionChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * JSON encoding of each cached document, made by Jackson the first time the document is sent and
+ * reused as raw bytes after that.
+ * <p>
+ * Documents are keyed by identity and held weakly: a response cache hit hands out the same instances,
+ * so a fragment lives exactly as long as the cache entry it was encoded from. An entry evicted after a
+ * change is reloaded as new instances and encoded afresh. Everything is dropped when the data version
+ * moves, since fragments carry TM2 text joined from the concept table.
+ */
+public class JsonFragments {
+
+    public static final String LOOKUPS_COUNTER = "terminology.json.fragments";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<NamasteCode, AtomicReferenceArray<byte[]>> fragments = Caffeine.newBuilder().weakKeys().build();
+    private final Counter hits;
+    private final Counter misses;
+
+    public JsonFragments(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+    }
+
+    /** The document's JSON in the given shape, encoded on first use. */
+    public byte[] fragment(NamasteCode code, FragmentList.Shape shape) {
+        AtomicReferenceArray<byte[]> byShape =
+                fragments.get(code, key -> new AtomicReferenceArray<>(FragmentList.Shape.values().length));
+        byte[] fragment = byShape.get(shape.ordinal());
+        if (fragment != null) {
+            hits.increment();
+            return fragment;
+        }
+        misses.increment();
+        try {
+            fragment = objectMapper.writeValueAsBytes(shape.view(code));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byShape.set(shape.ordinal(), fragment);
+        return fragment;
+    }
+
+    @EventListener
+    public void onDataVersionChanged(DataVersionChangedEvent event) {
+        fragments.invalidateAll();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(LOOKUPS_COUNTER)
+                .description("Documents written from their pre-encoded JSON (hit) or encoded by Jackson first (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
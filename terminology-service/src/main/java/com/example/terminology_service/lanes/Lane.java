@@ -0,0 +1,26 @@
+package com.example.terminology_service.lanes;
+
+import java.util.Locale;
+
+/** Scheduling class of a request: keystroke-path lookups, or exports and scans that can wait. */
+public enum Lane {
+    INTERACTIVE,
+    BULK;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /** The lane named by a priority header value; null for a missing or unknown value. */
+    public static Lane parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (Lane lane : values()) {
+            if (lane.tag().equalsIgnoreCase(value.trim())) {
+                return lane;
+            }
+        }
+        return null;
+    }
+}
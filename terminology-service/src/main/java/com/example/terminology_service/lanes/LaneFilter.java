@@ -0,0 +1,94 @@
+package com.example.terminology_service.lanes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts every request into a lane and runs it through the {@link LaneScheduler}: the lane named by the
+ * priority header, else bulk for the configured bulk paths, else interactive. The slot is held until
+ * the response is written, so a lane's concurrency cap is also the number of its Mongo queries and
+ * cursors open at once. Runs inside the {@link com.example.terminology_service.deadline.DeadlineFilter},
+ * so time spent queued counts against the request deadline.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@EnableConfigurationProperties(LaneProperties.class)
+public class LaneFilter implements WebFilter {
+
+    public static final String LATENCY_TIMER = "terminology.lane.latency";
+
+    private final LaneProperties properties;
+    private final LaneScheduler scheduler;
+    private final List<PathPattern> bulkPaths;
+    private final Map<Lane, Timer> latency = new EnumMap<>(Lane.class);
+
+    public LaneFilter(LaneProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.scheduler = new LaneScheduler(properties, meterRegistry);
+        this.bulkPaths = properties.getBulkPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        for (Lane lane : Lane.values()) {
+            latency.put(lane, Timer.builder(LATENCY_TIMER)
+                    .description("Request latency including the wait for a lane slot")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getPath().value().startsWith("/actuator")
+                || "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getUpgrade())) {
+            return chain.filter(exchange);
+        }
+        Lane lane = classify(exchange);
+        long started = System.nanoTime();
+        return scheduler.schedule(lane, chain.filter(exchange).then(Mono.just(Boolean.TRUE)))
+                .then()
+                .onErrorResume(LaneScheduler.LaneRejectedException.class, e -> unavailable(exchange, lane))
+                .doFinally(signal -> latency.get(lane).record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+    }
+
+    Lane classify(ServerWebExchange exchange) {
+        Lane named = Lane.parse(exchange.getRequest().getHeaders().getFirst(properties.getHeader()));
+        if (named != null) {
+            return named;
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        for (PathPattern pattern : bulkPaths) {
+            if (pattern.matches(path)) {
+                return Lane.BULK;
+            }
+        }
+        return Lane.INTERACTIVE;
+    }
+
+    private Mono<Void> unavailable(ServerWebExchange exchange, Lane lane) {
+        if (exchange.getResponse().isCommitted()) {
+            return Mono.empty();
+        }
+        long retryAfter = Math.max(1, properties.limits(lane).getMaxWait().toSeconds());
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        return exchange.getResponse().setComplete();
+    }
+}
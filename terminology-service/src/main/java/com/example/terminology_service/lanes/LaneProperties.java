@@ -0,0 +1,61 @@
+package com.example.terminology_service.lanes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priority lanes that keep bulk requests from delaying interactive ones (terminology.lanes.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "terminology.lanes")
+public class LaneProperties {
+
+    private boolean enabled = true;
+
+    /** Header naming the lane (interactive or bulk); set by fhir-service, stripped from outside callers by the gateway. */
+    private String header = "X-Request-Priority";
+
+    /** Requests in progress across all lanes. */
+    private int maxConcurrent = 64;
+
+    /** Path patterns that go to the bulk lane when the request names no lane. */
+    private List<String> bulkPaths = new ArrayList<>();
+
+    private Limits interactive = new Limits(64, 1_000, 8, Duration.ofSeconds(1));
+
+    private Limits bulk = new Limits(8, 200, 1, Duration.ofSeconds(10));
+
+    public Limits limits(Lane lane) {
+        return lane == Lane.BULK ? bulk : interactive;
+    }
+
+    @Data
+    public static class Limits {
+
+        /** Requests of this lane in progress at once, and so its share of Mongo connections. */
+        private int maxConcurrent;
+
+        /** Requests waiting beyond this are refused with 503. */
+        private int maxQueue;
+
+        /** Share of freed slots while both lanes are waiting: 8 against 1 admits 8 interactive per bulk request. */
+        private int weight;
+
+        /** Longest a request waits for a slot before it is refused with 503. */
+        private Duration maxWait;
+
+        public Limits() {
+        }
+
+        public Limits(int maxConcurrent, int maxQueue, int weight, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.weight = weight;
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.terminology_service.lanes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits work into a fixed number of slots shared by the lanes, each lane also capped on its own.
+ * When slots are short, freed slots go to the waiting lanes in proportion to their weights (stride
+ * scheduling: the lane that has received the least relative to its weight goes next), so a backlog of
+ * bulk work cannot push interactive requests back, while bulk still gets whatever interactive leaves.
+ */
+public class LaneScheduler {
+
+    public static final String QUEUED_GAUGE = "terminology.lane.queued";
+    public static final String ACTIVE_GAUGE = "terminology.lane.active";
+    public static final String WAIT_TIMER = "terminology.lane.wait";
+    public static final String REJECTED_COUNTER = "terminology.lane.rejected";
+
+    /** Refusal of work whose lane queue is full or that waited too long for a slot. */
+    public static class LaneRejectedException extends RuntimeException {
+
+        public LaneRejectedException(String message) {
+            super(message);
+        }
+
+        public LaneRejectedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final class Waiter {
+        final LaneState lane;
+        final MonoSink<Permit> sink;
+        final long enqueuedAt = System.nanoTime();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        Permit permit;
+
+        Waiter(LaneState lane, MonoSink<Permit> sink) {
+            this.lane = lane;
+            this.sink = sink;
+        }
+    }
+
+    /** A held slot; released once, however many times {@link #release()} is called. */
+    public final class Permit {
+        private final LaneState lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(LaneState lane) {
+            this.lane = lane;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                LaneScheduler.this.release(lane);
+            }
+        }
+    }
+
+    private static final class LaneState {
+        final Lane lane;
+        final int maxConcurrent;
+        final int maxQueue;
+        final double stride;
+        final Duration maxWait;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        final Timer waitTimer;
+        final Counter queueFull;
+        final Counter waitedTooLong;
+        int active;
+        double pass;
+
+        LaneState(Lane lane, LaneProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.lane = lane;
+            this.maxConcurrent = limits.getMaxConcurrent();
+            this.maxQueue = limits.getMaxQueue();
+            this.stride = 1.0 / Math.max(1, limits.getWeight());
+            this.maxWait = limits.getMaxWait();
+            this.waitTimer = Timer.builder(WAIT_TIMER)
+                    .description("Time requests waited for a slot in their lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.queueFull = rejectedCounter(meterRegistry, lane, "queue-full");
+            this.waitedTooLong = rejectedCounter(meterRegistry, lane, "timeout");
+        }
+    }
+
+    private final int maxConcurrent;
+    private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+    private int active;
+    // Pass of the last lane served; a lane that was idle starts from here rather than from its old, low pass
+    private double virtualTime;
+
+    public LaneScheduler(LaneProperties properties, MeterRegistry meterRegistry) {
+        this.maxConcurrent = properties.getMaxConcurrent();
+        for (Lane lane : Lane.values()) {
+            LaneState state = new LaneState(lane, properties.limits(lane), meterRegistry);
+            lanes.put(lane, state);
+            Gauge.builder(QUEUED_GAUGE, this, scheduler -> scheduler.queued(lane))
+                    .description("Requests waiting for a slot in their lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder(ACTIVE_GAUGE, this, scheduler -> scheduler.active(lane))
+                    .description("Requests in progress in their lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    /** Runs the work once its lane gets a slot, and frees the slot when the work ends or is cancelled. */
+    public <T> Mono<T> schedule(Lane lane, Mono<T> work) {
+        return acquire(lane).flatMap(permit -> work.doFinally(signal -> permit.release()));
+    }
+
+    Mono<Permit> acquire(Lane lane) {
+        LaneState state = lanes.get(lane);
+        Mono<Permit> acquire = Mono.create(sink -> {
+            Waiter waiter = new Waiter(state, sink);
+            sink.onCancel(() -> cancel(waiter));
+            List<Waiter> granted;
+            synchronized (this) {
+                if (state.queue.size() >= state.maxQueue) {
+                    waiter.state.set(CANCELLED);
+                    granted = null;
+                } else {
+                    if (state.queue.isEmpty() && state.active == 0) {
+                        state.pass = Math.max(state.pass, virtualTime);
+                    }
+                    state.queue.add(waiter);
+                    granted = dispatch();
+                }
+            }
+            if (granted == null) {
+                state.queueFull.increment();
+                sink.error(new LaneRejectedException("The " + lane.tag() + " lane queue is full"));
+                return;
+            }
+            complete(granted);
+        });
+        return acquire.timeout(state.maxWait, Mono.defer(() -> {
+            state.waitedTooLong.increment();
+            return Mono.error(new LaneRejectedException("No " + lane.tag() + " slot within " + state.maxWait,
+                    new TimeoutException()));
+        }));
+    }
+
+    synchronized int queued(Lane lane) {
+        return lanes.get(lane).queue.size();
+    }
+
+    synchronized int active(Lane lane) {
+        return lanes.get(lane).active;
+    }
+
+    private void release(LaneState lane) {
+        List<Waiter> granted;
+        synchronized (this) {
+            active--;
+            lane.active--;
+            granted = dispatch();
+        }
+        complete(granted);
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+            synchronized (this) {
+                waiter.lane.queue.remove(waiter);
+            }
+        } else if (waiter.state.get() == GRANTED) {
+            // Granted as the subscriber went away, so nobody will run the work and release the slot
+            waiter.permit.release();
+        }
+    }
+
+    // Hands free slots to waiters, lowest pass first among lanes under their own cap; called holding the lock
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        while (active < maxConcurrent) {
+            LaneState next = null;
+            for (LaneState lane : lanes.values()) {
+                if (!lane.queue.isEmpty() && lane.active < lane.maxConcurrent && (next == null || lane.pass < next.pass)) {
+                    next = lane;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.queue.poll();
+            waiter.permit = new Permit(next);
+            if (!waiter.state.compareAndSet(WAITING, GRANTED)) {
+                continue;
+            }
+            active++;
+            next.active++;
+            virtualTime = next.pass;
+            next.pass += next.stride;
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private static void complete(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waiter.lane.waitTimer.record(Duration.ofNanos(System.nanoTime() - waiter.enqueuedAt));
+            waiter.sink.success(waiter.permit);
+        }
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Lane lane, String reason) {
+        return Counter.builder(REJECTED_COUNTER)
+                .description("Requests refused by their lane, by reason")
+                .tag("lane", lane.tag())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.terminology_service.metrics;
+
+import com.example.medbridge_common.metrics.StageTimer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage latency timers and result-size summaries for terminology operations.
+ * Histogram and SLO buckets are configured under management.metrics.distribution.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String STAGE_TIMER = "terminology.stage";
+    public static final String RESULT_SUMMARY = "terminology.response.results";
+
+    private final MeterRegistry meterRegistry;
+    private final StageTimer stages;
+
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.stages = new StageTimer(meterRegistry, STAGE_TIMER, "Time spent in each stage of a terminology operation");
+    }
+
+    public <T> Flux<T> time(String operation, String stage, Flux<T> source) {
+        return stages.time(operation, stage, source);
+    }
+
+    public <T> Mono<T> time(String operation, String stage, Mono<T> source) {
+        return stages.time(operation, stage, source);
+    }
+
+    public <T> T record(String operation, String stage, Supplier<T> work) {
+        return stages.record(operation, stage, work);
+    }
+
+    public <T> Flux<T> countResults(String operation, Flux<T> source) {
+        return Flux.defer(() -> {
+            AtomicInteger count = new AtomicInteger();
+            return source.doOnNext(item -> count.incrementAndGet())
+                    .doOnComplete(() -> resultSummary(operation).record(count.get()));
+        });
+    }
+
+    private DistributionSummary resultSummary(String operation) {
+        return DistributionSummary.builder(RESULT_SUMMARY)
+                .description("Number of NamasteCode documents returned per operation")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.terminology_service.migration;
+
+import com.example.terminology_service.service.BestMappingView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the best_mappings view from tm2_mappings and exits, e.g. after a bulk load or a change of
+ * terminology.best-mappings.min-confidence.
+ * <pre>
+ * java -jar terminology-service.jar --spring.profiles.active=rebuild-best-mappings \
+ *      --spring.data.mongodb.uri=mongodb://localhost:27017/terminology
+ * </pre>
+ */
+@Component
+@Profile("rebuild-best-mappings")
+@RequiredArgsConstructor
+@Slf4j
+public class BestMappingsRebuildRunner implements ApplicationRunner {
+
+    private final BestMappingView bestMappingView;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long written = bestMappingView.rebuild().block();
+        log.info("best_mappings rebuild wrote {} entries", written);
+        System.exit(SpringApplication.exit(context, () -> written != null ? 0 : 1));
+    }
+}
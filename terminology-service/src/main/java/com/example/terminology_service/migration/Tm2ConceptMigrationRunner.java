@@ -0,0 +1,132 @@
+package com.example.terminology_service.migration;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.model.Tm2Concept;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves the TM2 title, definition and link out of tm2_mappings into one tm2_concepts document per
+ * tm2_code, then strips them from the mappings. Safe to re-run: concepts are upserted and the service
+ * joins concept text onto any mapping that still carries none.
+ * <pre>
+ * java -jar terminology-service.jar --spring.profiles.active=migrate-concepts \
+ *      --spring.data.mongodb.uri=mongodb://localhost:27017/terminology
+ * </pre>
+ */
+@Component
+@Profile("migrate-concepts")
+@Slf4j
+public class Tm2ConceptMigrationRunner implements ApplicationRunner {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ConfigurableApplicationContext context;
+    private final int batchSize;
+    private final boolean stripMappingText;
+
+    public Tm2ConceptMigrationRunner(ReactiveMongoTemplate mongoTemplate,
+                                     ConfigurableApplicationContext context,
+                                     @Value("${migration.batch-size:1000}") int batchSize,
+                                     @Value("${migration.strip-mapping-text:true}") boolean stripMappingText) {
+        this.mongoTemplate = mongoTemplate;
+        this.context = context;
+        this.batchSize = batchSize;
+        this.stripMappingText = stripMappingText;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        AtomicLong upserted = new AtomicLong();
+        String mappings = mongoTemplate.getCollectionName(NamasteCode.class);
+        String concepts = mongoTemplate.getCollectionName(Tm2Concept.class);
+
+        logSize(mappings, "before")
+                .then(extractConcepts()
+                        .buffer(batchSize)
+                        .concatMap(this::upsert)
+                        .doOnNext(upserted::addAndGet)
+                        .then())
+                .then(stripMappingText ? stripMappings() : Mono.just(0L))
+                .doOnNext(stripped -> log.info("Upserted {} TM2 concepts, stripped TM2 text from {} mappings",
+                        upserted.get(), stripped))
+                .then(logSize(mappings, "after"))
+                .then(logSize(concepts, "after"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .block();
+
+        log.info("TM2 concept migration finished in {}s", Duration.ofNanos(System.nanoTime() - started).toMillis() / 1000.0);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private Flux<Tm2Concept> extractConcepts() {
+        // $max picks a non-null value when only some copies of a concept carry the text
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("tm2_code").ne(null)),
+                Aggregation.group("tm2_code")
+                        .max("tm2_title").as("tm2_title")
+                        .max("tm2_definition").as("tm2_definition")
+                        .max("tm2_link").as("tm2_link"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        return mongoTemplate.aggregate(aggregation, NamasteCode.class, Document.class)
+                .filter(group -> group.get("tm2_title") != null || group.get("tm2_definition") != null)
+                .map(group -> new Tm2Concept(group.getString("_id"), group.getString("tm2_title"),
+                        group.getString("tm2_definition"), group.getString("tm2_link")));
+    }
+
+    private Mono<Integer> upsert(List<Tm2Concept> batch) {
+        List<Pair<Query, Update>> upserts = batch.stream()
+                .map(concept -> Pair.of(
+                        Query.query(Criteria.where("_id").is(concept.getTm2Code())),
+                        new Update()
+                                .set("tm2_title", concept.getTm2Title())
+                                .set("tm2_definition", concept.getTm2Definition())
+                                .set("tm2_link", concept.getTm2Link())))
+                .toList();
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tm2Concept.class)
+                .upsert(upserts)
+                .execute()
+                .map(result -> result.getUpserts().size() + result.getModifiedCount());
+    }
+
+    private Mono<Long> stripMappings() {
+        // Only mappings whose concept now exists lose their copy of the text
+        return mongoTemplate.findDistinct(new Query(), "_id", Tm2Concept.class, String.class)
+                .collectList()
+                .flatMap(codes -> mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("tm2_code").in(codes)),
+                        new Update().unset("tm2_title").unset("tm2_definition").unset("tm2_link"),
+                        NamasteCode.class))
+                .map(result -> result.getModifiedCount());
+    }
+
+    private Mono<Void> logSize(String collection, String when) {
+        return mongoTemplate.executeCommand(new Document("collStats", collection))
+                .doOnNext(stats -> log.info("{} {}: {} documents, {} bytes", collection, when,
+                        stats.get("count"), stats.get("size")))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+}
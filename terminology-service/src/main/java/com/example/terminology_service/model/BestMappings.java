@@ -0,0 +1,34 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Precomputed searchByCode answer for one NAMASTE code or TM2 code: the highest-confidence mapping
+ * of each type above {@code minConfidence}.
+ */
+@Document(collection = "best_mappings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestMappings {
+
+    @Id
+    private String key;
+
+    @Field("min_confidence")
+    private double minConfidence;
+
+    @Field("mappings")
+    private List<NamasteCode> mappings;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+}
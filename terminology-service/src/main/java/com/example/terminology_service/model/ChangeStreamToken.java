@@ -0,0 +1,34 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.BsonDocument;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Resume token of one replica's tm2_mappings change stream, stored as its JSON form.
+ */
+@Document(collection = "change_stream_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeStreamToken {
+
+    @Id
+    private String instanceId;
+
+    @Field("token")
+    private String token;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+
+    public BsonDocument toBson() {
+        return BsonDocument.parse(token);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Precomputed translation of one code: a NAMASTE code to its TM2 targets, or (reverse) a TM2 code to
+ * every NAMASTE code mapped onto it. Mappings are grouped by type, highest confidence first within a
+ * group, and groups are ordered by their best mapping. Keyed by direction and code, so either
+ * direction is one _id read.
+ */
+@Document(collection = "concept_adjacency")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConceptAdjacency {
+
+    public static final String FORWARD = "namaste";
+    public static final String REVERSE = "tm2";
+
+    @Id
+    private String key;
+
+    @Field("groups")
+    private List<TypeGroup> groups;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+
+    public static String key(boolean reverse, String code) {
+        return (reverse ? REVERSE : FORWARD) + ":" + code;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TypeGroup {
+
+        @Field("type")
+        private String type;
+
+        @Field("mappings")
+        private List<NamasteCode> mappings;
+    }
+}
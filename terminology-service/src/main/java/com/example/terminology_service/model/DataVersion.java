@@ -0,0 +1,35 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Monotonic version of the terminology data, bumped after every ingestion that changed something.
+ * Caches and indexes compare it with the version they were built from.
+ */
+@Document(collection = "data_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataVersion {
+
+    public static final String ID = "terminology";
+
+    @Id
+    private String id;
+
+    @Field("version")
+    private long version;
+
+    @Field("release")
+    private String release;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+}
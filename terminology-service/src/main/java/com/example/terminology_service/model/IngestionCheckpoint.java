@@ -0,0 +1,56 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Progress of one release ingestion. Every row up to {@code rowsCommitted} has been applied, so a
+ * restarted ingestion of the same release continues after it.
+ */
+@Document(collection = "ingestion_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionCheckpoint {
+
+    public enum Status { RUNNING, COMPLETED }
+
+    @Id
+    private String release;
+
+    @Field("status")
+    private Status status;
+
+    @Field("rows_committed")
+    private long rowsCommitted;
+
+    @Field("inserted")
+    private long inserted;
+
+    @Field("updated")
+    private long updated;
+
+    @Field("unchanged")
+    private long unchanged;
+
+    @Field("invalid")
+    private long invalid;
+
+    /** TM2 concepts inserted or changed. */
+    @Field("concepts")
+    private long concepts;
+
+    @Field("data_version")
+    private Long dataVersion;
+
+    @Field("updated_at")
+    private Instant updatedAt;
+}
@@ -1,9 +1,12 @@
 package com.example.terminology_service.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.With;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -48,4 +51,10 @@ public class NamasteCode {
     @Field("type")
     @Indexed
     private String type;
+
+    // Cosine similarity to the query, only set by semantic search
+    @Transient
+    @With
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double similarityScore;
 }
@@ -0,0 +1,31 @@
+package com.example.terminology_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * One ICD-11 TM2 concept. Mappings in tm2_mappings reference it by tm2_code instead of
+ * repeating its title, definition and link.
+ */
+@Document(collection = "tm2_concepts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tm2Concept {
+
+    @Id
+    private String tm2Code;
+
+    @Field("tm2_title")
+    private String tm2Title;
+
+    @Field("tm2_definition")
+    private String tm2Definition;
+
+    @Field("tm2_link")
+    private String tm2Link;
+}
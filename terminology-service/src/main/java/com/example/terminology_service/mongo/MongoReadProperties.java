@@ -0,0 +1,63 @@
+package com.example.terminology_service.mongo;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where request-path reads go in the replica set, how they are batched, and the driver's connection
+ * pool (terminology.mongo.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "terminology.mongo")
+public class MongoReadProperties {
+
+    /** Read preference of the routed operations: primary, primaryPreferred, secondaryPreferred, secondary or nearest. */
+    private String readPreference = "primary";
+
+    /**
+     * Secondaries lagging the primary by more than this are not read from; at least 90s, the driver's floor.
+     * Unset reads from any secondary however far behind.
+     */
+    private Duration maxStaleness;
+
+    /**
+     * Operations of NamasteTerminologyService that read with the read preference; the rest stay on the
+     * primary. Cached operations are best left out: an entry reloaded after an invalidation could come
+     * from a secondary that has not caught up and be kept until it expires.
+     */
+    private Set<String> routedOperations = new LinkedHashSet<>();
+
+    /** Documents per cursor batch by operation; operations not listed leave it to the driver. */
+    private Map<String, Integer> batchSizes = new HashMap<>();
+
+    private Pool pool = new Pool();
+
+    public int batchSize(String operation) {
+        return batchSizes.getOrDefault(operation, 0);
+    }
+
+    /** Connection pool kept to each member of the replica set. */
+    @Data
+    public static class Pool {
+
+        private int maxSize = 100;
+
+        /** Connections kept open while idle, so a burst does not wait on handshakes. */
+        private int minSize = 0;
+
+        /** Longest a query waits for a free connection before failing. */
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+
+        /** Idle connections are closed after this; zero keeps them. */
+        private Duration maxConnectionIdleTime = Duration.ZERO;
+
+        /** Connections being opened at once. */
+        private int maxConnecting = 2;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.terminology_service.mongo;
+
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.mongodb.ReadPreference;
+import com.mongodb.TagSet;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Picks the repository a read-only operation goes through: one reading with the configured read
+ * preference for the routed operations, the primary for everything else. Writers, change listeners and
+ * view rebuilds use the plain repository and so always read their own writes.
+ */
+public class ReadRouting {
+
+    static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    private final MongoReadProperties properties;
+    private final NamasteCodeRepository primary;
+    private final NamasteCodeRepository routed;
+
+    public ReadRouting(MongoReadProperties properties, NamasteCodeRepository primary, NamasteCodeRepository routed) {
+        this.properties = properties;
+        this.primary = primary;
+        this.routed = routed;
+    }
+
+    public NamasteCodeRepository namasteCodes(String operation) {
+        return properties.getRoutedOperations().contains(operation) ? routed : primary;
+    }
+
+    /**
+     * Runs the query against the operation's repository, fetching the configured batch size per
+     * round trip: the reactive driver sizes each batch from the outstanding demand.
+     */
+    public <T> Flux<T> read(String operation, Function<NamasteCodeRepository, Flux<T>> query) {
+        Flux<T> results = query.apply(namasteCodes(operation));
+        int batchSize = properties.batchSize(operation);
+        return batchSize > 0 ? results.limitRate(batchSize, 0) : results;
+    }
+
+    /**
+     * The configured read preference with its staleness bound.
+     *
+     * @throws IllegalArgumentException for an unknown name, a bound below 90s, or a bound on primary
+     */
+    static ReadPreference readPreference(MongoReadProperties properties) {
+        Duration maxStaleness = properties.getMaxStaleness();
+        if (maxStaleness == null) {
+            return ReadPreference.valueOf(properties.getReadPreference());
+        }
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            throw new IllegalArgumentException("terminology.mongo.max-staleness must be at least "
+                    + MIN_MAX_STALENESS.toSeconds() + "s, was " + maxStaleness);
+        }
+        return ReadPreference.valueOf(properties.getReadPreference(), List.<TagSet>of(),
+                maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.terminology_service.repository;
+
+import com.example.terminology_service.model.BestMappings;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BestMappingsRepository extends ReactiveMongoRepository<BestMappings, String> {
+}
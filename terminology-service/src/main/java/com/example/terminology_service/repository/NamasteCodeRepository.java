@@ -8,26 +8,69 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
 public interface NamasteCodeRepository extends ReactiveMongoRepository<NamasteCode, String> {
 
-    @Query(value = "{'$or': [{'tm2_code': ?0}, {'code': ?0}]}", sort = "{'confidence_score': -1}")
-    Flux<NamasteCode> findByAnyCode(@Param("codeValue") String codeValue);
-
-    @Query("{'$or': [" +
+    // Projections for internal callers that do not render the long text fields
+    String WITHOUT_TEXT = "{'code_description': 0, 'tm2_definition': 0}";
+    String TITLE_FIELDS = "{'code': 1, 'code_title': 1, 'type': 1, 'tm2_code': 1}";
+    String CODE_TABLE_FIELDS = "{'_id': 0, 'code': 1, 'code_title': 1, 'tm2_code': 1, 'tm2_title': 1}";
+    // tm2_title/tm2_definition only exist on mappings not yet migrated to tm2_concepts;
+    // migrated ones match through the concept codes found in the in-memory concept table
+    String SYMPTOM_FILTER = "{'$or': [" +
             "{'code_description': {$regex: ?0, $options: 'i'}}, " +
             "{'tm2_definition': {$regex: ?0, $options: 'i'}}, " +
             "{'tm2_title': {$regex: ?0, $options: 'i'}}, " +
-            "{'code_title': {$regex: ?0, $options: 'i'}}" +
-            "]}")
-    Flux<NamasteCode> findBySymptoms(@Param("symptomQuery") String symptomQuery);
+            "{'code_title': {$regex: ?0, $options: 'i'}}, " +
+            "{'tm2_code': {$in: ?1}}" +
+            "]}";
+
+    @Query(value = "{'$or': [{'tm2_code': ?0}, {'code': ?0}]}", sort = "{'confidence_score': -1}")
+    Flux<NamasteCode> findByAnyCode(@Param("codeValue") String codeValue);
+
+    @Query(value = "{'$or': [{'tm2_code': ?0}, {'code': ?0}]}", fields = WITHOUT_TEXT, sort = "{'confidence_score': -1}")
+    Flux<NamasteCode> findByAnyCodeWithoutText(@Param("codeValue") String codeValue);
+
+    @Query(SYMPTOM_FILTER)
+    Flux<NamasteCode> findBySymptoms(@Param("symptomQuery") String symptomQuery,
+                                     @Param("tm2Codes") Collection<String> matchingTm2Codes);
+
+    @Query(value = SYMPTOM_FILTER, fields = WITHOUT_TEXT)
+    Flux<NamasteCode> findBySymptomsWithoutText(@Param("symptomQuery") String symptomQuery,
+                                                @Param("tm2Codes") Collection<String> matchingTm2Codes);
 
     Mono<NamasteCode> findByCode(String code);
 
+    Flux<NamasteCode> findByCodeIn(Collection<String> codes);
+
+    @Query(value = "{'code': {$in: ?0}}", fields = WITHOUT_TEXT)
+    Flux<NamasteCode> findByCodeInWithoutText(@Param("codes") Collection<String> codes);
+
+    @Query(value = "{'code': ?0}", fields = WITHOUT_TEXT)
+    Flux<NamasteCode> findByCodeWithoutText(@Param("code") String code);
+
+    @Query(value = "{'tm2_code': ?0}", fields = WITHOUT_TEXT)
+    Flux<NamasteCode> findByTm2CodeWithoutText(@Param("tm2Code") String tm2Code);
+
     @Query("{'code_title': {$regex: ?0, $options: 'i'}}")
     Flux<NamasteCode> findByCodeTitleContainingIgnoreCase(@Param("query") String query);
 
+    @Query(value = "{'code_title': {$regex: ?0, $options: 'i'}}", fields = TITLE_FIELDS)
+    Flux<NamasteCode> findTitlesByCodeTitleContainingIgnoreCase(@Param("query") String query);
+
     Flux<NamasteCode> findByType(String type);
 
+    @Query(value = "{'type': ?0}", fields = WITHOUT_TEXT)
+    Flux<NamasteCode> findByTypeWithoutText(@Param("type") String type);
+
     Mono<NamasteCode> findTopByCodeOrderByConfidenceScoreDesc(String code);
+
+    // Every mapping's codes and titles, for callers that keep their own code table
+    @Query(value = "{}", fields = CODE_TABLE_FIELDS)
+    Flux<NamasteCode> findAllCodeTitles();
+
+    @Query(value = "{'tm2_code': {$in: ?0}}", fields = "{'code': 1}")
+    Flux<NamasteCode> findCodesByTm2CodeIn(@Param("tm2Codes") Collection<String> tm2Codes);
 }
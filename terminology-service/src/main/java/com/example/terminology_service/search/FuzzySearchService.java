@@ -0,0 +1,97 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.example.terminology_service.service.Tm2ConceptTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the current {@link TrigramIndex} and answers fuzzy=true searches from it.
+ * The index is rebuilt off the request path; searches always see a complete snapshot.
+ */
+@Service
+@Slf4j
+public class FuzzySearchService {
+
+    private final NamasteCodeRepository namasteCodeRepository;
+    private final Tm2ConceptTable tm2ConceptTable;
+    private final int maxEdits;
+    private final int maxResults;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile TrigramIndex index;
+
+    public FuzzySearchService(NamasteCodeRepository namasteCodeRepository,
+                              Tm2ConceptTable tm2ConceptTable,
+                              @Value("${terminology.fuzzy.max-edits:2}") int maxEdits,
+                              @Value("${terminology.fuzzy.max-results:100}") int maxResults) {
+        this.namasteCodeRepository = namasteCodeRepository;
+        this.tm2ConceptTable = tm2ConceptTable;
+        this.maxEdits = maxEdits;
+        this.maxResults = maxResults;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public Flux<NamasteCode> autocomplete(String query, int limit) {
+        return search(query, TrigramIndex.TITLES, true, Math.min(limit, maxResults));
+    }
+
+    public Flux<NamasteCode> searchSymptoms(String query) {
+        return search(query, TrigramIndex.ALL_FIELDS, false, maxResults);
+    }
+
+    private Flux<NamasteCode> search(String query, Set<TrigramIndex.Field> fields, boolean prefix, int limit) {
+        TrigramIndex current = index;
+        if (current == null) {
+            log.warn("Fuzzy search requested before the index finished loading");
+            return Flux.empty();
+        }
+        return Flux.defer(() -> Flux.fromIterable(current.search(query, fields, prefix, limit)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild().subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${terminology.fuzzy.refresh-interval:PT15M}",
+            initialDelayString = "${terminology.fuzzy.refresh-interval:PT15M}")
+    public void scheduledRebuild() {
+        rebuild().subscribe();
+    }
+
+    public Mono<Integer> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        long started = System.nanoTime();
+        return tm2ConceptTable.ensureLoaded()
+                .thenMany(namasteCodeRepository.findAll())
+                .map(tm2ConceptTable::join)
+                .publishOn(Schedulers.boundedElastic())
+                .collect(() -> TrigramIndex.builder(maxEdits), TrigramIndex.Builder::add)
+                .map(TrigramIndex.Builder::build)
+                .doOnNext(built -> {
+                    index = built;
+                    log.info("Fuzzy index built: {} documents, {} terms in {} ms", built.size(), built.termCount(),
+                            (System.nanoTime() - started) / 1_000_000);
+                })
+                .map(TrigramIndex::size)
+                .doOnError(e -> log.error("Fuzzy index build failed", e))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> rebuilding.set(false));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.terminology_service.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local text embedding: words, adjacent word pairs and character trigrams are hashed into a fixed
+ * number of buckets and weighted by log(1 + tf) and smoothed IDF. Character trigrams let related
+ * word forms (fever / feverish) share features; word pairs reward matching phrases.
+ * <p>
+ * IDF is fitted once per corpus snapshot and frozen, so query vectors are comparable with the
+ * indexed ones until the next rebuild. Only the {@code maxFeatures} heaviest features of a text are
+ * kept, which bounds index memory at millions of documents.
+ */
+final class HashedTfIdfVectorizer {
+
+    private static final float CHAR_GRAM_WEIGHT = 0.5f;
+
+    private final float[] idf;
+    private final int maxFeatures;
+
+    private HashedTfIdfVectorizer(float[] idf, int maxFeatures) {
+        this.idf = idf;
+        this.maxFeatures = maxFeatures;
+    }
+
+    /**
+     * @param dimensions rounded up to a power of two
+     */
+    static HashedTfIdfVectorizer fit(List<TermCounts> corpus, int dimensions, int maxFeatures) {
+        int size = tableSize(dimensions);
+        int[] documentFrequency = new int[size];
+        for (TermCounts counts : corpus) {
+            for (int bucket : counts.buckets) {
+                documentFrequency[bucket]++;
+            }
+        }
+        float[] idf = new float[size];
+        for (int i = 0; i < size; i++) {
+            idf[i] = (float) (Math.log((corpus.size() + 1.0) / (documentFrequency[i] + 1.0)) + 1.0);
+        }
+        return new HashedTfIdfVectorizer(idf, maxFeatures);
+    }
+
+    int dimensions() {
+        return idf.length;
+    }
+
+    SparseVector vectorize(String text) {
+        return weigh(count(text, idf.length));
+    }
+
+    SparseVector weigh(TermCounts counts) {
+        int n = counts.buckets.length;
+        if (n == 0) {
+            return SparseVector.EMPTY;
+        }
+        int[] buckets = counts.buckets;
+        float[] values = new float[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = (float) Math.log1p(counts.frequencies[i]) * idf[buckets[i]];
+        }
+        if (n > maxFeatures) {
+            float[] sorted = values.clone();
+            Arrays.sort(sorted);
+            float threshold = sorted[n - maxFeatures];
+            int kept = 0;
+            int[] keptBuckets = new int[maxFeatures];
+            float[] keptValues = new float[maxFeatures];
+            for (int i = 0; i < n && kept < maxFeatures; i++) {
+                if (values[i] >= threshold) {
+                    keptBuckets[kept] = buckets[i];
+                    keptValues[kept++] = values[i];
+                }
+            }
+            buckets = Arrays.copyOf(keptBuckets, kept);
+            values = Arrays.copyOf(keptValues, kept);
+        }
+        double norm = 0;
+        for (float value : values) {
+            norm += value * value;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= scale;
+        }
+        return new SparseVector(buckets, values);
+    }
+
+    /**
+     * Hashed feature counts for one text; counted before fitting so each document is tokenized once.
+     */
+    static TermCounts count(String text, int dimensions) {
+        List<String> words = TrigramIndex.tokenize(text);
+        if (words.isEmpty()) {
+            return TermCounts.EMPTY;
+        }
+        int bucketMask = tableSize(dimensions) - 1;
+        Map<Integer, Float> frequencies = new HashMap<>();
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            frequencies.merge(bucket("w:" + word, bucketMask), 1f, Float::sum);
+            if (w > 0) {
+                frequencies.merge(bucket("b:" + words.get(w - 1) + ' ' + word, bucketMask), 1f, Float::sum);
+            }
+            for (String gram : TrigramIndex.trigrams(word)) {
+                frequencies.merge(bucket("c:" + gram, bucketMask), CHAR_GRAM_WEIGHT, Float::sum);
+            }
+        }
+        int[] buckets = frequencies.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        float[] values = new float[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            values[i] = frequencies.get(buckets[i]);
+        }
+        return new TermCounts(buckets, values);
+    }
+
+    private static int tableSize(int dimensions) {
+        return Integer.highestOneBit(Math.max(dimensions - 1, 1)) << 1;
+    }
+
+    private static int bucket(String feature, int bucketMask) {
+        int h = feature.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    record TermCounts(int[] buckets, float[] frequencies) {
+        static final TermCounts EMPTY = new TermCounts(new int[0], new float[0]);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.terminology_service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hierarchical navigable small world graph over cosine similarity (Malkov and Yashunin).
+ * <p>
+ * Built once by a single thread and read-only afterwards, so concurrent searches need no locking.
+ * Search visits O(efSearch * log n) nodes instead of comparing the query with every vector.
+ */
+final class HnswIndex {
+
+    record Hit(int node, float similarity) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FURTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final SparseVector[] vectors;
+    private final int dimensions;
+    private final int m;
+    private final int maxLevelZero;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    // links[node][level] is the neighbour list; links[node].length - 1 is the node's top level.
+    // linkDistances mirrors it so pruning a full list needs no dot products.
+    private final int[][][] links;
+    private final float[][][] linkDistances;
+    private final int[][] linkCounts;
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    private HnswIndex(SparseVector[] vectors, int dimensions, int m, int efConstruction, long seed) {
+        this.vectors = vectors;
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxLevelZero = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        this.links = new int[vectors.length][][];
+        this.linkDistances = new float[vectors.length][][];
+        this.linkCounts = new int[vectors.length][];
+    }
+
+    static HnswIndex build(SparseVector[] vectors, int dimensions, int m, int efConstruction) {
+        HnswIndex index = new HnswIndex(vectors, dimensions, m, efConstruction, 42L);
+        Scratch scratch = index.acquire();
+        for (int node = 0; node < vectors.length; node++) {
+            if (!vectors[node].isEmpty()) {
+                index.insert(node, scratch);
+            }
+        }
+        index.release(scratch);
+        return index;
+    }
+
+    int size() {
+        return vectors.length;
+    }
+
+    List<Hit> search(SparseVector query, int k, int efSearch) {
+        if (entryPoint < 0 || query.isEmpty()) {
+            return List.of();
+        }
+        Scratch scratch = acquire();
+        try {
+            query.scatter(scratch.query);
+            int current = entryPoint;
+            float currentDistance = distance(scratch, current);
+            for (int level = topLevel; level > 0; level--) {
+                Candidate closest = greedyClosest(scratch, current, currentDistance, level);
+                current = closest.node();
+                currentDistance = closest.distance();
+            }
+            List<Candidate> sorted = sorted(searchLayer(scratch, current, currentDistance, Math.max(efSearch, k), 0));
+            List<Hit> hits = new ArrayList<>(Math.min(k, sorted.size()));
+            for (int i = 0; i < sorted.size() && i < k; i++) {
+                hits.add(new Hit(sorted.get(i).node(), 1f - sorted.get(i).distance()));
+            }
+            return hits;
+        } finally {
+            query.clear(scratch.query);
+            release(scratch);
+        }
+    }
+
+    private void insert(int node, Scratch scratch) {
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        linkDistances[node] = new float[level + 1][];
+        linkCounts[node] = new int[level + 1];
+        for (int l = 0; l <= level; l++) {
+            int capacity = l == 0 ? maxLevelZero : m;
+            links[node][l] = new int[capacity];
+            linkDistances[node][l] = new float[capacity];
+        }
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return;
+        }
+
+        SparseVector vector = vectors[node];
+        vector.scatter(scratch.query);
+        int current = entryPoint;
+        float currentDistance = distance(scratch, current);
+        for (int l = topLevel; l > level; l--) {
+            Candidate closest = greedyClosest(scratch, current, currentDistance, l);
+            current = closest.node();
+            currentDistance = closest.distance();
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> sorted = sorted(searchLayer(scratch, current, currentDistance, efConstruction, l));
+            for (Candidate neighbour : selectNeighbours(sorted, m)) {
+                addLink(node, l, neighbour.node(), neighbour.distance());
+                addLink(neighbour.node(), l, node, neighbour.distance());
+            }
+            current = sorted.get(0).node();
+            currentDistance = sorted.get(0).distance();
+        }
+        vector.clear(scratch.query);
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+    }
+
+    private void addLink(int from, int level, int to, float distance) {
+        int[] neighbours = links[from][level];
+        float[] distances = linkDistances[from][level];
+        int count = linkCounts[from][level];
+        if (count < neighbours.length) {
+            neighbours[count] = to;
+            distances[count] = distance;
+            linkCounts[from][level] = count + 1;
+            return;
+        }
+        // Full: replace the furthest neighbour if the new one is closer
+        int furthest = -1;
+        float furthestDistance = distance;
+        for (int i = 0; i < count; i++) {
+            if (distances[i] > furthestDistance) {
+                furthest = i;
+                furthestDistance = distances[i];
+            }
+        }
+        if (furthest >= 0) {
+            neighbours[furthest] = to;
+            distances[furthest] = distance;
+        }
+    }
+
+    /**
+     * Heuristic selection: a candidate is skipped when an already selected neighbour is closer to it
+     * than the new node is. This keeps links spread across clusters instead of spending them all on
+     * near-identical descriptions.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> nearestFirst, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        for (Candidate candidate : nearestFirst) {
+            if (selected.size() >= max) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (1f - vectors[candidate.node()].dot(vectors[chosen.node()]) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            }
+        }
+        return selected;
+    }
+
+    private Candidate greedyClosest(Scratch scratch, int start, float startDistance, int level) {
+        int current = start;
+        float currentDistance = startDistance;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbours = links[current][level];
+            int count = linkCounts[current][level];
+            for (int i = 0; i < count; i++) {
+                float d = distance(scratch, neighbours[i]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbours[i];
+                    improved = true;
+                }
+            }
+        }
+        return new Candidate(current, currentDistance);
+    }
+
+    /**
+     * Best-first search on one layer; returns up to {@code ef} nearest nodes as a furthest-first heap.
+     */
+    private PriorityQueue<Candidate> searchLayer(Scratch scratch, int start, float startDistance, int ef, int level) {
+        scratch.clearVisited();
+        scratch.visit(start);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(FURTHEST_FIRST);
+        Candidate first = new Candidate(start, startDistance);
+        frontier.add(first);
+        nearest.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate candidate = frontier.poll();
+            if (candidate.distance() > nearest.peek().distance() && nearest.size() >= ef) {
+                break;
+            }
+            int[] neighbours = links[candidate.node()][level];
+            int count = linkCounts[candidate.node()][level];
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (!scratch.visit(neighbour)) {
+                    continue;
+                }
+                float d = distance(scratch, neighbour);
+                if (nearest.size() < ef || d < nearest.peek().distance()) {
+                    Candidate next = new Candidate(neighbour, d);
+                    frontier.add(next);
+                    nearest.add(next);
+                    if (nearest.size() > ef) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private static List<Candidate> sorted(PriorityQueue<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    private float distance(Scratch scratch, int node) {
+        return 1f - vectors[node].dot(scratch.query);
+    }
+
+    private Scratch acquire() {
+        Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch(vectors.length, dimensions);
+    }
+
+    private void release(Scratch scratch) {
+        scratchPool.offer(scratch);
+    }
+
+    /**
+     * Per-search working memory, pooled so a search does not allocate O(n): generation-stamped
+     * visited marks and the query scattered into a dense array (zeroed again after each search).
+     */
+    private static final class Scratch {
+        private final int[] marks;
+        private final float[] query;
+        private int generation;
+
+        Scratch(int nodes, int dimensions) {
+            this.marks = new int[nodes];
+            this.query = new float[dimensions];
+        }
+
+        void clearVisited() {
+            if (++generation == 0) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean visit(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
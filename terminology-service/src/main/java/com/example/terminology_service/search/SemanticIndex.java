@@ -0,0 +1,132 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable similarity index over the codeDescription and tm2Definition text of each mapping
+ * (titles stand in when both are missing). Distinct texts are embedded locally with
+ * {@link HashedTfIdfVectorizer} and searched through an {@link HnswIndex}; each graph node maps back
+ * to every document sharing that text. Hits carry the cosine similarity as {@code similarityScore}.
+ */
+public final class SemanticIndex {
+
+    private final List<NamasteCode> documents;
+    private final int[][] nodeDocuments;
+    private final HashedTfIdfVectorizer vectorizer;
+    private final HnswIndex graph;
+
+    private SemanticIndex(List<NamasteCode> documents, int[][] nodeDocuments, HashedTfIdfVectorizer vectorizer,
+                          HnswIndex graph) {
+        this.documents = documents;
+        this.nodeDocuments = nodeDocuments;
+        this.vectorizer = vectorizer;
+        this.graph = graph;
+    }
+
+    public static SemanticIndex build(List<NamasteCode> documents, int dimensions, int maxFeatures,
+                                      int m, int efConstruction) {
+        Builder builder = builder(dimensions, maxFeatures, m, efConstruction);
+        documents.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder(int dimensions, int maxFeatures, int m, int efConstruction) {
+        return new Builder(dimensions, maxFeatures, m, efConstruction);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public int distinctTexts() {
+        return nodeDocuments.length;
+    }
+
+    public List<NamasteCode> search(String query, int k, int efSearch, double minSimilarity) {
+        List<HnswIndex.Hit> hits = graph.search(vectorizer.vectorize(query), k, efSearch);
+        List<NamasteCode> results = new ArrayList<>(Math.min(k, hits.size()));
+        for (HnswIndex.Hit hit : hits) {
+            if (hit.similarity() < minSimilarity) {
+                break;
+            }
+            // Indexed documents are shared between requests, so the score goes on a copy
+            double score = Math.round(hit.similarity() * 10_000) / 10_000.0;
+            for (int docId : nodeDocuments[hit.node()]) {
+                if (results.size() == k) {
+                    return results;
+                }
+                results.add(documents.get(docId).withSimilarityScore(score));
+            }
+        }
+        return results;
+    }
+
+    static String text(NamasteCode document) {
+        String description = join(document.getCodeDescription(), document.getTm2Definition());
+        return description.isBlank() ? join(document.getCodeTitle(), document.getTm2Title()) : description;
+    }
+
+    private static String join(String first, String second) {
+        if (first == null || first.isBlank()) {
+            return second != null ? second : "";
+        }
+        return second == null || second.isBlank() ? first : first + ". " + second;
+    }
+
+    /**
+     * Counts terms one document at a time, so a rebuild can consume them as they stream from Mongo.
+     * Weighing waits for {@link #build}: IDF needs every document's counts first.
+     */
+    public static final class Builder {
+        private final int dimensions;
+        private final int maxFeatures;
+        private final int m;
+        private final int efConstruction;
+        private final List<NamasteCode> documents = new ArrayList<>();
+        // Identical texts would form zero-distance clusters that HNSW cannot link through
+        private final Map<String, Integer> nodeIds = new HashMap<>();
+        private final List<List<Integer>> nodeDocs = new ArrayList<>();
+        private final List<HashedTfIdfVectorizer.TermCounts> counts = new ArrayList<>();
+
+        private Builder(int dimensions, int maxFeatures, int m, int efConstruction) {
+            this.dimensions = dimensions;
+            this.maxFeatures = maxFeatures;
+            this.m = m;
+            this.efConstruction = efConstruction;
+        }
+
+        public Builder add(NamasteCode document) {
+            int docId = documents.size();
+            documents.add(document);
+            String text = text(document);
+            Integer node = nodeIds.get(text);
+            if (node == null) {
+                node = counts.size();
+                nodeIds.put(text, node);
+                nodeDocs.add(new ArrayList<>(1));
+                counts.add(HashedTfIdfVectorizer.count(text, dimensions));
+            }
+            nodeDocs.get(node).add(docId);
+            return this;
+        }
+
+        public SemanticIndex build() {
+            HashedTfIdfVectorizer vectorizer = HashedTfIdfVectorizer.fit(counts, dimensions, maxFeatures);
+            SparseVector[] vectors = new SparseVector[counts.size()];
+            int[][] nodeDocuments = new int[counts.size()][];
+            for (int node = 0; node < vectors.length; node++) {
+                vectors[node] = vectorizer.weigh(counts.get(node));
+                nodeDocuments[node] = nodeDocs.get(node).stream().mapToInt(Integer::intValue).toArray();
+                // Drop the counts as we go so peak memory stays near one copy of the corpus vectors
+                counts.set(node, null);
+            }
+            return new SemanticIndex(List.copyOf(documents), nodeDocuments, vectorizer,
+                    HnswIndex.build(vectors, vectorizer.dimensions(), m, efConstruction));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.example.terminology_service.service.Tm2ConceptTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds the current {@link SemanticIndex} and answers semantic=true symptom searches from it.
+ * Like {@link FuzzySearchService}, the index is rebuilt off the request path and swapped atomically.
+ */
+@Service
+@Slf4j
+public class SemanticSearchService {
+
+    private final NamasteCodeRepository namasteCodeRepository;
+    private final Tm2ConceptTable tm2ConceptTable;
+    private final int dimensions;
+    private final int maxFeatures;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int topK;
+    private final double minSimilarity;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile SemanticIndex index;
+
+    public SemanticSearchService(NamasteCodeRepository namasteCodeRepository,
+                                 Tm2ConceptTable tm2ConceptTable,
+                                 @Value("${terminology.semantic.dimensions:262144}") int dimensions,
+                                 @Value("${terminology.semantic.max-features:64}") int maxFeatures,
+                                 @Value("${terminology.semantic.m:16}") int m,
+                                 @Value("${terminology.semantic.ef-construction:64}") int efConstruction,
+                                 @Value("${terminology.semantic.ef-search:64}") int efSearch,
+                                 @Value("${terminology.semantic.top-k:20}") int topK,
+                                 @Value("${terminology.semantic.min-similarity:0.15}") double minSimilarity) {
+        this.namasteCodeRepository = namasteCodeRepository;
+        this.tm2ConceptTable = tm2ConceptTable;
+        this.dimensions = dimensions;
+        this.maxFeatures = maxFeatures;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.topK = topK;
+        this.minSimilarity = minSimilarity;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public Flux<NamasteCode> searchSymptoms(String query) {
+        SemanticIndex current = index;
+        if (current == null) {
+            log.warn("Semantic search requested before the index finished loading");
+            return Flux.empty();
+        }
+        return Flux.defer(() -> Flux.fromIterable(current.search(query, topK, efSearch, minSimilarity)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild().subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${terminology.semantic.refresh-interval:PT1H}",
+            initialDelayString = "${terminology.semantic.refresh-interval:PT1H}")
+    public void scheduledRebuild() {
+        rebuild().subscribe();
+    }
+
+    public Mono<Integer> rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        long started = System.nanoTime();
+        return tm2ConceptTable.ensureLoaded()
+                .thenMany(namasteCodeRepository.findAll())
+                .map(tm2ConceptTable::join)
+                .publishOn(Schedulers.boundedElastic())
+                .collect(() -> SemanticIndex.builder(dimensions, maxFeatures, m, efConstruction), SemanticIndex.Builder::add)
+                .map(SemanticIndex.Builder::build)
+                .doOnNext(built -> {
+                    index = built;
+                    log.info("Semantic index built: {} documents, {} distinct texts in {} ms", built.size(),
+                            built.distinctTexts(), (System.nanoTime() - started) / 1_000_000);
+                })
+                .map(SemanticIndex::size)
+                .doOnError(e -> log.error("Semantic index build failed", e))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> rebuilding.set(false));
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable typo-tolerant index over codeTitle, tm2Title, codeDescription and tm2Definition.
+ * <p>
+ * Every distinct word becomes a dictionary term with per-field postings. A trigram map over the
+ * dictionary finds candidate terms for a query word without touching the documents; candidates
+ * are then verified with a bounded Damerau-Levenshtein distance (prefix distance for the word
+ * being typed). Documents are ranked by word similarity, weighted by field, and confidenceScore.
+ */
+public final class TrigramIndex {
+
+    public enum Field {
+        CODE_TITLE(1.0), TM2_TITLE(0.9), CODE_DESCRIPTION(0.7), TM2_DEFINITION(0.6);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    public static final Set<Field> TITLES = Set.of(Field.CODE_TITLE);
+    public static final Set<Field> ALL_FIELDS = Set.of(Field.values());
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "as", "at", "by", "for", "from",
+            "in", "is", "of", "on", "or", "the", "to", "with");
+    private static final double SIMILARITY_WEIGHT = 0.8;
+    private static final double CONFIDENCE_WEIGHT = 0.2;
+
+    private final List<NamasteCode> documents;
+    private final String[] terms;
+    private final int[][][] postings;
+    private final Map<String, int[]> trigramTerms;
+    private final int maxEdits;
+
+    private TrigramIndex(List<NamasteCode> documents, String[] terms, int[][][] postings,
+                         Map<String, int[]> trigramTerms, int maxEdits) {
+        this.documents = documents;
+        this.terms = terms;
+        this.postings = postings;
+        this.trigramTerms = trigramTerms;
+        this.maxEdits = maxEdits;
+    }
+
+    public static TrigramIndex build(List<NamasteCode> documents, int maxEdits) {
+        Builder builder = builder(maxEdits);
+        documents.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder(int maxEdits) {
+        return new Builder(maxEdits);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * @param prefixLastWord treat the last query word as still being typed (autocomplete)
+     */
+    public List<NamasteCode> search(String query, Set<Field> fields, boolean prefixLastWord, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Integer, double[]> wordScores = new HashMap<>();
+        for (int w = 0; w < words.size(); w++) {
+            boolean prefix = prefixLastWord && w == words.size() - 1;
+            scoreWord(words.get(w), w, words.size(), prefix, fields, wordScores);
+        }
+
+        // Only the best `limit` documents are kept: a min-heap whose head is the weakest of them
+        PriorityQueue<Map.Entry<Integer, Double>> best =
+                new PriorityQueue<>(Math.min(limit, wordScores.size()) + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, double[]> entry : wordScores.entrySet()) {
+            double similarity = Arrays.stream(entry.getValue()).sum() / words.size();
+            Double confidence = documents.get(entry.getKey()).getConfidenceScore();
+            double score = SIMILARITY_WEIGHT * similarity + CONFIDENCE_WEIGHT * (confidence != null ? confidence : 0.0);
+            if (best.size() < limit) {
+                best.add(Map.entry(entry.getKey(), score));
+            } else if (score > best.peek().getValue()) {
+                best.poll();
+                best.add(Map.entry(entry.getKey(), score));
+            }
+        }
+
+        NamasteCode[] results = new NamasteCode[best.size()];
+        for (int i = results.length - 1; i >= 0; i--) {
+            results[i] = documents.get(best.poll().getKey());
+        }
+        return List.of(results);
+    }
+
+    private void scoreWord(String word, int position, int wordCount, boolean prefix, Set<Field> fields,
+                           Map<Integer, double[]> wordScores) {
+        int edits = allowedEdits(word);
+        Set<String> grams = trigrams(word);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            int[] termIds = trigramTerms.get(gram);
+            if (termIds != null) {
+                for (int termId : termIds) {
+                    shared.merge(termId, 1, Integer::sum);
+                }
+            }
+        }
+
+        // An edit destroys at most four trigrams (a transposition), the unfinished word loses its end gram
+        int required = Math.max(1, grams.size() - 4 * edits - (prefix ? 1 : 0));
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() < required) {
+                continue;
+            }
+            String term = terms[candidate.getKey()];
+            int distance = distance(word, term, edits, prefix);
+            if (distance > edits) {
+                continue;
+            }
+            double similarity = 1.0 - (double) distance / Math.max(word.length(), 1);
+            int[][] termPostings = postings[candidate.getKey()];
+            for (Field field : fields) {
+                double fieldScore = similarity * field.weight;
+                for (int docId : termPostings[field.ordinal()]) {
+                    double[] scores = wordScores.computeIfAbsent(docId, id -> new double[wordCount]);
+                    scores[position] = Math.max(scores[position], fieldScore);
+                }
+            }
+        }
+    }
+
+    private int allowedEdits(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 6 ? Math.min(1, maxEdits) : maxEdits;
+    }
+
+    /**
+     * Optimal-string-alignment distance bounded by {@code max}; returns max + 1 once exceeded.
+     * With {@code prefix} the distance is to the closest prefix of {@code term}.
+     */
+    static int distance(String word, String term, int max, boolean prefix) {
+        int n = word.length();
+        int m = term.length();
+        if (!prefix && Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] previousPrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char wc = word.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = wc == term.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && wc == term.charAt(j - 2) && word.charAt(i - 2) == term.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        int result = previous[m];
+        if (prefix) {
+            for (int j = 0; j < m; j++) {
+                result = Math.min(result, previous[j]);
+            }
+        }
+        return Math.min(result, max + 1);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalized)) {
+            if (word.length() >= 2 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static void addField(String text, Field field, int docId, Map<String, Integer> termIds,
+                                 List<String> terms, List<IntList[]> postings) {
+        for (String word : tokenize(text)) {
+            Integer termId = termIds.get(word);
+            if (termId == null) {
+                termId = terms.size();
+                termIds.put(word, termId);
+                terms.add(word);
+                postings.add(new IntList[Field.values().length]);
+            }
+            IntList[] fields = postings.get(termId);
+            if (fields[field.ordinal()] == null) {
+                fields[field.ordinal()] = new IntList();
+            }
+            fields[field.ordinal()].addIfNotLast(docId);
+        }
+    }
+
+    /**
+     * Indexes documents one at a time, so a rebuild can consume them as they stream from Mongo
+     * instead of collecting the whole collection first.
+     */
+    public static final class Builder {
+        private final int maxEdits;
+        private final List<NamasteCode> documents = new ArrayList<>();
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<IntList[]> postings = new ArrayList<>();
+
+        private Builder(int maxEdits) {
+            this.maxEdits = maxEdits;
+        }
+
+        public Builder add(NamasteCode doc) {
+            int docId = documents.size();
+            documents.add(doc);
+            addField(doc.getCodeTitle(), Field.CODE_TITLE, docId, termIds, terms, postings);
+            addField(doc.getTm2Title(), Field.TM2_TITLE, docId, termIds, terms, postings);
+            addField(doc.getCodeDescription(), Field.CODE_DESCRIPTION, docId, termIds, terms, postings);
+            addField(doc.getTm2Definition(), Field.TM2_DEFINITION, docId, termIds, terms, postings);
+            return this;
+        }
+
+        public TrigramIndex build() {
+            int[][][] postingArrays = new int[terms.size()][][];
+            Map<String, IntList> trigrams = new HashMap<>();
+            for (int termId = 0; termId < terms.size(); termId++) {
+                IntList[] fields = postings.get(termId);
+                postingArrays[termId] = new int[fields.length][];
+                for (int f = 0; f < fields.length; f++) {
+                    postingArrays[termId][f] = fields[f] != null ? fields[f].toArray() : new int[0];
+                }
+                for (String gram : trigrams(terms.get(termId))) {
+                    trigrams.computeIfAbsent(gram, g -> new IntList()).add(termId);
+                }
+            }
+            Map<String, int[]> trigramArrays = new HashMap<>(trigrams.size() * 2);
+            trigrams.forEach((gram, ids) -> trigramArrays.put(gram, ids.toArray()));
+
+            return new TrigramIndex(List.copyOf(documents), terms.toArray(String[]::new), postingArrays,
+                    trigramArrays, maxEdits);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // Documents are indexed in order, so duplicates within one document are always adjacent
+        void addIfNotLast(int value) {
+            if (size == 0 || values[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.BestMappings;
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.BestMappingsRepository;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized searchByCode answers in best_mappings, keyed by NAMASTE code and TM2 code, so a lookup
+ * is one point read instead of a candidate query plus a per-type reduction.
+ * <p>
+ * Keys missing from the view, or written under a different confidence threshold, are computed live.
+ * Writers call {@link #refresh} with the codes they touched; {@link #rebuild} recomputes everything.
+ */
+@Service
+@Slf4j
+public class BestMappingView {
+
+    public static final String REBUILD_PROGRESS_GAUGE = "terminology.best_mappings.rebuild.written";
+    public static final String REBUILD_TOTAL_GAUGE = "terminology.best_mappings.rebuild.total";
+
+    private final NamasteCodeRepository namasteCodeRepository;
+    private final BestMappingsRepository bestMappingsRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final double minConfidence;
+    private final int batchSize;
+    private final boolean buildOnStartup;
+    private final ViewRebuild rebuilds = new ViewRebuild();
+    private final AtomicLong rebuildWritten = new AtomicLong();
+    private final AtomicLong rebuildTotal = new AtomicLong();
+
+    public BestMappingView(NamasteCodeRepository namasteCodeRepository,
+                           BestMappingsRepository bestMappingsRepository,
+                           ReactiveMongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${terminology.best-mappings.min-confidence:0.6}") double minConfidence,
+                           @Value("${terminology.best-mappings.batch-size:1000}") int batchSize,
+                           @Value("${terminology.best-mappings.build-on-startup:true}") boolean buildOnStartup) {
+        this.namasteCodeRepository = namasteCodeRepository;
+        this.bestMappingsRepository = bestMappingsRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.minConfidence = minConfidence;
+        this.batchSize = batchSize;
+        this.buildOnStartup = buildOnStartup;
+        Gauge.builder(REBUILD_PROGRESS_GAUGE, rebuildWritten, AtomicLong::get)
+                .description("Entries written by the current or last best_mappings rebuild")
+                .register(meterRegistry);
+        Gauge.builder(REBUILD_TOTAL_GAUGE, rebuildTotal, AtomicLong::get)
+                .description("Entries to write in the current or last best_mappings rebuild")
+                .register(meterRegistry);
+    }
+
+    /** Precomputed answer for a code, or empty when the view has none for the current threshold. */
+    public Mono<List<NamasteCode>> lookup(String key) {
+        return bestMappingsRepository.findById(key)
+                .filter(this::current)
+                .map(BestMappings::getMappings);
+    }
+
+    /** The answer computed from tm2_mappings, as searchByCode did before the view existed. */
+    public Mono<List<NamasteCode>> compute(String key) {
+        return namasteCodeRepository.findTopByCodeOrderByConfidenceScoreDesc(key)
+                .map(doc -> doc.getTm2Code() != null ? doc.getTm2Code().trim() : key)
+                .defaultIfEmpty(key)
+                .flatMapMany(namasteCodeRepository::findByAnyCode)
+                .collectList()
+                .map(candidates -> List.copyOf(bestPerType(candidates, minConfidence)));
+    }
+
+    /**
+     * Recomputes the entries affected by changed mappings. Pass both the old and new tm2 codes of
+     * a remapped mapping so codes that resolved through the old concept are refreshed as well.
+     */
+    public Mono<Long> refresh(Collection<String> codes, Collection<String> tm2Codes) {
+        if (codes.isEmpty() && tm2Codes.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Flux<String> resolvingCodes = tm2Codes.isEmpty()
+                ? Flux.empty()
+                : namasteCodeRepository.findCodesByTm2CodeIn(tm2Codes).map(NamasteCode::getCode);
+        return Flux.fromIterable(codes)
+                .concatWith(Flux.fromIterable(tm2Codes))
+                .concatWith(resolvingCodes)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(key -> compute(key).map(mappings -> new BestMappings(key, minConfidence, mappings, Instant.now())), 8)
+                .buffer(batchSize)
+                .concatMap(this::write)
+                .reduce(0L, Long::sum);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!buildOnStartup) {
+            return;
+        }
+        // Build when the view is empty or was written under another threshold
+        mongoTemplate.findOne(new Query().limit(1), BestMappings.class)
+                .map(this::current)
+                .defaultIfEmpty(false)
+                .filter(upToDate -> !upToDate)
+                .flatMap(stale -> rebuild())
+                .subscribe();
+    }
+
+    /**
+     * Recomputes every entry from one pass over tm2_mappings, then deletes entries for codes that no
+     * longer exist. Progress is exposed through the rebuild gauges and logged every 5%.
+     * <p>
+     * Entries {@link #refresh} wrote while the rebuild ran are newer than its snapshot and are kept. A
+     * call while a rebuild is running completes with that rebuild.
+     */
+    public Mono<Long> rebuild() {
+        return rebuilds.run(this::rebuildAll);
+    }
+
+    private Mono<Long> rebuildAll() {
+        long started = System.nanoTime();
+        Instant buildTime = Instant.now();
+        rebuildWritten.set(0);
+        rebuildTotal.set(0);
+        log.info("Rebuilding best_mappings (min confidence {})", minConfidence);
+        return namasteCodeRepository.findAll()
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(mappings -> entries(mappings, minConfidence, buildTime))
+                .doOnNext(entries -> rebuildTotal.set(entries.size()))
+                .flatMapMany(Flux::fromIterable)
+                .buffer(batchSize)
+                .concatMap(batch -> ViewRebuild.writeOlder(mongoTemplate, BestMappings.class, batch, BestMappings::getKey, buildTime))
+                .doOnNext(written -> logProgress(rebuildWritten.addAndGet(written), rebuildTotal.get(), started))
+                .then(mongoTemplate.remove(Query.query(Criteria.where("updated_at").lt(buildTime)), BestMappings.class))
+                .map(removed -> rebuildWritten.get())
+                .doOnNext(written -> log.info("best_mappings rebuilt: {} entries in {} ms", written,
+                        (System.nanoTime() - started) / 1_000_000))
+                .doOnError(e -> log.error("best_mappings rebuild failed", e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Long> write(List<BestMappings> batch) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BestMappings.class);
+        for (BestMappings entry : batch) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(entry.getKey())), entry, FindAndReplaceOptions.options().upsert());
+        }
+        return bulk.execute().map(result -> (long) batch.size());
+    }
+
+    private boolean current(BestMappings entry) {
+        return Double.compare(entry.getMinConfidence(), minConfidence) == 0;
+    }
+
+    private void logProgress(long written, long total, long started) {
+        long step = Math.max(batchSize, total / 20);
+        if (written % step < batchSize || written == total) {
+            double seconds = Math.max(0.001, (System.nanoTime() - started) / 1e9);
+            log.info("best_mappings {}/{} ({} entries/s)", written, total, Math.round(written / seconds));
+        }
+    }
+
+    /**
+     * Every entry of the view, computed in memory with the same resolution as {@link #compute}: a
+     * NAMASTE code resolves to the TM2 code of its highest-confidence mapping, and the answer is the
+     * best mapping per type among mappings whose tm2_code or code equals the resolved key.
+     */
+    static List<BestMappings> entries(List<NamasteCode> mappings, double minConfidence, Instant updatedAt) {
+        Map<String, List<NamasteCode>> byAnyCode = new HashMap<>();
+        Map<String, NamasteCode> topByCode = new HashMap<>();
+        Set<String> tm2Codes = new LinkedHashSet<>();
+        for (NamasteCode mapping : mappings) {
+            if (mapping.getTm2Code() != null) {
+                tm2Codes.add(mapping.getTm2Code());
+                byAnyCode.computeIfAbsent(mapping.getTm2Code(), k -> new ArrayList<>()).add(mapping);
+            }
+            if (mapping.getCode() != null) {
+                if (!mapping.getCode().equals(mapping.getTm2Code())) {
+                    byAnyCode.computeIfAbsent(mapping.getCode(), k -> new ArrayList<>()).add(mapping);
+                }
+                topByCode.merge(mapping.getCode(), mapping,
+                        (existing, incoming) -> confidence(incoming) > confidence(existing) ? incoming : existing);
+            }
+        }
+
+        Map<String, List<NamasteCode>> answers = new HashMap<>();
+        Function<String, List<NamasteCode>> answer = key -> answers.computeIfAbsent(key,
+                k -> List.copyOf(bestPerType(byAnyCode.getOrDefault(k, List.of()), minConfidence)));
+        List<BestMappings> entries = new ArrayList<>(topByCode.size() + tm2Codes.size());
+        for (NamasteCode top : topByCode.values()) {
+            String resolved = top.getTm2Code() != null ? top.getTm2Code().trim() : top.getCode();
+            entries.add(new BestMappings(top.getCode(), minConfidence, answer.apply(resolved), updatedAt));
+        }
+        for (String tm2Code : tm2Codes) {
+            // A lookup tries the value as a NAMASTE code first, so that entry wins
+            if (!topByCode.containsKey(tm2Code)) {
+                entries.add(new BestMappings(tm2Code, minConfidence, answer.apply(tm2Code), updatedAt));
+            }
+        }
+        return entries;
+    }
+
+    static Collection<NamasteCode> bestPerType(List<NamasteCode> candidates, double minConfidence) {
+        Map<String, NamasteCode> bestPerType = candidates.stream()
+                .filter(code -> code.getConfidenceScore() != null && code.getConfidenceScore() > minConfidence)
+                .collect(Collectors.toMap(NamasteCode::getType,
+                        Function.identity(),
+                        (existing, incoming) -> incoming.getConfidenceScore() > existing.getConfidenceScore() ? incoming : existing));
+        return bestPerType.values();
+    }
+
+    private static double confidence(NamasteCode mapping) {
+        return mapping.getConfidenceScore() != null ? mapping.getConfidenceScore() : Double.NEGATIVE_INFINITY;
+    }
+}
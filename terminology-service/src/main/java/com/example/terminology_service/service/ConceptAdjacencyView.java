@@ -0,0 +1,195 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.ConceptAdjacency;
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.ConceptAdjacencyRepository;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Materialized translations in concept_adjacency: each NAMASTE code to its TM2 targets and each TM2
+ * code to its NAMASTE sources, so a translation in either direction is one point read instead of the
+ * {@code $or} candidate query searchByCode starts from.
+ * <p>
+ * Codes missing from the view are computed live from the single-field code or tm2_code index.
+ * Writers call {@link #refresh} with the codes they touched; {@link #rebuild} recomputes everything.
+ */
+@Service
+@Slf4j
+public class ConceptAdjacencyView {
+
+    private static final Comparator<NamasteCode> BY_CONFIDENCE =
+            Comparator.comparingDouble(ConceptAdjacencyView::confidence).reversed();
+
+    private final NamasteCodeRepository namasteCodeRepository;
+    private final ConceptAdjacencyRepository conceptAdjacencyRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final boolean buildOnStartup;
+    private final ViewRebuild rebuilds = new ViewRebuild();
+
+    public ConceptAdjacencyView(NamasteCodeRepository namasteCodeRepository,
+                                ConceptAdjacencyRepository conceptAdjacencyRepository,
+                                ReactiveMongoTemplate mongoTemplate,
+                                @Value("${terminology.concept-adjacency.batch-size:1000}") int batchSize,
+                                @Value("${terminology.concept-adjacency.build-on-startup:true}") boolean buildOnStartup) {
+        this.namasteCodeRepository = namasteCodeRepository;
+        this.conceptAdjacencyRepository = conceptAdjacencyRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.buildOnStartup = buildOnStartup;
+    }
+
+    /** Precomputed translation of a code, or empty when the view does not hold it. */
+    public Mono<List<ConceptAdjacency.TypeGroup>> lookup(boolean reverse, String code) {
+        return conceptAdjacencyRepository.findById(ConceptAdjacency.key(reverse, code))
+                .map(ConceptAdjacency::getGroups);
+    }
+
+    /** The translation computed from tm2_mappings; empty groups when nothing maps from the code. */
+    public Mono<List<ConceptAdjacency.TypeGroup>> compute(boolean reverse, String code) {
+        return (reverse
+                ? namasteCodeRepository.findByTm2CodeWithoutText(code)
+                : namasteCodeRepository.findByCodeWithoutText(code))
+                .collectList()
+                .map(ConceptAdjacencyView::groups);
+    }
+
+    /** Recomputes the entries of changed mappings, in both directions. */
+    public Mono<Long> refresh(Collection<String> codes, Collection<String> tm2Codes) {
+        if (codes.isEmpty() && tm2Codes.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Instant now = Instant.now();
+        Flux<ConceptAdjacency> forward = Flux.fromIterable(codes)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(code -> compute(false, code).map(groups -> entry(false, code, groups, now)), 8);
+        Flux<ConceptAdjacency> reverse = Flux.fromIterable(tm2Codes)
+                .filter(Objects::nonNull)
+                .distinct()
+                .flatMap(tm2Code -> compute(true, tm2Code).map(groups -> entry(true, tm2Code, groups, now)), 8);
+        return forward.concatWith(reverse)
+                .buffer(batchSize)
+                .concatMap(this::write)
+                .reduce(0L, Long::sum);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!buildOnStartup) {
+            return;
+        }
+        mongoTemplate.exists(new Query().limit(1), ConceptAdjacency.class)
+                .filter(exists -> !exists)
+                .flatMap(empty -> rebuild())
+                .subscribe();
+    }
+
+    /**
+     * Recomputes every entry from one pass over tm2_mappings, then deletes entries for codes that no
+     * longer exist. Entries {@link #refresh} wrote while the rebuild ran are kept; a call while a
+     * rebuild is running completes with that rebuild.
+     */
+    public Mono<Long> rebuild() {
+        return rebuilds.run(this::rebuildAll);
+    }
+
+    private Mono<Long> rebuildAll() {
+        long started = System.nanoTime();
+        Instant buildTime = Instant.now();
+        log.info("Rebuilding concept_adjacency");
+        return namasteCodeRepository.findAll()
+                .map(ConceptAdjacencyView::withoutText)
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(mappings -> entries(mappings, buildTime))
+                .flatMapMany(Flux::fromIterable)
+                .buffer(batchSize)
+                .concatMap(batch -> ViewRebuild.writeOlder(mongoTemplate, ConceptAdjacency.class, batch, ConceptAdjacency::getKey, buildTime))
+                .reduce(0L, Long::sum)
+                .flatMap(written -> mongoTemplate.remove(Query.query(Criteria.where("updated_at").lt(buildTime)), ConceptAdjacency.class)
+                        .thenReturn(written))
+                .doOnNext(written -> log.info("concept_adjacency rebuilt: {} entries in {} ms", written,
+                        (System.nanoTime() - started) / 1_000_000))
+                .doOnError(e -> log.error("concept_adjacency rebuild failed", e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Long> write(List<ConceptAdjacency> batch) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConceptAdjacency.class);
+        for (ConceptAdjacency entry : batch) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(entry.getKey())), entry, FindAndReplaceOptions.options().upsert());
+        }
+        return bulk.execute().map(result -> (long) batch.size());
+    }
+
+    /** Both directions of every code, computed in memory as {@link #compute} would one at a time. */
+    static List<ConceptAdjacency> entries(List<NamasteCode> mappings, Instant updatedAt) {
+        Map<String, List<NamasteCode>> byCode = new HashMap<>();
+        Map<String, List<NamasteCode>> byTm2Code = new HashMap<>();
+        for (NamasteCode mapping : mappings) {
+            if (mapping.getCode() != null) {
+                byCode.computeIfAbsent(mapping.getCode(), k -> new ArrayList<>()).add(mapping);
+            }
+            if (mapping.getTm2Code() != null) {
+                byTm2Code.computeIfAbsent(mapping.getTm2Code(), k -> new ArrayList<>()).add(mapping);
+            }
+        }
+        List<ConceptAdjacency> entries = new ArrayList<>(byCode.size() + byTm2Code.size());
+        byCode.forEach((code, sources) -> entries.add(entry(false, code, groups(sources), updatedAt)));
+        byTm2Code.forEach((tm2Code, sources) -> entries.add(entry(true, tm2Code, groups(sources), updatedAt)));
+        return entries;
+    }
+
+    /** Mappings by type, highest confidence first, the group with the best mapping first. */
+    static List<ConceptAdjacency.TypeGroup> groups(List<NamasteCode> mappings) {
+        List<NamasteCode> sorted = new ArrayList<>(mappings);
+        sorted.sort(BY_CONFIDENCE);
+        Map<String, List<NamasteCode>> byType = new LinkedHashMap<>();
+        for (NamasteCode mapping : sorted) {
+            byType.computeIfAbsent(mapping.getType(), k -> new ArrayList<>()).add(mapping);
+        }
+        List<ConceptAdjacency.TypeGroup> groups = new ArrayList<>(byType.size());
+        byType.forEach((type, members) -> groups.add(new ConceptAdjacency.TypeGroup(type, List.copyOf(members))));
+        return groups;
+    }
+
+    private static ConceptAdjacency entry(boolean reverse, String code, List<ConceptAdjacency.TypeGroup> groups, Instant updatedAt) {
+        return new ConceptAdjacency(ConceptAdjacency.key(reverse, code), groups, updatedAt);
+    }
+
+    // The view is read by translation, which never renders the long text
+    private static NamasteCode withoutText(NamasteCode code) {
+        code.setCodeDescription(null);
+        code.setTm2Definition(null);
+        return code;
+    }
+
+    private static double confidence(NamasteCode mapping) {
+        return mapping.getConfidenceScore() != null ? mapping.getConfidenceScore() : Double.NEGATIVE_INFINITY;
+    }
+}
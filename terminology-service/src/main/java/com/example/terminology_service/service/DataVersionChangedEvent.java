@@ -0,0 +1,8 @@
+package com.example.terminology_service.service;
+
+/**
+ * Published in every instance that observes a new {@link com.example.terminology_service.model.DataVersion},
+ * whether it ran the ingestion itself or picked the bump up by polling.
+ */
+public record DataVersionChangedEvent(long previousVersion, long version, String release) {
+}
@@ -0,0 +1,45 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.search.FuzzySearchService;
+import com.example.terminology_service.search.SemanticSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * Drops everything derived from older terminology data when the data version moves: response caches
+ * are cleared, the concept table is reloaded and the search indexes are rebuilt from the new data.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DataVersionRefresher {
+
+    private final CacheManager cacheManager;
+    private final Tm2ConceptTable tm2ConceptTable;
+    private final FuzzySearchService fuzzySearchService;
+    private final SemanticSearchService semanticSearchService;
+
+    @EventListener
+    public void onDataVersionChanged(DataVersionChangedEvent event) {
+        // Cached responses and indexes join concept text, so the table is reloaded first
+        tm2ConceptTable.refresh()
+                .then(Mono.fromRunnable(this::clearCaches))
+                .then(Mono.when(fuzzySearchService.rebuild(), semanticSearchService.rebuild()))
+                .subscribe(null, e -> log.error("Refresh for data version {} failed", event.version(), e),
+                        () -> log.info("Caches and indexes refreshed for data version {}", event.version()));
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+}
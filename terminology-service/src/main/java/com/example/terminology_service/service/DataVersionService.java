@@ -0,0 +1,77 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.DataVersion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the terminology data version. Ingestion bumps it in data_version; every instance polls the
+ * document and publishes a {@link DataVersionChangedEvent} when it moves, so caches and indexes built
+ * from older data can be dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataVersionService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong current = new AtomicLong(-1);
+
+    /** Last version seen by this instance; -1 until the first read. */
+    public long current() {
+        return current.get();
+    }
+
+    public Mono<DataVersion> read() {
+        return mongoTemplate.findById(DataVersion.ID, DataVersion.class);
+    }
+
+    public Mono<Long> bump(String release) {
+        return mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(DataVersion.ID)),
+                        new Update().inc("version", 1).set("release", release).set("updated_at", Instant.now()),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        DataVersion.class)
+                .doOnNext(this::observe)
+                .map(DataVersion::getVersion);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        read().map(DataVersion::getVersion)
+                .defaultIfEmpty(0L)
+                .subscribe(version -> {
+                    current.compareAndSet(-1, version);
+                    log.info("Terminology data version {}", version);
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${terminology.data-version.poll-interval:PT30S}",
+            initialDelayString = "${terminology.data-version.poll-interval:PT30S}")
+    public void poll() {
+        read().subscribe(this::observe, e -> log.warn("Data version poll failed: {}", e.getMessage()));
+    }
+
+    private void observe(DataVersion version) {
+        long previous = current.getAndAccumulate(version.getVersion(), Math::max);
+        if (previous >= 0 && version.getVersion() > previous) {
+            log.info("Terminology data version {} -> {} (release {})", previous, version.getVersion(), version.getRelease());
+            eventPublisher.publishEvent(new DataVersionChangedEvent(previous, version.getVersion(), version.getRelease()));
+        }
+    }
+}
@@ -1,76 +1,213 @@
 package com.example.terminology_service.service;
 
+import com.example.terminology_service.cache.TwoLevelCache;
+import com.example.terminology_service.metrics.StageMetrics;
+import com.example.terminology_service.model.ConceptAdjacency;
 import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.mongo.ReadRouting;
 import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.example.terminology_service.search.FuzzySearchService;
+import com.example.terminology_service.search.SemanticSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NamasteTerminologyService {
 
-    private final NamasteCodeRepository namasteCodeRepository;
+    private final ReadRouting readRouting;
+    private final StageMetrics stageMetrics;
+    private final FuzzySearchService fuzzySearchService;
+    private final SemanticSearchService semanticSearchService;
+    private final Tm2ConceptTable tm2ConceptTable;
+    private final BestMappingView bestMappingView;
+    private final ConceptAdjacencyView conceptAdjacencyView;
+    private final CacheManager cacheManager;
 
     public Flux<NamasteCode> searchForAutoComplete(String searchTerm, int maxResults) {
+        return searchForAutoComplete(searchTerm, maxResults, false);
+    }
+
+    public Flux<NamasteCode> searchForAutoComplete(String searchTerm, int maxResults, boolean fuzzy) {
+        return searchForAutoComplete(searchTerm, maxResults, fuzzy, true);
+    }
+
+    /**
+     * @param includeText false fetches only the fields an autocomplete list renders
+     */
+    public Flux<NamasteCode> searchForAutoComplete(String searchTerm, int maxResults, boolean fuzzy, boolean includeText) {
         if (searchTerm == null || searchTerm.trim().length() < 2) {
             return Flux.empty();
         }
-        return namasteCodeRepository
-                .findByCodeTitleContainingIgnoreCase(searchTerm.trim())
-                .take(maxResults);
+        if (fuzzy) {
+            return stageMetrics.countResults("autocomplete.fuzzy", stageMetrics.time("autocomplete.fuzzy", "index.search",
+                    fuzzySearchService.autocomplete(searchTerm.trim(), maxResults)));
+        }
+        String term = searchTerm.trim();
+        return stageMetrics.countResults("autocomplete", stageMetrics.time("autocomplete", "mongo.query",
+                (includeText
+                        ? withConcepts(readRouting.read("autocomplete", repository -> repository.findByCodeTitleContainingIgnoreCase(term)), true)
+                        : readRouting.read("autocomplete", repository -> repository.findTitlesByCodeTitleContainingIgnoreCase(term)))
+                        .take(maxResults)));
     }
 
-    @Cacheable(value = "namaste-code-lookup", key = "#namasteCode")
-    public Mono<NamasteCode> getByNamasteCode(String namasteCode) {
+    @Cacheable(value = "namaste-code-lookup", key = "#namasteCode + ':' + #includeText")
+    public Mono<NamasteCode> getByNamasteCode(String namasteCode, boolean includeText) {
         log.debug("Cache miss - getByNamasteCode: {}", namasteCode);
-        return namasteCodeRepository.findByCode(namasteCode);
+        NamasteCodeRepository repository = readRouting.namasteCodes("getByNamasteCode");
+        return stageMetrics.time("getByNamasteCode", "mongo.query", withConcepts(includeText
+                ? repository.findByCode(namasteCode).flux()
+                : repository.findByCodeWithoutText(namasteCode), includeText).next());
     }
 
-    @Cacheable(value = "category-lookup", key = "#category")
-    public Flux<NamasteCode> getByCategory(String category) {
+    /**
+     * Batch form of {@link #getByNamasteCode} sharing its cache entries: local misses are looked up in
+     * Redis with one round trip, and what is still missing in Mongo with one query.
+     */
+    public Flux<NamasteCode> getByNamasteCodes(Collection<String> namasteCodes, boolean includeText) {
+        List<String> codes = namasteCodes.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .distinct()
+                .toList();
+        if (codes.isEmpty()) {
+            return Flux.empty();
+        }
+        Function<String, String> key = code -> code + ":" + includeText;
+        Mono<Map<Object, Object>> cached = cacheManager.getCache("namaste-code-lookup") instanceof TwoLevelCache cache
+                ? stageMetrics.time("getByNamasteCodes", "cache.read", cache.retrieveAll(codes.stream().map(key).toList()))
+                : Mono.just(Map.of());
+        return stageMetrics.countResults("getByNamasteCodes", cached.flatMapMany(hits -> {
+            List<String> missing = codes.stream().filter(code -> !hits.containsKey(key.apply(code))).toList();
+            Flux<NamasteCode> loaded = missing.isEmpty()
+                    ? Flux.empty()
+                    : stageMetrics.time("getByNamasteCodes", "mongo.query", withConcepts(readRouting.read("getByNamasteCodes", repository -> includeText
+                            ? repository.findByCodeIn(missing)
+                            : repository.findByCodeInWithoutText(missing)), includeText))
+                    .distinct(NamasteCode::getCode)
+                    .doOnNext(code -> {
+                        if (cacheManager.getCache("namaste-code-lookup") instanceof TwoLevelCache cache) {
+                            cache.put(key.apply(code.getCode()), code);
+                        }
+                    });
+            return Flux.fromIterable(codes)
+                    .mapNotNull(code -> (NamasteCode) hits.get(key.apply(code)))
+                    .concatWith(loaded);
+        }));
+    }
+
+    /**
+     * Codes and titles of every mapping, TM2 titles joined from the concept table, streamed straight
+     * from the cursor so a caller can load the whole table without it being held here.
+     */
+    public Flux<NamasteCode> codeTable() {
+        return tm2ConceptTable.ensureLoaded()
+                .thenMany(stageMetrics.time("codeTable", "mongo.query", readRouting.read("codeTable", NamasteCodeRepository::findAllCodeTitles)))
+                .map(code -> tm2ConceptTable.join(code, false));
+    }
+
+    @Cacheable(value = "category-lookup", key = "#category + ':' + #includeText")
+    public Flux<NamasteCode> getByCategory(String category, boolean includeText) {
         log.debug("Cache miss - getByCategory: {}", category);
-        return namasteCodeRepository.findByType(category);
+        return stageMetrics.countResults("getByCategory", stageMetrics.time("getByCategory", "mongo.query", withConcepts(readRouting.read("getByCategory", repository -> includeText
+                ? repository.findByType(category)
+                : repository.findByTypeWithoutText(category)), includeText)));
     }
 
-    @Cacheable(value = "code-lookup", key = "#codeValue.trim().toLowerCase()")
-    public Flux<NamasteCode> searchByCode(String codeValue) {
+    @Cacheable(value = "code-lookup", key = "#codeValue.trim().toLowerCase() + ':' + #includeText")
+    public Flux<NamasteCode> searchByCode(String codeValue, boolean includeText) {
         if (codeValue == null || codeValue.trim().isEmpty()) {
             return Flux.empty();
         }
         String trimmed = codeValue.trim();
         log.debug("Cache miss - searchByCode: {}", trimmed);
-        return namasteCodeRepository.findTopByCodeOrderByConfidenceScoreDesc(trimmed)
-                .map(doc -> doc.getTm2Code() != null ? doc.getTm2Code().trim() : trimmed)
-                .defaultIfEmpty(trimmed)
-                .flatMapMany(namasteCodeRepository::findByAnyCode)
-                .filter(code -> code.getConfidenceScore() != null && code.getConfidenceScore() > 0.6)
-                .collectList()
-                .flatMapMany(list -> {
-                    Map<String, NamasteCode> bestPerType = list.stream()
-                            .collect(Collectors.toMap(NamasteCode::getType,
-                                    Function.identity(),
-                                    (existing, incoming) -> incoming.getConfidenceScore() > existing.getConfidenceScore() ? incoming : existing));
-                    return Flux.fromIterable(bestPerType.values());
-                });
+        // Point read from the materialized view; keys it does not hold yet are computed live
+        Mono<List<NamasteCode>> mappings = stageMetrics.time("searchByCode", "view.read", bestMappingView.lookup(trimmed))
+                .switchIfEmpty(Mono.defer(() -> stageMetrics.time("searchByCode", "mongo.query", bestMappingView.compute(trimmed))));
+        return stageMetrics.countResults("searchByCode", withConcepts(mappings
+                .flatMapMany(Flux::fromIterable)
+                .map(code -> includeText ? code : withoutText(code)), includeText));
+    }
+
+    /**
+     * A NAMASTE code's TM2 targets or, with reverse, a TM2 code's NAMASTE sources, grouped by type and
+     * highest confidence first. One point read of the adjacency view in either direction.
+     */
+    public Mono<List<ConceptAdjacency.TypeGroup>> translate(String code, boolean reverse) {
+        if (code == null || code.trim().isEmpty()) {
+            return Mono.just(List.of());
+        }
+        String trimmed = code.trim();
+        String operation = reverse ? "translate.reverse" : "translate";
+        return stageMetrics.time(operation, "view.read", conceptAdjacencyView.lookup(reverse, trimmed))
+                .switchIfEmpty(Mono.defer(() -> stageMetrics.time(operation, "mongo.query", conceptAdjacencyView.compute(reverse, trimmed))))
+                .flatMap(groups -> tm2ConceptTable.ensureLoaded().thenReturn(groups))
+                .doOnNext(groups -> groups.forEach(group -> group.getMappings().forEach(mapping -> tm2ConceptTable.join(mapping, false))));
     }
 
     public Flux<NamasteCode> searchBySymptoms(String symptomQuery) {
+        return searchBySymptoms(symptomQuery, false);
+    }
+
+    public Flux<NamasteCode> searchBySymptoms(String symptomQuery, boolean fuzzy) {
+        return searchBySymptoms(symptomQuery, fuzzy, false);
+    }
+
+    public Flux<NamasteCode> searchBySymptoms(String symptomQuery, boolean fuzzy, boolean semantic) {
+        return searchBySymptoms(symptomQuery, fuzzy, semantic, true);
+    }
+
+    /**
+     * @param includeText false leaves codeDescription and tm2Definition out of the Mongo projection;
+     *                    index-backed modes hold full documents and leave trimming to the caller
+     */
+    public Flux<NamasteCode> searchBySymptoms(String symptomQuery, boolean fuzzy, boolean semantic, boolean includeText) {
         if (symptomQuery == null || symptomQuery.trim().length() < 2) {
             return Flux.empty();
         }
-        return namasteCodeRepository.findBySymptoms(escapeRegexSpecialChars(symptomQuery.trim()));
+        if (semantic) {
+            return stageMetrics.countResults("searchBySymptoms.semantic", stageMetrics.time("searchBySymptoms.semantic", "index.search",
+                    semanticSearchService.searchSymptoms(symptomQuery.trim())));
+        }
+        if (fuzzy) {
+            return stageMetrics.countResults("searchBySymptoms.fuzzy", stageMetrics.time("searchBySymptoms.fuzzy", "index.search",
+                    fuzzySearchService.searchSymptoms(symptomQuery.trim())));
+        }
+        String pattern = escapeRegexSpecialChars(symptomQuery.trim());
+        return stageMetrics.countResults("searchBySymptoms", stageMetrics.time("searchBySymptoms", "mongo.query",
+                withConcepts(Flux.defer(() -> {
+                    List<String> conceptCodes = tm2ConceptTable.codesMatching(pattern);
+                    return readRouting.read("searchBySymptoms", repository -> includeText
+                            ? repository.findBySymptoms(pattern, conceptCodes)
+                            : repository.findBySymptomsWithoutText(pattern, conceptCodes));
+                }), includeText)));
+    }
+
+    // Mappings reference their TM2 concept by code; the title, definition and link come from the concept table
+    private Flux<NamasteCode> withConcepts(Flux<NamasteCode> mappings, boolean includeText) {
+        return tm2ConceptTable.ensureLoaded().thenMany(mappings).map(code -> tm2ConceptTable.join(code, includeText));
+    }
+
+    private static NamasteCode withoutText(NamasteCode code) {
+        code.setCodeDescription(null);
+        code.setTm2Definition(null);
+        return code;
     }
 
-    private String escapeRegexSpecialChars(String input) {
+    static String escapeRegexSpecialChars(String input) {
         return input.replaceAll("([\\[\\]\\(\\)\\{\\}\\+\\*\\?\\^\\$\\|\\.])", "\\\\$1");
     }
 }
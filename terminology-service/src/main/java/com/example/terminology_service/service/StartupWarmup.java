@@ -0,0 +1,159 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.hotkeys.HotKeyPrewarmer;
+import com.example.terminology_service.model.NamasteCode;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Runs representative requests through {@link NamasteTerminologyService} before the instance takes
+ * traffic, so class loading, JIT compilation and the Mongo and Redis connection pools are paid for
+ * here rather than by the first users. {@code concurrency} requests run at once, which opens that many
+ * pooled connections. The hot-key replay follows, and only then does readiness (the
+ * {@code startupWarmup} health contributor) report UP and the Eureka registration (initially
+ * STARTING) switch to UP.
+ */
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+@Slf4j
+public class StartupWarmup implements HealthIndicator {
+
+    public static final String WARMUP_TIMER = "terminology.startup.warmup";
+
+    private static final int SAMPLE_RESULTS = 20;
+
+    private final NamasteTerminologyService terminologyService;
+    private final HotKeyPrewarmer hotKeyPrewarmer;
+    private final WarmupProperties properties;
+    private final ObjectProvider<ApplicationInfoManager> eureka;
+    private final MeterRegistry meterRegistry;
+    private volatile String phase = "starting";
+    private volatile long readyAt;
+    private volatile boolean ready;
+
+    public StartupWarmup(NamasteTerminologyService terminologyService,
+                         HotKeyPrewarmer hotKeyPrewarmer,
+                         WarmupProperties properties,
+                         ObjectProvider<ApplicationInfoManager> eureka,
+                         MeterRegistry meterRegistry) {
+        this.terminologyService = terminologyService;
+        this.hotKeyPrewarmer = hotKeyPrewarmer;
+        this.properties = properties;
+        this.eureka = eureka;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.nanoTime();
+        Mono<Void> synthetic = properties.isEnabled() && !properties.getSampleQueries().isEmpty()
+                ? timed("synthetic", Mono.fromRunnable(() -> phase = "synthetic").then(synthetic()))
+                : Mono.empty();
+        synthetic
+                .then(Mono.defer(() -> {
+                    phase = "hot-keys";
+                    return timed("hot-keys", hotKeyPrewarmer.prewarm());
+                }))
+                .doFinally(signal -> ready(start))
+                .subscribe(null, e -> log.warn("Startup warmup failed: {}", e.getMessage()));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Time since readiness flipped; null until then. */
+    public Duration sinceReady() {
+        return ready ? Duration.ofNanos(System.nanoTime() - readyAt) : null;
+    }
+
+    @Override
+    public Health health() {
+        return (isReady() ? Health.up() : Health.outOfService())
+                .withDetail("phase", phase)
+                .withDetail("enabled", properties.isEnabled())
+                .build();
+    }
+
+    private Mono<Void> synthetic() {
+        return Flux.range(0, properties.getIterations())
+                .flatMap(this::exercise, properties.getConcurrency())
+                .then()
+                .timeout(properties.getTimeout(), Mono.fromRunnable(() ->
+                        log.warn("Startup warmup did not finish within {}; continuing", properties.getTimeout())));
+    }
+
+    // One round of the request mix: plain, fuzzy and semantic symptom search, autocomplete, and code
+    // lookups for what the symptom search found
+    private Mono<Void> exercise(int iteration) {
+        List<String> queries = properties.getSampleQueries();
+        String query = queries.get(iteration % queries.size());
+        boolean includeText = iteration % 2 == 0;
+        Mono<Void> codeLookups = terminologyService.searchBySymptoms(query, false, false, includeText)
+                .take(SAMPLE_RESULTS)
+                .map(NamasteCode::getCode)
+                .filter(Objects::nonNull)
+                .collectList()
+                .flatMap(codes -> Flux.fromIterable(codes)
+                        .take(3)
+                        .concatMap(code -> step(terminologyService.searchByCode(code, includeText))
+                                .then(step(terminologyService.getByNamasteCode(code, includeText))))
+                        .then(step(terminologyService.getByNamasteCodes(codes, includeText))));
+        return Flux.concat(
+                        step(codeLookups),
+                        step(terminologyService.searchBySymptoms(query, true, false, includeText).take(SAMPLE_RESULTS)),
+                        step(terminologyService.searchBySymptoms(query, false, true, includeText)),
+                        step(terminologyService.searchForAutoComplete(query, 10, false, includeText)))
+                .then();
+    }
+
+    // A failing step (an index still building, say) must not end the warmup
+    private static Mono<Void> step(Publisher<?> request) {
+        return Flux.from(request)
+                .then()
+                .onErrorResume(e -> {
+                    log.debug("Warmup request failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void ready(long start) {
+        readyAt = System.nanoTime();
+        ready = true;
+        phase = "done";
+        timer("total").record(Duration.ofNanos(readyAt - start));
+        eureka.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+        log.info("Startup warmup finished in {} ms; accepting traffic", Duration.ofNanos(readyAt - start).toMillis());
+    }
+
+    private Mono<Void> timed(String stage, Mono<Void> work) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doFinally(signal -> timer(stage).record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private Timer timer(String stage) {
+        return Timer.builder(WARMUP_TIMER)
+                .description("Time spent warming up before reporting ready")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.model.Tm2Concept;
+import com.example.terminology_service.repository.Tm2ConceptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory copy of tm2_concepts. TM2 has a few thousand concepts, so the whole table fits in a map
+ * and mappings are joined to their concept at response time instead of storing the text per mapping.
+ * Joined mappings share the table's strings, so caches and indexes hold each definition once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class Tm2ConceptTable {
+
+    private final Tm2ConceptRepository tm2ConceptRepository;
+    private volatile Map<String, Tm2Concept> concepts;
+
+    public int size() {
+        Map<String, Tm2Concept> current = concepts;
+        return current != null ? current.size() : 0;
+    }
+
+    public Tm2Concept get(String tm2Code) {
+        Map<String, Tm2Concept> current = concepts;
+        return current != null && tm2Code != null ? current.get(tm2Code) : null;
+    }
+
+    /**
+     * Fills the TM2 fields of a mapping from its concept. Mappings that still carry their own copy
+     * (not yet migrated) keep it.
+     */
+    public NamasteCode join(NamasteCode code) {
+        return join(code, true);
+    }
+
+    /** As {@link #join(NamasteCode)}, leaving the definition out for the lean internal projections. */
+    public NamasteCode join(NamasteCode code, boolean includeDefinition) {
+        Tm2Concept concept = get(code.getTm2Code());
+        if (concept != null) {
+            if (code.getTm2Title() == null) {
+                code.setTm2Title(concept.getTm2Title());
+            }
+            if (includeDefinition && code.getTm2Definition() == null) {
+                code.setTm2Definition(concept.getTm2Definition());
+            }
+            if (code.getTm2Link() == null) {
+                code.setTm2Link(concept.getTm2Link());
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Codes of concepts whose title or definition matches; replaces the tm2_title/tm2_definition
+     * regex clauses that no longer find anything in migrated mappings.
+     */
+    public List<String> codesMatching(String escapedRegex) {
+        Map<String, Tm2Concept> current = concepts;
+        if (current == null) {
+            return List.of();
+        }
+        Pattern pattern = Pattern.compile(escapedRegex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return current.values().stream()
+                .filter(concept -> matches(pattern, concept.getTm2Title()) || matches(pattern, concept.getTm2Definition()))
+                .map(Tm2Concept::getTm2Code)
+                .toList();
+    }
+
+    /** Completes with the table loaded, loading it first if this is the first use. */
+    public Mono<Void> ensureLoaded() {
+        return Mono.defer(() -> concepts != null ? Mono.empty() : refresh().then());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        ensureLoaded().subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${terminology.concepts.refresh-interval:PT10M}",
+            initialDelayString = "${terminology.concepts.refresh-interval:PT10M}")
+    public void scheduledRefresh() {
+        refresh().subscribe();
+    }
+
+    public Mono<Integer> refresh() {
+        return tm2ConceptRepository.findAll()
+                .collectMap(Tm2Concept::getTm2Code, Function.identity())
+                .map(Map::copyOf)
+                .doOnNext(loaded -> {
+                    concepts = loaded;
+                    log.info("TM2 concept table loaded: {} concepts", loaded.size());
+                })
+                .map(Map::size)
+                .doOnError(e -> log.error("TM2 concept table load failed", e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private static boolean matches(Pattern pattern, String text) {
+        return text != null && pattern.matcher(text).find();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.terminology_service.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The rebuild of a materialized view: one run at a time, shared by every caller that asks while it
+ * is running, and writing only over entries older than the run. A rebuild computes from a snapshot of
+ * tm2_mappings, so an entry {@code refresh} wrote from the change stream after the run started is
+ * newer than what the run has for it and is kept.
+ */
+final class ViewRebuild {
+
+    private final AtomicReference<Mono<Long>> inFlight = new AtomicReference<>();
+
+    /**
+     * Starts {@code rebuild} unless a run is in flight, and completes with that run. The run continues
+     * when callers cancel, so no caller leaves the view half built for the next one.
+     */
+    Mono<Long> run(Supplier<Mono<Long>> rebuild) {
+        return Mono.defer(() -> {
+            Mono<Long> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            Sinks.One<Long> done = Sinks.one();
+            Mono<Long> shared = done.asMono();
+            if (!inFlight.compareAndSet(null, shared)) {
+                return run(rebuild);
+            }
+            // Cleared before the result is emitted, so a caller woken by it can start a fresh run
+            rebuild.get().subscribe(
+                    written -> {
+                        inFlight.compareAndSet(shared, null);
+                        done.tryEmitValue(written);
+                    },
+                    e -> {
+                        inFlight.compareAndSet(shared, null);
+                        done.tryEmitError(e);
+                    },
+                    () -> {
+                        inFlight.compareAndSet(shared, null);
+                        done.tryEmitEmpty();
+                    });
+            return shared;
+        });
+    }
+
+    /**
+     * Upserts {@code batch}, replacing an existing entry only when its updated_at is before
+     * {@code buildTime}. Each write is one pipeline update, so the comparison and the replacement
+     * cannot be split by a concurrent refresh.
+     */
+    static <T> Mono<Long> writeOlder(ReactiveMongoTemplate mongoTemplate, Class<T> type, List<T> batch,
+                                     Function<T, String> key, Instant buildTime) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        for (T entry : batch) {
+            Document replacement = new Document();
+            mongoTemplate.getConverter().write(entry, replacement);
+            Document stage = replaceIfOlder(replacement, buildTime);
+            AggregationOperation replace = context -> stage;
+            bulk.upsert(Query.query(Criteria.where("_id").is(key.apply(entry))), AggregationUpdate.from(List.of(replace)));
+        }
+        return bulk.execute().map(result -> (long) batch.size());
+    }
+
+    // A missing updated_at (the entry is being inserted) compares lower than any date
+    static Document replaceIfOlder(Document replacement, Instant buildTime) {
+        Document condition = new Document("$lt", List.of("$updated_at", Date.from(buildTime)));
+        return new Document("$replaceWith",
+                new Document("$cond", List.of(condition, new Document("$literal", replacement), "$$ROOT")));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.terminology_service.autocomplete;
+
+import com.example.terminology_service.dto.InternalCodeView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutocompleteChannelHandlerTest {
+
+    private final Counter superseded = new SimpleMeterRegistry().counter("superseded");
+    private final List<String> searched = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testReplies_newerQueryCancelsTheRunningSearch() {
+        Flux<AutocompleteQuery> typing = Flux.just(query(1, "fe"), query(2, "fev"), query(3, "fever"))
+                .delayElements(Duration.ofMillis(30));
+
+        List<AutocompleteReply> replies = AutocompleteChannelHandler
+                .replies(typing, Duration.ZERO, search(Duration.ofMillis(200)), superseded)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("fe", "fev", "fever"), searched);
+        assertEquals(1, replies.size(), "only the newest query is answered");
+        assertEquals(3L, (long) replies.get(0).id());
+        assertEquals("fever", replies.get(0).results().get(0).getCodeTitle());
+        assertEquals(2.0, superseded.count());
+    }
+
+    @Test
+    public void testReplies_debounceSearchesOncePerPause() {
+        Flux<AutocompleteQuery> typing = Flux.concat(
+                Flux.just(query(1, "fe"), query(2, "fev"), query(3, "feve")).delayElements(Duration.ofMillis(5)),
+                Mono.just(query(4, "fever")).delayElement(Duration.ofMillis(300)));
+
+        List<AutocompleteReply> replies = AutocompleteChannelHandler
+                .replies(typing, Duration.ofMillis(100), search(Duration.ZERO), superseded)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("feve", "fever"), searched);
+        assertEquals(List.of(3L, 4L), replies.stream().map(AutocompleteReply::id).toList());
+    }
+
+    @Test
+    public void testReplies_dropsRepeatsAndAnswersInvalidQueriesWithoutSearching() {
+        Flux<AutocompleteQuery> typing = Flux.just(
+                        query(1, "fever"),
+                        query(2, "fever"),
+                        AutocompleteQuery.invalid(3L, "Malformed message"),
+                        query(4, "fever"))
+                .delayElements(Duration.ofMillis(30));
+
+        List<AutocompleteReply> replies = AutocompleteChannelHandler
+                .replies(typing, Duration.ZERO, search(Duration.ZERO), superseded)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("fever", "fever"), searched);
+        assertEquals(List.of(1L, 3L, 4L), replies.stream().map(AutocompleteReply::id).toList());
+        assertNull(replies.get(1).results());
+        assertEquals("Malformed message", replies.get(1).error());
+    }
+
+    @Test
+    public void testReplies_failedSearchIsReportedAndTheSessionGoesOn() {
+        Flux<AutocompleteQuery> typing = Flux.just(query(1, "boom"), query(2, "fever"))
+                .delayElements(Duration.ofMillis(30));
+        Function<AutocompleteQuery, Mono<List<InternalCodeView>>> search = query -> query.query().equals("boom")
+                ? Mono.error(new IllegalStateException("mongo down"))
+                : search(Duration.ZERO).apply(query);
+
+        List<AutocompleteReply> replies = AutocompleteChannelHandler
+                .replies(typing, Duration.ZERO, search, superseded)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(2, replies.size());
+        assertEquals("Autocomplete failed", replies.get(0).error());
+        assertEquals("fever", replies.get(1).query());
+    }
+
+    @Test
+    public void testDebounce_clampedToConfiguredBounds() {
+        AutocompleteChannelProperties properties = new AutocompleteChannelProperties();
+
+        assertEquals(Duration.ofMillis(120), AutocompleteChannelHandler.debounce(null, properties));
+        assertEquals(Duration.ofMillis(200), AutocompleteChannelHandler.debounce("200", properties));
+        assertEquals(Duration.ofMillis(50), AutocompleteChannelHandler.debounce("0", properties), "debouncing cannot be turned off");
+        assertEquals(Duration.ofMillis(50), AutocompleteChannelHandler.debounce("-5", properties));
+        assertEquals(Duration.ofSeconds(1), AutocompleteChannelHandler.debounce("60000", properties));
+        assertEquals(Duration.ofMillis(120), AutocompleteChannelHandler.debounce("soon", properties));
+    }
+
+    private Function<AutocompleteQuery, Mono<List<InternalCodeView>>> search(Duration latency) {
+        return query -> Mono.fromRunnable(() -> searched.add(query.query()))
+                .then(Mono.delay(latency))
+                .then(Mono.fromSupplier(() -> List.of(InternalCodeView.builder()
+                        .code("AYU-" + query.id())
+                        .codeTitle(query.query())
+                        .build())));
+    }
+
+    private static AutocompleteQuery query(long id, String text) {
+        return new AutocompleteQuery(id, text, 10, false, null);
+    }
+}
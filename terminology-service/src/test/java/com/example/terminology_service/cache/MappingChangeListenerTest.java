@@ -0,0 +1,201 @@
+package com.example.terminology_service.cache;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.example.terminology_service.service.BestMappingView;
+import com.example.terminology_service.service.ConceptAdjacencyView;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MappingChangeListenerTest {
+
+    private final Set<String> codes = new HashSet<>();
+    private final Set<String> tm2Codes = new HashSet<>();
+    private final Set<String> types = new HashSet<>();
+
+    private NamasteCodeRepository repository;
+    private BestMappingView bestMappingView;
+    private ConceptAdjacencyView conceptAdjacencyView;
+    private ConcurrentMapCacheManager cacheManager;
+    private CacheInvalidationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MappingChangeListener listener;
+
+    @BeforeEach
+    public void setup() {
+        repository = mock(NamasteCodeRepository.class);
+        bestMappingView = mock(BestMappingView.class);
+        conceptAdjacencyView = mock(ConceptAdjacencyView.class);
+        when(repository.findCodesByTm2CodeIn(any())).thenReturn(Flux.empty());
+        when(bestMappingView.refresh(any(), any())).thenReturn(Mono.just(1L));
+        when(conceptAdjacencyView.refresh(any(), any())).thenReturn(Mono.just(1L));
+        when(bestMappingView.rebuild()).thenReturn(Mono.just(1L));
+        when(conceptAdjacencyView.rebuild()).thenReturn(Mono.just(1L));
+        cacheManager = new ConcurrentMapCacheManager("namaste-code-lookup", "category-lookup", "code-lookup");
+        properties = new CacheInvalidationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new MappingChangeListener(mock(ReactiveMongoTemplate.class), repository, bestMappingView,
+                conceptAdjacencyView, cacheManager, properties, meterRegistry, "test");
+    }
+
+    @Test
+    public void testCollect_insert() {
+        assertTrue(collect(event(OperationType.INSERT, null, mapping("AYU-1", "SK00", "ayurveda"), null)));
+
+        assertEquals(Set.of("AYU-1"), codes);
+        assertEquals(Set.of("SK00"), tm2Codes);
+        assertEquals(Set.of("ayurveda"), types);
+    }
+
+    @Test
+    public void testCollect_deleteWithoutPreImageIsImprecise() {
+        assertFalse(collect(event(OperationType.DELETE, null, null, null)));
+    }
+
+    @Test
+    public void testCollect_deleteWithPreImage() {
+        assertTrue(collect(event(OperationType.DELETE, mapping("AYU-1", "SK00", "ayurveda"), null, null)));
+
+        assertEquals(Set.of("SK00"), tm2Codes);
+    }
+
+    @Test
+    public void testCollect_updateWithoutPreImageOfOtherFields() {
+        UpdateDescription update = new UpdateDescription(List.of(),
+                new BsonDocument("confidence_score", new BsonDouble(0.9)).append("code_title", new BsonString("Fever")));
+
+        assertTrue(collect(event(OperationType.UPDATE, null, mapping("AYU-1", "SK00", "ayurveda"), update)));
+        assertEquals(Set.of("AYU-1"), codes);
+        assertEquals(Set.of("SK00"), tm2Codes);
+    }
+
+    @Test
+    public void testCollect_updateWithoutPreImageOfKeyFieldsIsImprecise() {
+        UpdateDescription remapped = new UpdateDescription(List.of(), new BsonDocument("tm2_code", new BsonString("SK01")));
+        UpdateDescription untyped = new UpdateDescription(List.of("type"), new BsonDocument());
+
+        assertFalse(collect(event(OperationType.UPDATE, null, mapping("AYU-1", "SK01", "ayurveda"), remapped)));
+        assertFalse(collect(event(OperationType.UPDATE, null, mapping("AYU-1", "SK00", null), untyped)));
+    }
+
+    @Test
+    public void testCollect_updateWithPreImageTakesBothSides() {
+        UpdateDescription remapped = new UpdateDescription(List.of(), new BsonDocument("tm2_code", new BsonString("SK01")));
+
+        assertTrue(collect(event(OperationType.UPDATE, mapping("AYU-1", "SK00", "ayurveda"),
+                mapping("AYU-1", "SK01", "ayurveda"), remapped)));
+        assertEquals(Set.of("SK00", "SK01"), tm2Codes);
+    }
+
+    @Test
+    public void testInvalidate_evictsTheCacheableKeys() {
+        when(repository.findCodesByTm2CodeIn(any())).thenReturn(Flux.just(mapping(" SID-7", "SK00", "siddha")));
+        Cache namasteCodes = cacheManager.getCache("namaste-code-lookup");
+        Cache categories = cacheManager.getCache("category-lookup");
+        Cache codeLookups = cacheManager.getCache("code-lookup");
+        // #namasteCode:#includeText, #category:#includeText, #codeValue.trim().toLowerCase():#includeText
+        List.of("AYU-1:true", "AYU-1:false", "AYU-2:true").forEach(key -> namasteCodes.put(key, "cached"));
+        List.of("ayurveda:false", "siddha:true").forEach(key -> categories.put(key, "cached"));
+        List.of("ayu-1:true", "sk00:false", "sid-7:true", "ayu-2:false").forEach(key -> codeLookups.put(key, "cached"));
+
+        listener.invalidate(List.of(event(OperationType.INSERT, null, mapping("AYU-1", "SK00", "ayurveda"), null))).block();
+
+        assertNull(namasteCodes.get("AYU-1:true"));
+        assertNull(namasteCodes.get("AYU-1:false"));
+        assertNotNull(namasteCodes.get("AYU-2:true"));
+        assertNull(categories.get("ayurveda:false"));
+        assertNotNull(categories.get("siddha:true"));
+        assertNull(codeLookups.get("ayu-1:true"));
+        assertNull(codeLookups.get("sk00:false"));
+        // Resolved through the changed TM2 code
+        assertNull(codeLookups.get("sid-7:true"));
+        assertNotNull(codeLookups.get("ayu-2:false"));
+        verify(bestMappingView).refresh(Set.of("AYU-1"), Set.of("SK00"));
+        verify(conceptAdjacencyView).refresh(Set.of("AYU-1"), Set.of("SK00"));
+    }
+
+    @Test
+    public void testInvalidate_flushesAboveTheThreshold() {
+        properties.setFlushThreshold(2);
+        cacheManager.getCache("namaste-code-lookup").put("UNA-9:true", "cached");
+
+        listener.invalidate(List.of(event(OperationType.INSERT, null, mapping("AYU-1", "SK00", "ayurveda"), null))).block();
+        assertNotNull(cacheManager.getCache("namaste-code-lookup").get("UNA-9:true"));
+
+        listener.invalidate(List.of(
+                event(OperationType.INSERT, null, mapping("AYU-1", "SK00", "ayurveda"), null),
+                event(OperationType.INSERT, null, mapping("AYU-2", "SK00", "ayurveda"), null))).block();
+        assertNull(cacheManager.getCache("namaste-code-lookup").get("UNA-9:true"));
+        assertEquals(1, flushes("flush-bulk"));
+    }
+
+    @Test
+    public void testInvalidate_impreciseFlushesOnlyAfterTheRebuild() {
+        Sinks.One<Long> rebuilt = Sinks.one();
+        when(bestMappingView.rebuild()).thenReturn(rebuilt.asMono());
+        cacheManager.getCache("code-lookup").put("ayu-1:true", "cached");
+
+        listener.invalidate(List.of(event(OperationType.DELETE, null, null, null))).subscribe();
+        assertNotNull(cacheManager.getCache("code-lookup").get("ayu-1:true"));
+
+        rebuilt.tryEmitValue(10L);
+        assertNull(cacheManager.getCache("code-lookup").get("ayu-1:true"));
+        assertEquals(1, flushes("flush-unknown-keys"));
+        verify(bestMappingView, never()).refresh(any(), any());
+    }
+
+    private boolean collect(ChangeStreamEvent<NamasteCode> event) {
+        return MappingChangeListener.collect(event, codes, tm2Codes, types);
+    }
+
+    private double flushes(String kind) {
+        return meterRegistry.get(MappingChangeListener.INVALIDATIONS_COUNTER).tag("kind", kind).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<NamasteCode> event(OperationType operation, NamasteCode before, NamasteCode after,
+                                                        UpdateDescription update) {
+        ChangeStreamEvent<NamasteCode> event = mock(ChangeStreamEvent.class);
+        ChangeStreamDocument<Document> raw = mock(ChangeStreamDocument.class);
+        when(raw.getUpdateDescription()).thenReturn(update);
+        when(event.getOperationType()).thenReturn(operation);
+        when(event.getBodyBeforeChange()).thenReturn(before);
+        when(event.getBody()).thenReturn(after);
+        when(event.getRaw()).thenReturn(raw);
+        return event;
+    }
+
+    private static NamasteCode mapping(String code, String tm2Code, String type) {
+        NamasteCode mapping = new NamasteCode();
+        mapping.setCode(code);
+        mapping.setTm2Code(tm2Code);
+        mapping.setType(type);
+        return mapping;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.terminology_service.cache;
+
+import com.example.terminology_service.model.NamasteCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NamasteCodeCodecTest {
+
+    @Test
+    public void testRoundTrip_keepsEveryFieldAndNulls() {
+        NamasteCode code = mapping("AYU-1", "SK00", 0.9);
+        code.setCodeDescription("Fever with chills \u2014 \u091C\u094D\u0935\u0930");
+        code.setTm2Link(null);
+
+        NamasteCode decoded = (NamasteCode) NamasteCodeCodec.decode(NamasteCodeCodec.encode(code));
+
+        assertEquals(code.getId(), decoded.getId());
+        assertEquals(code.getCode(), decoded.getCode());
+        assertEquals(code.getCodeTitle(), decoded.getCodeTitle());
+        assertEquals(code.getCodeDescription(), decoded.getCodeDescription());
+        assertEquals(code.getType(), decoded.getType());
+        assertEquals(code.getTm2Code(), decoded.getTm2Code());
+        assertEquals(code.getTm2Title(), decoded.getTm2Title());
+        assertEquals(code.getTm2Definition(), decoded.getTm2Definition());
+        assertNull(decoded.getTm2Link());
+        assertEquals(0.9, decoded.getConfidenceScore());
+        assertNull(decoded.getSimilarityScore());
+    }
+
+    @Test
+    public void testLists_writeSharedStringsOnce() {
+        List<NamasteCode> codes = List.of(mapping("AYU-1", "SK00", 0.9), mapping("AYU-2", "SK00", 0.7));
+
+        byte[] encoded = NamasteCodeCodec.encode(codes);
+        @SuppressWarnings("unchecked")
+        List<NamasteCode> decoded = (List<NamasteCode>) NamasteCodeCodec.decode(encoded);
+
+        assertEquals(List.of("AYU-1", "AYU-2"), decoded.stream().map(NamasteCode::getCode).toList());
+        assertEquals("Fever with chills (TM2)", decoded.get(1).getTm2Definition());
+        byte[] single = NamasteCodeCodec.encode(codes.get(0));
+        assertTrue(encoded.length < 2 * single.length - "Fever with chills (TM2)".length());
+    }
+
+    @Test
+    public void testEncode_returnsNullForOtherValues() {
+        assertNull(NamasteCodeCodec.encode(Map.of("code", "AYU-1")));
+        assertNull(NamasteCodeCodec.encode(List.of("AYU-1")));
+    }
+
+    private static NamasteCode mapping(String code, String tm2Code, double confidence) {
+        NamasteCode mapping = new NamasteCode();
+        mapping.setId(code.toLowerCase());
+        mapping.setCode(code);
+        mapping.setCodeTitle("jwara");
+        mapping.setType("ayurveda");
+        mapping.setTm2Code(tm2Code);
+        mapping.setTm2Title("Fever disorder (TM2)");
+        mapping.setTm2Definition("Fever with chills (TM2)");
+        mapping.setTm2Link("https://icd.who.int/" + tm2Code);
+        mapping.setConfidenceScore(confidence);
+        return mapping;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.terminology_service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RedisCacheTierTest {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private ReactiveRedisTemplate<String, byte[]> redis;
+    private ReactiveValueOperations<String, byte[]> values;
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCacheTier tier;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        redis = mock(ReactiveRedisTemplate.class);
+        values = mock(ReactiveValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(redis.unlink(any(String[].class))).thenReturn(Mono.just(1L));
+        when(redis.scan(any(ScanOptions.class))).thenReturn(Flux.just("ns:code-lookup:ayu-1:true", "ns:category-lookup:siddha:true"));
+        meterRegistry = new SimpleMeterRegistry();
+        tier = new RedisCacheTier(redis, meterRegistry, "ns:", Duration.ofHours(1), Duration.ofSeconds(1), RETRY_AFTER, now::get);
+    }
+
+    @Test
+    public void testGet_failureSkipsTheTierForRetryAfter() {
+        when(values.get("ns:k")).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        assertNull(tier.get("ns:k").block());
+        assertFalse(tier.available());
+        assertNull(tier.get("ns:k").block());
+        verify(values, times(1)).get("ns:k");
+        assertEquals(1, meterRegistry.get(RedisCacheTier.ERRORS_COUNTER).tag("operation", "get").counter().count());
+
+        now.addAndGet(RETRY_AFTER.toNanos() - 1);
+        assertFalse(tier.available());
+        now.incrementAndGet();
+        assertTrue(tier.available());
+        when(values.get("ns:k")).thenReturn(Mono.just(new byte[]{1}));
+        assertArrayEquals(new byte[]{1}, tier.get("ns:k").block());
+    }
+
+    @Test
+    public void testDelete_whileDownClearsTheNamespaceOnRecovery() {
+        when(values.get("ns:k")).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        tier.get("ns:k").block();
+
+        tier.delete("ns:code-lookup:ayu-1:true");
+        verify(redis, never()).unlink(any(String[].class));
+
+        now.addAndGet(RETRY_AFTER.toNanos());
+        when(values.get("ns:k")).thenReturn(Mono.empty());
+        tier.get("ns:k").block();
+        tier.get("ns:k").block();
+
+        ArgumentCaptor<ScanOptions> scan = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(redis, times(1)).scan(scan.capture());
+        assertEquals("ns:*", scan.getValue().getPattern());
+        verify(redis).unlink("ns:code-lookup:ayu-1:true", "ns:category-lookup:siddha:true");
+    }
+
+    @Test
+    public void testDelete_failedDeleteClearsTheNamespaceOnRecovery() {
+        when(redis.unlink("ns:code-lookup:ayu-1:true")).thenReturn(Mono.error(new IllegalStateException("timeout")));
+        tier.delete("ns:code-lookup:ayu-1:true");
+        assertFalse(tier.available());
+
+        now.addAndGet(RETRY_AFTER.toNanos());
+        when(values.get("ns:k")).thenReturn(Mono.empty());
+        tier.get("ns:k").block();
+
+        verify(redis).scan(any(ScanOptions.class));
+    }
+
+    @Test
+    public void testCalls_doNotClearWithoutMissedEvictions() {
+        when(values.get("ns:k")).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        tier.get("ns:k").block();
+
+        now.addAndGet(RETRY_AFTER.toNanos());
+        tier.get("ns:k").block();
+
+        verify(redis, never()).scan(any(ScanOptions.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.terminology_service.cache;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TwoLevelCacheTest {
+
+    private RedisCacheTier remote;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    public void setup() {
+        remote = mock(RedisCacheTier.class);
+        when(remote.namespace()).thenReturn("ns:");
+        when(remote.available()).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache("code-lookup", Caffeine.newBuilder().build(), remote, meterRegistry);
+    }
+
+    @Test
+    public void testRetrieve_l2HitIsCopiedIntoL1() {
+        when(remote.get("ns:code-lookup:ayu-1:true")).thenReturn(Mono.just(NamasteCodeCodec.encode(mapping("AYU-1"))));
+
+        NamasteCode first = (NamasteCode) cache.retrieve("ayu-1:true").join();
+        NamasteCode second = (NamasteCode) cache.retrieve("ayu-1:true").join();
+
+        assertEquals("AYU-1", first.getCode());
+        assertSame(first, second);
+        assertNotNull(cache.get("ayu-1:true"));
+        verify(remote, times(1)).get(any());
+        assertEquals(1, gets("l2", "hit"));
+    }
+
+    @Test
+    public void testRetrieve_missInBothLevelsCompletesWithNull() {
+        when(remote.get("ns:code-lookup:ayu-1:true")).thenReturn(Mono.empty());
+
+        assertNull(cache.retrieve("ayu-1:true").join());
+        assertNull(cache.get("ayu-1:true"));
+        assertEquals(1, gets("l2", "miss"));
+    }
+
+    @Test
+    public void testRetrieveAll_looksUpOnlyL1MissesInOneMget() {
+        cache.put("ayu-1:true", mapping("AYU-1"));
+        when(remote.getAll(List.of("ns:code-lookup:ayu-2:true", "ns:code-lookup:ayu-3:true")))
+                .thenReturn(Mono.just(Arrays.asList(NamasteCodeCodec.encode(mapping("AYU-2")), null)));
+
+        Map<Object, Object> found = cache.retrieveAll(List.of("ayu-1:true", "ayu-2:true", "ayu-3:true")).block();
+
+        assertEquals(2, found.size());
+        assertEquals("AYU-1", ((NamasteCode) found.get("ayu-1:true")).getCode());
+        assertEquals("AYU-2", ((NamasteCode) found.get("ayu-2:true")).getCode());
+        assertFalse(found.containsKey("ayu-3:true"));
+        assertNotNull(cache.get("ayu-2:true"));
+        assertEquals(1, gets("l2", "hit"));
+        assertEquals(1, gets("l2", "miss"));
+    }
+
+    @Test
+    public void testRetrieveAll_emptyMgetKeepsL1Hits() {
+        cache.put("ayu-1:true", mapping("AYU-1"));
+        when(remote.getAll(anyList())).thenReturn(Mono.empty());
+
+        Map<Object, Object> found = cache.retrieveAll(List.of("ayu-1:true", "ayu-2:true")).block();
+
+        assertEquals(List.of("ayu-1:true"), List.copyOf(found.keySet()));
+    }
+
+    @Test
+    public void testRemoteUnavailable_servesFromL1Only() {
+        when(remote.available()).thenReturn(false);
+        cache.put("ayu-1:true", mapping("AYU-1"));
+
+        assertNull(cache.retrieve("ayu-2:true").join());
+        assertEquals(1, cache.retrieveAll(List.of("ayu-1:true", "ayu-2:true")).block().size());
+        verify(remote, never()).get(any());
+        verify(remote, never()).getAll(anyList());
+    }
+
+    @Test
+    public void testWrites_goToBothLevels() {
+        cache.put("ayu-1:true", mapping("AYU-1"));
+        cache.put("ayu-1:false", Map.of("code", "AYU-1"));
+        cache.evict("ayu-2:true");
+        cache.clear();
+
+        verify(remote).set(any(), any());
+        verify(remote).delete("ns:code-lookup:ayu-2:true");
+        verify(remote).deletePrefix("ns:code-lookup:");
+        assertNull(cache.get("ayu-1:true"));
+    }
+
+    private double gets(String level, String result) {
+        return meterRegistry.get(TwoLevelCache.GETS_COUNTER).tag("level", level).tag("result", result).counter().count();
+    }
+
+    private static NamasteCode mapping(String code) {
+        NamasteCode mapping = new NamasteCode();
+        mapping.setCode(code);
+        mapping.setTm2Code("SK00");
+        mapping.setType("ayurveda");
+        return mapping;
+    }
+}
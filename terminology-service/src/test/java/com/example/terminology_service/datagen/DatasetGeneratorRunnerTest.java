@@ -0,0 +1,40 @@
+package com.example.terminology_service.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetGeneratorRunnerTest {
+
+    private final Set<String> allowed = new DatasetGeneratorProperties().getDropAllowedHosts();
+
+    @Test
+    public void testDropAllowed_localHosts() {
+        assertTrue(DatasetGeneratorRunner.dropAllowed(List.of("localhost"), allowed));
+        assertTrue(DatasetGeneratorRunner.dropAllowed(List.of("LOCALHOST:27017", "127.0.0.1:27018"), allowed));
+        assertTrue(DatasetGeneratorRunner.dropAllowed(List.of("[::1]:27017"), allowed));
+    }
+
+    @Test
+    public void testDropAllowed_refusesAnyOtherHost() {
+        assertFalse(DatasetGeneratorRunner.dropAllowed(List.of("cluster0.abcde.mongodb.net"), allowed));
+        assertFalse(DatasetGeneratorRunner.dropAllowed(List.of("localhost:27017", "mongo-2:27017"), allowed));
+        assertFalse(DatasetGeneratorRunner.dropAllowed(List.of(), allowed));
+    }
+
+    @Test
+    public void testDropAllowed_listedHost() {
+        assertTrue(DatasetGeneratorRunner.dropAllowed(List.of("mongo:27017"), Set.of("mongo")));
+    }
+
+    @Test
+    public void testDefaults_doNotDrop() {
+        DatasetGeneratorProperties properties = new DatasetGeneratorProperties();
+
+        assertFalse(properties.isDropExisting());
+        assertFalse(properties.isConfirmDrop());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.terminology_service.deadline;
+
+import com.example.medbridge_common.deadline.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineFilterTest {
+
+    private final AtomicBoolean called = new AtomicBoolean();
+    private final AtomicReference<Deadline> seen = new AtomicReference<>();
+    private final WebFilterChain chain = exchange -> Mono.deferContextual(context -> {
+        called.set(true);
+        seen.set(Deadline.from(context));
+        return Mono.empty();
+    });
+
+    private DeadlineProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        properties = new DeadlineProperties();
+        properties.setExcludedPaths(List.of("/internal/terminology/export"));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DeadlineFilter(properties, meterRegistry);
+    }
+
+    @Test
+    public void testFilter_defaultTimeoutWithoutAHeader() {
+        filter.filter(exchange(MockServerHttpRequest.get("/internal/terminology/search")), chain).block();
+
+        Duration remaining = seen.get().remaining();
+        assertTrue(remaining.compareTo(Duration.ZERO) > 0 && remaining.compareTo(properties.getDefaultTimeout()) <= 0);
+    }
+
+    @Test
+    public void testFilter_usesTheHeaderBudget() {
+        filter.filter(exchange(MockServerHttpRequest.get("/internal/terminology/search")
+                .header(Deadline.HEADER, "300")), chain).block();
+
+        assertTrue(seen.get().remaining().toMillis() <= 300);
+    }
+
+    @Test
+    public void testFilter_capsTheHeaderAtMaxTimeout() {
+        filter.filter(exchange(MockServerHttpRequest.get("/internal/terminology/search")
+                .header(Deadline.HEADER, "600000")), chain).block();
+
+        assertTrue(seen.get().remaining().compareTo(properties.getMaxTimeout()) <= 0);
+    }
+
+    @Test
+    public void testFilter_refusesARequestArrivingOutOfTime() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/internal/terminology/search")
+                .header(Deadline.HEADER, "0"));
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(called.get());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+        assertEquals(1, exceeded("arrival"));
+    }
+
+    @Test
+    public void testFilter_answers504WhenProcessingOverruns() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/internal/terminology/search")
+                .header(Deadline.HEADER, "50"));
+
+        filter.filter(exchange, slow -> Mono.never()).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exchange.getResponse().getStatusCode());
+        assertEquals(1, exceeded("processing"));
+    }
+
+    @Test
+    public void testFilter_skipsActuatorAndExcludedPaths() {
+        filter.filter(exchange(MockServerHttpRequest.get("/actuator/health")), chain).block();
+        assertTrue(called.getAndSet(false));
+        assertNull(seen.get());
+
+        filter.filter(exchange(MockServerHttpRequest.get("/internal/terminology/export/all")
+                .header(Deadline.HEADER, "0")), chain).block();
+        assertTrue(called.get());
+        assertNull(seen.get());
+    }
+
+    private double exceeded(String stage) {
+        return meterRegistry.get(DeadlineFilter.EXCEEDED_COUNTER).tag("stage", stage).counter().count();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.terminology_service.ingest;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchOrderTest {
+
+    @Test
+    public void testAfter_sharedKeyWaitsForEarlierBatch() {
+        BatchOrder order = new BatchOrder();
+        Sinks.One<String> first = Sinks.one();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        Mono<String> earlier = order.after(List.of("code:A", "tm2:SK00"), first.asMono());
+        Mono<String> later = order.after(List.of("code:B", "tm2:SK00"),
+                Mono.fromCallable(() -> {
+                    secondStarted.set(true);
+                    return "second";
+                }));
+        earlier.subscribe();
+        later.subscribe();
+
+        assertFalse(secondStarted.get());
+        first.tryEmitValue("first");
+        assertTrue(secondStarted.get());
+        assertEquals(0, order.size());
+    }
+
+    @Test
+    public void testAfter_disjointBatchesRunTogether() {
+        BatchOrder order = new BatchOrder();
+        Sinks.One<String> first = Sinks.one();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        order.after(List.of("code:A", "tm2:SK00"), first.asMono()).subscribe();
+        order.after(List.of("code:B", "tm2:SK01"), Mono.fromRunnable(() -> secondStarted.set(true))).subscribe();
+
+        assertTrue(secondStarted.get());
+        assertEquals(2, order.size());
+    }
+
+    @Test
+    public void testAfter_failedBatchReleasesItsKeys() {
+        BatchOrder order = new BatchOrder();
+
+        Mono<Object> failed = order.after(List.of("code:A"), Mono.error(new IllegalStateException("write failed")));
+        assertThrows(IllegalStateException.class, failed::block);
+
+        assertEquals("next", order.after(List.of("code:A"), Mono.just("next")).block());
+        assertEquals(0, order.size());
+    }
+}
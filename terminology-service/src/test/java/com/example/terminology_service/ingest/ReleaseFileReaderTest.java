@@ -0,0 +1,80 @@
+package com.example.terminology_service.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReleaseFileReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testCsv_handlesQuotedCommasNewlinesAndQuotes() throws IOException {
+        Path file = write("release.csv", """
+                code,code_title,code_description,type,tm2_code,confidence_score
+                AYU-1,vataja jwara,"Fever, with chills",Ayurveda,SK00,0.9
+                AYU-2,pittaja jwara,"Burning sensation
+                and ""thirst""",ayurveda,SK01,0.7
+                """);
+
+        List<ReleaseRow> rows = ReleaseFileReader.read(file, null, 0).collectList().block();
+
+        assertEquals(2, rows.size());
+        assertEquals("Fever, with chills", rows.get(0).mapping().getCodeDescription());
+        assertEquals("ayurveda", rows.get(0).mapping().getType());
+        assertEquals(0.9, rows.get(0).mapping().getConfidenceScore());
+        assertEquals("Burning sensation\nand \"thirst\"", rows.get(1).mapping().getCodeDescription());
+        assertEquals(2, rows.get(1).rowNumber());
+    }
+
+    @Test
+    public void testJson_readsArraysAndObjectPerLine() throws IOException {
+        Path array = write("release.json", """
+                [{"code": "AYU-1", "codeTitle": "vataja jwara", "type": "ayurveda", "tm2Code": "SK00", "confidenceScore": 0.9},
+                 {"code": "UNA-1", "codeTitle": "zeeq-un-nafas", "type": "unani", "tm2Code": null}]
+                """);
+        Path lines = write("release.ndjson", """
+                {"code": "AYU-1", "code_title": "vataja jwara", "type": "ayurveda"}
+                {"code": "SID-1", "code_title": "kaamaalai", "type": "siddha"}
+                """);
+
+        List<ReleaseRow> fromArray = ReleaseFileReader.read(array, null, 0).collectList().block();
+        List<ReleaseRow> fromLines = ReleaseFileReader.read(lines, null, 0).collectList().block();
+
+        assertEquals(2, fromArray.size());
+        assertEquals(0.9, fromArray.get(0).mapping().getConfidenceScore());
+        assertNull(fromArray.get(1).mapping().getTm2Code());
+        assertEquals(List.of("AYU-1", "SID-1"), fromLines.stream().map(row -> row.mapping().getCode()).toList());
+    }
+
+    @Test
+    public void testRead_skipsCommittedRowsAndFlagsInvalidOnes() throws IOException {
+        Path file = write("release.csv", """
+                code,code_title,type,confidence_score
+                AYU-1,vataja jwara,ayurveda,0.9
+                AYU-2,,ayurveda,0.8
+                AYU-3,kaphaja jwara,ayurveda,high
+                AYU-4,sannipataja jwara,ayurveda,1.5
+                AYU-5,agantuja jwara,ayurveda,0.6
+                """);
+
+        List<ReleaseRow> rows = ReleaseFileReader.read(file, null, 1).collectList().block();
+
+        assertEquals(List.of(2L, 3L, 4L, 5L), rows.stream().map(ReleaseRow::rowNumber).toList());
+        assertEquals("code_title is required", rows.get(0).error());
+        assertTrue(rows.get(1).error().startsWith("confidence_score is not a number"));
+        assertEquals("confidence_score must be between 0 and 1", rows.get(2).error());
+        assertTrue(rows.get(3).valid());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.terminology_service.json;
+
+import com.example.terminology_service.dto.InternalCodeView;
+import com.example.terminology_service.dto.TerminologyResponse;
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.service.DataVersionChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonFragmentEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private JsonFragments fragments;
+    private JsonFragmentEncoder encoder;
+    private List<NamasteCode> codes;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        fragments = new JsonFragments(objectMapper, meterRegistry);
+        encoder = new JsonFragmentEncoder(fragments, objectMapper);
+        codes = List.of(
+                new NamasteCode("1", "SK00", "http://id.who.int/icd/entity/1", "NAM001", "Fever disorder (TM2)",
+                        "Elevated body temperature", "Jwara", "Fever with \"chills\"", 0.9, "ayurveda", null),
+                new NamasteCode("2", "SK01", null, "NAM002", "Cough disorder (TM2)",
+                        null, "Kasa", null, 0.7, "siddha", null));
+    }
+
+    @Test
+    public void testEncodeValue_responseMatchesJackson() throws Exception {
+        TerminologyResponse<List<NamasteCode>> response = TerminologyResponse.success(FragmentList.codes(codes));
+
+        assertEquals(objectMapper.writeValueAsString(TerminologyResponse.success(codes)), encode(response));
+    }
+
+    @Test
+    public void testEncodeValue_viewsMatchJackson() throws Exception {
+        List<InternalCodeView> lean = codes.stream().map(code -> InternalCodeView.of(code, false)).toList();
+        List<InternalCodeView> full = codes.stream().map(code -> InternalCodeView.of(code, true)).toList();
+
+        assertEquals(objectMapper.writeValueAsString(lean), encode(FragmentList.views(codes, false)));
+        assertEquals(objectMapper.writeValueAsString(full), encode(FragmentList.views(codes, true)));
+        assertEquals("[]", encode(FragmentList.views(List.of(), false)));
+    }
+
+    @Test
+    public void testEncodeValue_otherValuesGoToJackson() throws Exception {
+        TerminologyResponse<List<NamasteCode>> error = TerminologyResponse.error("Code not found: X", "NOT_FOUND");
+
+        assertEquals(objectMapper.writeValueAsString(error), encode(error));
+        assertEquals(objectMapper.writeValueAsString(codes), encode(codes));
+        assertEquals(0.0, lookups("miss"));
+    }
+
+    @Test
+    public void testFragment_encodesEachDocumentOncePerShape() {
+        encode(FragmentList.views(codes, false));
+        encode(FragmentList.views(codes, false));
+        encode(FragmentList.views(codes, true));
+
+        assertEquals(4.0, lookups("miss"));
+        assertEquals(2.0, lookups("hit"));
+    }
+
+    @Test
+    public void testFragment_keyedByInstance() {
+        NamasteCode copy = new NamasteCode("1", "SK00", null, "NAM001", null, null, "Jwara", null, 0.9, "ayurveda", null);
+        NamasteCode equal = new NamasteCode("1", "SK00", null, "NAM001", null, null, "Jwara", null, 0.9, "ayurveda", null);
+
+        fragments.fragment(copy, FragmentList.Shape.CODE);
+        fragments.fragment(equal, FragmentList.Shape.CODE);
+
+        assertEquals(2.0, lookups("miss"), "a reloaded document is encoded afresh");
+    }
+
+    @Test
+    public void testOnDataVersionChanged_dropsFragments() {
+        fragments.fragment(codes.get(0), FragmentList.Shape.CODE);
+
+        fragments.onDataVersionChanged(new DataVersionChangedEvent(1, 2, "2025.2"));
+        fragments.fragment(codes.get(0), FragmentList.Shape.CODE);
+
+        assertEquals(2.0, lookups("miss"));
+    }
+
+    @Test
+    public void testCanEncode_onlyJsonListsAndResponses() {
+        assertTrue(encoder.canEncode(ResolvableType.forClass(List.class), MediaType.APPLICATION_JSON));
+        assertTrue(encoder.canEncode(ResolvableType.forClass(TerminologyResponse.class), null));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(InternalCodeView.class), MediaType.APPLICATION_JSON));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(List.class), MediaType.APPLICATION_NDJSON));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(List.class),
+                MediaType.parseMediaType("application/vnd.spring-boot.actuator.v3+json")));
+    }
+
+    private String encode(Object value) {
+        DataBuffer buffer = encoder.encodeValue(value, DefaultDataBufferFactory.sharedInstance,
+                ResolvableType.forInstance(value), MediaType.APPLICATION_JSON, null);
+        try {
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get(JsonFragments.LOOKUPS_COUNTER).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.terminology_service.lanes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaneSchedulerTest {
+
+    private record Grant(Lane lane, LaneScheduler.Permit permit) {
+    }
+
+    @Test
+    public void testAcquire_sharesSlotsByWeight() {
+        LaneScheduler scheduler = new LaneScheduler(properties(1), new SimpleMeterRegistry());
+        List<Grant> grants = new ArrayList<>();
+        acquire(scheduler, Lane.INTERACTIVE, grants);
+        for (int i = 0; i < 3; i++) {
+            acquire(scheduler, Lane.BULK, grants);
+        }
+        for (int i = 0; i < 32; i++) {
+            acquire(scheduler, Lane.INTERACTIVE, grants);
+        }
+        assertEquals(1, grants.size());
+
+        for (int i = 0; i < 18; i++) {
+            grants.get(grants.size() - 1).permit().release();
+        }
+
+        List<Grant> served = grants.subList(1, 19);
+        assertEquals(2, served.stream().filter(grant -> grant.lane() == Lane.BULK).count(),
+                "one bulk request per eight interactive ones");
+        assertEquals(Lane.BULK, served.get(0).lane(), "bulk is not starved by the interactive backlog");
+    }
+
+    @Test
+    public void testAcquire_capsLaneBelowTheSharedLimit() {
+        LaneScheduler scheduler = new LaneScheduler(properties(10), new SimpleMeterRegistry());
+        List<Grant> grants = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            acquire(scheduler, Lane.BULK, grants);
+        }
+
+        assertEquals(2, scheduler.active(Lane.BULK));
+        assertEquals(3, scheduler.queued(Lane.BULK));
+
+        acquire(scheduler, Lane.INTERACTIVE, grants);
+        assertEquals(1, scheduler.active(Lane.INTERACTIVE), "interactive uses slots bulk may not");
+
+        grants.get(0).permit().release();
+        grants.get(0).permit().release();
+        assertEquals(2, scheduler.active(Lane.BULK), "a permit frees its slot once");
+        assertEquals(2, scheduler.queued(Lane.BULK));
+    }
+
+    @Test
+    public void testAcquire_rejectsWhenQueueIsFull() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LaneScheduler scheduler = new LaneScheduler(properties(10), meterRegistry);
+        List<Grant> grants = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            acquire(scheduler, Lane.BULK, grants);
+        }
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        scheduler.acquire(Lane.BULK).subscribe(permit -> fail("granted past a full queue"), error::set);
+
+        assertInstanceOf(LaneScheduler.LaneRejectedException.class, error.get());
+        assertEquals(1.0, meterRegistry.get(LaneScheduler.REJECTED_COUNTER)
+                .tag("lane", "bulk").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    public void testAcquire_cancelledWaiterLeavesQueue() {
+        LaneScheduler scheduler = new LaneScheduler(properties(1), new SimpleMeterRegistry());
+        List<Grant> grants = new ArrayList<>();
+        acquire(scheduler, Lane.INTERACTIVE, grants);
+        Disposable waiting = acquire(scheduler, Lane.INTERACTIVE, grants);
+        assertEquals(1, scheduler.queued(Lane.INTERACTIVE));
+
+        waiting.dispose();
+        grants.get(0).permit().release();
+
+        assertEquals(0, scheduler.queued(Lane.INTERACTIVE));
+        assertEquals(0, scheduler.active(Lane.INTERACTIVE), "the slot is not handed to a cancelled waiter");
+        assertEquals(1, grants.size());
+    }
+
+    @Test
+    public void testSchedule_releasesSlotWhenWorkEnds() {
+        LaneScheduler scheduler = new LaneScheduler(properties(1), new SimpleMeterRegistry());
+
+        assertEquals("done", scheduler.schedule(Lane.INTERACTIVE, Mono.just("done")).block());
+        assertEquals(0, scheduler.active(Lane.INTERACTIVE));
+    }
+
+    private static Disposable acquire(LaneScheduler scheduler, Lane lane, List<Grant> grants) {
+        return scheduler.acquire(lane).subscribe(permit -> grants.add(new Grant(lane, permit)));
+    }
+
+    private static LaneProperties properties(int maxConcurrent) {
+        LaneProperties properties = new LaneProperties();
+        properties.setMaxConcurrent(maxConcurrent);
+        properties.setInteractive(new LaneProperties.Limits(10, 100, 8, Duration.ofMinutes(1)));
+        properties.setBulk(new LaneProperties.Limits(2, 3, 1, Duration.ofMinutes(1)));
+        return properties;
+    }
+}
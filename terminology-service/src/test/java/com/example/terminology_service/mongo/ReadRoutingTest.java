@@ -0,0 +1,90 @@
+package com.example.terminology_service.mongo;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.repository.NamasteCodeRepository;
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ReadRoutingTest {
+
+    @Test
+    public void testNamasteCodes_routesOnlyListedOperations() {
+        NamasteCodeRepository primary = mock(NamasteCodeRepository.class);
+        NamasteCodeRepository routed = mock(NamasteCodeRepository.class);
+        MongoReadProperties properties = new MongoReadProperties();
+        properties.setRoutedOperations(Set.of("searchBySymptoms"));
+        ReadRouting routing = new ReadRouting(properties, primary, routed);
+
+        assertSame(routed, routing.namasteCodes("searchBySymptoms"));
+        assertSame(primary, routing.namasteCodes("getByCategory"));
+    }
+
+    @Test
+    public void testRead_requestsOneBatchAtATime() {
+        MongoReadProperties properties = new MongoReadProperties();
+        properties.setBatchSizes(Map.of("codeTable", 100));
+        ReadRouting routing = new ReadRouting(properties, mock(NamasteCodeRepository.class), mock(NamasteCodeRepository.class));
+        List<Long> requests = new ArrayList<>();
+        Flux<NamasteCode> cursor = Flux.fromStream(IntStream.range(0, 250).mapToObj(i -> new NamasteCode()))
+                .doOnRequest(requests::add)
+                .hide();
+
+        assertEquals(250, routing.read("codeTable", repository -> cursor).count().block());
+        assertEquals(List.of(100L, 100L, 100L), requests);
+    }
+
+    @Test
+    public void testRead_leavesUnlistedOperationsToTheDriver() {
+        ReadRouting routing = new ReadRouting(new MongoReadProperties(), mock(NamasteCodeRepository.class), mock(NamasteCodeRepository.class));
+        List<Long> requests = new ArrayList<>();
+
+        routing.read("autocomplete", repository -> Flux.just(new NamasteCode()).doOnRequest(requests::add).hide()).blockLast();
+
+        assertEquals(List.of(Long.MAX_VALUE), requests);
+    }
+
+    @Test
+    public void testReadPreference_boundsStaleness() {
+        MongoReadProperties properties = new MongoReadProperties();
+        properties.setReadPreference("secondaryPreferred");
+        properties.setMaxStaleness(Duration.ofSeconds(120));
+
+        ReadPreference readPreference = ReadRouting.readPreference(properties);
+
+        assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), readPreference);
+    }
+
+    @Test
+    public void testReadPreference_defaultsToPrimary() {
+        assertEquals(ReadPreference.primary(), ReadRouting.readPreference(new MongoReadProperties()));
+    }
+
+    @Test
+    public void testReadPreference_rejectsBoundBelowDriverFloor() {
+        MongoReadProperties properties = new MongoReadProperties();
+        properties.setReadPreference("nearest");
+        properties.setMaxStaleness(Duration.ofSeconds(30));
+
+        assertThrows(IllegalArgumentException.class, () -> ReadRouting.readPreference(properties));
+    }
+
+    @Test
+    public void testReadPreference_rejectsBoundOnPrimary() {
+        MongoReadProperties properties = new MongoReadProperties();
+        properties.setMaxStaleness(Duration.ofSeconds(90));
+
+        assertThrows(IllegalArgumentException.class, () -> ReadRouting.readPreference(properties));
+    }
+}
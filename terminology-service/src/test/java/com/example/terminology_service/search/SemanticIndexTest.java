@@ -0,0 +1,74 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SemanticIndexTest {
+
+    private static final String[] FILLER = {"joint", "stiffness", "skin", "rash", "itching", "cough", "sputum",
+            "insomnia", "anxiety", "constipation", "bloating", "palpitations", "dizziness", "vomiting", "thirst"};
+
+    private List<NamasteCode> documents;
+    private SemanticIndex index;
+
+    @BeforeEach
+    public void setup() {
+        documents = new ArrayList<>(List.of(
+                code("AYU-1", "Fever with chills, shivering and body ache", "Intermittent fever with rigors"),
+                code("AYU-2", "Burning sensation with high fever and thirst", "Fever due to aggravated pitta"),
+                code("UNA-1", "Breathlessness with wheezing on exertion", "Obstruction of the airways"),
+                code("SID-1", "Yellow discolouration of the eyes and skin", "Jaundice")));
+        // Enough unrelated documents for the graph to have several layers
+        for (int i = 0; i < 500; i++) {
+            documents.add(code("GEN-" + i,
+                    FILLER[i % FILLER.length] + " and " + FILLER[(i / FILLER.length) % FILLER.length],
+                    "Condition presenting with " + FILLER[(i * 7 + 3) % FILLER.length]));
+        }
+        index = SemanticIndex.build(documents, 1 << 14, 64, 8, 64);
+    }
+
+    @Test
+    public void testSearch_ranksClosestDescriptionFirstWithSimilarityScore() {
+        List<NamasteCode> results = index.search("fever chills", 3, 32, 0.1);
+        assertFalse(results.isEmpty());
+        assertEquals("AYU-1", results.get(0).getCode());
+        assertNotNull(results.get(0).getSimilarityScore());
+        assertTrue(results.get(0).getSimilarityScore() > 0.1);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getSimilarityScore() >= results.get(i).getSimilarityScore());
+        }
+    }
+
+    @Test
+    public void testSearch_sharesCharacterGramsBetweenWordForms() {
+        List<NamasteCode> results = index.search("wheezy breathless", 1, 32, 0.1);
+        assertEquals(List.of("UNA-1"), results.stream().map(NamasteCode::getCode).toList());
+    }
+
+    @Test
+    public void testSearch_doesNotMutateIndexedDocuments() {
+        NamasteCode hit = index.search("jaundice", 1, 32, 0.1).get(0);
+        assertEquals("SID-1", hit.getCode());
+        assertNotNull(hit.getSimilarityScore());
+        assertNull(documents.get(3).getSimilarityScore());
+    }
+
+    @Test
+    public void testSearch_unrelatedQueryFallsBelowMinimumSimilarity() {
+        assertTrue(index.search("zzzz qqqq", 5, 32, 0.15).isEmpty());
+    }
+
+    private static NamasteCode code(String code, String description, String definition) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setCode(code);
+        namasteCode.setCodeDescription(description);
+        namasteCode.setTm2Definition(definition);
+        return namasteCode;
+    }
+}
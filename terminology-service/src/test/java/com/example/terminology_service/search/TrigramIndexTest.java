@@ -0,0 +1,74 @@
+package com.example.terminology_service.search;
+
+import com.example.terminology_service.model.NamasteCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = TrigramIndex.build(List.of(
+                code("AYU-1", "vataja jwara", "Fever with chills and body ache", 0.9),
+                code("AYU-2", "pittaja jwara", "Fever with burning sensation", 0.7),
+                code("UNA-1", "zeeq-un-nafas", "Breathlessness with wheezing", 0.8),
+                code("SID-1", "kaamaalai", "Jaundice with yellow discolouration", 0.95)), 2);
+    }
+
+    @Test
+    public void testDistance_countsTranspositionAsOneEdit() {
+        assertEquals(1, TrigramIndex.distance("jawra", "jwara", 2, false));
+        assertEquals(1, TrigramIndex.distance("jwra", "jwara", 2, false));
+        assertEquals(3, TrigramIndex.distance("abc", "xyz", 2, false));
+        assertEquals(1, TrigramIndex.distance("kamaa", "kaamaalai", 2, true));
+    }
+
+    @Test
+    public void testSearch_toleratesSingleTransposition() {
+        List<NamasteCode> results = index.search("jawra", TrigramIndex.ALL_FIELDS, false, 10);
+        assertEquals(2, results.size());
+        assertEquals("AYU-1", results.get(0).getCode());
+    }
+
+    @Test
+    public void testSearch_prefixMatchesWordBeingTyped() {
+        List<NamasteCode> results = index.search("kamaal", TrigramIndex.TITLES, true, 10);
+        assertEquals(1, results.size());
+        assertEquals("SID-1", results.get(0).getCode());
+    }
+
+    @Test
+    public void testSearch_titlesScopeIgnoresDescriptions() {
+        assertTrue(index.search("wheezing", TrigramIndex.TITLES, false, 10).isEmpty());
+        assertEquals(1, index.search("wheezng", TrigramIndex.ALL_FIELDS, false, 10).size());
+    }
+
+    @Test
+    public void testSearch_ranksByConfidenceWhenSimilarityTies() {
+        List<NamasteCode> results = index.search("fever", TrigramIndex.ALL_FIELDS, false, 10);
+        assertEquals(List.of("AYU-1", "AYU-2"), results.stream().map(NamasteCode::getCode).toList());
+    }
+
+    @Test
+    public void testSearch_keepsTheBestUpToLimit() {
+        List<NamasteCode> results = index.search("jwara", TrigramIndex.ALL_FIELDS, false, 1);
+
+        assertEquals(List.of("AYU-1"), results.stream().map(NamasteCode::getCode).toList());
+        assertTrue(index.search("fever", TrigramIndex.ALL_FIELDS, false, 0).isEmpty());
+    }
+
+    private static NamasteCode code(String code, String title, String description, double confidence) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setCode(code);
+        namasteCode.setCodeTitle(title);
+        namasteCode.setCodeDescription(description);
+        namasteCode.setConfidenceScore(confidence);
+        return namasteCode;
+    }
+}
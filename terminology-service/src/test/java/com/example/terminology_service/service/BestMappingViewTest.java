@@ -0,0 +1,69 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.BestMappings;
+import com.example.terminology_service.model.NamasteCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestMappingViewTest {
+
+    private static final List<NamasteCode> MAPPINGS = List.of(
+            mapping("m1", "AYU-1", "SK00", "ayurveda", 0.9),
+            mapping("m2", "AYU-2", "SK00", "ayurveda", 0.7),
+            mapping("m3", "SID-1", "SK00", "siddha", 0.8),
+            mapping("m4", "UNA-1", "SK00", "unani", 0.5),
+            mapping("m5", "AYU-1", "SK01", "ayurveda", 0.65),
+            mapping("m6", "UNA-2", "SK01", "unani", 0.95),
+            mapping("m7", "SID-2", null, "siddha", 0.9));
+
+    @Test
+    public void testEntries_codeResolvesThroughItsTopMapping() {
+        Map<String, BestMappings> entries = byKey(BestMappingView.entries(MAPPINGS, 0.6, Instant.EPOCH));
+
+        // AYU-1's top mapping is SK00, so its answer is the best per type among SK00 mappings
+        assertEquals(Map.of("ayurveda", "m1", "siddha", "m3"), bestIds(entries.get("AYU-1")));
+        assertEquals(bestIds(entries.get("SK00")), bestIds(entries.get("AYU-1")));
+        assertEquals(Map.of("ayurveda", "m5", "unani", "m6"), bestIds(entries.get("UNA-2")));
+    }
+
+    @Test
+    public void testEntries_codeWithoutTm2CodeMatchesItself() {
+        Map<String, BestMappings> entries = byKey(BestMappingView.entries(MAPPINGS, 0.6, Instant.EPOCH));
+
+        assertEquals(Map.of("siddha", "m7"), bestIds(entries.get("SID-2")));
+        assertEquals(6 + 2, entries.size());
+    }
+
+    @Test
+    public void testEntries_thresholdIsStoredAndApplied() {
+        Map<String, BestMappings> entries = byKey(BestMappingView.entries(MAPPINGS, 0.4, Instant.EPOCH));
+
+        assertEquals(0.4, entries.get("SK00").getMinConfidence());
+        assertEquals("m4", bestIds(entries.get("SK00")).get("unani"));
+        assertTrue(byKey(BestMappingView.entries(MAPPINGS, 0.99, Instant.EPOCH)).get("SK00").getMappings().isEmpty());
+    }
+
+    private static Map<String, BestMappings> byKey(List<BestMappings> entries) {
+        return entries.stream().collect(Collectors.toMap(BestMappings::getKey, entry -> entry));
+    }
+
+    private static Map<String, String> bestIds(BestMappings entry) {
+        return entry.getMappings().stream().collect(Collectors.toMap(NamasteCode::getType, NamasteCode::getId));
+    }
+
+    private static NamasteCode mapping(String id, String code, String tm2Code, String type, double confidence) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setId(id);
+        namasteCode.setCode(code);
+        namasteCode.setTm2Code(tm2Code);
+        namasteCode.setType(type);
+        namasteCode.setConfidenceScore(confidence);
+        return namasteCode;
+    }
+}
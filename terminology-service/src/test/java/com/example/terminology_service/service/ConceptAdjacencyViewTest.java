@@ -0,0 +1,69 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.ConceptAdjacency;
+import com.example.terminology_service.model.NamasteCode;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConceptAdjacencyViewTest {
+
+    private static final List<NamasteCode> MAPPINGS = List.of(
+            mapping("m1", "AYU-1", "SK00", "ayurveda", 0.7),
+            mapping("m2", "AYU-2", "SK00", "ayurveda", 0.9),
+            mapping("m3", "SID-1", "SK00", "siddha", 0.95),
+            mapping("m4", "UNA-1", "SK00", "unani", 0.5),
+            mapping("m5", "AYU-1", "SK01", "ayurveda", 0.8),
+            mapping("m6", "SID-2", null, "siddha", 0.9));
+
+    @Test
+    public void testEntries_reverseGroupsByTypeBestFirst() {
+        Map<String, ConceptAdjacency> entries = byKey(ConceptAdjacencyView.entries(MAPPINGS, Instant.EPOCH));
+
+        List<ConceptAdjacency.TypeGroup> groups = entries.get(ConceptAdjacency.key(true, "SK00")).getGroups();
+        assertEquals(List.of("siddha", "ayurveda", "unani"), groups.stream().map(ConceptAdjacency.TypeGroup::getType).toList());
+        assertEquals(List.of("m2", "m1"), ids(groups.get(1)));
+    }
+
+    @Test
+    public void testEntries_forwardListsTm2TargetsByConfidence() {
+        Map<String, ConceptAdjacency> entries = byKey(ConceptAdjacencyView.entries(MAPPINGS, Instant.EPOCH));
+
+        List<ConceptAdjacency.TypeGroup> groups = entries.get(ConceptAdjacency.key(false, "AYU-1")).getGroups();
+        assertEquals(1, groups.size());
+        assertEquals(List.of("SK01", "SK00"), groups.get(0).getMappings().stream().map(NamasteCode::getTm2Code).toList());
+    }
+
+    @Test
+    public void testEntries_oneEntryPerCodeAndDirection() {
+        Map<String, ConceptAdjacency> entries = byKey(ConceptAdjacencyView.entries(MAPPINGS, Instant.EPOCH));
+
+        // 5 NAMASTE codes forward, 2 TM2 codes reverse; the mapping without a TM2 code only forward
+        assertEquals(5 + 2, entries.size());
+        assertEquals(List.of("m6"), ids(entries.get(ConceptAdjacency.key(false, "SID-2")).getGroups().get(0)));
+        assertNull(entries.get(ConceptAdjacency.key(true, "SID-2")));
+    }
+
+    private static Map<String, ConceptAdjacency> byKey(List<ConceptAdjacency> entries) {
+        return entries.stream().collect(Collectors.toMap(ConceptAdjacency::getKey, entry -> entry));
+    }
+
+    private static List<String> ids(ConceptAdjacency.TypeGroup group) {
+        return group.getMappings().stream().map(NamasteCode::getId).toList();
+    }
+
+    private static NamasteCode mapping(String id, String code, String tm2Code, String type, double confidence) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setId(id);
+        namasteCode.setCode(code);
+        namasteCode.setTm2Code(tm2Code);
+        namasteCode.setType(type);
+        namasteCode.setConfidenceScore(confidence);
+        return namasteCode;
+    }
+}
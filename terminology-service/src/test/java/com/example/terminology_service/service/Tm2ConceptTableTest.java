@@ -0,0 +1,62 @@
+package com.example.terminology_service.service;
+
+import com.example.terminology_service.model.NamasteCode;
+import com.example.terminology_service.model.Tm2Concept;
+import com.example.terminology_service.repository.Tm2ConceptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class Tm2ConceptTableTest {
+
+    private Tm2ConceptTable table;
+
+    @BeforeEach
+    public void setup() {
+        Tm2ConceptRepository repository = mock(Tm2ConceptRepository.class);
+        when(repository.findAll()).thenReturn(Flux.just(
+                new Tm2Concept("SK00", "Fever disorder (TM2)", "Elevated body temperature with chills", "http://id.who.int/icd/entity/1"),
+                new Tm2Concept("SK01", "Cough disorder (TM2)", "Persistent cough with sputum", "http://id.who.int/icd/entity/2")));
+        table = new Tm2ConceptTable(repository);
+        table.ensureLoaded().block();
+    }
+
+    @Test
+    public void testJoin_fillsTextFromConcept() {
+        NamasteCode joined = table.join(mapping("SK00", null));
+
+        assertEquals("Fever disorder (TM2)", joined.getTm2Title());
+        assertEquals("Elevated body temperature with chills", joined.getTm2Definition());
+        assertEquals("http://id.who.int/icd/entity/1", joined.getTm2Link());
+    }
+
+    @Test
+    public void testJoin_keepsTextOfUnmigratedMapping() {
+        NamasteCode joined = table.join(mapping("SK00", "Legacy title"));
+
+        assertEquals("Legacy title", joined.getTm2Title());
+        assertEquals("Elevated body temperature with chills", joined.getTm2Definition());
+    }
+
+    @Test
+    public void testCodesMatching_searchesTitleAndDefinition() {
+        assertEquals(List.of("SK00"), table.codesMatching(Pattern.quote("CHILLS")));
+        assertEquals(List.of("SK01"), table.codesMatching(Pattern.quote("cough disorder")));
+        assertTrue(table.codesMatching(Pattern.quote("rash")).isEmpty());
+    }
+
+    private static NamasteCode mapping(String tm2Code, String tm2Title) {
+        NamasteCode namasteCode = new NamasteCode();
+        namasteCode.setCode("AYU-1");
+        namasteCode.setTm2Code(tm2Code);
+        namasteCode.setTm2Title(tm2Title);
+        return namasteCode;
+    }
+}
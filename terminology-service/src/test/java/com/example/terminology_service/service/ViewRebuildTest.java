@@ -0,0 +1,77 @@
+package com.example.terminology_service.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViewRebuildTest {
+
+    @Test
+    public void testRun_callersDuringARunShareIt() {
+        ViewRebuild rebuilds = new ViewRebuild();
+        AtomicInteger started = new AtomicInteger();
+        Sinks.One<Long> result = Sinks.one();
+        AtomicReference<Long> first = new AtomicReference<>();
+        AtomicReference<Long> second = new AtomicReference<>();
+
+        rebuilds.run(() -> {
+            started.incrementAndGet();
+            return result.asMono();
+        }).subscribe(first::set);
+        rebuilds.run(() -> {
+            started.incrementAndGet();
+            return Mono.just(-1L);
+        }).subscribe(second::set);
+
+        assertEquals(1, started.get());
+        assertNull(second.get());
+        result.tryEmitValue(42L);
+        assertEquals(42L, first.get());
+        assertEquals(42L, second.get());
+    }
+
+    @Test
+    public void testRun_startsAgainOnceFinished() {
+        ViewRebuild rebuilds = new ViewRebuild();
+        AtomicInteger started = new AtomicInteger();
+
+        rebuilds.run(() -> Mono.fromCallable(() -> (long) started.incrementAndGet())).block();
+
+        assertEquals(2L, rebuilds.run(() -> Mono.fromCallable(() -> (long) started.incrementAndGet())).block());
+    }
+
+    @Test
+    public void testRun_continuesWhenTheCallerCancels() {
+        ViewRebuild rebuilds = new ViewRebuild();
+        Sinks.One<Long> result = Sinks.one();
+        AtomicInteger cancelled = new AtomicInteger();
+
+        rebuilds.run(() -> result.asMono().doOnCancel(cancelled::incrementAndGet)).subscribe().dispose();
+        result.tryEmitValue(7L);
+
+        assertEquals(0, cancelled.get());
+        assertEquals(8L, rebuilds.run(() -> Mono.just(8L)).block());
+    }
+
+    @Test
+    public void testReplaceIfOlder_replacesOnlyEntriesOlderThanTheBuild() {
+        Instant buildTime = Instant.parse("2026-01-01T00:00:00Z");
+        Document replacement = new Document("_id", "SK00").append("updated_at", Date.from(buildTime));
+
+        Document stage = ViewRebuild.replaceIfOlder(replacement, buildTime);
+
+        List<?> branches = stage.get("$replaceWith", Document.class).getList("$cond", Object.class);
+        assertEquals(new Document("$lt", List.of("$updated_at", Date.from(buildTime))), branches.get(0));
+        assertEquals(new Document("$literal", replacement), branches.get(1));
+        assertEquals("$$ROOT", branches.get(2));
+    }
+}